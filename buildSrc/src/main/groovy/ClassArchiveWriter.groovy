@@ -0,0 +1,91 @@
+import groovy.io.FileType
+
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+/**
+ * Packs the .classdata files of the internal jars of the agent into a single archive sorted by
+ * name, see datadog.trace.bootstrap.ClassArchive for the layout, and stores it uncompressed in
+ * the agent jar so that the agent can map it instead of inflating each class from its own entry.
+ */
+class ClassArchiveWriter {
+  static final String ENTRY_NAME = 'agent.classarchive'
+  static final int MAGIC = (int) 0xDDCA0001L
+
+  private static final Comparator<byte[]> UNSIGNED_BYTES = { byte[] left, byte[] right ->
+    int length = Math.min(left.length, right.length)
+    for (int i = 0; i < length; ++i) {
+      int cmp = (left[i] & 0xFF) - (right[i] & 0xFF)
+      if (cmp != 0) {
+        return cmp
+      }
+    }
+    return left.length - right.length
+  } as Comparator<byte[]>
+
+  /** Writes the .classdata files found under root, named by their path relative to root */
+  static void write(File root, File archive) {
+    def files = new TreeMap<byte[], File>(UNSIGNED_BYTES)
+    root.eachFileRecurse(FileType.FILES) { File file ->
+      if (file.name.endsWith('.classdata')) {
+        def name = root.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/' as char)
+        files.put(name.getBytes('UTF-8'), file)
+      }
+    }
+    int nameOffset = 8 + files.size() * 16
+    int dataOffset = nameOffset + (files.keySet().sum(0) { byte[] name -> name.length } as int)
+    archive.parentFile.mkdirs()
+    archive.withDataOutputStream { out ->
+      out.writeInt(MAGIC)
+      out.writeInt(files.size())
+      files.each { byte[] name, File file ->
+        int length = file.length() as int
+        out.writeInt(nameOffset)
+        out.writeInt(name.length)
+        out.writeInt(dataOffset)
+        out.writeInt(length)
+        nameOffset += name.length
+        dataOffset += length
+      }
+      files.keySet().each { byte[] name -> out.write(name) }
+      files.values().each { File file -> file.withInputStream { out << it } }
+    }
+  }
+
+  /**
+   * Rewrites the jar with the archive as a stored entry. The .classdata entries stay in the jar, so
+   * that the agent can still load its classes from them if the archive can't be mapped.
+   */
+  static void addToJar(File jar, File archive) {
+    def rewritten = new File(jar.parentFile, "${jar.name}.tmp")
+    new ZipFile(jar).withCloseable { ZipFile zip ->
+      new ZipOutputStream(rewritten.newOutputStream()).withCloseable { ZipOutputStream out ->
+        zip.entries().each { ZipEntry entry ->
+          if (entry.name != ENTRY_NAME) {
+            def copy = new ZipEntry(entry.name)
+            copy.time = entry.time
+            out.putNextEntry(copy)
+            zip.getInputStream(entry).withCloseable { out << it }
+            out.closeEntry()
+          }
+        }
+        byte[] bytes = archive.bytes
+        def crc = new CRC32()
+        crc.update(bytes)
+        def entry = new ZipEntry(ENTRY_NAME)
+        entry.method = ZipEntry.STORED
+        entry.size = bytes.length
+        entry.compressedSize = bytes.length
+        entry.crc = crc.value
+        out.putNextEntry(entry)
+        out.write(bytes)
+        out.closeEntry()
+      }
+    }
+    Files.move(rewritten.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING)
+  }
+}
@@ -1,5 +1,6 @@
 package datadog.communication.serialization;
 
+import datadog.trace.bootstrap.instrumentation.api.CompositeTagValue;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import java.nio.ByteBuffer;
 import java.util.Map;
@@ -23,6 +24,8 @@ public interface Writable {
 
   void writeUTF8(UTF8BytesString string);
 
+  void writeUTF8(CompositeTagValue string);
+
   void writeBinary(byte[] binary);
 
   void writeBinary(byte[] binary, int offset, int length);
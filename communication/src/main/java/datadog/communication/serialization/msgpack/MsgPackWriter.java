@@ -8,6 +8,7 @@ import datadog.communication.serialization.Mapper;
 import datadog.communication.serialization.StreamingBuffer;
 import datadog.communication.serialization.ValueWriter;
 import datadog.communication.serialization.WritableFormatter;
+import datadog.trace.bootstrap.instrumentation.api.CompositeTagValue;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
@@ -123,6 +124,8 @@ public class MsgPackWriter implements WritableFormatter {
     // UTF8BytesString down this codepath at all
     if (value instanceof UTF8BytesString) {
       writeUTF8((UTF8BytesString) value);
+    } else if (value instanceof CompositeTagValue) {
+      writeUTF8((CompositeTagValue) value);
     } else if (null == value) {
       writeNull();
     } else {
@@ -138,6 +141,8 @@ public class MsgPackWriter implements WritableFormatter {
     // UTF8BytesString down this codepath at all
     if (value instanceof UTF8BytesString) {
       writeUTF8((UTF8BytesString) value);
+    } else if (value instanceof CompositeTagValue) {
+      writeUTF8((CompositeTagValue) value);
     } else if (null == value) {
       writeNull();
     } else {
@@ -177,6 +182,8 @@ public class MsgPackWriter implements WritableFormatter {
       }
       if (s instanceof UTF8BytesString) {
         writeUTF8((UTF8BytesString) s);
+      } else if (s instanceof CompositeTagValue) {
+        writeUTF8((CompositeTagValue) s);
       } else {
         writeUTF8(String.valueOf(s).getBytes(UTF_8));
       }
@@ -200,6 +207,19 @@ public class MsgPackWriter implements WritableFormatter {
     buffer.put(string.getUtf8Bytes());
   }
 
+  @Override
+  public void writeUTF8(CompositeTagValue string) {
+    writeStringHeader(string.encodedLength());
+    for (int i = 0; i < string.partCount(); ++i) {
+      CharSequence part = string.part(i);
+      if (part instanceof UTF8BytesString) {
+        buffer.put(((UTF8BytesString) part).getUtf8Bytes());
+      } else if (null != part) {
+        encodeUTF8(part);
+      }
+    }
+  }
+
   @Override
   public void writeBinary(byte[] binary) {
     writeBinaryHeader(binary.length);
@@ -551,6 +571,35 @@ public class MsgPackWriter implements WritableFormatter {
     }
   }
 
+  // must agree with CompositeTagValue.encodedLength
+  private void encodeUTF8(CharSequence s) {
+    int length = s.length();
+    for (int i = 0; i < length; ++i) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, s.charAt(++i));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogate, replaced like String.getBytes does
+        buffer.put((byte) '?');
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+  }
+
   void writeStringHeader(int length) {
     if (length < 0x10) {
       buffer.put((byte) (FIXSTR | length));
@@ -4,6 +4,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import datadog.communication.serialization.msgpack.MsgPackWriter;
+import datadog.trace.bootstrap.instrumentation.api.CompositeTagValue;
+import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -187,6 +189,43 @@ public class StringWritingTest {
     packer.flush();
   }
 
+  @Test
+  public void testSerialiseCompositeValues() {
+    MsgPackWriter packer =
+        new MsgPackWriter(
+            new FlushingBuffer(
+                TEN_KB,
+                new ByteBufferConsumer() {
+                  @Override
+                  public void accept(int messageCount, ByteBuffer buffer) {
+                    testBufferContents(buffer);
+                  }
+                }));
+    for (Map<String, String> map : maps) {
+      packer.format(
+          map,
+          new Mapper<Map<String, String>>() {
+            @Override
+            public void map(Map<String, String> m, Writable p) {
+              p.startMap(m.size());
+              for (Map.Entry<String, String> entry : m.entrySet()) {
+                String value = entry.getValue();
+                int codePoints = value.codePointCount(0, value.length());
+                int split = value.offsetByCodePoints(0, codePoints / 2);
+                p.writeString(entry.getKey(), NO_CACHE);
+                p.writeObjectString(
+                    CompositeTagValue.of(
+                        value.substring(0, split),
+                        null,
+                        UTF8BytesString.create(value.substring(split))),
+                    NO_CACHE);
+              }
+            }
+          });
+    }
+    packer.flush();
+  }
+
   private void testBufferContents(ByteBuffer buffer) {
     try {
       MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(buffer);
@@ -0,0 +1,77 @@
+package datadog.trace.bootstrap;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.sql.Statement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Cost of the increment/reset pair an advice performs around an intercepted method, with a
+ * ClassValue and a ThreadLocal per key (the previous implementation), with a class key mapped to a
+ * slot, and with a reserved slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(1)
+@Threads(4)
+public class CallDepthBenchmark {
+
+  @Benchmark
+  public int classValueAndThreadLocalPerKey() {
+    int depth = ThreadLocalPerKey.incrementCallDepth(Statement.class);
+    ThreadLocalPerKey.reset(Statement.class);
+    return depth;
+  }
+
+  @Benchmark
+  public int classKeyToSlot() {
+    int depth = CallDepthThreadLocalMap.incrementCallDepth(Statement.class);
+    CallDepthThreadLocalMap.reset(Statement.class);
+    return depth;
+  }
+
+  @Benchmark
+  public int reservedSlot() {
+    int depth = CallDepthThreadLocalMap.incrementCallDepth(CallDepthThreadLocalMap.JDBC_STATEMENT);
+    CallDepthThreadLocalMap.reset(CallDepthThreadLocalMap.JDBC_STATEMENT);
+    return depth;
+  }
+
+  /** The call-depth tracking this benchmark compares against. */
+  static final class ThreadLocalPerKey {
+    private static final ClassValue<ThreadLocalDepth> TLS =
+        new ClassValue<ThreadLocalDepth>() {
+          @Override
+          protected ThreadLocalDepth computeValue(Class<?> type) {
+            return new ThreadLocalDepth();
+          }
+        };
+
+    static int incrementCallDepth(final Class<?> k) {
+      return TLS.get(k).get().depth++;
+    }
+
+    static void reset(final Class<?> k) {
+      TLS.get(k).get().depth = 0;
+    }
+
+    static final class Depth {
+      int depth;
+    }
+
+    static final class ThreadLocalDepth extends ThreadLocal<Depth> {
+      @Override
+      protected Depth initialValue() {
+        return new Depth();
+      }
+    }
+  }
+}
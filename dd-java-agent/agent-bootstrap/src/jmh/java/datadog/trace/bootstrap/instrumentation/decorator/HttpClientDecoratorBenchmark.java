@@ -0,0 +1,128 @@
+package datadog.trace.bootstrap.instrumentation.decorator;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.api.Config;
+import datadog.trace.api.FrozenConfig;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import java.net.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of the settings checked by the client decorator for each request, read from the global
+ * {@link Config} (the previous implementation) and from the {@link FrozenConfig}, and of the whole
+ * request decoration and the database connection decoration which now read the {@link
+ * FrozenConfig}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {
+      "-Ddd.trace.http.client.split-by-domain=true",
+      "-Ddd.http.client.tag.query-string=true",
+      "-Ddd.trace.db.client.split-by-instance=true"
+    })
+public class HttpClientDecoratorBenchmark {
+
+  private final URI uri = URI.create("http://localhost:8080/api/v1/users/1234/orders?page=2");
+  private final Decorator decorator = new Decorator();
+  private final DbDecorator dbDecorator = new DbDecorator();
+  private final AgentSpan span = new HttpServerDecoratorBenchmark.UrlRecorder().span;
+
+  @Benchmark
+  public boolean configFlags() {
+    return Config.get().isHttpClientSplitByDomain() && Config.get().isHttpClientTagQueryString();
+  }
+
+  @Benchmark
+  public boolean frozenFlags() {
+    return FrozenConfig.isHttpClientSplitByDomain() && FrozenConfig.isHttpClientTagQueryString();
+  }
+
+  @Benchmark
+  public AgentSpan onRequest() {
+    return decorator.onRequest(span, uri);
+  }
+
+  @Benchmark
+  public AgentSpan onConnection() {
+    return dbDecorator.onConnection(span, uri);
+  }
+
+  static final class Decorator extends HttpClientDecorator<URI, Void> {
+    @Override
+    protected String[] instrumentationNames() {
+      return new String[] {"benchmark"};
+    }
+
+    @Override
+    protected CharSequence component() {
+      return "benchmark";
+    }
+
+    @Override
+    protected String method(URI request) {
+      return "GET";
+    }
+
+    @Override
+    protected URI url(URI request) {
+      return request;
+    }
+
+    @Override
+    protected int status(Void response) {
+      return 0;
+    }
+  }
+
+  static final class DbDecorator extends DatabaseClientDecorator<URI> {
+    @Override
+    protected String[] instrumentationNames() {
+      return new String[] {"benchmark"};
+    }
+
+    @Override
+    protected CharSequence component() {
+      return "benchmark";
+    }
+
+    @Override
+    protected CharSequence spanType() {
+      return "sql";
+    }
+
+    @Override
+    protected String service() {
+      return "benchmark";
+    }
+
+    @Override
+    protected String dbType() {
+      return "benchmark";
+    }
+
+    @Override
+    protected String dbUser(URI connection) {
+      return connection.getUserInfo();
+    }
+
+    @Override
+    protected String dbInstance(URI connection) {
+      return connection.getPath();
+    }
+
+    @Override
+    protected CharSequence dbHostname(URI connection) {
+      return connection.getHost();
+    }
+  }
+}
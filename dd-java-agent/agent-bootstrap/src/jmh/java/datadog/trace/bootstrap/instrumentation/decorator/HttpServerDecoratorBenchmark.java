@@ -0,0 +1,156 @@
+package datadog.trace.bootstrap.instrumentation.decorator;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.communication.serialization.GrowableBuffer;
+import datadog.communication.serialization.msgpack.MsgPackWriter;
+import datadog.trace.bootstrap.instrumentation.api.AgentPropagation;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.bootstrap.instrumentation.api.Tags;
+import datadog.trace.bootstrap.instrumentation.api.URIDataAdapter;
+import datadog.trace.bootstrap.instrumentation.api.URIDefaultDataAdapter;
+import datadog.trace.bootstrap.instrumentation.api.URIUtils;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Cost of tagging a server span with its URL, eagerly concatenated (the previous implementation)
+ * and with a lazy composite value, when the span is dropped and when it is sampled and its URL
+ * serialized. {@code onRequest} measures the whole request decoration with the lazy value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(1)
+public class HttpServerDecoratorBenchmark {
+
+  private final URI uri = URI.create("http://localhost:8080/api/v1/users/1234/orders?page=2");
+  private final URIDataAdapter url = new URIDefaultDataAdapter(uri);
+  private final Decorator decorator = new Decorator();
+  private final UrlRecorder recorder = new UrlRecorder();
+  private final GrowableBuffer buffer = new GrowableBuffer(1024);
+  private final MsgPackWriter writer = new MsgPackWriter(buffer);
+
+  @Benchmark
+  public CharSequence eagerUrlDropped() {
+    return URIUtils.buildURL(url.scheme(), url.host(), url.port(), url.path());
+  }
+
+  @Benchmark
+  public CharSequence lazyUrlDropped() {
+    return URIUtils.lazyURL(url.scheme(), url.host(), url.port(), url.path());
+  }
+
+  @Benchmark
+  public void eagerUrlSampled() {
+    serialize(URIUtils.buildURL(url.scheme(), url.host(), url.port(), url.path()));
+  }
+
+  @Benchmark
+  public void lazyUrlSampled() {
+    serialize(URIUtils.lazyURL(url.scheme(), url.host(), url.port(), url.path()));
+  }
+
+  @Benchmark
+  public CharSequence onRequestDropped() {
+    decorator.onRequest(recorder.span, null, uri, null);
+    return recorder.url;
+  }
+
+  @Benchmark
+  public void onRequestSampled() {
+    decorator.onRequest(recorder.span, null, uri, null);
+    serialize(recorder.url);
+  }
+
+  private void serialize(CharSequence value) {
+    buffer.reset();
+    writer.writeObjectString(value, null);
+  }
+
+  /** Keeps the URL tag, and otherwise behaves like a span which does nothing. */
+  static final class UrlRecorder implements InvocationHandler {
+    final AgentSpan span =
+        (AgentSpan)
+            Proxy.newProxyInstance(
+                AgentSpan.class.getClassLoader(), new Class<?>[] {AgentSpan.class}, this);
+    CharSequence url;
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      if ("setTag".equals(method.getName()) && Tags.HTTP_URL.equals(args[0])) {
+        url = (CharSequence) args[1];
+      }
+      Class<?> returnType = method.getReturnType();
+      if (returnType.isInstance(proxy)) {
+        return proxy;
+      }
+      if (returnType.isPrimitive() && returnType != void.class) {
+        return Array.get(Array.newInstance(returnType, 1), 0);
+      }
+      return null;
+    }
+  }
+
+  static final class Decorator extends HttpServerDecorator<URI, Void, Void, Void> {
+    @Override
+    protected String[] instrumentationNames() {
+      return new String[] {"benchmark"};
+    }
+
+    @Override
+    protected CharSequence component() {
+      return "benchmark";
+    }
+
+    @Override
+    protected AgentPropagation.ContextVisitor<Void> getter() {
+      return null;
+    }
+
+    @Override
+    protected AgentPropagation.ContextVisitor<Void> responseGetter() {
+      return null;
+    }
+
+    @Override
+    public CharSequence spanName() {
+      return "servlet.request";
+    }
+
+    @Override
+    protected String method(URI request) {
+      return "GET";
+    }
+
+    @Override
+    protected URIDataAdapter url(URI request) {
+      return new URIDefaultDataAdapter(request);
+    }
+
+    @Override
+    protected String peerHostIP(Void connection) {
+      return null;
+    }
+
+    @Override
+    protected int peerPort(Void connection) {
+      return 0;
+    }
+
+    @Override
+    protected int status(Void response) {
+      return 0;
+    }
+  }
+}
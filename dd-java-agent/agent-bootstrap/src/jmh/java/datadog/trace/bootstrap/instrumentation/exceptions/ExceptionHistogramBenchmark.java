@@ -0,0 +1,80 @@
+package datadog.trace.bootstrap.instrumentation.exceptions;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.api.Config;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import jdk.jfr.Recording;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Cost of counting an exception from many threads, in a map of type names to atomic counters (the
+ * previous implementation) and in the {@linkplain ExceptionHistogram}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(1)
+@Threads(8)
+public class ExceptionHistogramBenchmark {
+
+  private static final Throwable[] EXCEPTIONS = {
+    new IllegalArgumentException(),
+    new IllegalStateException(),
+    new NullPointerException(),
+    new UnsupportedOperationException(),
+    new NumberFormatException(),
+    new ArrayIndexOutOfBoundsException(),
+    new ClassCastException(),
+    new ArithmeticException()
+  };
+
+  Recording recording;
+  ExceptionHistogram histogram;
+  final Map<String, AtomicLong> byName = new ConcurrentHashMap<>();
+
+  @Setup(Level.Trial)
+  public void setup() {
+    recording = new Recording();
+    recording.enable("datadog.ExceptionCount");
+    recording.start();
+    histogram = new ExceptionHistogram(Config.get());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    histogram.deregister();
+    recording.close();
+  }
+
+  @Benchmark
+  public boolean recordByTypeName() {
+    Throwable exception = nextException();
+    return byName
+            .computeIfAbsent(exception.getClass().getName(), k -> new AtomicLong())
+            .getAndIncrement()
+        == 0;
+  }
+
+  @Benchmark
+  public boolean recordByClassValue() {
+    return histogram.record(nextException());
+  }
+
+  private static Throwable nextException() {
+    return EXCEPTIONS[ThreadLocalRandom.current().nextInt(EXCEPTIONS.length)];
+  }
+}
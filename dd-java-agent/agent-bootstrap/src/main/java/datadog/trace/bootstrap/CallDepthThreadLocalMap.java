@@ -1,54 +1,123 @@
 package datadog.trace.bootstrap;
 
-import datadog.trace.api.GenericClassValue;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Utility to track nested instrumentation.
  *
  * <p>For example, this can be used to track nested calls to super() in constructors by calling
  * #incrementCallDepth at the beginning of each constructor.
+ *
+ * <p>Each key is mapped to a slot in a single per-thread array of depths. Hot instrumentations use
+ * one of the reserved slot constants below, which are compiled into the advice, so tracking the
+ * call depth costs one thread-local read and an array access. Other keys are classes, which are
+ * assigned the next free slot the first time they are used.
+ *
+ * <p>The depths of a thread are only allocated once a call depth is first incremented on it, and
+ * start out just large enough for the slots assigned so far, which matters when there are millions
+ * of virtual threads.
  */
 public class CallDepthThreadLocalMap {
 
-  private static final ClassValue<ThreadLocalDepth> TLS =
-      GenericClassValue.constructing(ThreadLocalDepth.class);
+  public static final int THROWABLE = 0;
+  public static final int JDBC_STATEMENT = 1;
+  public static final int APACHE_HTTP_CLIENT = 2;
+  public static final int APACHE_HTTP_CLIENT_5 = 3;
+  public static final int COMMONS_HTTP_CLIENT = 4;
+  public static final int HTTP_URL_CONNECTION = 5;
+
+  private static final int RESERVED_SLOTS = 6;
+
+  private static final AtomicInteger NEXT_SLOT = new AtomicInteger(RESERVED_SLOTS);
+
+  private static final ClassValue<Integer> SLOTS =
+      new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(final Class<?> type) {
+          return NEXT_SLOT.getAndIncrement();
+        }
+      };
+
+  private static final ThreadLocal<Depths> TLS = new ThreadLocal<>();
 
   public static int incrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().increment();
+    return incrementCallDepth(SLOTS.get(k));
+  }
+
+  public static int incrementCallDepth(final int slot) {
+    Depths depths = TLS.get();
+    if (null == depths) {
+      depths = new Depths();
+      TLS.set(depths);
+    }
+    return depths.increment(slot);
   }
 
   public static int getCallDepth(final Class<?> k) {
-    return TLS.get(k).get().depth;
+    return getCallDepth(SLOTS.get(k));
+  }
+
+  public static int getCallDepth(final int slot) {
+    Depths depths = TLS.get();
+    return null != depths ? depths.get(slot) : 0;
   }
 
   public static int decrementCallDepth(final Class<?> k) {
-    return TLS.get(k).get().decrement();
+    return decrementCallDepth(SLOTS.get(k));
+  }
+
+  public static int decrementCallDepth(final int slot) {
+    Depths depths = TLS.get();
+    if (null == depths) {
+      // unbalanced decrement, as if the depth had been 0
+      depths = new Depths();
+      TLS.set(depths);
+    }
+    return depths.decrement(slot);
   }
 
   public static void reset(final Class<?> k) {
-    TLS.get(k).get().depth = 0;
+    reset(SLOTS.get(k));
+  }
+
+  public static void reset(final int slot) {
+    Depths depths = TLS.get();
+    if (null != depths) {
+      depths.reset(slot);
+    }
   }
 
-  private static final class Depth {
-    private int depth;
+  private static final class Depths {
+    private int[] depths;
 
-    private Depth() {
-      this.depth = 0;
+    private Depths() {
+      this.depths = new int[NEXT_SLOT.get()];
     }
 
-    private int increment() {
-      return this.depth++;
+    private int increment(final int slot) {
+      return slotted(slot)[slot]++;
     }
 
-    private int decrement() {
-      return --this.depth;
+    private int decrement(final int slot) {
+      return --slotted(slot)[slot];
+    }
+
+    private int get(final int slot) {
+      return slot < depths.length ? depths[slot] : 0;
+    }
+
+    private void reset(final int slot) {
+      if (slot < depths.length) {
+        depths[slot] = 0;
+      }
     }
-  }
 
-  public static final class ThreadLocalDepth extends ThreadLocal<Depth> {
-    @Override
-    protected Depth initialValue() {
-      return new Depth();
+    private int[] slotted(final int slot) {
+      if (slot >= depths.length) {
+        depths = Arrays.copyOf(depths, Math.max(slot + 1, depths.length * 2));
+      }
+      return depths;
     }
   }
 }
@@ -0,0 +1,263 @@
+package datadog.trace.bootstrap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only view of the class archive packaged in the agent jar by the build as a single stored
+ * (uncompressed) entry, so that the archive can be mapped straight from the jar. The archive holds
+ * the {@code .classdata} entries of the internal jars, and starts with a table of name and data
+ * offsets sorted by name:
+ *
+ * <pre>
+ *   int magic, int count,
+ *   count * (int nameOffset, int nameLength, int dataOffset, int dataLength),
+ *   names (UTF8), data
+ * </pre>
+ *
+ * Offsets are relative to the start of the archive, and all ints are big-endian. Looking up a
+ * class is a binary search over the mapped table, and reading it doesn't need any inflation.
+ *
+ * <p>This class is thread safe.
+ */
+final class ClassArchive {
+
+  static final String ENTRY_NAME = "agent.classarchive";
+
+  static final int MAGIC = 0xDDCA0001;
+
+  private static final int HEADER_SIZE = 8;
+  private static final int INDEX_ENTRY_SIZE = 16;
+
+  // see https://pkware.cachefly.net/webdocs/casestudies/APPNOTE.TXT
+  private static final int END_OF_CENTRAL_DIRECTORY = 0x06054b50;
+  private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY = 0x06064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR = 0x07064b50;
+  private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE = 20;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int CENTRAL_DIRECTORY_ENTRY = 0x02014b50;
+  private static final int CENTRAL_DIRECTORY_ENTRY_SIZE = 46;
+  private static final int LOCAL_HEADER = 0x04034b50;
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+  private static final int STORED = 0;
+
+  private final ByteBuffer archive;
+  private final int count;
+
+  private ClassArchive(ByteBuffer archive) {
+    this.archive = archive;
+    this.count = archive.getInt(4);
+  }
+
+  /**
+   * Maps the archive stored in the given jar.
+   *
+   * @return the archive, or {@code null} if the jar has no archive or it isn't stored uncompressed
+   */
+  static ClassArchive open(File jar) throws IOException {
+    try (RandomAccessFile file = new RandomAccessFile(jar, "r");
+        FileChannel channel = file.getChannel()) {
+      long dataOffset = findStoredEntry(channel, ENTRY_NAME);
+      if (dataOffset < 0) {
+        return null;
+      }
+      int size = (int) (dataOffset >>> 32);
+      long offset = dataOffset & 0xFFFFFFFFL;
+      // the mapping stays valid once the channel is closed
+      MappedByteBuffer archive = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+      if (size < HEADER_SIZE || archive.getInt(0) != MAGIC) {
+        throw new IOException("Corrupt class archive in " + jar);
+      }
+      return new ClassArchive(archive);
+    }
+  }
+
+  /** @return the number of entries in the archive */
+  int size() {
+    return count;
+  }
+
+  /**
+   * @param name the name of the entry in the agent jar, e.g. {@code inst/a/b/C.classdata}
+   * @return the content of the entry, or {@code null} if it isn't in the archive
+   */
+  ByteBuffer find(String name) {
+    byte[] key = name.getBytes(UTF_8);
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int entry = HEADER_SIZE + mid * INDEX_ENTRY_SIZE;
+      int cmp = compare(archive.getInt(entry), archive.getInt(entry + 4), key);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        ByteBuffer data = archive.duplicate();
+        int dataOffset = archive.getInt(entry + 8);
+        data.limit(dataOffset + archive.getInt(entry + 12));
+        data.position(dataOffset);
+        return data.slice();
+      }
+    }
+    return null;
+  }
+
+  private int compare(int nameOffset, int nameLength, byte[] key) {
+    int length = Math.min(nameLength, key.length);
+    for (int i = 0; i < length; ++i) {
+      int cmp = (archive.get(nameOffset + i) & 0xFF) - (key[i] & 0xFF);
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return nameLength - key.length;
+  }
+
+  /**
+   * Finds a stored entry through the central directory of the jar, which lets us locate the data
+   * of the entry in the jar file itself, something {@code JarFile} doesn't expose.
+   *
+   * @return the size of the entry in the high 32 bits and the offset of its data in the low 32
+   *     bits, or -1 if the entry is missing or compressed
+   */
+  private static long findStoredEntry(FileChannel channel, String name) throws IOException {
+    long fileSize = channel.size();
+    int tailSize = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_LENGTH);
+    ByteBuffer tail = read(channel, fileSize - tailSize, tailSize);
+    int end = -1;
+    for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; --i) {
+      if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY) {
+        end = i;
+        break;
+      }
+    }
+    if (end < 0) {
+      return -1;
+    }
+    long directorySize = tail.getInt(end + 12) & 0xFFFFFFFFL;
+    long directoryOffset = tail.getInt(end + 16) & 0xFFFFFFFFL;
+    // jars with 65535 entries or more record the real directory bounds in a zip64 record, which
+    // a locator right before the end of central directory record points to
+    int locator = end - ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR_SIZE;
+    if (locator >= 0 && tail.getInt(locator) == ZIP64_END_OF_CENTRAL_DIRECTORY_LOCATOR) {
+      ByteBuffer zip64End =
+          read(channel, tail.getLong(locator + 8), ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE);
+      if (zip64End.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY) {
+        throw new IOException("Corrupt zip64 end of central directory");
+      }
+      directorySize = zip64End.getLong(40);
+      directoryOffset = zip64End.getLong(48);
+    }
+    if (directorySize > Integer.MAX_VALUE) {
+      throw new IOException("Central directory too large: " + directorySize);
+    }
+    ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+    byte[] key = name.getBytes(UTF_8);
+    // walk the whole directory rather than trusting the entry count, which saturates at 65535
+    int position = 0;
+    while (position + CENTRAL_DIRECTORY_ENTRY_SIZE <= directory.limit()) {
+      if (directory.getInt(position) != CENTRAL_DIRECTORY_ENTRY) {
+        return -1;
+      }
+      int nameLength = directory.getShort(position + 28) & 0xFFFF;
+      int extraLength = directory.getShort(position + 30) & 0xFFFF;
+      int commentLength = directory.getShort(position + 32) & 0xFFFF;
+      if (nameLength == key.length
+          && matches(directory, position + CENTRAL_DIRECTORY_ENTRY_SIZE, key)) {
+        if ((directory.getShort(position + 10) & 0xFFFF) != STORED) {
+          return -1;
+        }
+        long size = directory.getInt(position + 24) & 0xFFFFFFFFL;
+        long headerOffset = directory.getInt(position + 42) & 0xFFFFFFFFL;
+        if (size == ZIP64_MAGIC || headerOffset == ZIP64_MAGIC) {
+          // past 4GB, which the size and offset packed in the result can't represent anyway
+          return -1;
+        }
+        ByteBuffer header = read(channel, headerOffset, LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER) {
+          return -1;
+        }
+        long dataOffset =
+            headerOffset
+                + LOCAL_HEADER_SIZE
+                + (header.getShort(26) & 0xFFFF)
+                + (header.getShort(28) & 0xFFFF);
+        return size << 32 | dataOffset;
+      }
+      position += CENTRAL_DIRECTORY_ENTRY_SIZE + nameLength + extraLength + commentLength;
+    }
+    return -1;
+  }
+
+  private static boolean matches(ByteBuffer buffer, int offset, byte[] key) {
+    for (int i = 0; i < key.length; ++i) {
+      if (buffer.get(offset + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static ByteBuffer read(FileChannel channel, long position, int size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of jar");
+      }
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  /** Reads an entry straight from the mapped archive. */
+  static final class EntryInputStream extends InputStream {
+    private final ByteBuffer entry;
+
+    EntryInputStream(ByteBuffer entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public int read() {
+      return entry.hasRemaining() ? entry.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      if (!entry.hasRemaining()) {
+        return -1;
+      }
+      int read = Math.min(length, entry.remaining());
+      entry.get(bytes, offset, read);
+      return read;
+    }
+
+    @Override
+    public long skip(long n) {
+      int skipped = (int) Math.max(0, Math.min(n, entry.remaining()));
+      entry.position(entry.position() + skipped);
+      return skipped;
+    }
+
+    @Override
+    public int available() {
+      return entry.remaining();
+    }
+  }
+}
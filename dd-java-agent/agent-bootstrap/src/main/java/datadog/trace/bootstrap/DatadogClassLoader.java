@@ -54,7 +54,10 @@ public class DatadogClassLoader extends URLClassLoader {
     this.classLoaderName = null == internalJarFileName ? "datadog" : internalJarFileName;
     this.internalJarURLHandler =
         new InternalJarURLHandler(
-            internalJarFileName, jarIndex.index.get(internalJarFileName), jarIndex.jarFile);
+            internalJarFileName,
+            jarIndex.index.get(internalJarFileName),
+            jarIndex.jarFile,
+            jarIndex.classArchive);
     try {
       // The fields of the URL are mostly dummy.  InternalJarURLHandler is the only important
       // field.  If extending this class from Classloader instead of URLClassloader required less
@@ -199,13 +202,17 @@ public class DatadogClassLoader extends URLClassLoader {
   static final class JarIndex {
     private final HashMap<String, Set<String>> index;
     private final JarFile jarFile;
+    private final ClassArchive classArchive;
 
     private JarIndex(URL location) {
       this.index = new HashMap<>();
       JarFile jarFile = null;
+      ClassArchive classArchive = null;
       try {
         if (location != null) {
-          jarFile = new JarFile(new File(location.toURI()), false);
+          File file = new File(location.toURI());
+          jarFile = new JarFile(file, false);
+          classArchive = openClassArchive(file);
           String currentFilePrefix = "$";
           int prefixLength = Integer.MAX_VALUE;
           Set<String> packages = null;
@@ -233,6 +240,17 @@ public class DatadogClassLoader extends URLClassLoader {
         log.error("Unable to read internal jar", e);
       }
       this.jarFile = jarFile;
+      this.classArchive = classArchive;
+    }
+
+    private static ClassArchive openClassArchive(File file) {
+      try {
+        return ClassArchive.open(file);
+      } catch (final IOException | RuntimeException e) {
+        // the classes are still in their own jar entries
+        log.error("Unable to map class archive, reading classes from the jar instead", e);
+        return null;
+      }
     }
 
     public Set<String> getPackages(String namespace) {
@@ -242,5 +260,9 @@ public class DatadogClassLoader extends URLClassLoader {
     public JarFile getJarFile() {
       return jarFile;
     }
+
+    ClassArchive getClassArchive() {
+      return classArchive;
+    }
   }
 }
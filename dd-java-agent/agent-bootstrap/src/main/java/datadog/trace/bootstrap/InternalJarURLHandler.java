@@ -8,6 +8,7 @@ import java.lang.ref.WeakReference;
 import java.net.URL;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
 import java.security.Permission;
 import java.util.Set;
 import java.util.jar.JarEntry;
@@ -21,14 +22,24 @@ public class InternalJarURLHandler extends URLStreamHandler {
   private final FileNotInInternalJar notFound;
   private final Set<String> packages;
   private final JarFile bootstrapJarFile;
+  private final ClassArchive classArchive;
 
   private WeakReference<Pair<String, JarEntry>> cache = NULL;
 
   InternalJarURLHandler(String internalJarFileName, Set<String> packages, JarFile jarFile) {
+    this(internalJarFileName, packages, jarFile, null);
+  }
+
+  InternalJarURLHandler(
+      String internalJarFileName,
+      Set<String> packages,
+      JarFile jarFile,
+      ClassArchive classArchive) {
     this.name = internalJarFileName;
     this.notFound = new FileNotInInternalJar(internalJarFileName);
     this.packages = packages;
     this.bootstrapJarFile = jarFile;
+    this.classArchive = classArchive;
   }
 
   Set<String> getPackages() {
@@ -49,6 +60,13 @@ public class InternalJarURLHandler extends URLStreamHandler {
       // nullInputStream() is not available until Java 11
       return new InternalJarURLConnection(url, new ByteArrayInputStream(new byte[0]), 0);
     }
+    if (null != classArchive && filename.endsWith(".class")) {
+      ByteBuffer classData = classArchive.find(this.name + filename + "data");
+      if (null != classData) {
+        return new InternalJarURLConnection(
+            url, new ClassArchive.EntryInputStream(classData), classData.remaining());
+      }
+    }
     // believe it or not, we're going to get called twice for this,
     // and the key will be a new object each time.
     Pair<String, JarEntry> pair = cache.get();
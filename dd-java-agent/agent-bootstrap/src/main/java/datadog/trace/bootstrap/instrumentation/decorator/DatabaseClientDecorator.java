@@ -2,7 +2,7 @@ package datadog.trace.bootstrap.instrumentation.decorator;
 
 import static datadog.trace.bootstrap.instrumentation.api.Tags.DB_TYPE;
 
-import datadog.trace.api.Config;
+import datadog.trace.api.FrozenConfig;
 import datadog.trace.api.Functions;
 import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
@@ -40,9 +40,9 @@ public abstract class DatabaseClientDecorator<CONNECTION> extends ClientDecorato
       final String instanceName = dbInstance(connection);
       span.setTag(Tags.DB_INSTANCE, instanceName);
 
-      if (instanceName != null && Config.get().isDbClientSplitByInstance()) {
+      if (instanceName != null && FrozenConfig.isDbClientSplitByInstance()) {
         span.setServiceName(
-            Config.get().isDbClientSplitByInstanceTypeSuffix()
+            FrozenConfig.isDbClientSplitByInstanceTypeSuffix()
                 ? instanceName + "-" + dbType()
                 : instanceName);
       }
@@ -5,6 +5,7 @@ import static datadog.trace.bootstrap.instrumentation.decorator.http.HttpResourc
 
 import datadog.trace.api.Config;
 import datadog.trace.api.DDTags;
+import datadog.trace.api.FrozenConfig;
 import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
 import datadog.trace.bootstrap.instrumentation.api.InternalSpanTypes;
 import datadog.trace.bootstrap.instrumentation.api.Tags;
@@ -56,10 +57,10 @@ public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecor
           String host = url.getHost();
           String path = url.getPath();
           int port = url.getPort();
-          span.setTag(Tags.HTTP_URL, URIUtils.buildURL(url.getScheme(), host, port, path));
+          span.setTag(Tags.HTTP_URL, URIUtils.lazyURL(url.getScheme(), host, port, path));
           if (null != host && !host.isEmpty()) {
             span.setTag(Tags.PEER_HOSTNAME, host);
-            if (Config.get().isHttpClientSplitByDomain() && host.charAt(0) >= 'A') {
+            if (FrozenConfig.isHttpClientSplitByDomain() && host.charAt(0) >= 'A') {
               span.setServiceName(host);
             }
             if (port > 0) {
@@ -67,7 +68,7 @@ public abstract class HttpClientDecorator<REQUEST, RESPONSE> extends ClientDecor
             }
           }
 
-          if (Config.get().isHttpClientTagQueryString()) {
+          if (FrozenConfig.isHttpClientTagQueryString()) {
             span.setTag(DDTags.HTTP_QUERY, url.getQuery());
             span.setTag(DDTags.HTTP_FRAGMENT, url.getFragment());
           }
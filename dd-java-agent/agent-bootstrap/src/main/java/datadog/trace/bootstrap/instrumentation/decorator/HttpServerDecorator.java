@@ -7,6 +7,7 @@ import static datadog.trace.bootstrap.instrumentation.decorator.http.HttpResourc
 
 import datadog.trace.api.Config;
 import datadog.trace.api.DDTags;
+import datadog.trace.api.FrozenConfig;
 import datadog.trace.api.function.*;
 import datadog.trace.api.function.Function;
 import datadog.trace.api.gateway.CallbackProvider;
@@ -132,21 +133,22 @@ public abstract class HttpServerDecorator<REQUEST, CONNECTION, RESPONSE, REQUEST
       try {
         final URIDataAdapter url = url(request);
         if (url != null) {
-          Config config = Config.get();
           boolean supportsRaw = url.supportsRaw();
-          boolean encoded = supportsRaw && config.isHttpServerRawResource();
+          boolean encoded = supportsRaw && FrozenConfig.isHttpServerRawResource();
           String path = encoded ? url.rawPath() : url.path();
 
-          span.setTag(Tags.HTTP_URL, URIUtils.buildURL(url.scheme(), url.host(), url.port(), path));
+          span.setTag(Tags.HTTP_URL, URIUtils.lazyURL(url.scheme(), url.host(), url.port(), path));
           if (context != null && context.getForwardedHost() != null) {
             span.setTag(Tags.HTTP_HOSTNAME, context.getForwardedHost());
           } else if (url.host() != null) {
             span.setTag(Tags.HTTP_HOSTNAME, url.host());
           }
 
-          if (config.isHttpServerTagQueryString()) {
+          if (FrozenConfig.isHttpServerTagQueryString()) {
             String query =
-                supportsRaw && config.isHttpServerRawQueryString() ? url.rawQuery() : url.query();
+                supportsRaw && FrozenConfig.isHttpServerRawQueryString()
+                    ? url.rawQuery()
+                    : url.query();
             span.setTag(DDTags.HTTP_QUERY, query);
             span.setTag(DDTags.HTTP_FRAGMENT, url.fragment());
           }
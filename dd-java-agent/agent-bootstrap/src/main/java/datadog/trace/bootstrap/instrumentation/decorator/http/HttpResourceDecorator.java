@@ -1,6 +1,7 @@
 package datadog.trace.bootstrap.instrumentation.decorator.http;
 
 import datadog.trace.api.Config;
+import datadog.trace.api.FrozenConfig;
 import datadog.trace.api.Pair;
 import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
@@ -90,7 +91,7 @@ public class HttpResourceDecorator {
       routeTag = URIUtils.decode(route.toString());
     }
     span.setTag(Tags.HTTP_ROUTE, routeTag);
-    if (Config.get().isHttpServerRouteBasedNaming()) {
+    if (FrozenConfig.isHttpServerRouteBasedNaming()) {
       final CharSequence resourceName =
           RESOURCE_NAME_CACHE.computeIfAbsent(Pair.of(method, route), RESOURCE_NAME_JOINER);
       span.setResourceName(resourceName, ResourceNamePriorities.HTTP_FRAMEWORK_ROUTE);
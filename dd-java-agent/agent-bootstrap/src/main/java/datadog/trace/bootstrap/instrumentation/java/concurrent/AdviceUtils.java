@@ -65,14 +65,40 @@ public class AdviceUtils {
       ContextStore<T, State> contextStore, T task, boolean startThreadMigration) {
     AgentScope activeScope = activeScope();
     if (null != activeScope && activeScope.isAsyncPropagating()) {
-      State state = contextStore.get(task);
-      if (null == state) {
-        state = State.FACTORY.create();
-        contextStore.put(task, state);
-      }
-      if (state.captureAndSetContinuation(activeScope) && startThreadMigration) {
-        state.startThreadMigration();
-      }
+      captureScope(contextStore, task, activeScope, startThreadMigration);
+    }
+  }
+
+  /**
+   * Captures the active scope for the task unless the task type is excluded. The exclusion check
+   * is only made once we know there is a scope to propagate, so tasks submitted outside of a trace
+   * only pay for the active scope lookup.
+   */
+  public static <T> void capture(
+      ContextStore<T, State> contextStore,
+      T task,
+      ExcludeFilter.ExcludeType excludeType,
+      boolean startThreadMigration) {
+    AgentScope activeScope = activeScope();
+    if (null != activeScope
+        && activeScope.isAsyncPropagating()
+        && !ExcludeFilter.exclude(excludeType, task)) {
+      captureScope(contextStore, task, activeScope, startThreadMigration);
+    }
+  }
+
+  private static <T> void captureScope(
+      ContextStore<T, State> contextStore,
+      T task,
+      AgentScope activeScope,
+      boolean startThreadMigration) {
+    State state = contextStore.get(task);
+    if (null == state) {
+      state = State.FACTORY.create();
+      contextStore.put(task, state);
+    }
+    if (state.captureAndSetContinuation(activeScope) && startThreadMigration) {
+      state.startThreadMigration();
     }
   }
 }
@@ -22,17 +22,27 @@ public final class ExecutorInstrumentationUtils {
    * @return true iff given task object should be wrapped
    */
   public static boolean shouldAttachStateToTask(final Object task, final Executor executor) {
-    if (task == null) {
-      return false;
-    }
+    return task != null && shouldAttachStateToTask(task, executor, activeScope());
+  }
 
-    if (ExcludeFilter.exclude(ExcludeType.EXECUTOR, task)) {
+  /**
+   * Checks if given task should get state attached, when the caller has already looked up the
+   * active scope. Tasks submitted without an async propagating scope are rejected before the
+   * (per-class cached) exclusion check, which keeps the overhead for context-free tasks to a
+   * minimum.
+   *
+   * @param task task object
+   * @param executor executor this task was scheduled on
+   * @param scope the currently active scope, may be null
+   * @return true iff given task object should be wrapped
+   */
+  public static boolean shouldAttachStateToTask(
+      final Object task, final Executor executor, final AgentScope scope) {
+    if (scope == null || !scope.isAsyncPropagating() || task == null) {
       return false;
     }
 
-    final AgentScope scope = activeScope();
-
-    return scope != null && scope.isAsyncPropagating();
+    return !ExcludeFilter.exclude(ExcludeType.EXECUTOR, task);
   }
 
   /**
@@ -1,5 +1,7 @@
 package datadog.trace.bootstrap.instrumentation.java.concurrent;
 
+import datadog.trace.api.GenericClassValue;
+import datadog.trace.api.function.Function;
 import datadog.trace.bootstrap.instrumentation.java.concurrent.ExcludeFilter.ExcludeType;
 
 /**
@@ -24,14 +26,24 @@ public final class RunnableWrapper implements Runnable {
     runnable.run();
   }
 
+  // the decision only depends on the task type, so it is made once per class
+  private static final ClassValue<Boolean> WRAP =
+      GenericClassValue.of(
+          new Function<Class<?>, Boolean>() {
+            @Override
+            public Boolean apply(Class<?> input) {
+              // We wrap only lambdas' anonymous classes.
+              // Anonymous classes have '/' in class name which is not allowed in 'normal' classes.
+              final String className = input.getName();
+              return className.indexOf('/', className.lastIndexOf('.')) > 0
+                  && !ExcludeFilter.exclude(ExcludeType.RUNNABLE, className);
+            }
+          });
+
   public static Runnable wrapIfNeeded(final Runnable task) {
-    if (!(task instanceof RunnableWrapper) && !ExcludeFilter.exclude(ExcludeType.RUNNABLE, task)) {
-      // We wrap only lambdas' anonymous classes and if given object has not already been wrapped.
-      // Anonymous classes have '/' in class name which is not allowed in 'normal' classes.
-      final String className = task.getClass().getName();
-      if (className.indexOf('/', className.lastIndexOf('.')) > 0) {
-        return new RunnableWrapper(task);
-      }
+    // We wrap only if given object has not already been wrapped.
+    if (!(task instanceof RunnableWrapper) && WRAP.get(task.getClass())) {
+      return new RunnableWrapper(task);
     }
     return task;
   }
@@ -77,8 +77,8 @@ public final class TPEHelper {
   }
 
   public static void capture(ContextStore<Runnable, State> contextStore, Runnable task) {
-    if (task != null && !exclude(RUNNABLE, task)) {
-      AdviceUtils.capture(contextStore, task, true);
+    if (task != null) {
+      AdviceUtils.capture(contextStore, task, RUNNABLE, true);
     }
   }
 
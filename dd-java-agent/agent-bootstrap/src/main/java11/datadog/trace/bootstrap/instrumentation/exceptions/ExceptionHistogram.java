@@ -1,9 +1,15 @@
 package datadog.trace.bootstrap.instrumentation.exceptions;
 
 import datadog.trace.api.Config;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 import jdk.jfr.EventType;
 import jdk.jfr.FlightRecorder;
@@ -19,6 +25,9 @@ import org.slf4j.LoggerFactory;
  * An {@linkplain ExceptionHistogram} instance is registered with JFR to call {@linkplain
  * ExceptionHistogram#emit()} method at chunk end, as specified in {@linkplain ExceptionCountEvent}
  * class. This callback will then emit a number of {@linkplain ExceptionCountEvent} events.
+ * <br>
+ * Recording an exception only looks up the striped counter of its class in a {@linkplain
+ * ClassValue}; type names are resolved when the top items are emitted.
  */
 public class ExceptionHistogram {
 
@@ -26,7 +35,18 @@ public class ExceptionHistogram {
 
   static final String CLIPPED_ENTRY_TYPE_NAME = "TOO-MANY-EXCEPTIONS";
 
-  private final Map<String, AtomicLong> histogram = new ConcurrentHashMap<>();
+  private final ClassValue<TypeCounter> counters =
+      new ClassValue<TypeCounter>() {
+        @Override
+        protected TypeCounter computeValue(final Class<?> type) {
+          return new TypeCounter(type);
+        }
+      };
+  // types with their own entry, recorded since the previous emit
+  private final Set<TypeCounter> registered = ConcurrentHashMap.newKeySet();
+  // types recorded into the clipped entry since the previous emit
+  private final Set<TypeCounter> clipped = ConcurrentHashMap.newKeySet();
+  private final TypeCounter clippedCounter = new TypeCounter(null);
   private final int maxTopItems;
   private final int maxSize;
   private final EventType exceptionCountEventType;
@@ -53,30 +73,44 @@ public class ExceptionHistogram {
    *     false} otherwise
    */
   public boolean record(final Throwable exception) {
-    if (exception == null) {
-      return false;
-    }
-    return record(exception.getClass().getName());
-  }
-
-  private boolean record(String typeName) {
-    if (!exceptionCountEventType.isEnabled()) {
+    if (exception == null || !exceptionCountEventType.isEnabled()) {
       return false;
     }
-    if (!histogram.containsKey(typeName) && histogram.size() >= maxSize) {
-      log.debug("Histogram is too big, skipping adding new entry: {}", typeName);
-      // Overwrite type name to limit total number of entries in the histogram
-      typeName = CLIPPED_ENTRY_TYPE_NAME;
-    }
-
-    long count = histogram.computeIfAbsent(typeName, k -> new AtomicLong()).getAndIncrement();
+    TypeCounter counter = counterFor(exception.getClass());
+    counter.count.increment();
 
     /*
      * This is supposed to signal that a particular exception type was seen the first time in a particular time span.
      * !ATTENTION! This will work on best-effort basis - namely all overflowing exception which are recorded
      * as 'TOO-MANY-EXCEPTIONS' will receive only one common 'first hit'.
      */
-    return count == 0;
+    return counter.firstHit();
+  }
+
+  private TypeCounter counterFor(final Class<?> type) {
+    TypeCounter counter = counters.get(type);
+    while (true) {
+      switch (counter.state) {
+        case TypeCounter.REGISTERED:
+          return counter;
+        case TypeCounter.CLIPPED:
+          return clippedCounter;
+        case TypeCounter.NEW:
+          if (registered.size() < maxSize) {
+            if (counter.transition(TypeCounter.NEW, TypeCounter.REGISTERED)) {
+              registered.add(counter);
+            }
+          } else if (counter.transition(TypeCounter.NEW, TypeCounter.CLIPPED)) {
+            log.debug("Histogram is too big, skipping adding new entry: {}", type.getName());
+            clipped.add(counter);
+          }
+          break;
+        default:
+          // retired by the previous emit, start over with a new entry
+          counters.remove(type);
+          counter = counters.get(type);
+      }
+    }
   }
 
   private void emit() {
@@ -88,21 +122,50 @@ public class ExceptionHistogram {
   }
 
   void doEmit() {
-    Stream<Pair<String, Long>> items =
-        histogram.entrySet().stream()
-            .map(e -> Pair.of(e.getKey(), e.getValue().getAndSet(0)))
-            .filter(p -> p.getValue() != 0)
-            .sorted((l1, l2) -> Long.compare(l2.getValue(), l1.getValue()));
-
-    if (maxTopItems > 0) {
-      items = items.limit(maxTopItems);
+    // min-heap of the top items, so selecting them is bounded by the number of items emitted
+    PriorityQueue<Pair<TypeCounter, Long>> top =
+        new PriorityQueue<>((l1, l2) -> Long.compare(l1.getValue(), l2.getValue()));
+    for (TypeCounter counter : registered) {
+      offer(top, counter);
     }
+    offer(top, clippedCounter);
 
-    emitEvents(items);
+    List<Pair<String, Long>> items = new ArrayList<>(top.size());
+    while (!top.isEmpty()) {
+      Pair<TypeCounter, Long> item = top.poll();
+      items.add(Pair.of(item.getKey().typeName(), item.getValue()));
+    }
+    Collections.reverse(items);
+
+    emitEvents(items.stream());
+
+    // Clean up after the events are emitted, types recorded in the meantime are kept, otherwise
+    // we would keep entries for one extra iteration
+    for (Iterator<TypeCounter> it = registered.iterator(); it.hasNext(); ) {
+      TypeCounter counter = it.next();
+      if (counter.isIdle()) {
+        it.remove();
+        counter.retire();
+      }
+    }
+    // give clipped types a chance to get their own entry in the next iteration
+    for (Iterator<TypeCounter> it = clipped.iterator(); it.hasNext(); ) {
+      it.next().retire();
+      it.remove();
+    }
+  }
 
-    // Stream is 'materialized' by `forEach` call above so we have to do clean up after that
-    // Otherwise we would keep entries for one extra iteration
-    histogram.entrySet().removeIf(e -> e.getValue().get() == 0L);
+  private void offer(final PriorityQueue<Pair<TypeCounter, Long>> top, final TypeCounter counter) {
+    long count = counter.reset();
+    if (count == 0) {
+      return;
+    }
+    if (maxTopItems <= 0 || top.size() < maxTopItems) {
+      top.add(Pair.of(counter, count));
+    } else if (count > top.peek().getValue()) {
+      top.poll();
+      top.add(Pair.of(counter, count));
+    }
   }
 
   // important that this is non-final and package private; allows concurrency tests
@@ -117,6 +180,53 @@ public class ExceptionHistogram {
     }
   }
 
+  private static final class TypeCounter {
+    static final int NEW = 0;
+    static final int REGISTERED = 1;
+    static final int CLIPPED = 2;
+    static final int RETIRED = 3;
+
+    private static final AtomicIntegerFieldUpdater<TypeCounter> STATE =
+        AtomicIntegerFieldUpdater.newUpdater(TypeCounter.class, "state");
+    private static final AtomicIntegerFieldUpdater<TypeCounter> SEEN =
+        AtomicIntegerFieldUpdater.newUpdater(TypeCounter.class, "seen");
+
+    final Class<?> type;
+    final LongAdder count = new LongAdder();
+    volatile int state;
+    volatile int seen;
+
+    TypeCounter(final Class<?> type) {
+      this.type = type;
+    }
+
+    String typeName() {
+      return null == type ? CLIPPED_ENTRY_TYPE_NAME : type.getName();
+    }
+
+    boolean transition(final int from, final int to) {
+      return STATE.compareAndSet(this, from, to);
+    }
+
+    boolean firstHit() {
+      return seen == 0 && SEEN.compareAndSet(this, 0, 1);
+    }
+
+    long reset() {
+      long sum = count.sumThenReset();
+      seen = 0;
+      return sum;
+    }
+
+    boolean isIdle() {
+      return seen == 0 && count.sum() == 0;
+    }
+
+    void retire() {
+      state = RETIRED;
+    }
+  }
+
   static class Pair<K, V> {
 
     final K key;
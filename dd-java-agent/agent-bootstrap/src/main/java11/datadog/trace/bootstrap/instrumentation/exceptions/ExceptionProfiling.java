@@ -1,5 +1,7 @@
 package datadog.trace.bootstrap.instrumentation.exceptions;
 
+import static datadog.trace.util.AgentThreadFactory.AGENT_THREAD_GROUP;
+
 import datadog.trace.api.Config;
 
 /**
@@ -21,14 +23,38 @@ public final class ExceptionProfiling {
 
   private final ExceptionHistogram histogram;
   private final ExceptionSampler sampler;
+  private final boolean excludeAgentThreads;
+
+  // a thread never changes its thread group while it is running
+  private final ThreadLocal<Boolean> agentThread =
+      new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+          return AGENT_THREAD_GROUP.equals(Thread.currentThread().getThreadGroup());
+        }
+      };
 
   private ExceptionProfiling(final Config config) {
-    this(new ExceptionSampler(config), new ExceptionHistogram(config));
+    this(
+        new ExceptionSampler(config),
+        new ExceptionHistogram(config),
+        config.isProfilingExcludeAgentThreads());
   }
 
-  ExceptionProfiling(final ExceptionSampler sampler, final ExceptionHistogram histogram) {
+  ExceptionProfiling(
+      final ExceptionSampler sampler,
+      final ExceptionHistogram histogram,
+      final boolean excludeAgentThreads) {
     this.sampler = sampler;
     this.histogram = histogram;
+    this.excludeAgentThreads = excludeAgentThreads;
+  }
+
+  /**
+   * @return {@literal true} if exceptions created on the current thread should not be profiled
+   */
+  public boolean isExcludedThread() {
+    return excludeAgentThreads && agentThread.get();
   }
 
   public ExceptionSampleEvent process(final Throwable t) {
@@ -32,4 +32,55 @@ class CallDepthThreadLocalMapTest extends DDSpecification {
     CallDepthThreadLocalMap.incrementCallDepth(k1) == 1
     CallDepthThreadLocalMap.incrementCallDepth(k2) == 1
   }
+
+  def "test CallDepthThreadLocalMap with reserved slots"() {
+    setup:
+    int s1 = CallDepthThreadLocalMap.THROWABLE
+    int s2 = CallDepthThreadLocalMap.JDBC_STATEMENT
+
+    expect:
+    CallDepthThreadLocalMap.incrementCallDepth(s1) == 0
+    CallDepthThreadLocalMap.incrementCallDepth(s2) == 0
+
+    CallDepthThreadLocalMap.incrementCallDepth(s1) == 1
+    CallDepthThreadLocalMap.getCallDepth(s1) == 2
+    CallDepthThreadLocalMap.decrementCallDepth(s1) == 1
+
+    when:
+    CallDepthThreadLocalMap.reset(s1)
+
+    then:
+    CallDepthThreadLocalMap.getCallDepth(s1) == 0
+    CallDepthThreadLocalMap.incrementCallDepth(s2) == 1
+
+    when: "class keys never share a reserved slot"
+    CallDepthThreadLocalMap.reset(s2)
+    CallDepthThreadLocalMap.incrementCallDepth(Throwable)
+
+    then:
+    CallDepthThreadLocalMap.getCallDepth(s1) == 0
+    CallDepthThreadLocalMap.getCallDepth(Throwable) == 1
+
+    cleanup:
+    CallDepthThreadLocalMap.reset(Throwable)
+  }
+
+  def "call depths are tracked per thread"() {
+    setup:
+    CallDepthThreadLocalMap.incrementCallDepth(Long)
+
+    when:
+    int otherThreadDepth = -1
+    def thread = Thread.start {
+      otherThreadDepth = CallDepthThreadLocalMap.incrementCallDepth(Long)
+    }
+    thread.join()
+
+    then:
+    otherThreadDepth == 0
+    CallDepthThreadLocalMap.getCallDepth(Long) == 1
+
+    cleanup:
+    CallDepthThreadLocalMap.reset(Long)
+  }
 }
@@ -0,0 +1,163 @@
+package datadog.trace.bootstrap
+
+import datadog.trace.test.util.DDSpecification
+import groovy.io.FileType
+
+import java.nio.ByteBuffer
+import java.util.jar.JarFile
+import java.util.zip.CRC32
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
+
+class ClassArchiveTest extends DDSpecification {
+
+  // packed by the classArchiveTestJar task with the ClassArchiveWriter of the build
+  static final File FIXTURES = new File(System.getProperty("datadog.classarchive.test.dir"))
+  static final File CLASS_ROOT = new File(FIXTURES, "classes")
+  static final File ARCHIVE = new File(FIXTURES, ClassArchive.ENTRY_NAME)
+  static final File AGENT_JAR = new File(FIXTURES, "agent.jar")
+
+  static Map<String, byte[]> classes() {
+    def classes = [:]
+    CLASS_ROOT.eachFileRecurse(FileType.FILES) { File file ->
+      if (file.name.endsWith(".classdata")) {
+        classes[CLASS_ROOT.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/' as char)] = file.bytes
+      }
+    }
+    return classes
+  }
+
+  def "finds the classes of the archive added to the agent jar"() {
+    setup:
+    def classes = classes()
+
+    when:
+    ClassArchive archive = ClassArchive.open(AGENT_JAR)
+
+    then:
+    classes.size() == 4
+    archive.size() == classes.size()
+    classes.each { name, bytes ->
+      assert bytesOf(archive.find(name)) == bytes
+    }
+    archive.find("inst/a/C.classdata") == null
+    archive.find("inst/a/b/B.class") == null
+    archive.find("inst/other.properties") == null
+    archive.find("") == null
+  }
+
+  def "keeps the classes and directories in the agent jar"() {
+    setup:
+    def classes = classes()
+
+    when:
+    JarFile jar = new JarFile(AGENT_JAR)
+
+    then:
+    classes.each { name, bytes ->
+      assert jar.getInputStream(jar.getJarEntry(name)).bytes == bytes
+    }
+    jar.getJarEntry("inst/a/b/").isDirectory()
+    jar.getJarEntry("inst/other.properties") != null
+    jar.getJarEntry(ClassArchive.ENTRY_NAME).method == ZipEntry.STORED
+
+    cleanup:
+    jar?.close()
+  }
+
+  def "finds the archive in a zip64 jar"() {
+    setup:
+    // past 65535 entries the count in the end of central directory record saturates
+    File jar = jar(ARCHIVE.bytes, ZipEntry.STORED, 0x10000)
+
+    when:
+    ClassArchive archive = ClassArchive.open(jar)
+
+    then:
+    archive.size() == 4
+    bytesOf(archive.find("inst/a/b/B.classdata")) == "class B".bytes
+  }
+
+  def "ignores jars without a stored archive"() {
+    expect:
+    ClassArchive.open(jar(ARCHIVE.bytes, ZipEntry.DEFLATED)) == null
+    ClassArchive.open(jar(null, ZipEntry.STORED)) == null
+  }
+
+  def "rejects a corrupt archive"() {
+    when:
+    ClassArchive.open(jar(new byte[16], ZipEntry.STORED))
+
+    then:
+    thrown IOException
+  }
+
+  def "handler reads classes from the archive"() {
+    setup:
+    InternalJarURLHandler handler =
+      new InternalJarURLHandler("inst", ["a", "a.b"].toSet(), new JarFile(AGENT_JAR), ClassArchive.open(AGENT_JAR))
+
+    when:
+    URLConnection connection = handler.openConnection(new URL("file:/a/b/B.class"))
+
+    then:
+    connection.getContentLength() == 7
+    connection.getInputStream().bytes == "class B".bytes
+
+    when:
+    handler.openConnection(new URL("file:/a/b/C.class"))
+
+    then:
+    thrown IOException
+  }
+
+  def "handler reads classes from the jar without the archive"() {
+    setup:
+    InternalJarURLHandler handler =
+      new InternalJarURLHandler("inst", ["a", "a.b"].toSet(), new JarFile(AGENT_JAR), null)
+
+    when:
+    URLConnection connection = handler.openConnection(new URL("file:/a/b/B.class"))
+
+    then:
+    connection.getContentLength() == 7
+    connection.getInputStream().bytes == "class B".bytes
+  }
+
+  static byte[] bytesOf(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()]
+    buffer.duplicate().get(bytes)
+    return bytes
+  }
+
+  static File jar(byte[] archive, int method, int padding = 0) {
+    File jar = File.createTempFile("agent", ".jar")
+    jar.deleteOnExit()
+    new ZipOutputStream(new FileOutputStream(jar)).withCloseable { out ->
+      out.putNextEntry(new ZipEntry("inst/"))
+      out.closeEntry()
+      out.putNextEntry(new ZipEntry("inst/other.properties"))
+      out.write("key=value".bytes)
+      out.closeEntry()
+      for (int i = 0; i < padding; ++i) {
+        out.putNextEntry(new ZipEntry("pad/" + i))
+        out.closeEntry()
+      }
+      if (archive != null) {
+        def entry = new ZipEntry(ClassArchive.ENTRY_NAME)
+        entry.method = method
+        if (method == ZipEntry.STORED) {
+          def crc = new CRC32()
+          crc.update(archive)
+          entry.size = archive.length
+          entry.compressedSize = archive.length
+          entry.crc = crc.value
+        }
+        out.putNextEntry(entry)
+        out.write(archive)
+        out.closeEntry()
+      }
+    }
+    return jar
+  }
+}
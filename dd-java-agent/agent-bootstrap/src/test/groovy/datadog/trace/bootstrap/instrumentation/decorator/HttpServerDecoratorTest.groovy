@@ -36,7 +36,7 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
     then:
     if (req) {
       1 * span.setTag(Tags.HTTP_METHOD, "test-method")
-      1 * span.setTag(Tags.HTTP_URL, url)
+      1 * span.setTag(Tags.HTTP_URL, { it as String == url })
       1 * span.setTag(Tags.HTTP_HOSTNAME, req.url.host)
       1 * span.getRequestContext()
       1 * span.setResourceName({ it as String == req.method.toUpperCase() + " " + req.path }, ResourceNamePriorities.HTTP_PATH_NORMALIZER)
@@ -63,7 +63,7 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
 
     then:
     if (expectedUrl) {
-      1 * span.setTag(Tags.HTTP_URL, expectedUrl)
+      1 * span.setTag(Tags.HTTP_URL, { it as String == expectedUrl })
       1 * span.getRequestContext()
     }
     if (expectedUrl && tagQueryString) {
@@ -111,7 +111,7 @@ class HttpServerDecoratorTest extends ServerDecoratorTest {
     decorator.onRequest(span, null, req, null)
 
     then:
-    1 * span.setTag(Tags.HTTP_URL, expectedUrl)
+    1 * span.setTag(Tags.HTTP_URL, { it as String == expectedUrl })
     1 * span.setTag(Tags.HTTP_HOSTNAME, req.url.host)
     1 * span.setTag(DDTags.HTTP_QUERY, expectedQuery)
     1 * span.setTag(DDTags.HTTP_FRAGMENT, null)
@@ -0,0 +1,130 @@
+package datadog.trace.bootstrap.debugger;
+
+import static datadog.trace.util.AgentThreadFactory.AgentThread.DEBUGGER_SNAPSHOT_SERIALIZER;
+import static datadog.trace.util.AgentThreadFactory.newAgentThread;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link DebuggerContext.Sink} which hands snapshots over to a background thread, so serializing
+ * and sending them is not done on the application thread which hit the probe. Snapshots are
+ * queued in a bounded queue and dropped (and counted) when the queue is full rather than blocking
+ * the application. {@link DebuggerContext#init} wraps the sink of the debugger agent with one.
+ *
+ * <p>The size of each snapshot serialized by the wrapped sink is charged to the global byte budget
+ * of the {@link ProbeRateLimiter}.
+ */
+public class AsyncSnapshotSink implements DebuggerContext.Sink {
+  private static final Logger LOGGER = LoggerFactory.getLogger(AsyncSnapshotSink.class);
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  private final DebuggerContext.Sink delegate;
+  private final BlockingQueue<Snapshot> queue;
+  private final AtomicLong droppedSnapshots = new AtomicLong();
+  private final Thread thread;
+
+  public AsyncSnapshotSink(DebuggerContext.Sink delegate) {
+    this(delegate, DEFAULT_QUEUE_CAPACITY);
+  }
+
+  public AsyncSnapshotSink(DebuggerContext.Sink delegate, int queueCapacity) {
+    this.delegate = delegate;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.thread = newAgentThread(DEBUGGER_SNAPSHOT_SERIALIZER, new Drainer());
+  }
+
+  public void start() {
+    thread.start();
+  }
+
+  /** Stops the background thread, which sends the snapshots still queued before exiting. */
+  public void stop() {
+    thread.interrupt();
+  }
+
+  /**
+   * Stops the background thread and waits for it to send the snapshots still queued.
+   *
+   * @return {@literal true} if the queue was drained within the timeout
+   */
+  public boolean stop(long timeout, TimeUnit unit) throws InterruptedException {
+    stop();
+    unit.timedJoin(thread, timeout);
+    if (thread.isAlive()) {
+      return false;
+    }
+    // the thread may never have been started
+    drain();
+    return true;
+  }
+
+  @Override
+  public void addSnapshot(Snapshot snapshot) {
+    if (!queue.offer(snapshot)) {
+      long dropped = droppedSnapshots.incrementAndGet();
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug(
+            "Snapshot queue is full, dropping snapshot for probe {} ({} dropped so far)",
+            snapshot.getProbe() != null ? snapshot.getProbe().getId() : null,
+            dropped);
+      }
+    }
+  }
+
+  @Override
+  public void addDiagnostics(String probeId, List<DiagnosticMessage> messages) {
+    delegate.addDiagnostics(probeId, messages);
+  }
+
+  @Override
+  public void skipSnapshot(String probeId, DebuggerContext.SkipCause cause) {
+    delegate.skipSnapshot(probeId, cause);
+  }
+
+  public long getDroppedSnapshots() {
+    return droppedSnapshots.get();
+  }
+
+  public int getQueuedSnapshots() {
+    return queue.size();
+  }
+
+  private final class Drainer implements Runnable {
+    @Override
+    public void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+        try {
+          send(queue.take());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+          LOGGER.debug("Failed to process snapshot", t);
+        }
+      }
+      // flush what was already captured before exiting
+      drain();
+    }
+  }
+
+  private void drain() {
+    Snapshot snapshot;
+    while ((snapshot = queue.poll()) != null) {
+      try {
+        send(snapshot);
+      } catch (Throwable t) {
+        LOGGER.debug("Failed to process snapshot", t);
+      }
+    }
+  }
+
+  private void send(Snapshot snapshot) {
+    ProbeRateLimiter.recordSnapshotBytes(delegate.addSnapshotAndGetSize(snapshot));
+  }
+}
@@ -21,6 +21,17 @@ public class DebuggerContext {
   public interface Sink {
     void addSnapshot(Snapshot snapshot);
 
+    /**
+     * Same as {@link #addSnapshot}, for sinks which serialize the snapshot as they add it.
+     *
+     * @return the size of the serialized snapshot in bytes, which {@link AsyncSnapshotSink} charges
+     *     to the global byte budget of {@link ProbeRateLimiter}, or -1 if it isn't known
+     */
+    default long addSnapshotAndGetSize(Snapshot snapshot) {
+      addSnapshot(snapshot);
+      return -1;
+    }
+
     void addDiagnostics(String probeId, List<DiagnosticMessage> messages);
 
     default void skipSnapshot(String probeId, SkipCause cause) {}
@@ -47,10 +58,23 @@ public class DebuggerContext {
   private static volatile ClassFilter classFilter;
   private static volatile MetricForwarder metricForwarder;
 
+  /**
+   * Snapshots committed by instrumented code are handed over to the given sink on a background
+   * thread, see {@link AsyncSnapshotSink}.
+   */
   public static void init(Sink sink, ProbeResolver probeResolver, MetricForwarder metricForwarder) {
+    Sink previousSink = DebuggerContext.sink;
+    if (sink != null && !(sink instanceof AsyncSnapshotSink)) {
+      AsyncSnapshotSink asyncSink = new AsyncSnapshotSink(sink);
+      asyncSink.start();
+      sink = asyncSink;
+    }
     DebuggerContext.sink = sink;
     DebuggerContext.probeResolver = probeResolver;
     DebuggerContext.metricForwarder = metricForwarder;
+    if (previousSink instanceof AsyncSnapshotSink && previousSink != sink) {
+      ((AsyncSnapshotSink) previousSink).stop();
+    }
   }
 
   public static void initClassFilter(ClassFilter classFilter) {
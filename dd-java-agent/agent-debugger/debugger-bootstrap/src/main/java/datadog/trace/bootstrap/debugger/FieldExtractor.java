@@ -13,6 +13,8 @@ public class FieldExtractor {
   public static final int DEFAULT_FIELD_DEPTH = -1;
   public static final int DEFAULT_FIELD_COUNT = 20;
   private static final Logger LOG = LoggerFactory.getLogger(ValueConverter.class);
+  private static final Fields.CapturePlans CAPTURE_PLANS =
+      new Fields.CapturePlans(FieldExtractor::filterIn);
 
   public static class Limits {
     public final int maxFieldDepth;
@@ -78,14 +80,13 @@ public class FieldExtractor {
     if (isPrimitiveClass(obj)) {
       return Collections.emptyMap();
     }
-    Field[] declaredFields = obj.getClass().getDeclaredFields();
-    if (declaredFields.length == 0) {
+    if (CAPTURE_PLANS.get(obj.getClass()).isEmpty()) {
       return Collections.emptyMap();
     }
     Map<String, Snapshot.CapturedValue> results = new HashMap<>();
     Fields.processFields(
         obj,
-        FieldExtractor::filterIn,
+        CAPTURE_PLANS,
         (f, value) -> extractField(f, value, results, limits),
         (ex, f) -> handleExtractException(ex, f, obj.getClass().getName(), results),
         (f, total) -> onMaxFieldCount(f, results, limits.maxFieldCount, total),
@@ -1,7 +1,9 @@
 package datadog.trace.bootstrap.debugger;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.ObjIntConsumer;
 import java.util.function.Predicate;
@@ -9,6 +11,83 @@ import java.util.function.Predicate;
 /** Helper class for processing fields of an instance */
 public class Fields {
 
+  /**
+   * The fields of a class which pass a filter, already made accessible. Built once per class so
+   * capturing a value does not list, filter and open up the declared fields on every probe hit.
+   */
+  public static final class CapturePlan {
+    private final Field[] fields;
+    // the exception raised when making the field at the same index accessible, if any
+    private final Exception[] accessErrors;
+
+    private CapturePlan(Field[] fields, Exception[] accessErrors) {
+      this.fields = fields;
+      this.accessErrors = accessErrors;
+    }
+
+    public boolean isEmpty() {
+      return fields.length == 0;
+    }
+  }
+
+  /** Capture plans for a given field filter, cached per class */
+  public static final class CapturePlans extends ClassValue<CapturePlan> {
+    private final Predicate<Field> filteringIn;
+
+    public CapturePlans(Predicate<Field> filteringIn) {
+      this.filteringIn = filteringIn;
+    }
+
+    @Override
+    protected CapturePlan computeValue(Class<?> type) {
+      List<Field> fields = new ArrayList<>();
+      for (Field field : type.getDeclaredFields()) {
+        if (filteringIn.test(field)) {
+          fields.add(field);
+        }
+      }
+      Exception[] accessErrors = new Exception[fields.size()];
+      for (int i = 0; i < accessErrors.length; i++) {
+        try {
+          fields.get(i).setAccessible(true);
+        } catch (Exception e) {
+          accessErrors[i] = e;
+        }
+      }
+      return new CapturePlan(fields.toArray(new Field[0]), accessErrors);
+    }
+  }
+
+  public static void processFields(
+      Object o,
+      CapturePlans plans,
+      BiConsumer<Field, Object> processing,
+      BiConsumer<Exception, Field> exHandling,
+      ObjIntConsumer<Field> onMaxFieldCount,
+      int maxFieldCount) {
+    CapturePlan plan = plans.get(o.getClass());
+    Field[] fields = plan.fields;
+    int processedFieldCount = 0;
+    for (int i = 0; i < fields.length; i++) {
+      Field field = fields[i];
+      if (plan.accessErrors[i] != null) {
+        exHandling.accept(plan.accessErrors[i], field);
+        continue;
+      }
+      try {
+        Object value = field.get(o);
+        processing.accept(field, value);
+        processedFieldCount++;
+        if (processedFieldCount >= maxFieldCount) {
+          onMaxFieldCount.accept(field, fields.length);
+          break;
+        }
+      } catch (Exception e) {
+        exHandling.accept(e, field);
+      }
+    }
+  }
+
   public static void processFields(
       Object o,
       Predicate<Field> filteringIn,
@@ -1,51 +1,211 @@
 package datadog.trace.bootstrap.debugger;
 
-import datadog.trace.api.sampling.AdaptiveSampler;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
-/** Rate limiter for sending snapshot to backend Use a global rate limiter and one per probe */
+/**
+ * Rate limiter for sending snapshot to backend. Limits are hierarchical: one token bucket per
+ * probe, then a global budget shared by all probes, in snapshots per second and in serialized
+ * bytes per second. The decision is taken before any capture work starts, and once a global budget
+ * is exhausted a probe hit costs a clock read and a few comparisons.
+ *
+ * <p>The size of a snapshot is only known once it has been serialized, long after the hit was let
+ * through, so the byte budget is charged after the fact by {@link #recordSnapshotBytes} and can go
+ * into debt: hits are rejected until the debt has been paid back.
+ */
 public final class ProbeRateLimiter {
-  private static final Duration ONE_SECOND_WINDOW = Duration.of(1, ChronoUnit.SECONDS);
-  private static final Duration TEN_SECONDS_WINDOW = Duration.of(10, ChronoUnit.SECONDS);
   private static final double DEFAULT_RATE = 1.0;
   private static final double DEFAULT_GLOBAL_RATE = DEFAULT_RATE * 100;
-  private static final ConcurrentMap<String, AdaptiveSampler> PROBE_SAMPLERS =
+  private static final double DEFAULT_GLOBAL_BYTES_RATE = 1024 * 1024;
+  private static final ConcurrentMap<String, TokenBucket> PROBE_BUCKETS =
       new ConcurrentHashMap<>();
 
-  private static AdaptiveSampler GLOBAL_SAMPLER = createSampler(DEFAULT_GLOBAL_RATE);
+  private static volatile StripedTokenBucket GLOBAL_BUCKET =
+      new StripedTokenBucket(DEFAULT_GLOBAL_RATE);
+  // only charged by the thread serializing snapshots, so there is nothing to stripe
+  private static volatile TokenBucket GLOBAL_BYTES_BUCKET =
+      new TokenBucket(DEFAULT_GLOBAL_BYTES_RATE);
+
+  // striped to avoid contention between application threads hitting probes
+  private static final LongAdder DROPPED_BY_PROBE_RATE = new LongAdder();
+  private static final LongAdder DROPPED_BY_GLOBAL_RATE = new LongAdder();
+  private static final LongAdder DROPPED_BY_GLOBAL_BYTES = new LongAdder();
 
   public static boolean tryProbe(String probeId) {
-    // rate limiter engaged at ~1 probe per second (1 probes per 1s time window)
-    boolean result =
-        PROBE_SAMPLERS.computeIfAbsent(probeId, k -> createSampler(DEFAULT_RATE)).sample();
-    result &= GLOBAL_SAMPLER.sample();
-    return result;
+    long now = System.nanoTime();
+    // the global budgets are checked first so a hit is cheap once one is exhausted
+    if (!GLOBAL_BYTES_BUCKET.hasTokens(now)) {
+      DROPPED_BY_GLOBAL_BYTES.increment();
+      return false;
+    }
+    StripedTokenBucket globalBucket = GLOBAL_BUCKET;
+    if (!globalBucket.hasTokens(now)) {
+      DROPPED_BY_GLOBAL_RATE.increment();
+      return false;
+    }
+    // rate limiter engaged at ~1 probe per second
+    TokenBucket probeBucket = PROBE_BUCKETS.get(probeId);
+    if (probeBucket == null) {
+      probeBucket = PROBE_BUCKETS.computeIfAbsent(probeId, k -> new TokenBucket(DEFAULT_RATE));
+    }
+    if (!probeBucket.tryAcquire(now, 1)) {
+      DROPPED_BY_PROBE_RATE.increment();
+      return false;
+    }
+    if (!globalBucket.tryAcquire(now)) {
+      // other threads took the last global tokens, the probe should not lose its own
+      probeBucket.release(1);
+      DROPPED_BY_GLOBAL_RATE.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /** Charges the size of a serialized snapshot to the global byte budget. */
+  public static void recordSnapshotBytes(long bytes) {
+    if (bytes > 0) {
+      GLOBAL_BYTES_BUCKET.charge(System.nanoTime(), bytes);
+    }
   }
 
   public static void setRate(String probeId, double rate) {
-    PROBE_SAMPLERS.put(probeId, createSampler(rate));
+    PROBE_BUCKETS.put(probeId, new TokenBucket(rate));
   }
 
   public static void setGlobalRate(double rate) {
-    GLOBAL_SAMPLER = createSampler(rate);
+    GLOBAL_BUCKET = new StripedTokenBucket(rate);
+  }
+
+  public static void setGlobalBytesRate(double bytesPerSecond) {
+    GLOBAL_BYTES_BUCKET = new TokenBucket(bytesPerSecond);
   }
 
   public static void resetRate(String probeId) {
-    PROBE_SAMPLERS.remove(probeId);
+    PROBE_BUCKETS.remove(probeId);
   }
 
   public static void resetGlobalRate() {
     setGlobalRate(DEFAULT_GLOBAL_RATE);
   }
 
-  private static AdaptiveSampler createSampler(double rate) {
-    if (rate < 1) {
-      int intRate = (int) Math.round(rate * 10);
-      return new AdaptiveSampler(TEN_SECONDS_WINDOW, intRate, 180, 16);
+  public static void resetGlobalBytesRate() {
+    setGlobalBytesRate(DEFAULT_GLOBAL_BYTES_RATE);
+  }
+
+  public static long getDroppedByProbeRate() {
+    return DROPPED_BY_PROBE_RATE.sum();
+  }
+
+  public static long getDroppedByGlobalRate() {
+    return DROPPED_BY_GLOBAL_RATE.sum();
+  }
+
+  public static long getDroppedByGlobalBytes() {
+    return DROPPED_BY_GLOBAL_BYTES.sum();
+  }
+
+  /**
+   * Lock-free token bucket, implemented as a virtual scheduling (GCRA) limiter: the only state is
+   * the time at which the bucket will be full again, advanced with a CAS by the cost of each
+   * acquisition. The bucket holds at most one second worth of tokens (and at least one token), so
+   * rates below one per second are supported without a longer window.
+   */
+  static final class TokenBucket {
+    private static final long ONE_SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final double nanosPerToken;
+    private final long capacityNanos;
+    // time at which all the tokens spent so far have been replenished
+    private final AtomicLong fullAt;
+
+    TokenBucket(double tokensPerSecond) {
+      this.nanosPerToken = ONE_SECOND_NANOS / Math.max(tokensPerSecond, Double.MIN_NORMAL);
+      this.capacityNanos =
+          (long) Math.min(Long.MAX_VALUE / 2, Math.max(nanosPerToken, ONE_SECOND_NANOS));
+      // start full, even for hits which read the clock before the bucket was created
+      this.fullAt = new AtomicLong(System.nanoTime() - capacityNanos);
+    }
+
+    /**
+     * @return whether at least one token is available, without taking it
+     */
+    boolean hasTokens(long now) {
+      return fullAt.get() - now + (long) nanosPerToken <= capacityNanos;
+    }
+
+    boolean tryAcquire(long now, long tokens) {
+      long cost = (long) (nanosPerToken * tokens);
+      while (true) {
+        long current = fullAt.get();
+        long base = current - now < 0 ? now : current;
+        long next = base + cost;
+        if (next - now > capacityNanos) {
+          return false;
+        }
+        if (fullAt.compareAndSet(current, next)) {
+          return true;
+        }
+      }
+    }
+
+    /** Takes tokens even if there are not enough, the bucket stays empty until they are repaid. */
+    void charge(long now, long tokens) {
+      long cost = (long) (nanosPerToken * tokens);
+      while (true) {
+        long current = fullAt.get();
+        long base = current - now < 0 ? now : current;
+        if (fullAt.compareAndSet(current, base + cost)) {
+          return;
+        }
+      }
+    }
+
+    /** Gives back tokens which were acquired but not used. */
+    void release(long tokens) {
+      fullAt.addAndGet(-(long) (nanosPerToken * tokens));
+    }
+  }
+
+  /**
+   * Token bucket split into independent stripes which share the rate, so that threads hitting
+   * probes at the same time mostly update different counters. A thread starts with its own stripe
+   * and only moves on to the others when it is empty, so the whole rate is still available to a
+   * single thread. Each stripe gets at least one token per second.
+   */
+  static final class StripedTokenBucket {
+    private static final int MAX_STRIPES =
+        Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    private final TokenBucket[] stripes;
+
+    StripedTokenBucket(double tokensPerSecond) {
+      int stripeCount = (int) Math.max(1, Math.min(MAX_STRIPES, tokensPerSecond));
+      this.stripes = new TokenBucket[stripeCount];
+      for (int i = 0; i < stripeCount; i++) {
+        stripes[i] = new TokenBucket(tokensPerSecond / stripeCount);
+      }
+    }
+
+    boolean hasTokens(long now) {
+      for (TokenBucket stripe : stripes) {
+        if (stripe.hasTokens(now)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean tryAcquire(long now) {
+      int start = (int) (Thread.currentThread().getId() % stripes.length);
+      for (int i = 0; i < stripes.length; i++) {
+        if (stripes[(start + i) % stripes.length].tryAcquire(now, 1)) {
+          return true;
+        }
+      }
+      return false;
     }
-    return new AdaptiveSampler(ONE_SECOND_WINDOW, (int) Math.round(rate), 180, 16);
   }
 }
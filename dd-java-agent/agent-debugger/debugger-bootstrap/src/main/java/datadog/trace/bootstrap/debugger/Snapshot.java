@@ -1,6 +1,7 @@
 package datadog.trace.bootstrap.debugger;
 
 import datadog.trace.bootstrap.debugger.el.DebuggerScript;
+import datadog.trace.bootstrap.debugger.el.ReferencePath;
 import datadog.trace.bootstrap.debugger.el.ReflectiveFieldValueResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferenceResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferences;
@@ -13,7 +14,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
-import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -454,7 +454,6 @@ public class Snapshot {
    * Stores different kind of data (arguments, locals, fields, exception) for a specific location
    */
   public static class CapturedContext implements ValueReferenceResolver {
-    private static final Pattern DOT_PATTERN = Pattern.compile("\\.");
     private final transient Map<String, Object> extensions = new HashMap<>();
 
     private Map<String, CapturedValue> arguments;
@@ -488,10 +487,13 @@ public class Snapshot {
 
     @Override
     public Object resolve(String path) {
-      // 'path' is a string which starts with a prefixed head element and can contain
-      // a number of period separated tail elements denoting access to fields (of fields)
-      String prefix = path.substring(0, 1);
-      String[] parts = DOT_PATTERN.split(path.substring(1));
+      return resolve(ReferencePath.parse(path));
+    }
+
+    @Override
+    public Object resolve(ReferencePath path) {
+      String prefix = path.getPrefix();
+      String[] parts = path.getParts();
 
       String head = parts[0];
       Object target = Values.UNDEFINED_OBJECT;
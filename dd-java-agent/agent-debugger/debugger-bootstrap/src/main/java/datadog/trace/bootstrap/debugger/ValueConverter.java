@@ -18,6 +18,8 @@ import org.slf4j.LoggerFactory;
  */
 public class ValueConverter {
   private static final Logger log = LoggerFactory.getLogger(ValueConverter.class);
+  private static final Fields.CapturePlans CAPTURE_PLANS =
+      new Fields.CapturePlans(ValueConverter::filterIn);
 
   public static final int DEFAULT_REFERENCE_DEPTH = 1;
   public static final int DEFAULT_COLLECTION_SIZE = 100;
@@ -242,7 +244,7 @@ public class ValueConverter {
     int initialSize = sb.length();
     Fields.processFields(
         o,
-        ValueConverter::filterIn,
+        CAPTURE_PLANS,
         (f, value) -> convertField(sb, initialSize, currentReferenceDepth, limits, f, value),
         (ex, f) -> handleConvertException(ex, f, sb, initialSize, className),
         (f, total) -> {},
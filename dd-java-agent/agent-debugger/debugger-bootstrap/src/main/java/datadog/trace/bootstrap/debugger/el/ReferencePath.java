@@ -0,0 +1,52 @@
+package datadog.trace.bootstrap.debugger.el;
+
+import java.util.regex.Pattern;
+
+/**
+ * A value reference path split into its prefix, head and field names once, when the expression
+ * referring to it is built, so that it does not need to be parsed again on every probe hit.
+ *
+ * @see ValueReferenceResolver
+ */
+public final class ReferencePath {
+  private static final Pattern DOT_PATTERN = Pattern.compile("\\.");
+
+  private final String path;
+  private final String prefix;
+  private final String[] parts;
+
+  private ReferencePath(String path, String prefix, String[] parts) {
+    this.path = path;
+    this.prefix = prefix;
+    this.parts = parts;
+  }
+
+  public static ReferencePath parse(String path) {
+    // 'path' is a string which starts with a prefixed head element and can contain
+    // a number of period separated tail elements denoting access to fields (of fields)
+    return new ReferencePath(path, path.substring(0, 1), DOT_PATTERN.split(path.substring(1)));
+  }
+
+  public String getPath() {
+    return path;
+  }
+
+  /**
+   * @return one of the {@linkplain ValueReferences} prefixes
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /**
+   * @return the head element followed by the names of the fields to follow; must not be modified
+   */
+  public String[] getParts() {
+    return parts;
+  }
+
+  @Override
+  public String toString() {
+    return path;
+  }
+}
@@ -2,11 +2,26 @@ package datadog.trace.bootstrap.debugger.el;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /** A helper class to resolve a reference path using reflection. */
 public final class ReflectiveFieldValueResolver {
+  // marks field names which could not be resolved for a class
+  private static final Object NO_FIELD = new Object();
+
+  // field lookups walk the class hierarchy and copy the Field, so they are resolved once per
+  // class and name instead of on every probe hit
+  private static final ClassValue<ConcurrentMap<String, Object>> FIELDS =
+      new ClassValue<ConcurrentMap<String, Object>>() {
+        @Override
+        protected ConcurrentMap<String, Object> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
   public static Object resolve(Object target, Class<?> targetType, String fldName) {
-    Field fld = getField(targetType, fldName);
+    Field fld = getCachedField(targetType, fldName);
     if (fld == null) {
       return Values.UNDEFINED_OBJECT;
     }
@@ -17,6 +32,16 @@ public final class ReflectiveFieldValueResolver {
     }
   }
 
+  private static Field getCachedField(Class<?> container, String name) {
+    ConcurrentMap<String, Object> fields = FIELDS.get(container);
+    Object fld = fields.get(name);
+    if (fld == null) {
+      fld = getField(container, name);
+      fields.putIfAbsent(name, fld == null ? NO_FIELD : fld);
+    }
+    return fld instanceof Field ? (Field) fld : null;
+  }
+
   private static Field getField(Class<?> container, String name) {
     while (container != null) {
       try {
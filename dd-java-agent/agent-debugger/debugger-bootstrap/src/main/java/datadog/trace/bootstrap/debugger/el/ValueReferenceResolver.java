@@ -28,6 +28,14 @@ public interface ValueReferenceResolver {
 
   Object resolve(String path);
 
+  /**
+   * Resolves a reference path which was parsed up front. Resolvers should override this to avoid
+   * parsing the path on every resolution.
+   */
+  default Object resolve(ReferencePath path) {
+    return resolve(path.getPath());
+  }
+
   default ValueReferenceResolver withExtensions(Map<String, Object> extensions) {
     return this;
   }
@@ -0,0 +1,115 @@
+package datadog.trace.bootstrap.debugger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncSnapshotSinkTest {
+
+  @AfterEach
+  void tearDown() {
+    DebuggerContext.init(null, null, null);
+    ProbeRateLimiter.resetGlobalBytesRate();
+  }
+
+  @Test
+  void testDropWhenQueueFull() throws Exception {
+    CollectingSink delegate = new CollectingSink();
+    AsyncSnapshotSink sink = new AsyncSnapshotSink(delegate, 2);
+    for (int i = 0; i < 5; i++) {
+      sink.addSnapshot(newSnapshot());
+    }
+    assertEquals(2, sink.getQueuedSnapshots());
+    assertEquals(3, sink.getDroppedSnapshots());
+    assertTrue(delegate.snapshots.isEmpty());
+    assertTrue(sink.stop(5, TimeUnit.SECONDS));
+    assertEquals(2, delegate.snapshots.size());
+  }
+
+  @Test
+  void testDrainOnStop() throws Exception {
+    CollectingSink delegate = new CollectingSink();
+    AsyncSnapshotSink sink = new AsyncSnapshotSink(delegate, 10);
+    for (int i = 0; i < 5; i++) {
+      sink.addSnapshot(newSnapshot());
+    }
+    sink.start();
+    assertTrue(sink.stop(5, TimeUnit.SECONDS));
+    assertEquals(5, delegate.snapshots.size());
+    assertEquals(0, sink.getQueuedSnapshots());
+    assertEquals(0, sink.getDroppedSnapshots());
+  }
+
+  @Test
+  void testDiagnosticsAreNotQueued() {
+    CollectingSink delegate = new CollectingSink();
+    AsyncSnapshotSink sink = new AsyncSnapshotSink(delegate, 1);
+    sink.skipSnapshot("probe", DebuggerContext.SkipCause.RATE);
+    assertEquals(1, delegate.skipped.size());
+  }
+
+  @Test
+  void testCommittedSnapshotsGoThroughTheBackgroundThread() throws Exception {
+    CollectingSink delegate = new CollectingSink();
+    DebuggerContext.init(delegate, null, null);
+    Snapshot snapshot = newSnapshot();
+    snapshot.commit();
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (delegate.snapshots.isEmpty() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, delegate.snapshots.size());
+    assertSame(snapshot, delegate.snapshots.get(0));
+    assertNotSame(Thread.currentThread(), delegate.threads.get(0));
+  }
+
+  @Test
+  void testSerializedSizeIsCharged() throws Exception {
+    ProbeRateLimiter.setGlobalBytesRate(1000);
+    CollectingSink delegate = new CollectingSink();
+    delegate.serializedSize = 5000;
+    AsyncSnapshotSink sink = new AsyncSnapshotSink(delegate, 10);
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    sink.addSnapshot(newSnapshot());
+    sink.start();
+    assertTrue(sink.stop(5, TimeUnit.SECONDS));
+    assertEquals(1, delegate.snapshots.size());
+    // the budget is spent by the serialized snapshot
+    assertFalse(ProbeRateLimiter.tryProbe("other"));
+  }
+
+  private static Snapshot newSnapshot() {
+    return new Snapshot(Thread.currentThread(), Snapshot.ProbeDetails.UNKNOWN);
+  }
+
+  private static class CollectingSink implements DebuggerContext.Sink {
+    final List<Snapshot> snapshots = new CopyOnWriteArrayList<>();
+    final List<Thread> threads = new CopyOnWriteArrayList<>();
+    final List<String> skipped = new CopyOnWriteArrayList<>();
+    volatile long serializedSize = -1;
+
+    @Override
+    public void addSnapshot(Snapshot snapshot) {
+      threads.add(Thread.currentThread());
+      snapshots.add(snapshot);
+    }
+
+    @Override
+    public long addSnapshotAndGetSize(Snapshot snapshot) {
+      addSnapshot(snapshot);
+      return serializedSize;
+    }
+
+    @Override
+    public void addDiagnostics(String probeId, List<DiagnosticMessage> messages) {}
+
+    @Override
+    public void skipSnapshot(String probeId, DebuggerContext.SkipCause cause) {
+      skipped.add(probeId);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package datadog.trace.bootstrap.debugger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class FieldsTest {
+
+  @Test
+  void testCapturePlanIsBuiltOncePerClass() {
+    AtomicInteger filtered = new AtomicInteger();
+    Fields.CapturePlans plans =
+        new Fields.CapturePlans(
+            field -> {
+              filtered.incrementAndGet();
+              return !Modifier.isStatic(field.getModifiers());
+            });
+    List<Object> values = new ArrayList<>();
+    capture(new Point(1, 2), plans, values);
+    int filteredOnce = filtered.get();
+    capture(new Point(3, 4), plans, values);
+    assertEquals(filteredOnce, filtered.get());
+    assertSame(plans.get(Point.class), plans.get(Point.class));
+    assertEquals(4, values.size());
+    assertEquals(3, values.get(2));
+    assertEquals(4, values.get(3));
+  }
+
+  @Test
+  void testMaxFieldCountReportsFilteredTotal() {
+    Fields.CapturePlans plans =
+        new Fields.CapturePlans(field -> !Modifier.isStatic(field.getModifiers()));
+    AtomicInteger total = new AtomicInteger();
+    List<Field> processed = new ArrayList<>();
+    Fields.processFields(
+        new Point(1, 2),
+        plans,
+        (field, value) -> processed.add(field),
+        (e, field) -> fail(e),
+        (field, count) -> total.set(count),
+        1);
+    assertEquals(1, processed.size());
+    assertEquals(2, total.get());
+  }
+
+  private static void capture(Object o, Fields.CapturePlans plans, List<Object> values) {
+    Fields.processFields(
+        o,
+        plans,
+        (field, value) -> values.add(value),
+        (e, field) -> fail(e),
+        (field, count) -> {},
+        Integer.MAX_VALUE);
+  }
+
+  static class Point {
+    static final int DIMENSIONS = 2;
+    private final int x;
+    private final int y;
+
+    Point(int x, int y) {
+      this.x = x;
+      this.y = y;
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package datadog.trace.bootstrap.debugger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ProbeRateLimiterTest {
+  private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @AfterEach
+  void tearDown() {
+    ProbeRateLimiter.resetRate("probe");
+    ProbeRateLimiter.resetRate("other");
+    ProbeRateLimiter.resetGlobalRate();
+    ProbeRateLimiter.resetGlobalBytesRate();
+  }
+
+  @Test
+  void testProbeRate() {
+    ProbeRateLimiter.setRate("probe", 2);
+    long dropped = ProbeRateLimiter.getDroppedByProbeRate();
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    assertFalse(ProbeRateLimiter.tryProbe("probe"));
+    assertEquals(dropped + 1, ProbeRateLimiter.getDroppedByProbeRate());
+    // other probes have their own budget
+    assertTrue(ProbeRateLimiter.tryProbe("other"));
+  }
+
+  @Test
+  void testGlobalRate() {
+    ProbeRateLimiter.setGlobalRate(2);
+    ProbeRateLimiter.setRate("probe", 10);
+    long dropped = ProbeRateLimiter.getDroppedByGlobalRate();
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    assertFalse(ProbeRateLimiter.tryProbe("other"));
+    assertEquals(dropped + 1, ProbeRateLimiter.getDroppedByGlobalRate());
+  }
+
+  @Test
+  void testGlobalBytesRate() {
+    ProbeRateLimiter.setGlobalBytesRate(1000);
+    ProbeRateLimiter.setRate("probe", 10);
+    long dropped = ProbeRateLimiter.getDroppedByGlobalBytes();
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+    // a large snapshot uses up the budget for the next few seconds
+    ProbeRateLimiter.recordSnapshotBytes(5000);
+    assertFalse(ProbeRateLimiter.tryProbe("probe"));
+    assertFalse(ProbeRateLimiter.tryProbe("other"));
+    assertEquals(dropped + 2, ProbeRateLimiter.getDroppedByGlobalBytes());
+  }
+
+  @Test
+  void testCharge() {
+    ProbeRateLimiter.TokenBucket bucket = new ProbeRateLimiter.TokenBucket(1000);
+    long now = System.nanoTime();
+    bucket.charge(now, 2000);
+    assertFalse(bucket.hasTokens(now));
+    // the debt of one second is paid back before there is a token again
+    assertFalse(bucket.hasTokens(now + ONE_SECOND));
+    assertTrue(bucket.hasTokens(now + 2 * ONE_SECOND));
+  }
+
+  @Test
+  void testGlobalRejectionKeepsProbeToken() {
+    ProbeRateLimiter.setGlobalRate(1);
+    assertTrue(ProbeRateLimiter.tryProbe("other"));
+    assertFalse(ProbeRateLimiter.tryProbe("probe"));
+    ProbeRateLimiter.resetGlobalRate();
+    // the default rate of one per second was not spent by the rejected hit
+    assertTrue(ProbeRateLimiter.tryProbe("probe"));
+  }
+
+  @Test
+  void testRefill() {
+    ProbeRateLimiter.TokenBucket bucket = new ProbeRateLimiter.TokenBucket(2);
+    long now = System.nanoTime();
+    assertTrue(bucket.tryAcquire(now, 1));
+    assertTrue(bucket.tryAcquire(now, 1));
+    assertFalse(bucket.tryAcquire(now, 1));
+    assertFalse(bucket.hasTokens(now));
+    assertTrue(bucket.hasTokens(now + ONE_SECOND / 2));
+    assertTrue(bucket.tryAcquire(now + ONE_SECOND / 2, 1));
+    assertFalse(bucket.tryAcquire(now + ONE_SECOND / 2, 1));
+    // never holds more than one second worth of tokens
+    long later = now + 10 * ONE_SECOND;
+    assertTrue(bucket.tryAcquire(later, 2));
+    assertFalse(bucket.tryAcquire(later, 1));
+  }
+
+  @Test
+  void testRelease() {
+    ProbeRateLimiter.TokenBucket bucket = new ProbeRateLimiter.TokenBucket(1);
+    long now = System.nanoTime();
+    assertTrue(bucket.tryAcquire(now, 1));
+    assertFalse(bucket.tryAcquire(now, 1));
+    bucket.release(1);
+    assertTrue(bucket.tryAcquire(now, 1));
+  }
+
+  @Test
+  void testConcurrentProbeHits() throws Exception {
+    ProbeRateLimiter.TokenBucket bucket = new ProbeRateLimiter.TokenBucket(50);
+    long now = System.nanoTime();
+    assertEquals(50, hitConcurrently(() -> bucket.tryAcquire(now, 1)));
+  }
+
+  @Test
+  void testConcurrentGlobalHits() throws Exception {
+    ProbeRateLimiter.StripedTokenBucket bucket = new ProbeRateLimiter.StripedTokenBucket(50);
+    long now = System.nanoTime();
+    int acquired = hitConcurrently(() -> bucket.tryAcquire(now));
+    // stripes round their share of the rate down, but never let more than the rate through
+    assertTrue(acquired > 0 && acquired <= 50, "acquired " + acquired);
+    assertFalse(bucket.hasTokens(now));
+  }
+
+  private static int hitConcurrently(Hit hit) throws Exception {
+    int threadCount = 8;
+    AtomicInteger acquired = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      Thread thread =
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                  if (hit.tryAcquire()) {
+                    acquired.incrementAndGet();
+                  }
+                }
+              });
+      thread.start();
+      threads.add(thread);
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return acquired.get();
+  }
+
+  private interface Hit {
+    boolean tryAcquire();
+  }
+}
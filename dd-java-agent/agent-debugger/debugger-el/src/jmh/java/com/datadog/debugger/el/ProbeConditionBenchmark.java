@@ -0,0 +1,79 @@
+package com.datadog.debugger.el;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.bootstrap.debugger.Snapshot;
+import datadog.trace.bootstrap.debugger.el.ValueReferenceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Evaluates a probe condition with an argument field chain and a field comparison. The
+ * interpreted variant goes through {@link ValueReferenceResolver#resolve(String)}, which parses
+ * the reference path on every hit, the compiled variant resolves the reference paths parsed when
+ * the condition was built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+public class ProbeConditionBenchmark {
+
+  static final class Request {
+    final Session session;
+    final int count;
+
+    Request(Session session, int count) {
+      this.session = session;
+      this.count = count;
+    }
+  }
+
+  static final class Session {
+    final String user;
+
+    Session(String user) {
+      this.user = user;
+    }
+  }
+
+  private final ProbeCondition condition =
+      new ProbeCondition(
+          DSL.when(
+              DSL.and(
+                  DSL.gt(DSL.ref("^request.count"), DSL.value(5)),
+                  DSL.eq(DSL.ref("^request.session.user"), DSL.value("bench")))),
+          "request.count > 5 && request.session.user == 'bench'");
+
+  private Snapshot.CapturedContext compiled;
+  private ValueReferenceResolver interpreted;
+
+  @Setup
+  public void setup() {
+    Request request = new Request(new Session("bench"), 10);
+    compiled =
+        new Snapshot.CapturedContext(
+            new Snapshot.CapturedValue[] {
+              Snapshot.CapturedValue.of("request", Request.class.getName(), request)
+            },
+            null,
+            null,
+            null,
+            null);
+    interpreted = path -> compiled.resolve(path);
+  }
+
+  @Benchmark
+  public boolean interpreted() {
+    return condition.execute(interpreted);
+  }
+
+  @Benchmark
+  public boolean compiled() {
+    return condition.execute(compiled);
+  }
+}
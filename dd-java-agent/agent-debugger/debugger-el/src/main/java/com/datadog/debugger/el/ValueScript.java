@@ -13,6 +13,8 @@ import java.util.Objects;
 /** Implements expression language for capturing values for metric probes */
 public class ValueScript implements DebuggerScript {
   private final Object node;
+  // the expression is built on first execution and reused for subsequent probe hits
+  private ValueExpression<? extends Value<?>> valueExpr;
   private Value<?> result;
 
   public ValueScript(Object node) {
@@ -24,8 +26,12 @@ public class ValueScript implements DebuggerScript {
     if (node == null) {
       return true;
     }
-    ValueExpression<? extends Value<?>> valueExpr = mapToValueExpression(node);
-    result = valueExpr.evaluate(valueRefResolver);
+    ValueExpression<? extends Value<?>> expr = valueExpr;
+    if (expr == null) {
+      expr = mapToValueExpression(node);
+      valueExpr = expr;
+    }
+    result = expr.evaluate(valueRefResolver);
     return true;
   }
 
@@ -2,6 +2,7 @@ package com.datadog.debugger.el.expressions;
 
 import com.datadog.debugger.el.Generated;
 import com.datadog.debugger.el.Value;
+import datadog.trace.bootstrap.debugger.el.ReferencePath;
 import datadog.trace.bootstrap.debugger.el.ValueReferenceResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferences;
 import java.util.Objects;
@@ -10,10 +11,13 @@ import java.util.Objects;
 @SuppressWarnings("rawtypes")
 public final class ValueRefExpression implements ValueExpression {
   private final String path;
+  // parsed once so that evaluation does not split the path on every probe hit
+  private final ReferencePath reference;
 
   public ValueRefExpression(String path) {
     if (ValueReferences.isRefExpression(path)) {
       this.path = path;
+      this.reference = ReferencePath.parse(path);
     } else {
       throw new IllegalArgumentException(
           "The provided path '" + path + "' does not constitute a value reference");
@@ -22,7 +26,7 @@ public final class ValueRefExpression implements ValueExpression {
 
   @Override
   public Value<?> evaluate(ValueReferenceResolver valueRefResolver) {
-    return Value.of(valueRefResolver.resolve(path));
+    return Value.of(valueRefResolver.resolve(reference));
   }
 
   @Generated
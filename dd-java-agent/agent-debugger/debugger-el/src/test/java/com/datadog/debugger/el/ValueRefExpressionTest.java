@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.datadog.debugger.el.expressions.IsEmptyExpression;
 import com.datadog.debugger.el.expressions.ValueRefExpression;
+import datadog.trace.bootstrap.debugger.el.ReferencePath;
 import datadog.trace.bootstrap.debugger.el.ValueReferenceResolver;
 import datadog.trace.bootstrap.debugger.el.ValueReferences;
 import datadog.trace.bootstrap.debugger.el.Values;
@@ -121,4 +122,24 @@ class ValueRefExpressionTest {
         Values.UNDEFINED_OBJECT,
         DSL.ref(ValueReferences.synthetic("invalid")).evaluate(resolver).getValue());
   }
+
+  @Test
+  void testParsedRefIsResolved() {
+    ValueRefExpression valueRef = new ValueRefExpression("^request.session.user");
+    ValueReferenceResolver resolver =
+        new ValueReferenceResolver() {
+          @Override
+          public Object resolve(String path) {
+            throw new AssertionError("reference path should have been parsed up front");
+          }
+
+          @Override
+          public Object resolve(ReferencePath path) {
+            assertEquals(ValueReferences.ARGUMENT_PREFIX, path.getPrefix());
+            assertArrayEquals(new String[] {"request", "session", "user"}, path.getParts());
+            return "bench";
+          }
+        };
+    assertEquals("bench", valueRef.evaluate(resolver).getValue());
+  }
 }
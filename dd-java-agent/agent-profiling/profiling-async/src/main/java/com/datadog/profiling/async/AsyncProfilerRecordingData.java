@@ -31,6 +31,15 @@ final class AsyncProfilerRecordingData extends RecordingData {
     }
   }
 
+  @Override
+  public long getSize() {
+    try {
+      return Files.size(recordingFile);
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
   @Nonnull
   @Override
   public String getName() {
@@ -40,6 +40,19 @@ public final class AuxiliaryRecordingData extends RecordingData {
     }
   }
 
+  @Override
+  public long getSize() {
+    long size = mainData.getSize();
+    for (RecordingData data : secondaryData) {
+      long secondarySize = data.getSize();
+      if (size < 0 || secondarySize < 0) {
+        return -1;
+      }
+      size += secondarySize;
+    }
+    return size;
+  }
+
   @Nonnull
   @Override
   public String getName() {
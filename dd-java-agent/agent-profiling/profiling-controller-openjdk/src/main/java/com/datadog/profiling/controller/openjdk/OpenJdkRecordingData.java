@@ -47,6 +47,23 @@ public class OpenJdkRecordingData extends RecordingData {
     recording.close();
   }
 
+  /**
+   * The size of the recording is only known when the whole recording is uploaded. A snapshot holds
+   * all the data the recorder still keeps, which can be far more than the requested range.
+   */
+  @Override
+  public long getSize() {
+    final Instant recordingStart = recording.getStartTime();
+    final Instant recordingStop = recording.getStopTime();
+    if (recordingStart == null
+        || recordingStop == null
+        || start.isAfter(recordingStart)
+        || end.isBefore(recordingStop)) {
+      return -1;
+    }
+    return recording.getSize();
+  }
+
   @Override
   @Nonnull
   public String getName() {
@@ -99,6 +99,30 @@ public class OpenJdkRecordingDataTest {
     assertEquals(customEnd, customRecordingData.getEnd());
   }
 
+  @Test
+  public void testGetSizeOfWholeRecording() {
+    final Instant recordingStart = Instant.ofEpochSecond(10);
+    final Instant recordingStop = Instant.ofEpochSecond(20);
+    when(recording.getStartTime()).thenReturn(recordingStart);
+    when(recording.getStopTime()).thenReturn(recordingStop);
+    when(recording.getSize()).thenReturn(1234L);
+
+    assertEquals(1234L, new OpenJdkRecordingData(recording).getSize());
+  }
+
+  @Test
+  public void testGetSizeOfRange() {
+    final Instant recordingStart = Instant.ofEpochSecond(10);
+    final Instant recordingStop = Instant.ofEpochSecond(20);
+    when(recording.getStartTime()).thenReturn(recordingStart);
+    when(recording.getStopTime()).thenReturn(recordingStop);
+    when(recording.getSize()).thenReturn(1234L);
+
+    assertEquals(
+        -1L,
+        new OpenJdkRecordingData(recording, Instant.ofEpochSecond(15), recordingStop).getSize());
+  }
+
   @Test
   public void getRecording() {
     assertEquals(recording, recordingData.getRecording());
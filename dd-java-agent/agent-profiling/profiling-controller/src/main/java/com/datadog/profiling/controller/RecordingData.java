@@ -51,6 +51,16 @@ public abstract class RecordingData implements ProfilingSnapshot {
    */
   public abstract void release();
 
+  /**
+   * Returns the number of bytes {@link #getStream()} will return, without reading the data.
+   *
+   * @return the size of the recording data in bytes, or {@literal -1} if it is not known before
+   *     streaming the data
+   */
+  public long getSize() {
+    return -1;
+  }
+
   /**
    * Returns the name of the recording from which the data is originating.
    *
@@ -5,6 +5,7 @@ import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -117,8 +118,46 @@ final class CompressingRequestBody extends RequestBody {
       @Nonnull InputStreamSupplier inputStreamSupplier,
       @Nonnull RetryPolicy retryPolicy,
       @Nonnull RetryBackoff retryBackoff) {
+    this(
+        compressionType,
+        Deflater.DEFAULT_COMPRESSION,
+        inputStreamSupplier,
+        retryPolicy,
+        retryBackoff);
+  }
+
+  /**
+   * Create a new instance configured with 1 retry and constant 10ms backoff delay, using the given
+   * compression level.
+   *
+   * @param compressionType {@linkplain CompressionType} value
+   * @param compressionLevel the deflate level; only used by {@linkplain CompressionType#GZIP}
+   * @param inputStreamSupplier supplier of the data input stream
+   */
+  CompressingRequestBody(
+      @Nonnull CompressionType compressionType,
+      int compressionLevel,
+      @Nonnull InputStreamSupplier inputStreamSupplier) {
+    this(compressionType, compressionLevel, inputStreamSupplier, r -> r <= 1, r -> 10);
+  }
+
+  /**
+   * Create a new instance.
+   *
+   * @param compressionType {@linkplain CompressionType} value
+   * @param compressionLevel the deflate level; only used by {@linkplain CompressionType#GZIP}
+   * @param inputStreamSupplier supplier of the data input stream
+   * @param retryPolicy {@linkplain RetryPolicy} instance
+   * @param retryBackoff {@linkplain RetryBackoff} instance
+   */
+  CompressingRequestBody(
+      @Nonnull CompressionType compressionType,
+      int compressionLevel,
+      @Nonnull InputStreamSupplier inputStreamSupplier,
+      @Nonnull RetryPolicy retryPolicy,
+      @Nonnull RetryBackoff retryBackoff) {
     this.inputStreamSupplier = inputStreamSupplier;
-    this.outputStreamMapper = getOutputStreamMapper(compressionType);
+    this.outputStreamMapper = getOutputStreamMapper(compressionType, compressionLevel);
     this.retryPolicy = retryPolicy;
     this.retryBackoff = retryBackoff;
   }
@@ -314,13 +353,13 @@ final class CompressingRequestBody extends RequestBody {
   }
 
   private static OutputStreamMappingFunction getOutputStreamMapper(
-      @Nonnull CompressionType compressionType) {
+      @Nonnull CompressionType compressionType, int compressionLevel) {
     // currently only gzip and off are supported
     // this needs to be updated once more compression types are added
     switch (compressionType) {
       case GZIP:
         {
-          return GZIPOutputStream::new;
+          return out -> toGzipStream(out, compressionLevel);
         }
       case OFF:
         {
@@ -335,6 +374,15 @@ final class CompressingRequestBody extends RequestBody {
     }
   }
 
+  private static OutputStream toGzipStream(@Nonnull OutputStream os, int compressionLevel)
+      throws IOException {
+    return new GZIPOutputStream(os) {
+      {
+        def.setLevel(compressionLevel);
+      }
+    };
+  }
+
   private static OutputStream toLz4Stream(@Nonnull OutputStream os) throws IOException {
     return new LZ4FrameOutputStream(
         os,
@@ -0,0 +1,78 @@
+package com.datadog.profiling.uploader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.function.DoubleSupplier;
+import java.util.zip.Deflater;
+
+/**
+ * Picks the compression level for an upload based on the measured CPU headroom and the expected
+ * size of the recording. Uploads run concurrently with the application, so when the host is busy
+ * we trade compression ratio for CPU time instead of competing with the application threads.
+ *
+ * <p>Only gzip uploads take a level, the default lz4 compression is always the fast one.
+ */
+final class CompressionLevel {
+  /** Below this CPU headroom the fastest compression level is always used */
+  static final double LOW_HEADROOM = 0.25;
+  /** Above this CPU headroom smaller recordings are compressed with the default level */
+  static final double HIGH_HEADROOM = 0.5;
+  /** Recordings bigger than this are never compressed with more than the fast level */
+  static final long LARGE_RECORDING_BYTES = 16 * 1024 * 1024;
+
+  static final int FAST_LEVEL = Deflater.BEST_SPEED;
+  static final int BALANCED_LEVEL = 3;
+  static final int DEFAULT_LEVEL = 6;
+
+  private final DoubleSupplier cpuHeadroom;
+
+  // size of the last uploaded recording, used as a hint for the next one since
+  // recordings are taken periodically and tend to be of a similar size
+  private volatile long lastRecordingSize = -1;
+
+  CompressionLevel() {
+    this(CompressionLevel::systemCpuHeadroom);
+  }
+
+  CompressionLevel(DoubleSupplier cpuHeadroom) {
+    this.cpuHeadroom = cpuHeadroom;
+  }
+
+  /**
+   * @return the deflate level to use for the next upload
+   */
+  int nextLevel() {
+    return levelFor(cpuHeadroom.getAsDouble(), lastRecordingSize);
+  }
+
+  long lastRecordingSize() {
+    return lastRecordingSize;
+  }
+
+  void recordSize(long size) {
+    if (size > 0) {
+      lastRecordingSize = size;
+    }
+  }
+
+  static int levelFor(double cpuHeadroom, long sizeHint) {
+    if (cpuHeadroom < LOW_HEADROOM || sizeHint > LARGE_RECORDING_BYTES) {
+      return FAST_LEVEL;
+    }
+    return cpuHeadroom < HIGH_HEADROOM ? BALANCED_LEVEL : DEFAULT_LEVEL;
+  }
+
+  /**
+   * @return the fraction of CPU capacity not in use, in the [0, 1] range; {@literal 1} when the
+   *     load can not be measured on this platform
+   */
+  static double systemCpuHeadroom() {
+    OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    double load = os.getSystemLoadAverage();
+    if (load < 0) {
+      return 1d;
+    }
+    int cpus = Math.max(1, os.getAvailableProcessors());
+    return Math.max(0d, 1d - load / cpus);
+  }
+}
@@ -35,6 +35,8 @@ import java.io.IOException;
 import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,7 +46,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 import javax.annotation.Nonnull;
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -118,6 +122,10 @@ public final class ProfileUploader {
   private final String containerId;
   private final int terminationTimeout;
   private final CompressionType compressionType;
+  private final CompressionLevel compressionLevel;
+  private final long maxInflightBytes;
+  private final AtomicLong inflightBytes = new AtomicLong();
+  private final UploadSpool spool;
   private final String tags;
 
   public ProfileUploader(final Config config, final ConfigProvider configProvider) {
@@ -235,6 +243,21 @@ public final class ProfileUploader {
     client.dispatcher().setMaxRequestsPerHost(MAX_RUNNING_REQUESTS);
 
     compressionType = CompressionType.of(config.getProfilingUploadCompression());
+    compressionLevel = new CompressionLevel();
+    maxInflightBytes = config.getProfilingUploadMaxInflightBytes();
+
+    final String spoolDir = config.getProfilingUploadSpoolDir();
+    final int spoolMaxFiles = config.getProfilingUploadSpoolMaxFiles();
+    if (spoolDir != null && spoolMaxFiles > 0) {
+      // several JVMs may share the same spool directory
+      final Path spoolPath =
+          PidHelper.PID != null
+              ? Paths.get(spoolDir, PidHelper.PID.toString())
+              : Paths.get(spoolDir);
+      spool = new UploadSpool(spoolPath, spoolMaxFiles);
+    } else {
+      spool = null;
+    }
   }
 
   /**
@@ -287,36 +310,108 @@ public final class ProfileUploader {
       final RecordingData data,
       final boolean sync,
       @Nonnull final Runnable onCompletion) {
-    if (!canEnqueueMoreRequests()) {
+    final long reservedBytes = payloadSize(data);
+    if (!canEnqueueMoreRequests() || !reserveInflightBytes(reservedBytes)) {
+      // a synchronous upload is only requested when the profiler is shutting down so there will
+      // be no chance to upload the spooled recording later
+      if (!sync && spool != null && spool.offer(type, data)) {
+        log.debug("Upload backlog is full, spooled profile data for a later upload");
+        return;
+      }
       log.warn("Cannot upload profile data: too many enqueued requests!");
       // the request was not made; release the recording data
       data.release();
       return;
     }
 
-    Call call = makeRequest(type, data);
+    final CompressingRequestBody body;
+    final Call call;
+    try {
+      body = new CompressingRequestBody(compressionType, nextCompressionLevel(), data::getStream);
+      call = makeRequest(data, body);
+    } catch (final RuntimeException e) {
+      // the request was not made; give back its share of the in-flight budget
+      inflightBytes.addAndGet(-reservedBytes);
+      data.release();
+      throw e;
+    }
+    final Runnable completion =
+        () -> {
+          inflightBytes.addAndGet(-reservedBytes);
+          compressionLevel.recordSize(body.getReadBytes());
+          onCompletion.run();
+          drainSpool();
+        };
     if (sync) {
       try {
-        handleResponse(call, call.execute(), data, onCompletion);
+        handleResponse(call, call.execute(), data, completion);
       } catch (IOException e) {
-        handleFailure(call, e, data, onCompletion);
+        handleFailure(call, e, data, completion);
       }
     } else {
       call.enqueue(
           new Callback() {
             @Override
             public void onResponse(final Call call, final Response response) throws IOException {
-              handleResponse(call, response, data, onCompletion);
+              handleResponse(call, response, data, completion);
             }
 
             @Override
             public void onFailure(final Call call, final IOException e) {
-              handleFailure(call, e, data, onCompletion);
+              handleFailure(call, e, data, completion);
             }
           });
     }
   }
 
+  /** Resubmits the oldest spooled recording, if any, once there is room in the upload backlog */
+  private void drainSpool() {
+    if (spool != null && canEnqueueMoreRequests()) {
+      final UploadSpool.SpooledRecording recording = spool.poll();
+      if (recording != null) {
+        upload(recording.type, recording.data);
+      }
+    }
+  }
+
+  /**
+   * Only gzip takes a compression level, lz4 (the default) always trades ratio for speed, so the
+   * CPU headroom is only sampled for gzip uploads.
+   */
+  private int nextCompressionLevel() {
+    return compressionType == CompressionType.GZIP
+        ? compressionLevel.nextLevel()
+        : Deflater.DEFAULT_COMPRESSION;
+  }
+
+  /**
+   * The in-flight budget is reserved using the size of the recording data. Only when the recording
+   * can't tell its size before it is streamed is the size of the previous upload used instead.
+   */
+  private long payloadSize(final RecordingData data) {
+    final long size = data.getSize();
+    if (size >= 0) {
+      return size;
+    }
+    return Math.max(0, compressionLevel.lastRecordingSize());
+  }
+
+  private boolean reserveInflightBytes(final long bytes) {
+    if (maxInflightBytes <= 0) {
+      inflightBytes.addAndGet(bytes);
+      return true;
+    }
+    long current;
+    do {
+      current = inflightBytes.get();
+      // always let a single upload through so that an oversized recording does not stall uploads
+      if (current > 0 && current + bytes > maxInflightBytes) {
+        return false;
+      }
+    } while (!inflightBytes.compareAndSet(current, current + bytes));
+    return true;
+  }
+
   private void handleFailure(
       final Call call,
       final IOException e,
@@ -399,6 +494,9 @@ public final class ProfileUploader {
       log.warn("Wait for executor shutdown interrupted");
     }
     client.connectionPool().evictAll();
+    if (spool != null) {
+      spool.clear();
+    }
   }
 
   private byte[] createEvent(@Nonnull final RecordingData data) {
@@ -426,10 +524,8 @@ public final class ProfileUploader {
     return bodyBuilder.build();
   }
 
-  private Call makeRequest(@Nonnull final RecordingType type, @Nonnull final RecordingData data) {
-
-    final CompressingRequestBody body =
-        new CompressingRequestBody(compressionType, data::getStream);
+  private Call makeRequest(
+      @Nonnull final RecordingData data, @Nonnull final CompressingRequestBody body) {
     final RequestBody requestBody = makeRequestBody(data, body);
 
     final Request.Builder requestBuilder =
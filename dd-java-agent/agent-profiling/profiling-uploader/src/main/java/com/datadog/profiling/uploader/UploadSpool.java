@@ -0,0 +1,161 @@
+package com.datadog.profiling.uploader;
+
+import com.datadog.profiling.controller.RecordingData;
+import com.datadog.profiling.controller.RecordingInputStream;
+import com.datadog.profiling.controller.RecordingType;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded on-disk spool for recordings which could not be uploaded immediately because the upload
+ * backlog was full. Spooled recordings are copied to a local file (streaming, without buffering the
+ * whole recording in memory) so the original recording can be released right away, and are handed
+ * back to the uploader once the backlog drains. When the spool is full the oldest recording is
+ * dropped to make room for the newest one.
+ */
+final class UploadSpool {
+  private static final Logger log = LoggerFactory.getLogger(UploadSpool.class);
+
+  static final class SpooledRecording {
+    final RecordingType type;
+    final RecordingData data;
+
+    SpooledRecording(RecordingType type, RecordingData data) {
+      this.type = type;
+      this.data = data;
+    }
+  }
+
+  private final Path directory;
+  private final int maxFiles;
+  private final Deque<SpooledRecording> spooled = new ArrayDeque<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private long droppedRecordings = 0;
+
+  UploadSpool(@Nonnull Path directory, int maxFiles) {
+    this.directory = directory;
+    this.maxFiles = maxFiles;
+  }
+
+  /**
+   * Copies the recording to the spool directory and releases the original recording data.
+   *
+   * @return {@literal true} if the recording was spooled; {@literal false} if it could not be
+   *     written, in which case the original recording data is left untouched
+   */
+  boolean offer(@Nonnull RecordingType type, @Nonnull RecordingData data) {
+    Path file;
+    try {
+      Files.createDirectories(directory);
+      String fileName =
+          data.getName() + "-" + data.getStart().toEpochMilli() + "-" + sequence.getAndIncrement();
+      file = directory.resolve(fileName + ".jfr");
+      try (InputStream is = data.getStream()) {
+        Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      log.debug("Unable to spool recording {}", data.getName(), e);
+      return false;
+    }
+    SpooledRecording recording =
+        new SpooledRecording(
+            type, new SpooledRecordingData(file, data.getName(), data.getStart(), data.getEnd()));
+    SpooledRecording evicted = null;
+    synchronized (spooled) {
+      if (spooled.size() >= maxFiles) {
+        evicted = spooled.pollFirst();
+        droppedRecordings++;
+      }
+      spooled.addLast(recording);
+    }
+    data.release();
+    if (evicted != null) {
+      log.debug("Upload spool is full, dropping oldest recording {}", evicted.data.getName());
+      evicted.data.release();
+    }
+    return true;
+  }
+
+  /**
+   * @return the oldest spooled recording or {@literal null} if there is none
+   */
+  @Nullable
+  SpooledRecording poll() {
+    synchronized (spooled) {
+      return spooled.pollFirst();
+    }
+  }
+
+  int size() {
+    synchronized (spooled) {
+      return spooled.size();
+    }
+  }
+
+  long getDroppedRecordings() {
+    synchronized (spooled) {
+      return droppedRecordings;
+    }
+  }
+
+  /** Releases (deletes) all spooled recordings */
+  void clear() {
+    SpooledRecording recording;
+    while ((recording = poll()) != null) {
+      recording.data.release();
+    }
+  }
+
+  static final class SpooledRecordingData extends RecordingData {
+    private final Path file;
+    private final String name;
+
+    SpooledRecordingData(Path file, String name, Instant start, Instant end) {
+      super(start, end);
+      this.file = file;
+      this.name = name;
+    }
+
+    @Nonnull
+    @Override
+    public RecordingInputStream getStream() throws IOException {
+      return new RecordingInputStream(Files.newInputStream(file));
+    }
+
+    @Override
+    public void release() {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        log.debug("Unable to delete spooled recording {}", file, e);
+      }
+    }
+
+    @Nonnull
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public long getSize() {
+      try {
+        return Files.size(file);
+      } catch (IOException e) {
+        return -1;
+      }
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.datadog.profiling.uploader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class CompressionLevelTest {
+
+  @Test
+  void lowHeadroomUsesFastLevel() {
+    assertEquals(CompressionLevel.FAST_LEVEL, CompressionLevel.levelFor(0.1, -1));
+    assertEquals(CompressionLevel.FAST_LEVEL, CompressionLevel.levelFor(0.1, 1024));
+  }
+
+  @Test
+  void largeRecordingUsesFastLevel() {
+    assertEquals(
+        CompressionLevel.FAST_LEVEL,
+        CompressionLevel.levelFor(1.0, CompressionLevel.LARGE_RECORDING_BYTES + 1));
+  }
+
+  @Test
+  void headroomSelectsLevel() {
+    assertEquals(CompressionLevel.BALANCED_LEVEL, CompressionLevel.levelFor(0.3, 1024));
+    assertEquals(CompressionLevel.DEFAULT_LEVEL, CompressionLevel.levelFor(0.9, 1024));
+  }
+
+  @Test
+  void recordedSizeIsUsedAsHint() {
+    CompressionLevel level = new CompressionLevel(() -> 1.0);
+    assertEquals(CompressionLevel.DEFAULT_LEVEL, level.nextLevel());
+    level.recordSize(CompressionLevel.LARGE_RECORDING_BYTES * 2);
+    assertEquals(CompressionLevel.FAST_LEVEL, level.nextLevel());
+    // failed uploads do not reset the hint
+    level.recordSize(0);
+    assertEquals(CompressionLevel.FAST_LEVEL, level.nextLevel());
+  }
+
+  @Test
+  void systemHeadroomIsInRange() {
+    double headroom = CompressionLevel.systemCpuHeadroom();
+    assertEquals(true, headroom >= 0 && headroom <= 1);
+  }
+}
@@ -21,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -52,6 +53,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.ConnectException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Duration;
 import java.time.Instant;
@@ -784,6 +786,93 @@ public class ProfileUploaderTest {
     verify(rejectedRecording).release();
   }
 
+  @Test
+  public void testInflightBytesCap() throws Exception {
+    // the first upload hangs for the duration of the test and holds the whole byte budget
+    when(config.getProfilingUploadTimeout()).thenReturn((int) FOREVER_REQUEST_TIMEOUT.getSeconds());
+    when(config.getProfilingUploadMaxInflightBytes()).thenReturn(1000);
+    uploader = new ProfileUploader(config, configProvider);
+    server.enqueue(
+        new MockResponse()
+            .setHeadersDelay(FOREVER_REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)
+            .setResponseCode(200));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    final RecordingData inflightRecording = mockRecordingData();
+    when(inflightRecording.getSize()).thenReturn(1000L);
+    uploader.upload(RECORDING_TYPE, inflightRecording);
+    assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+
+    // the budget is reserved from the size of each recording, not from the previous upload
+    final RecordingData rejectedRecording = mockRecordingData();
+    when(rejectedRecording.getSize()).thenReturn(1L);
+    uploader.upload(RECORDING_TYPE, rejectedRecording);
+
+    assertNull(server.takeRequest(100, TimeUnit.MILLISECONDS), "No more requests");
+    verify(inflightRecording, VerificationModeFactory.times(0)).release();
+    verify(rejectedRecording).release();
+  }
+
+  @Test
+  public void testInflightBytesReleasedWhenRequestFails() throws Exception {
+    when(config.getProfilingUploadMaxInflightBytes()).thenReturn(1000);
+    uploader = new ProfileUploader(config, configProvider);
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    final RecordingData brokenRecording = mockRecordingData();
+    when(brokenRecording.getSize()).thenReturn(1000L);
+    when(brokenRecording.getStart()).thenThrow(new IllegalStateException("no start"));
+    assertThrows(
+        IllegalStateException.class, () -> uploader.upload(RECORDING_TYPE, brokenRecording));
+    verify(brokenRecording).release();
+
+    // the failed request gave back its share of the budget
+    final RecordingData recording = mockRecordingData();
+    when(recording.getSize()).thenReturn(1000L);
+    uploader.upload(RECORDING_TYPE, recording);
+    assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSpoolThenDrain() throws Exception {
+    final Path spoolDir = Files.createTempDirectory("dd-profiling-spool");
+    when(config.getProfilingUploadMaxInflightBytes()).thenReturn(1000);
+    when(config.getProfilingUploadSpoolDir()).thenReturn(spoolDir.toString());
+    when(config.getProfilingUploadSpoolMaxFiles()).thenReturn(4);
+    uploader = new ProfileUploader(config, configProvider);
+    // the first upload holds the byte budget until it completes
+    server.enqueue(
+        new MockResponse().setHeadersDelay(500, TimeUnit.MILLISECONDS).setResponseCode(200));
+    server.enqueue(new MockResponse().setResponseCode(200));
+
+    final RecordingData firstRecording = mockRecordingData();
+    when(firstRecording.getSize()).thenReturn(1000L);
+    final CountDownLatch firstDone = new CountDownLatch(1);
+    uploader.upload(RECORDING_TYPE, firstRecording, firstDone::countDown);
+
+    final RecordingData spooledRecording = mockRecordingData(true);
+    when(spooledRecording.getSize()).thenReturn(1000L);
+    uploader.upload(RECORDING_TYPE, spooledRecording);
+
+    // the recording was copied to the spool, so its data is released right away
+    verify(spooledRecording).release();
+    final Path pidDir = spoolDir.resolve(PidHelper.PID.toString());
+    assertEquals(1, pidDir.toFile().list().length);
+
+    assertNotNull(server.takeRequest(5, TimeUnit.SECONDS));
+    assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+    // the spooled copy is uploaded once the first upload completes
+    final RecordedRequest drained = server.takeRequest(5, TimeUnit.SECONDS);
+    assertNotNull(drained, "Spooled recording uploaded");
+    final List<FileItem> multiPartItems =
+        FileUpload.parse(drained.getBody().readByteArray(), drained.getHeader("Content-Type"));
+    final byte[] expectedBytes = ByteStreams.toByteArray(recordingStream(true));
+    assertArrayEquals(expectedBytes, multiPartItems.get(1).get());
+
+    uploader.shutdown();
+    assertEquals(0, pidDir.toFile().list().length);
+  }
+
   @Test
   public void testShutdown() throws Exception {
     uploader.shutdown();
@@ -0,0 +1,87 @@
+package com.datadog.profiling.uploader;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.datadog.profiling.controller.RecordingData;
+import com.datadog.profiling.controller.RecordingInputStream;
+import com.datadog.profiling.controller.RecordingType;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UploadSpoolTest {
+
+  @TempDir Path tempDir;
+
+  @Test
+  void spoolsAndReleasesRecording() throws Exception {
+    UploadSpool spool = new UploadSpool(tempDir.resolve("spool"), 2);
+    byte[] content = new byte[] {1, 2, 3, 4};
+    RecordingData data = recording(content);
+
+    assertTrue(spool.offer(RecordingType.CONTINUOUS, data));
+    verify(data).release();
+    assertEquals(1, spool.size());
+
+    UploadSpool.SpooledRecording spooled = spool.poll();
+    assertNotNull(spooled);
+    assertEquals(RecordingType.CONTINUOUS, spooled.type);
+    assertEquals("test", spooled.data.getName());
+    assertArrayEquals(content, IOUtils.toByteArray(spooled.data.getStream()));
+    spooled.data.release();
+    assertNull(spool.poll());
+    assertEquals(0, Files.list(tempDir.resolve("spool")).count());
+  }
+
+  @Test
+  void dropsOldestWhenFull() throws Exception {
+    UploadSpool spool = new UploadSpool(tempDir, 2);
+    assertTrue(spool.offer(RecordingType.CONTINUOUS, recording(new byte[] {1})));
+    assertTrue(spool.offer(RecordingType.CONTINUOUS, recording(new byte[] {2})));
+    assertTrue(spool.offer(RecordingType.CONTINUOUS, recording(new byte[] {3})));
+
+    assertEquals(2, spool.size());
+    assertEquals(1, spool.getDroppedRecordings());
+    assertEquals(2, Files.list(tempDir).count());
+    assertArrayEquals(new byte[] {2}, IOUtils.toByteArray(spool.poll().data.getStream()));
+
+    spool.clear();
+    assertEquals(0, spool.size());
+    assertEquals(1, Files.list(tempDir).count());
+  }
+
+  @Test
+  void failedSpoolLeavesRecordingUntouched() throws Exception {
+    UploadSpool spool = new UploadSpool(tempDir, 2);
+    RecordingData data = mock(RecordingData.class);
+    when(data.getName()).thenReturn("test");
+    when(data.getStart()).thenReturn(Instant.now());
+    when(data.getStream()).thenThrow(new IOException("test"));
+
+    assertFalse(spool.offer(RecordingType.CONTINUOUS, data));
+    assertEquals(0, spool.size());
+  }
+
+  private static RecordingData recording(byte[] content) throws IOException {
+    RecordingData data = mock(RecordingData.class);
+    when(data.getName()).thenReturn("test");
+    when(data.getStart()).thenReturn(Instant.now());
+    when(data.getEnd()).thenReturn(Instant.now());
+    when(data.getStream())
+        .thenReturn(new RecordingInputStream(new ByteArrayInputStream(content)));
+    return data;
+  }
+}
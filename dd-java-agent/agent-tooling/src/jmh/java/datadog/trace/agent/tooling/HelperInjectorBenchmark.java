@@ -0,0 +1,100 @@
+package datadog.trace.agent.tooling;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.loading.ClassInjector;
+import net.bytebuddy.utility.JavaModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Injects the same helpers into 500 new classloaders, as an app server deploying many webapps
+ * would, locating the helper bytecode for each classloader and tracking them in a synchronized
+ * weak map (the previous implementation), and with the {@linkplain HelperInjector}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class HelperInjectorBenchmark {
+
+  static final int CLASSLOADERS = 500;
+
+  static final String[] HELPERS = {
+    HelperA.class.getName(), HelperB.class.getName(), HelperC.class.getName()
+  };
+
+  URLClassLoader[] classLoaders;
+
+  @Setup(Level.Invocation)
+  public void createClassLoaders() {
+    classLoaders = new URLClassLoader[CLASSLOADERS];
+    for (int i = 0; i < CLASSLOADERS; ++i) {
+      classLoaders[i] = new URLClassLoader(new URL[0], null);
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void closeClassLoaders() throws IOException {
+    for (URLClassLoader classLoader : classLoaders) {
+      classLoader.close();
+    }
+  }
+
+  @Benchmark
+  public Object locatePerClassLoader() throws IOException {
+    Map<ClassLoader, Boolean> injected =
+        Collections.synchronizedMap(new WeakHashMap<ClassLoader, Boolean>());
+    for (ClassLoader classLoader : classLoaders) {
+      if (!injected.containsKey(classLoader)) {
+        Map<String, byte[]> helperMap = new LinkedHashMap<>();
+        ClassFileLocator locator = ClassFileLocator.ForClassLoader.of(Utils.getAgentClassLoader());
+        for (String helper : HELPERS) {
+          helperMap.put(helper, locator.locate(helper).resolve());
+        }
+        new ClassInjector.UsingReflection(classLoader).injectRaw(helperMap);
+        injected.put(classLoader, true);
+      }
+    }
+    return injected;
+  }
+
+  @Benchmark
+  public Object helperInjector() {
+    HelperInjector injector = new HelperInjector("benchmark", HELPERS);
+    for (ClassLoader classLoader : classLoaders) {
+      injector.transform(null, null, classLoader, JavaModule.UNSUPPORTED);
+    }
+    return injector;
+  }
+
+  public static class HelperA {}
+
+  public static class HelperB extends HelperA {}
+
+  public static class HelperC {
+    public HelperA helper() {
+      return new HelperB();
+    }
+  }
+}
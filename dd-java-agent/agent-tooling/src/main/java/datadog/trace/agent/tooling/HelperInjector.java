@@ -2,6 +2,7 @@ package datadog.trace.agent.tooling;
 
 import static datadog.trace.bootstrap.AgentClassLoading.INJECTING_HELPERS;
 
+import com.blogspot.mydailyjava.weaklockfree.WeakConcurrentMap;
 import datadog.trace.api.Config;
 import datadog.trace.util.Strings;
 import java.io.File;
@@ -22,7 +23,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.dynamic.ClassFileLocator;
@@ -55,8 +55,12 @@ public class HelperInjector implements Instrumenter.AdviceTransformer {
   private final Set<String> helperClassNames;
   private final Map<String, byte[]> dynamicTypeMap = new LinkedHashMap<>();
 
-  private final Map<ClassLoader, Boolean> injectedClassLoaders =
-      Collections.synchronizedMap(new WeakHashMap<ClassLoader, Boolean>());
+  // helper bytecode is located once and reused for every classloader
+  private volatile Map<String, byte[]> helperMap;
+
+  // lock-free, stale entries are expunged on access
+  private final WeakConcurrentMap<ClassLoader, Boolean> injectedClassLoaders =
+      new WeakConcurrentMap.WithInlinedExpunction<>();
 
   private final List<WeakReference<Object>> helperModules = new CopyOnWriteArrayList<>();
   /**
@@ -91,8 +95,13 @@ public class HelperInjector implements Instrumenter.AdviceTransformer {
   }
 
   private Map<String, byte[]> getHelperMap() throws IOException {
-    if (dynamicTypeMap.isEmpty()) {
-      final Map<String, byte[]> classnameToBytes = new LinkedHashMap<>();
+    if (!dynamicTypeMap.isEmpty()) {
+      return dynamicTypeMap;
+    }
+    Map<String, byte[]> classnameToBytes = helperMap;
+    if (null == classnameToBytes) {
+      // benign race: concurrent first injections may each locate the same bytecode
+      classnameToBytes = new LinkedHashMap<>();
 
       final ClassFileLocator locator =
           ClassFileLocator.ForClassLoader.of(Utils.getAgentClassLoader());
@@ -102,10 +111,9 @@ public class HelperInjector implements Instrumenter.AdviceTransformer {
         classnameToBytes.put(helperClassName, classBytes);
       }
 
-      return classnameToBytes;
-    } else {
-      return dynamicTypeMap;
+      helperMap = classnameToBytes;
     }
+    return classnameToBytes;
   }
 
   @Override
@@ -68,6 +68,25 @@ class HelperInjectionTest extends DDSpecification {
     helperClass.getClassLoader() == BOOTSTRAP_CLASSLOADER
   }
 
+  def "helper bytecode is located once for all classloaders"() {
+    setup:
+    String helperClassName = HelperInjectionTest.getPackage().getName() + '.HelperClass'
+    HelperInjector injector = new HelperInjector("test", helperClassName)
+    List<URLClassLoader> loaders = (1..3).collect { new URLClassLoader(new URL[0], (ClassLoader) null) }
+
+    when:
+    loaders.each { injector.transform(null, null, it, null) }
+    def helperMap = injector.helperMap
+
+    then:
+    loaders.every { isClassLoaded(helperClassName, it) }
+    helperMap.keySet() == [helperClassName] as Set
+    injector.getHelperMap().is(helperMap)
+
+    cleanup:
+    loaders*.close()
+  }
+
   def "check hard references on class injection"() {
     setup:
     String helperClassName = HelperInjectionTest.getPackage().getName() + '.HelperClass'
@@ -0,0 +1,56 @@
+package datadog.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to start a JVM running an empty main with the agent attached, to compare an agent jar built
+ * with {@code -PagentClassArchive} to one loading classes from their own jar entries.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+public class AgentStartupBenchmark {
+
+  @Param({
+    "/path/to/dd-trace-java/dd-java-agent/build/libs/dd-java-agent.jar",
+    "/path/to/dd-java-agent-class-archive.jar"
+  })
+  String agentJar;
+
+  @Benchmark
+  public int startWithAgent() throws IOException, InterruptedException {
+    Process process =
+        new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-javaagent:" + agentJar,
+                "-Ddd.jmxfetch.enabled=false",
+                "-Ddd.writer.type=LoggingWriter",
+                "-cp",
+                System.getProperty("java.class.path"),
+                EmptyMain.class.getName())
+            .inheritIO()
+            .start();
+    int exitCode = process.waitFor();
+    if (exitCode != 0) {
+      throw new IllegalStateException("JVM exited with " + exitCode);
+    }
+    return exitCode;
+  }
+
+  public static final class EmptyMain {
+    public static void main(String... args) {}
+  }
+}
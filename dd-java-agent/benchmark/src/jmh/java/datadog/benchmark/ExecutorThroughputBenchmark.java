@@ -0,0 +1,78 @@
+package datadog.benchmark;
+
+import datadog.trace.api.Trace;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Submits batches of tiny tasks to instrumented executors, either inside a trace (so context is
+ * propagated to every task) or outside of one (so the instrumentation should be as close to free
+ * as possible).
+ */
+@State(Scope.Benchmark)
+public class ExecutorThroughputBenchmark {
+
+  private static final int TASKS = 1000;
+
+  @Param({"threadPool", "forkJoin"})
+  String executorType;
+
+  ExecutorService executor;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    executor =
+        "forkJoin".equals(executorType) ? new ForkJoinPool(4) : Executors.newFixedThreadPool(4);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TASKS)
+  public void submitWithoutContext() throws InterruptedException {
+    submitAll();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TASKS)
+  public void submitWithContext() throws InterruptedException {
+    tracedSubmitAll();
+  }
+
+  @Trace
+  private void tracedSubmitAll() throws InterruptedException {
+    submitAll();
+  }
+
+  private void submitAll() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(TASKS);
+    for (int i = 0; i < TASKS; ++i) {
+      executor.execute(latch::countDown);
+    }
+    latch.await();
+  }
+
+  @Fork(jvmArgsAppend = "-javaagent:/path/to/dd-java-agent-master.jar")
+  public static class WithAgentMaster extends ExecutorThroughputBenchmark {}
+
+  @Fork(
+      jvmArgsAppend =
+          "-javaagent:/path/to/dd-trace-java/dd-java-agent/build/libs/dd-java-agent.jar")
+  public static class WithAgent extends ExecutorThroughputBenchmark {}
+}
@@ -3,6 +3,7 @@ package datadog.trace.instrumentation.apachehttpclient;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.ClassLoaderMatchers.hasClassesNamed;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.HierarchyMatchers.implementsInterface;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.named;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.APACHE_HTTP_CLIENT;
 import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
 import static net.bytebuddy.matcher.ElementMatchers.isMethod;
 import static net.bytebuddy.matcher.ElementMatchers.not;
@@ -163,7 +164,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
   public static class UriRequestAdvice {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope methodEnter(@Advice.Argument(0) final HttpUriRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -192,7 +193,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
                 typing = Assigner.Typing.DYNAMIC,
                 readOnly = false)
             Object handler) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -220,7 +221,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope methodEnter(
         @Advice.Argument(0) final HttpHost host, @Advice.Argument(1) final HttpRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -254,7 +255,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
                 typing = Assigner.Typing.DYNAMIC,
                 readOnly = false)
             Object handler) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
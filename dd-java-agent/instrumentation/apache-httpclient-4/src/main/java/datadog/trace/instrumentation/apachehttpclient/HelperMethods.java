@@ -1,5 +1,6 @@
 package datadog.trace.instrumentation.apachehttpclient;
 
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.APACHE_HTTP_CLIENT;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.activateSpan;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.propagate;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.startSpan;
@@ -13,7 +14,6 @@ import datadog.trace.bootstrap.CallDepthThreadLocalMap;
 import datadog.trace.bootstrap.instrumentation.api.AgentScope;
 import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
 import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
 
 public class HelperMethods {
@@ -50,7 +50,7 @@ public class HelperMethods {
     } finally {
       scope.close();
       span.finish();
-      CallDepthThreadLocalMap.reset(HttpClient.class);
+      CallDepthThreadLocalMap.reset(APACHE_HTTP_CLIENT);
     }
   }
 }
@@ -3,6 +3,7 @@ package datadog.trace.instrumentation.apachehttpclient5;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.ClassLoaderMatchers.hasClassesNamed;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.HierarchyMatchers.implementsInterface;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.named;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.APACHE_HTTP_CLIENT_5;
 import static net.bytebuddy.matcher.ElementMatchers.isAbstract;
 import static net.bytebuddy.matcher.ElementMatchers.isMethod;
 import static net.bytebuddy.matcher.ElementMatchers.not;
@@ -119,7 +120,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
   public static class RequestAdvice {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope methodEnter(@Advice.Argument(0) final ClassicHttpRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT_5);
       if (callDepth > 0) {
         return null;
       }
@@ -142,7 +143,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
     public static AgentScope methodEnter(
         @Advice.Argument(0) final HttpHost host,
         @Advice.Argument(1) final ClassicHttpRequest request) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT_5);
       if (callDepth > 0) {
         return null;
       }
@@ -173,7 +174,7 @@ public class ApacheHttpClientInstrumentation extends Instrumenter.Tracing
                 typing = Assigner.Typing.DYNAMIC,
                 readOnly = false)
             Object handler) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(APACHE_HTTP_CLIENT_5);
       if (callDepth > 0) {
         return null;
       }
@@ -1,5 +1,6 @@
 package datadog.trace.instrumentation.apachehttpclient5;
 
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.APACHE_HTTP_CLIENT_5;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.activateSpan;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.propagate;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.startSpan;
@@ -10,7 +11,6 @@ import static datadog.trace.instrumentation.apachehttpclient5.HttpHeadersInjectA
 import datadog.trace.bootstrap.CallDepthThreadLocalMap;
 import datadog.trace.bootstrap.instrumentation.api.AgentScope;
 import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
-import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.core5.http.HttpRequest;
 import org.apache.hc.core5.http.HttpResponse;
 
@@ -42,7 +42,7 @@ public class HelperMethods {
     } finally {
       scope.close();
       span.finish();
-      CallDepthThreadLocalMap.reset(HttpClient.class);
+      CallDepthThreadLocalMap.reset(APACHE_HTTP_CLIENT_5);
     }
   }
 }
@@ -111,9 +111,7 @@ public class LambdaHandlerInstrumentation extends Instrumenter.Tracing
       }
 
       try {
-        final AgentSpan span = scope.span();
-        span.finish();
-        AgentTracer.get().notifyExtensionEnd(span, null != throwable);
+        AgentTracer.get().finishAndNotifyExtensionEnd(scope.span(), null != throwable);
       } finally {
         scope.close();
       }
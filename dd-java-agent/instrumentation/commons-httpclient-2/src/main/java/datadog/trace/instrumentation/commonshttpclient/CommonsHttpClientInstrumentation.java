@@ -1,6 +1,7 @@
 package datadog.trace.instrumentation.commonshttpclient;
 
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.named;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.COMMONS_HTTP_CLIENT;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.activateSpan;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.propagate;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.startSpan;
@@ -53,7 +54,7 @@ public class CommonsHttpClientInstrumentation extends Instrumenter.Tracing
   public static class ExecAdvice {
     @Advice.OnMethodEnter(suppress = Throwable.class)
     public static AgentScope methodEnter(@Advice.Argument(1) final HttpMethod httpMethod) {
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpClient.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(COMMONS_HTTP_CLIENT);
       if (callDepth > 0) {
         return null;
       }
@@ -85,7 +86,7 @@ public class CommonsHttpClientInstrumentation extends Instrumenter.Tracing
       } finally {
         scope.close();
         span.finish();
-        CallDepthThreadLocalMap.reset(HttpClient.class);
+        CallDepthThreadLocalMap.reset(COMMONS_HTTP_CLIENT);
       }
     }
   }
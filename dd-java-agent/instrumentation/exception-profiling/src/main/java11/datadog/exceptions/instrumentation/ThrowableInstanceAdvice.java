@@ -1,8 +1,7 @@
 package datadog.exceptions.instrumentation;
 
-import static datadog.trace.util.AgentThreadFactory.AGENT_THREAD_GROUP;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.THROWABLE;
 
-import datadog.trace.api.Config;
 import datadog.trace.bootstrap.CallDepthThreadLocalMap;
 import datadog.trace.bootstrap.instrumentation.exceptions.ExceptionProfiling;
 import datadog.trace.bootstrap.instrumentation.exceptions.ExceptionSampleEvent;
@@ -19,36 +18,36 @@ public class ThrowableInstanceAdvice {
      * The solution is to keep a TLS flag and just skip the handler if it was invoked as a result of handling
      * a previous throwable instance (on the same thread).
      */
-    final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(Throwable.class);
+    final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(THROWABLE);
     if (callDepth > 0) {
       return;
     }
     try {
       /*
-       * Exclude internal agent threads from exception profiling.
+       * We may get into a situation when this is called before ExceptionProfiling had a chance
+       * to fully initialize. So despite the fact that this returns static singleton this may
+       * return null sometimes.
        */
-      if (Config.get().isProfilingExcludeAgentThreads()
-          && AGENT_THREAD_GROUP.equals(Thread.currentThread().getThreadGroup())) {
+      final ExceptionProfiling exceptionProfiling = ExceptionProfiling.getInstance();
+      if (exceptionProfiling == null) {
         return;
       }
       /*
-       * We may get into a situation when this is called before ExceptionProfiling had a chance
-       * to fully initialize. So despite the fact that this returns static singleton this may
-       * return null sometimes.
+       * Exclude internal agent threads from exception profiling.
        */
-      if (ExceptionProfiling.getInstance() == null) {
+      if (exceptionProfiling.isExcludedThread()) {
         return;
       }
       /*
        * JFR will assign the stacktrace depending on the place where the event is committed.
        * Therefore we need to commit the event here, right in the 'Exception' constructor
        */
-      final ExceptionSampleEvent event = ExceptionProfiling.getInstance().process(t);
+      final ExceptionSampleEvent event = exceptionProfiling.process(t);
       if (event != null && event.shouldCommit()) {
         event.commit();
       }
     } finally {
-      CallDepthThreadLocalMap.reset(Throwable.class);
+      CallDepthThreadLocalMap.reset(THROWABLE);
     }
   }
 }
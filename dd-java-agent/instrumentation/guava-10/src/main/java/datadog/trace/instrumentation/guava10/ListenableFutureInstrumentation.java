@@ -62,10 +62,14 @@ public class ListenableFutureInstrumentation extends Instrumenter.Tracing
         @Advice.Argument(value = 0, readOnly = false) Runnable task,
         @Advice.Argument(1) final Executor executor) {
       final AgentScope scope = activeScope();
+      if (null == scope || !scope.isAsyncPropagating()) {
+        // nothing to propagate, so there is no need to wrap the task
+        return null;
+      }
       final Runnable newTask = RunnableWrapper.wrapIfNeeded(task);
       // It is important to check potentially wrapped task if we can instrument task in this
       // executor. Some executors do not support wrapped tasks.
-      if (ExecutorInstrumentationUtils.shouldAttachStateToTask(newTask, executor)) {
+      if (ExecutorInstrumentationUtils.shouldAttachStateToTask(newTask, executor, scope)) {
         task = newTask;
         final ContextStore<Runnable, State> contextStore =
             InstrumentationContext.get(Runnable.class, State.class);
@@ -2,6 +2,7 @@ package datadog.trace.instrumentation.http_url_connection;
 
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.named;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.namedOneOf;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.HTTP_URL_CONNECTION;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.propagate;
 import static datadog.trace.bootstrap.instrumentation.httpurlconnection.HeadersInjectAdapter.SETTER;
 import static java.util.Collections.singletonMap;
@@ -63,7 +64,7 @@ public class HttpUrlConnectionInstrumentation extends Instrumenter.Tracing
       final HttpUrlState state = contextStore.putIfAbsent(thiz, HttpUrlState.FACTORY);
 
       synchronized (state) {
-        final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HttpURLConnection.class);
+        final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(HTTP_URL_CONNECTION);
         if (callDepth > 0) {
           return null;
         }
@@ -99,7 +100,7 @@ public class HttpUrlConnectionInstrumentation extends Instrumenter.Tracing
         }
       }
 
-      CallDepthThreadLocalMap.reset(HttpURLConnection.class);
+      CallDepthThreadLocalMap.reset(HTTP_URL_CONNECTION);
     }
   }
 }
@@ -51,7 +51,7 @@ public final class JavaExecutorInstrumentation extends AbstractExecutorInstrumen
         final Runnable newTask = RunnableWrapper.wrapIfNeeded(task);
         // It is important to check potentially wrapped task if we can instrument task in this
         // executor. Some executors do not support wrapped tasks.
-        if (ExecutorInstrumentationUtils.shouldAttachStateToTask(newTask, executor)) {
+        if (ExecutorInstrumentationUtils.shouldAttachStateToTask(newTask, executor, scope)) {
           task = newTask;
           final ContextStore<Runnable, State> contextStore =
               InstrumentationContext.get(Runnable.class, State.class);
@@ -91,9 +91,8 @@ public final class JavaForkJoinTaskInstrumentation extends Instrumenter.Tracing
   public static final class Fork {
     @Advice.OnMethodEnter
     public static <T> void fork(@Advice.This ForkJoinTask<T> task) {
-      if (!exclude(FORK_JOIN_TASK, task)) {
-        capture(InstrumentationContext.get(ForkJoinTask.class, State.class), task, true);
-      }
+      capture(
+          InstrumentationContext.get(ForkJoinTask.class, State.class), task, FORK_JOIN_TASK, true);
     }
   }
 
@@ -4,6 +4,7 @@ import static datadog.trace.agent.tooling.bytebuddy.matcher.ClassLoaderMatchers.
 import static datadog.trace.agent.tooling.bytebuddy.matcher.HierarchyMatchers.implementsInterface;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.nameStartsWith;
 import static datadog.trace.agent.tooling.bytebuddy.matcher.NameMatchers.named;
+import static datadog.trace.bootstrap.CallDepthThreadLocalMap.JDBC_STATEMENT;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.activateSpan;
 import static datadog.trace.bootstrap.instrumentation.api.AgentTracer.startSpan;
 import static datadog.trace.instrumentation.jdbc.JDBCDecorator.DATABASE_QUERY;
@@ -71,7 +72,7 @@ public final class StatementInstrumentation extends Instrumenter.Tracing
     public static AgentScope onEnter(
         @Advice.Argument(0) final String sql, @Advice.This final Statement statement) {
       // TODO consider matching known non-wrapper implementations to avoid this check
-      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(Statement.class);
+      final int callDepth = CallDepthThreadLocalMap.incrementCallDepth(JDBC_STATEMENT);
       if (callDepth > 0) {
         return null;
       }
@@ -99,7 +100,7 @@ public final class StatementInstrumentation extends Instrumenter.Tracing
       DECORATE.beforeFinish(scope.span());
       scope.close();
       scope.span().finish();
-      CallDepthThreadLocalMap.reset(Statement.class);
+      CallDepthThreadLocalMap.reset(JDBC_STATEMENT);
     }
   }
 }
@@ -53,6 +53,7 @@ public class ChannelFutureListenerInstrumentation extends Instrumenter.Tracing
       packageName + ".client.HttpClientResponseTracingHandler",
       packageName + ".client.HttpClientTracingHandler",
       // server helpers
+      packageName + ".server.RequestExtractAdapter",
       packageName + ".server.ResponseExtractAdapter",
       packageName + ".server.NettyHttpServerDecorator",
       packageName + ".server.HttpServerRequestTracingHandler",
@@ -48,6 +48,7 @@ public class NettyChannelHandlerContextInstrumentation extends Instrumenter.Trac
     return new String[] {
       packageName + ".AttributeKeys",
       packageName + ".client.NettyHttpClientDecorator",
+      packageName + ".server.RequestExtractAdapter",
       packageName + ".server.ResponseExtractAdapter",
       packageName + ".server.NettyHttpServerDecorator",
     };
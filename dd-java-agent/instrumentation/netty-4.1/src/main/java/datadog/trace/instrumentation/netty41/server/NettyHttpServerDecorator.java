@@ -3,7 +3,6 @@ package datadog.trace.instrumentation.netty41.server;
 import static io.netty.handler.codec.http.HttpHeaderNames.HOST;
 
 import datadog.trace.bootstrap.instrumentation.api.AgentPropagation;
-import datadog.trace.bootstrap.instrumentation.api.ContextVisitors;
 import datadog.trace.bootstrap.instrumentation.api.URIDataAdapter;
 import datadog.trace.bootstrap.instrumentation.api.URIDefaultDataAdapter;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
@@ -35,7 +34,7 @@ public class NettyHttpServerDecorator
 
   @Override
   protected AgentPropagation.ContextVisitor<HttpHeaders> getter() {
-    return ContextVisitors.stringValuesEntrySet();
+    return RequestExtractAdapter.GETTER;
   }
 
   @Override
@@ -0,0 +1,19 @@
+package datadog.trace.instrumentation.netty41.server;
+
+import datadog.trace.bootstrap.instrumentation.api.AgentPropagation;
+import datadog.trace.bootstrap.instrumentation.api.ContextVisitors;
+import io.netty.handler.codec.http.HttpHeaders;
+
+public class RequestExtractAdapter implements AgentPropagation.KeyedContextVisitor<HttpHeaders> {
+  public static final RequestExtractAdapter GETTER = new RequestExtractAdapter();
+
+  @Override
+  public void forEachKey(HttpHeaders carrier, AgentPropagation.KeyClassifier classifier) {
+    ContextVisitors.stringValuesEntrySet().forEachKey(carrier, classifier);
+  }
+
+  @Override
+  public String get(HttpHeaders carrier, String key) {
+    return carrier.get(key);
+  }
+}
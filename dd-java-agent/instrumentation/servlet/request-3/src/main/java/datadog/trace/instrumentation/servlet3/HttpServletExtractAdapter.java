@@ -6,7 +6,8 @@ import java.util.Enumeration;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
-public abstract class HttpServletExtractAdapter<T> implements AgentPropagation.ContextVisitor<T> {
+public abstract class HttpServletExtractAdapter<T>
+    implements AgentPropagation.KeyedContextVisitor<T> {
   abstract Enumeration<String> getHeaderNames(T t);
 
   abstract String getHeader(T t, String name);
@@ -22,6 +23,11 @@ public abstract class HttpServletExtractAdapter<T> implements AgentPropagation.C
     }
   }
 
+  @Override
+  public String get(T carrier, String key) {
+    return getHeader(carrier, key);
+  }
+
   public static final class Request extends HttpServletExtractAdapter<HttpServletRequest> {
     public static final Request GETTER = new Request();
 
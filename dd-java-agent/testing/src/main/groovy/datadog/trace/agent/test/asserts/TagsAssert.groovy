@@ -3,6 +3,7 @@ package datadog.trace.agent.test.asserts
 import datadog.trace.api.Config
 import datadog.trace.api.DDId
 import datadog.trace.api.DDTags
+import datadog.trace.bootstrap.instrumentation.api.CompositeTagValue
 import datadog.trace.bootstrap.instrumentation.api.Tags
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString
 import datadog.trace.common.sampling.RateByServiceSampler
@@ -106,7 +107,7 @@ class TagsAssert {
 
   def tag(String name) {
     def t = tags[name]
-    return (t instanceof UTF8BytesString) ? t.toString() : t
+    return (t instanceof UTF8BytesString || t instanceof CompositeTagValue) ? t.toString() : t
   }
 
   def methodMissing(String name, args) {
@@ -27,6 +27,7 @@ public final class ConfigDefaults {
   public static final String DEFAULT_TRACE_AGENT_SOCKET_PATH = "/var/run/datadog/apm.socket";
   public static final String DEFAULT_DOGSTATSD_SOCKET_PATH = "/var/run/datadog/dsd.socket";
   public static final int DEFAULT_AGENT_TIMEOUT = 10; // timeout in seconds
+  static final int DEFAULT_AGENT_LOCAL_TRANSPORT_RING_SIZE = 8 << 20; // 8 MiB
   public static final String DEFAULT_SERVICE_NAME = "unnamed-java-app";
   public static final String DEFAULT_SERVLET_ROOT_CONTEXT_SERVICE_NAME = "root-servlet";
 
@@ -43,6 +44,8 @@ public final class ConfigDefaults {
   static final String DEFAULT_PRIORITY_SAMPLING_FORCE = null;
   static final boolean DEFAULT_TRACE_RESOLVER_ENABLED = true;
   static final boolean DEFAULT_HTTP_SERVER_TAG_QUERY_STRING = false;
+  static final boolean DEFAULT_HTTP_SERVER_RAW_QUERY_STRING = true;
+  static final boolean DEFAULT_HTTP_SERVER_RAW_RESOURCE = false;
   static final boolean DEFAULT_HTTP_SERVER_ROUTE_BASED_NAMING = true;
   static final boolean DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING = false;
   static final boolean DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN = false;
@@ -77,6 +80,8 @@ public final class ConfigDefaults {
 
   static final boolean DEFAULT_CIVISIBILITY_ENABLED = false;
   static final boolean DEFAULT_CIVISIBILITY_AGENTLESS_ENABLED = false;
+  static final boolean DEFAULT_CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED = true;
+  static final int DEFAULT_CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS = 1; // synchronous
 
   static final boolean DEFAULT_DEBUGGER_ENABLED = false;
   static final int DEFAULT_DEBUGGER_UPLOAD_TIMEOUT = 30; // seconds
@@ -6,6 +6,11 @@ public final class CiVisibilityConfig {
   public static final String CIVISIBILITY_ENABLED = "civisibility.enabled";
   public static final String CIVISIBILITY_AGENTLESS_ENABLED = "civisibility.agentless.enabled";
   public static final String CIVISIBILITY_AGENTLESS_URL = "civisibility.agentless.url";
+  public static final String CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED =
+      "civisibility.agentless.compression.enabled";
+  public static final String CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS =
+      "civisibility.agentless.max.in.flight.requests";
+  public static final String CIVISIBILITY_AGENTLESS_SPOOL_DIR = "civisibility.agentless.spool.dir";
 
   private CiVisibilityConfig() {}
 }
@@ -40,6 +40,13 @@ public final class ProfilingConfig {
   public static final int PROFILING_UPLOAD_TIMEOUT_DEFAULT = 30;
   public static final String PROFILING_UPLOAD_COMPRESSION = "profiling.upload.compression";
   public static final String PROFILING_UPLOAD_COMPRESSION_DEFAULT = "on";
+  public static final String PROFILING_UPLOAD_MAX_INFLIGHT_BYTES =
+      "profiling.upload.max-inflight-bytes";
+  public static final int PROFILING_UPLOAD_MAX_INFLIGHT_BYTES_DEFAULT =
+      32 * 1024 * 1024; // 32MB default
+  public static final String PROFILING_UPLOAD_SPOOL_DIR = "profiling.upload.spool.dir";
+  public static final String PROFILING_UPLOAD_SPOOL_MAX_FILES = "profiling.upload.spool.max-files";
+  public static final int PROFILING_UPLOAD_SPOOL_MAX_FILES_DEFAULT = 4;
   public static final String PROFILING_PROXY_HOST = "profiling.proxy.host";
   public static final String PROFILING_PROXY_PORT = "profiling.proxy.port";
   public static final int PROFILING_PROXY_PORT_DEFAULT = 8080;
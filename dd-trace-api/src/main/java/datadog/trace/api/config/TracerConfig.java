@@ -21,6 +21,10 @@ public final class TracerConfig {
   public static final String AGENT_PORT_LEGACY = "agent.port";
   public static final String AGENT_UNIX_DOMAIN_SOCKET = "trace.agent.unix.domain.socket";
   public static final String AGENT_NAMED_PIPE = "trace.pipe.name";
+  public static final String AGENT_LOCAL_TRANSPORT = "trace.agent.local.transport";
+  public static final String AGENT_LOCAL_TRANSPORT_PATH = "trace.agent.local.transport.path";
+  public static final String AGENT_LOCAL_TRANSPORT_RING_SIZE =
+      "trace.agent.local.transport.ring.size";
   public static final String AGENT_TIMEOUT = "trace.agent.timeout";
   public static final String PROXY_NO_PROXY = "proxy.no_proxy";
   public static final String TRACE_AGENT_PATH = "trace.agent.path";
@@ -54,8 +58,12 @@ public final class TracerConfig {
   public static final String SCOPE_ITERATION_KEEP_ALIVE = "trace.scope.iteration.keep.alive";
   public static final String PARTIAL_FLUSH_MIN_SPANS = "trace.partial.flush.min.spans";
   public static final String TRACE_STRICT_WRITES_ENABLED = "trace.strict.writes.enabled";
+  public static final String TRACE_POST_PROCESSING_ASYNC_ENABLED =
+      "trace.post.processing.async.enabled";
   public static final String PROPAGATION_EXTRACT_LOG_HEADER_NAMES_ENABLED =
       "propagation.extract.log_header_names.enabled";
+  public static final String PROPAGATION_EXTRACT_BY_NAME_ENABLED =
+      "propagation.extract.by_name.enabled";
   public static final String PROPAGATION_STYLE_EXTRACT = "propagation.style.extract";
   public static final String PROPAGATION_STYLE_INJECT = "propagation.style.inject";
 
@@ -0,0 +1,98 @@
+package datadog.trace.common.metrics;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import datadog.trace.core.histogram.AdaptiveHistogramFactory;
+import datadog.trace.core.histogram.DDSketchHistogramFactory;
+import datadog.trace.core.histogram.Histogram;
+import datadog.trace.core.histogram.HistogramFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.SplittableRandom;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Heap retained by the ok and error latency histograms of 10k aggregates after a reporting
+ * interval, reported in the {@code retainedBytes} counter, and the time it takes to fill and
+ * serialize them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HistogramFootprintBenchmark {
+
+  static final int AGGREGATES = 10_000;
+
+  @Param({"ddsketch", "adaptive"})
+  String histogram;
+
+  @Param({"10", "1000"})
+  int samplesPerAggregate;
+
+  HistogramFactory factory;
+  long[] latencies;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long retainedBytes;
+  }
+
+  @Setup(Level.Trial)
+  public void init() {
+    factory =
+        "adaptive".equals(histogram)
+            ? new AdaptiveHistogramFactory()
+            : new DDSketchHistogramFactory();
+    SplittableRandom random = new SplittableRandom(0);
+    latencies = new long[4096];
+    for (int i = 0; i < latencies.length; ++i) {
+      // roughly log-normal latencies between 100us and 1s
+      latencies[i] = (long) Math.exp(11.5 + 2 * random.nextDouble() * random.nextDouble() * 4.6);
+    }
+  }
+
+  @Benchmark
+  public Object reportInterval(Footprint footprint) {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    long before = retained(memory);
+    Histogram[] histograms = new Histogram[AGGREGATES * 2];
+    int next = 0;
+    for (int i = 0; i < histograms.length; ++i) {
+      Histogram histogram = factory.newHistogram();
+      // errors are rare
+      int samples = (i & 1) == 0 ? samplesPerAggregate : samplesPerAggregate / 10;
+      for (int j = 0; j < samples; ++j) {
+        histogram.accept(latencies[next++ & (latencies.length - 1)]);
+      }
+      histograms[i] = histogram;
+    }
+    long serializedBytes = 0;
+    for (Histogram histogram : histograms) {
+      serializedBytes += histogram.serialize().remaining();
+      histogram.clear();
+    }
+    footprint.retainedBytes = retained(memory) - before;
+    return serializedBytes == 0 ? null : histograms;
+  }
+
+  private static long retained(MemoryMXBean memory) {
+    System.gc();
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,111 @@
+package datadog.trace.common.sampling;
+
+import static datadog.trace.common.sampling.RateByServiceSamplerBenchmark.ITERATION_TIME_MILLIS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import datadog.trace.api.sampling.PrioritySampling;
+import datadog.trace.common.writer.LoggingWriter;
+import datadog.trace.core.CoreTracer;
+import datadog.trace.core.DDSpan;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Warmup(iterations = 5, time = ITERATION_TIME_MILLIS, timeUnit = MILLISECONDS)
+@Measurement(iterations = 5, time = ITERATION_TIME_MILLIS, timeUnit = MILLISECONDS)
+@OutputTimeUnit(MICROSECONDS)
+@BenchmarkMode(Mode.Throughput)
+@State(Scope.Benchmark)
+public class RateByServiceSamplerBenchmark {
+
+  public static final int ITERATION_TIME_MILLIS = 1000;
+
+  @Param("16")
+  int services;
+
+  @Param("3")
+  int envs;
+
+  private final RateByServiceSampler<DDSpan> sampler = new RateByServiceSampler<>();
+  private CoreTracer tracer;
+  private DDSpan[] spans;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    tracer = CoreTracer.builder().writer(new LoggingWriter()).strictTraceWrites(true).build();
+    Map<String, Map<String, Number>> response = new HashMap<>();
+    Map<String, Number> rates = new HashMap<>();
+    rates.put("service:,env:", 1.0);
+    spans = new DDSpan[services * envs];
+    for (int s = 0; s < services; ++s) {
+      for (int e = 0; e < envs; ++e) {
+        rates.put("service:service-" + s + ",env:env-" + e, 0.5);
+        spans[s * envs + e] =
+            (DDSpan)
+                tracer
+                    .buildSpan("operation")
+                    .withServiceName("service-" + s)
+                    .withTag("env", "env-" + e)
+                    .ignoreActiveSpan()
+                    .start();
+      }
+    }
+    response.put("rate_by_service", rates);
+    sampler.onResponse("v0.4", response);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    tracer.close();
+  }
+
+  @Threads(4)
+  @Benchmark
+  public Integer setSamplingPriority(PrioritySamplerCounters counters) {
+    DDSpan span = spans[ThreadLocalRandom.current().nextInt(spans.length)];
+    sampler.setSamplingPriority(span);
+    Integer priority = span.getSamplingPriority();
+    if (null != priority && priority == PrioritySampling.SAMPLER_KEEP) {
+      ++counters.kept;
+    }
+    ++counters.tests;
+    return priority;
+  }
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class PrioritySamplerCounters {
+
+    long tests;
+    long kept;
+
+    public long tests() {
+      return tests;
+    }
+
+    public long kept() {
+      return kept;
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      tests = 0;
+      kept = 0;
+    }
+  }
+}
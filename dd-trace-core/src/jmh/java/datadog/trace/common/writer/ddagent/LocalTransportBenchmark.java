@@ -0,0 +1,136 @@
+package datadog.trace.common.writer.ddagent;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import com.sun.net.httpserver.HttpServer;
+import datadog.communication.ddagent.DDAgentFeaturesDiscovery;
+import datadog.communication.http.OkHttpUtils;
+import datadog.communication.monitor.Monitoring;
+import datadog.trace.common.writer.RemoteApi;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Throughput of handing a serialized trace payload to a local agent over HTTP with OkHttp, against
+ * a stub agent, compared to the UNIX domain socket and memory-mapped ring transports, against the
+ * stand-in receiver. The receivers only copy the payload out, so this measures the cost on the
+ * tracer side.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+public class LocalTransportBenchmark {
+
+  @Param({"http", LocalTransport.UDS, LocalTransport.MMAP})
+  String transport;
+
+  @Param({"4096", "1048576"})
+  int payloadSize;
+
+  File directory;
+  HttpServer server;
+  LocalTransportReceiver receiver;
+  LocalTransport localTransport;
+  RemoteApi api;
+  ByteBuffer body;
+  final AtomicLong received = new AtomicLong();
+
+  @Setup(Level.Trial)
+  public void init() throws IOException {
+    byte[] bytes = new byte[payloadSize];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    body = ByteBuffer.wrap(bytes);
+    directory = Files.createTempDirectory("dd-lt").toFile();
+    LocalTransportReceiver.FrameListener listener =
+        (type, messageCount, droppedTraces, droppedSpans, frameBody) ->
+            received.addAndGet(frameBody.remaining());
+    switch (transport) {
+      case LocalTransport.UDS:
+        File socket = new File(directory, "agent.sock");
+        receiver = LocalTransportReceiver.listen(socket, listener);
+        localTransport = new UnixSocketLocalTransport(socket, 10_000);
+        break;
+      case LocalTransport.MMAP:
+        File ring = new File(directory, "agent.traces");
+        localTransport = MappedRingLocalTransport.create(ring, 64 << 20);
+        receiver = LocalTransportReceiver.poll(ring, listener);
+        break;
+      default:
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+            "/",
+            exchange -> {
+              drain(exchange.getRequestBody());
+              if (exchange.getRequestURI().getPath().endsWith("/info")) {
+                exchange.sendResponseHeaders(404, -1);
+              } else {
+                byte[] ok = "OK".getBytes();
+                exchange.sendResponseHeaders(200, ok.length);
+                exchange.getResponseBody().write(ok);
+              }
+              exchange.close();
+            });
+        server.start();
+    }
+    HttpUrl agentUrl =
+        HttpUrl.get("http://127.0.0.1:" + (null == server ? 8126 : server.getAddress().getPort()));
+    OkHttpClient client = OkHttpUtils.buildHttpClient(agentUrl, 10_000);
+    DDAgentFeaturesDiscovery discovery =
+        new DDAgentFeaturesDiscovery(client, Monitoring.DISABLED, agentUrl, false, false);
+    if (null == localTransport) {
+      discovery.discover();
+      api = new DDAgentApi(client, agentUrl, discovery, Monitoring.DISABLED, false);
+    } else {
+      api = new LocalTransportApi(localTransport, discovery, Monitoring.DISABLED);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() throws IOException {
+    if (null != localTransport) {
+      localTransport.close();
+    }
+    if (null != receiver) {
+      receiver.close();
+    }
+    if (null != server) {
+      server.stop(0);
+    }
+    File[] files = directory.listFiles();
+    if (null != files) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+    directory.delete();
+  }
+
+  @Benchmark
+  public RemoteApi.Response send() {
+    return api.sendSerializedTraces(
+        new TraceMapperV0_4().newPayload().withBody(100, body.duplicate()));
+  }
+
+  private static void drain(InputStream in) throws IOException {
+    byte[] buffer = new byte[8192];
+    while (in.read(buffer) != -1) {}
+  }
+}
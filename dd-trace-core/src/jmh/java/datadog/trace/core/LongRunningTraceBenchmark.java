@@ -0,0 +1,74 @@
+package datadog.trace.core;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import java.lang.management.ManagementFactory;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Cost of finishing a span under a root which stays open for the whole iteration, like a batch
+ * job creating a span per item, with partial flushes after a small chunk of spans and with the
+ * default threshold. The heap still held by the pending trace at the end of the iteration, after
+ * a forced GC, is reported in the {@code retainedBytes} counter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Fork(value = 1)
+public class LongRunningTraceBenchmark {
+
+  @Param({"64", "1000"})
+  int partialFlushMinSpans;
+
+  CoreTracer tracer;
+  AgentSpan root;
+  long baselineBytes;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Footprint {
+    public long retainedBytes;
+  }
+
+  @Setup(Level.Iteration)
+  public void init(TraceCounters counters, Blackhole blackhole) {
+    tracer =
+        CoreTracer.builder()
+            .writer(new BlackholeWriter(blackhole, counters, 0))
+            .partialFlushMinSpans(partialFlushMinSpans)
+            .strictTraceWrites(false)
+            .build();
+    root = tracer.buildSpan("batch.job").start();
+    baselineBytes = usedHeap();
+  }
+
+  @TearDown(Level.Iteration)
+  public void finishRoot(Footprint footprint) {
+    footprint.retainedBytes = usedHeap() - baselineBytes;
+    root.finish();
+    tracer.close();
+  }
+
+  @Benchmark
+  public void finishChildSpan() {
+    tracer.buildSpan("batch.item").asChildOf(root.context()).start().finish();
+  }
+
+  private static long usedHeap() {
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
@@ -0,0 +1,96 @@
+package datadog.trace.core;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.api.DDTags;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.bootstrap.instrumentation.api.InstrumentationTags;
+import datadog.trace.bootstrap.instrumentation.api.Tags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Sets 20 tags per span, a mix of intercepted and plain tags, to measure tag interception. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+public class SetTagsBenchmark {
+
+  private static final String[] KEYS = {
+    Tags.COMPONENT,
+    Tags.SPAN_KIND,
+    Tags.HTTP_METHOD,
+    Tags.HTTP_URL,
+    Tags.HTTP_STATUS,
+    Tags.PEER_HOSTNAME,
+    Tags.PEER_PORT,
+    Tags.PEER_HOST_IPV4,
+    Tags.ERROR,
+    Tags.DB_STATEMENT,
+    Tags.DB_TYPE,
+    Tags.DB_INSTANCE,
+    DDTags.RESOURCE_NAME,
+    DDTags.SPAN_TYPE,
+    DDTags.ANALYTICS_SAMPLE_RATE,
+    InstrumentationTags.SERVLET_CONTEXT,
+    "custom.tag.1",
+    "custom.tag.2",
+    "custom.tag.3",
+    "custom.tag.4"
+  };
+
+  private static final Object[] VALUES = {
+    "java-web-servlet",
+    Tags.SPAN_KIND_SERVER,
+    "GET",
+    "http://localhost:8080/some/path",
+    200,
+    "localhost",
+    8080,
+    "127.0.0.1",
+    false,
+    "SELECT * FROM table WHERE id = ?",
+    "postgresql",
+    "db",
+    "GET /some/path",
+    "web",
+    1.0,
+    "/context",
+    "value1",
+    "value2",
+    "value3",
+    "value4"
+  };
+
+  CoreTracer tracer;
+
+  @Setup(Level.Trial)
+  public void init(TraceCounters counters, Blackhole blackhole) {
+    tracer =
+        CoreTracer.builder()
+            .writer(new BlackholeWriter(blackhole, counters, 0))
+            .strictTraceWrites(false)
+            .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    tracer.close();
+  }
+
+  @Benchmark
+  public void setTags() {
+    AgentSpan span = tracer.startSpan("operation", false);
+    for (int i = 0; i < KEYS.length; ++i) {
+      span.setTag(KEYS[i], VALUES[i]);
+    }
+    span.finish();
+  }
+}
@@ -0,0 +1,116 @@
+package datadog.trace.core;
+
+import static datadog.trace.api.config.TracerConfig.TRACE_POST_PROCESSING_ASYNC_ENABLED;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.api.interceptor.MutableSpan;
+import datadog.trace.api.interceptor.TraceInterceptor;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.common.writer.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Latency of finishing a root span with 3 trace interceptors registered, with the trace
+ * post-processed on the finishing thread or handed over to the background post-processor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(MICROSECONDS)
+public class TracePostProcessingBenchmark {
+
+  @Param({"false", "true"})
+  boolean async;
+
+  @Param({"100", "1000"})
+  int interceptorTokens;
+
+  CoreTracer tracer;
+
+  @Setup(Level.Trial)
+  public void init() {
+    Properties properties = new Properties();
+    properties.setProperty(TRACE_POST_PROCESSING_ASYNC_ENABLED, String.valueOf(async));
+    tracer =
+        CoreTracer.builder()
+            .withProperties(properties)
+            .writer(new DiscardingWriter())
+            .strictTraceWrites(false)
+            .build();
+    for (int priority = 1; priority <= 3; ++priority) {
+      tracer.addTraceInterceptor(new CopyingInterceptor(priority, interceptorTokens));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    tracer.close();
+  }
+
+  @Benchmark
+  public void finishRootSpan() {
+    AgentSpan span = tracer.startSpan("servlet.request", false);
+    span.setTag("http.url", "http://localhost:8080/some/path");
+    span.finish();
+  }
+
+  /** Interceptors commonly copy (and filter) the trace, then look at every span */
+  private static final class CopyingInterceptor implements TraceInterceptor {
+    private final int priority;
+    private final int tokens;
+
+    CopyingInterceptor(int priority, int tokens) {
+      this.priority = priority;
+      this.tokens = tokens;
+    }
+
+    @Override
+    public Collection<? extends MutableSpan> onTraceComplete(
+        Collection<? extends MutableSpan> trace) {
+      List<MutableSpan> copy = new ArrayList<>(trace.size());
+      for (MutableSpan span : trace) {
+        span.setTag("interceptor." + priority, true);
+        copy.add(span);
+      }
+      Blackhole.consumeCPU(tokens);
+      return copy;
+    }
+
+    @Override
+    public int priority() {
+      return priority;
+    }
+  }
+
+  private static final class DiscardingWriter implements Writer {
+    @Override
+    public void write(List<DDSpan> trace) {}
+
+    @Override
+    public void start() {}
+
+    @Override
+    public boolean flush() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void incrementDropCounts(int spanCount) {}
+  }
+}
@@ -0,0 +1,41 @@
+package datadog.trace.core;
+
+import datadog.trace.common.writer.ddagent.TraceMapperV0_5;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Maps traces into a fresh v0.5 dictionary on every invocation, as happens for every payload, so
+ * the dictionary insertion path is measured rather than only lookups of already encoded values.
+ */
+@State(Scope.Benchmark)
+public class TracerMapperDictionary extends TracerMapperMap {
+
+  private static final int SPAN_COUNT = 1000;
+  private static final int DISTINCT_RESOURCES = 100;
+
+  private final TraceMapperV0_5 mapper = new TraceMapperV0_5();
+  private final List<DDSpan> variedSpans = new ArrayList<>(SPAN_COUNT);
+
+  @Setup(Level.Trial)
+  public void initVariedSpans() {
+    for (int i = 1; i <= SPAN_COUNT; i++) {
+      DDSpan span = createSpan(i, "GET /api/v1/resource/" + (i % DISTINCT_RESOURCES), null);
+      span.setTag("http.url", "http://localhost:8080/api/v1/resource/" + (i % DISTINCT_RESOURCES));
+      span.setTag("some-tag-key", "some-tag-value");
+      span.setMetric("some-metric-key", 1.0);
+      variedSpans.add(span);
+    }
+  }
+
+  @Benchmark
+  public void mapAndResetV5() {
+    mapper.map(variedSpans, writer);
+    mapper.reset();
+  }
+}
@@ -33,7 +33,7 @@ public class TracerMapperMap {
   private final List<DDSpan> spansWithOrigin = new ArrayList<>(SPAN_COUNT);
   private final List<DDSpan> enrichedSpansWithOrigin = new ArrayList<>(SPAN_COUNT);
 
-  private MsgPackWriter writer;
+  protected MsgPackWriter writer;
 
   @Setup(Level.Trial)
   public void init(Blackhole blackhole) throws Exception {
@@ -95,6 +95,10 @@ public class TracerMapperMap {
   }
 
   private DDSpan createSpanWithOrigin(int iter, final String origin) {
+    return createSpan(iter, "resource", origin);
+  }
+
+  protected DDSpan createSpan(int iter, final String resource, final String origin) {
     final DDId traceId = DDId.from(iter);
     final PendingTrace trace = tracer.createTrace(traceId);
     return DDSpan.create(
@@ -106,7 +110,7 @@ public class TracerMapperMap {
             null,
             "service",
             "operation",
-            "resource",
+            resource,
             PrioritySampling.SAMPLER_KEEP,
             SamplingMechanism.DEFAULT,
             origin,
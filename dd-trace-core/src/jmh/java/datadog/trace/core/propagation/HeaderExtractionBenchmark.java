@@ -0,0 +1,187 @@
+package datadog.trace.core.propagation;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import datadog.trace.bootstrap.instrumentation.api.AgentPropagation;
+import datadog.trace.bootstrap.instrumentation.api.TagContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Extracts a Datadog context from a browser-like request with 40 headers, either walking all the
+ * headers or looking up the known header names. The servlet carrier mimics a container which
+ * stores headers in a list and scans it on each {@code getHeader} call (like Tomcat), the netty
+ * carrier mimics case-insensitive hashed headers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(MICROSECONDS)
+public class HeaderExtractionBenchmark {
+
+  private static final String[][] HEADERS = {
+    {"Host", "www.example.com"},
+    {"Connection", "keep-alive"},
+    {"Cache-Control", "max-age=0"},
+    {"sec-ch-ua", "\" Not A;Brand\";v=\"99\", \"Chromium\";v=\"96\""},
+    {"sec-ch-ua-mobile", "?0"},
+    {"sec-ch-ua-platform", "\"Linux\""},
+    {"Upgrade-Insecure-Requests", "1"},
+    {"User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 Chrome/96.0 Safari/537.36"},
+    {"Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/webp,*/*;q=0.8"},
+    {"Sec-Fetch-Site", "same-origin"},
+    {"Sec-Fetch-Mode", "navigate"},
+    {"Sec-Fetch-User", "?1"},
+    {"Sec-Fetch-Dest", "document"},
+    {"Referer", "https://www.example.com/products/123"},
+    {"Accept-Encoding", "gzip, deflate, br"},
+    {"Accept-Language", "en-US,en;q=0.9,fr;q=0.8"},
+    {"Cookie", "session=0123456789abcdef; theme=dark; consent=true; _ga=GA1.2.3456789.0123456"},
+    {"If-None-Match", "W/\"5e15153d-120f\""},
+    {"If-Modified-Since", "Wed, 08 Jan 2020 23:11:55 GMT"},
+    {"DNT", "1"},
+    {"Pragma", "no-cache"},
+    {"Origin", "https://www.example.com"},
+    {"Content-Type", "application/x-www-form-urlencoded"},
+    {"Content-Length", "27"},
+    {"X-Requested-With", "XMLHttpRequest"},
+    {"X-Request-Id", "f058ebd6-02f7-4d3f-942e-904344e8cde5"},
+    {"X-Real-IP", "203.0.113.195"},
+    {"Via", "1.1 vegur"},
+    {"CF-Connecting-IP", "203.0.113.195"},
+    {"CF-IPCountry", "US"},
+    {"CF-Ray", "6c6e0f6c1d1e2f3a-CDG"},
+    {"True-Client-IP", "203.0.113.195"},
+    {"X-Amz-Cf-Id", "Hk4lbzUj2f3e0kAYs2e4ZpGPZ5kN7JmZT0B1wl8Y7FGrU1AW5ZFbfA=="},
+    {"X-Correlation-Id", "0f5b2a3e-1c6d-4b3e-9a1f-3c2d1e0f9a8b"},
+    {"Priority", "u=0, i"},
+    {"TE", "trailers"},
+    {"x-datadog-trace-id", "1234567890123456789"},
+    {"x-datadog-parent-id", "9876543210987654321"},
+    {"x-datadog-sampling-priority", "1"},
+    {"x-datadog-origin", "rum"}
+  };
+
+  @Param({"servlet", "netty"})
+  String carrier;
+
+  @Param({"false", "true"})
+  boolean extractByName;
+
+  private Object headers;
+  private AgentPropagation.ContextVisitor<Object> getter;
+  private HttpCodec.Extractor extractor;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() {
+    Map<String, String> taggedHeaders = Collections.singletonMap("x-request-id", "request.id");
+    extractor = DatadogHttpCodec.newExtractor(taggedHeaders, extractByName);
+    if ("servlet".equals(carrier)) {
+      headers = new ServletHeaders(HEADERS);
+      getter = (AgentPropagation.ContextVisitor) ServletGetter.INSTANCE;
+    } else {
+      headers = new NettyHeaders(HEADERS);
+      getter = (AgentPropagation.ContextVisitor) NettyGetter.INSTANCE;
+    }
+  }
+
+  @Benchmark
+  public TagContext extract() {
+    return extractor.extract(headers, getter);
+  }
+
+  static final class ServletHeaders {
+    private final List<String> names = new ArrayList<>();
+    private final List<String> values = new ArrayList<>();
+
+    ServletHeaders(String[][] headers) {
+      for (String[] header : headers) {
+        names.add(header[0]);
+        values.add(header[1]);
+      }
+    }
+
+    Enumeration<String> getHeaderNames() {
+      return Collections.enumeration(names);
+    }
+
+    String getHeader(String name) {
+      for (int i = 0; i < names.size(); ++i) {
+        if (names.get(i).equalsIgnoreCase(name)) {
+          return values.get(i);
+        }
+      }
+      return null;
+    }
+  }
+
+  static final class ServletGetter implements AgentPropagation.KeyedContextVisitor<ServletHeaders> {
+    static final ServletGetter INSTANCE = new ServletGetter();
+
+    @Override
+    public void forEachKey(ServletHeaders carrier, AgentPropagation.KeyClassifier classifier) {
+      Enumeration<String> headerNames = carrier.getHeaderNames();
+      while (headerNames.hasMoreElements()) {
+        String header = headerNames.nextElement();
+        if (!classifier.accept(header, carrier.getHeader(header))) {
+          break;
+        }
+      }
+    }
+
+    @Override
+    public String get(ServletHeaders carrier, String key) {
+      return carrier.getHeader(key);
+    }
+  }
+
+  static final class NettyHeaders implements Iterable<Map.Entry<String, String>> {
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    NettyHeaders(String[][] headers) {
+      for (String[] header : headers) {
+        this.headers.put(header[0], header[1]);
+      }
+    }
+
+    String get(String name) {
+      return headers.get(name);
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      return headers.entrySet().iterator();
+    }
+  }
+
+  static final class NettyGetter implements AgentPropagation.KeyedContextVisitor<NettyHeaders> {
+    static final NettyGetter INSTANCE = new NettyGetter();
+
+    @Override
+    public void forEachKey(NettyHeaders carrier, AgentPropagation.KeyClassifier classifier) {
+      for (Map.Entry<String, String> entry : carrier) {
+        if (!classifier.accept(entry.getKey(), entry.getValue())) {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public String get(NettyHeaders carrier, String key) {
+      return carrier.get(key);
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package datadog.trace.core.scopemanager;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import datadog.trace.api.StatsDClient;
+import datadog.trace.bootstrap.instrumentation.api.AgentScope;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.bootstrap.instrumentation.api.ScopeSource;
+import datadog.trace.core.BlackholeWriter;
+import datadog.trace.core.CoreTracer;
+import datadog.trace.core.TraceCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of activating and closing scopes, and of capturing and activating
+ * continuations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+public class ScopeLifecycleBenchmark {
+
+  ContinuableScopeManager scopeManager;
+  CoreTracer tracer;
+  AgentSpan span;
+  AgentSpan child;
+
+  @Setup(Level.Trial)
+  public void init(TraceCounters counters, Blackhole blackhole) {
+    scopeManager = new ContinuableScopeManager(0, StatsDClient.NO_OP, false, true);
+    tracer =
+        CoreTracer.builder()
+            .writer(new BlackholeWriter(blackhole, counters, 0))
+            .scopeManager(scopeManager)
+            .strictTraceWrites(false)
+            .build();
+    span = tracer.startSpan("root", false);
+    child = tracer.startSpan("child", span.context(), false);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    child.finish();
+    span.finish();
+    tracer.close();
+  }
+
+  @Benchmark
+  public void activateClose() {
+    AgentScope scope = scopeManager.activate(span, ScopeSource.INSTRUMENTATION);
+    scope.close();
+  }
+
+  @Benchmark
+  public void nestedActivateClose() {
+    AgentScope outer = scopeManager.activate(span, ScopeSource.INSTRUMENTATION);
+    AgentScope inner = scopeManager.activate(child, ScopeSource.INSTRUMENTATION);
+    inner.close();
+    outer.close();
+  }
+
+  @Benchmark
+  public void captureActivateClose() {
+    AgentScope scope = scopeManager.activate(span, ScopeSource.INSTRUMENTATION, true);
+    AgentScope.Continuation continuation = scope.capture();
+    scope.close();
+    AgentScope continued = continuation.activate();
+    continued.close();
+  }
+}
@@ -0,0 +1,129 @@
+package datadog.trace.core.scopemanager;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import datadog.trace.api.Platform;
+import datadog.trace.bootstrap.instrumentation.api.AgentScope;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.common.writer.Writer;
+import datadog.trace.core.CoreTracer;
+import datadog.trace.core.DDSpan;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Spawns 1M virtual threads which each activate a span, yield so they may be remounted on another
+ * carrier, and check the span is still active before closing the scope. Requires Java 21, run with
+ * {@code -prof gc} to see the allocation per thread.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadScopeBenchmark {
+
+  static final int THREADS = 1_000_000;
+
+  @Param({"false", "true"})
+  boolean nested;
+
+  CoreTracer tracer;
+  MethodHandle startVirtualThread;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Counters {
+    public int lostSpans;
+  }
+
+  @Setup(Level.Trial)
+  public void init() throws ReflectiveOperationException {
+    if (!Platform.isJavaVersionAtLeast(21)) {
+      throw new IllegalStateException("Virtual threads require Java 21");
+    }
+    startVirtualThread =
+        MethodHandles.publicLookup()
+            .findStatic(
+                Thread.class,
+                "startVirtualThread",
+                MethodType.methodType(Thread.class, Runnable.class));
+    tracer = CoreTracer.builder().writer(new DiscardingWriter()).strictTraceWrites(false).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    tracer.close();
+  }
+
+  @Benchmark
+  public void spawnWithActiveSpan(Counters counters) throws Throwable {
+    CountDownLatch done = new CountDownLatch(THREADS);
+    AtomicInteger lostSpans = new AtomicInteger();
+    Runnable task =
+        () -> {
+          try {
+            AgentSpan span = tracer.startSpan("virtual.thread", false);
+            try (AgentScope scope = tracer.activateSpan(span)) {
+              if (nested) {
+                AgentSpan child = tracer.startSpan("nested", span.context(), false);
+                try (AgentScope childScope = tracer.activateSpan(child)) {
+                  Thread.yield();
+                }
+                child.finish();
+              }
+              Thread.yield();
+              if (tracer.activeSpan() != span) {
+                lostSpans.incrementAndGet();
+              }
+            }
+            span.finish();
+          } finally {
+            done.countDown();
+          }
+        };
+    for (int i = 0; i < THREADS; ++i) {
+      Thread unused = (Thread) startVirtualThread.invokeExact(task);
+    }
+    done.await();
+    counters.lostSpans = lostSpans.get();
+  }
+
+  private static final class DiscardingWriter implements Writer {
+    @Override
+    public void write(List<DDSpan> trace) {}
+
+    @Override
+    public void start() {}
+
+    @Override
+    public boolean flush() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void incrementDropCounts(int spanCount) {}
+  }
+}
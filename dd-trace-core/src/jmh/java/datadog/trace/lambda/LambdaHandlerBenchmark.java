@@ -0,0 +1,119 @@
+package datadog.trace.lambda;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import com.sun.net.httpserver.HttpServer;
+import datadog.trace.api.sampling.PrioritySampling;
+import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
+import datadog.trace.common.writer.ListWriter;
+import datadog.trace.core.CoreTracer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Future;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the per-invocation overhead of talking to the serverless extension, against a local
+ * stub of the extension. The end of the invocation is measured together with a simulated trace
+ * flush, either notifying the extension after the flush or while the flush is in progress.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+public class LambdaHandlerBenchmark {
+
+  @Param({"0", "100000"})
+  long flushTokens;
+
+  HttpServer extension;
+  CoreTracer tracer;
+  AgentSpan span;
+  Map<String, Object> event;
+
+  @Setup(Level.Trial)
+  public void init() throws IOException {
+    extension = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    extension.createContext(
+        "/lambda/start-invocation",
+        exchange -> {
+          drain(exchange.getRequestBody());
+          exchange.getResponseHeaders().add("x-datadog-trace-id", "1234");
+          exchange.getResponseHeaders().add("x-datadog-sampling-priority", "1");
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    extension.createContext(
+        "/lambda/",
+        exchange -> {
+          drain(exchange.getRequestBody());
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    extension.start();
+    LambdaHandler.setExtensionBaseUrl("http://127.0.0.1:" + extension.getAddress().getPort());
+    LambdaHandler.preWarm();
+
+    tracer = CoreTracer.builder().writer(new ListWriter()).strictTraceWrites(false).build();
+    span = tracer.startSpan("aws.lambda", false);
+    span.setSamplingPriority(PrioritySampling.SAMPLER_KEEP);
+
+    event = new HashMap<>();
+    event.put("resource", "/{proxy+}");
+    event.put("path", "/hello/world");
+    event.put("httpMethod", "POST");
+    Map<String, Object> headers = new HashMap<>();
+    headers.put("Accept", "*/*");
+    headers.put("Content-Type", "application/json");
+    headers.put("Host", "abcdef1234.execute-api.us-east-1.amazonaws.com");
+    headers.put("User-Agent", "curl/7.79.1");
+    headers.put("X-Amzn-Trace-Id", "Root=1-5e1b4151-5ac6c58f4b8b1b3c2d2e7f6a");
+    event.put("headers", headers);
+    event.put("queryStringParameters", Collections.singletonMap("name", "me"));
+    event.put("body", "{\"message\":\"hello world\"}");
+    event.put("isBase64Encoded", false);
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    extension.stop(0);
+    tracer.close();
+  }
+
+  @Benchmark
+  public AgentSpan.Context startInvocation() {
+    return LambdaHandler.notifyStartInvocation(event);
+  }
+
+  @Benchmark
+  public boolean endInvocationAfterFlush() {
+    Blackhole.consumeCPU(flushTokens);
+    return LambdaHandler.notifyEndInvocation(span, false);
+  }
+
+  @Benchmark
+  public boolean endInvocationDuringFlush() throws Exception {
+    Future<Boolean> endInvocation = LambdaHandler.notifyEndInvocationAsync(span, false);
+    Blackhole.consumeCPU(flushTokens);
+    return endInvocation.get();
+  }
+
+  private static void drain(InputStream body) throws IOException {
+    byte[] buffer = new byte[1024];
+    while (body.read(buffer) >= 0) {}
+    body.close();
+  }
+}
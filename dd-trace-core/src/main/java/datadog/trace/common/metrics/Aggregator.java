@@ -25,6 +25,7 @@ final class Aggregator implements Runnable {
   private final NonBlockingHashMap<MetricKey, Batch> pending;
   private final Set<MetricKey> commonKeys;
   private final MetricWriter writer;
+  private final ResourceCardinalityLimiter resourceLimiter;
   // the reporting interval controls how much history will be buffered
   // when the agent is unresponsive (only 10 pending requests will be
   // buffered by OkHttpSink)
@@ -39,6 +40,7 @@ final class Aggregator implements Runnable {
       NonBlockingHashMap<MetricKey, Batch> pending,
       final Set<MetricKey> commonKeys,
       int maxAggregates,
+      ResourceCardinalityLimiter resourceLimiter,
       long reportingInterval,
       TimeUnit reportingIntervalTimeUnit) {
     this.writer = writer;
@@ -49,6 +51,7 @@ final class Aggregator implements Runnable {
         new LRUCache<>(
             new CommonKeyCleaner(commonKeys), maxAggregates * 4 / 3, 0.75f, maxAggregates);
     this.pending = pending;
+    this.resourceLimiter = resourceLimiter;
     this.reportingIntervalNanos = reportingIntervalTimeUnit.toNanos(reportingInterval);
   }
 
@@ -71,12 +74,19 @@ final class Aggregator implements Runnable {
           MetricKey key = batch.getKey();
           // important that it is still *this* batch pending, must not remove otherwise
           pending.remove(key, batch);
-          AggregateMetric aggregate = aggregates.get(key);
+          MetricKey aggregateKey = resourceLimiter.admit(key);
+          if (aggregateKey != key) {
+            // the key won't get an aggregate, so it mustn't be remembered either
+            commonKeys.remove(key);
+          }
+          AggregateMetric aggregate = aggregates.get(aggregateKey);
           if (null == aggregate) {
             aggregate = new AggregateMetric();
-            aggregates.put(key, aggregate);
+            aggregates.put(aggregateKey, aggregate);
           }
+          int hitCount = aggregate.getHitCount();
           batch.contributeTo(aggregate);
+          resourceLimiter.record(key, aggregateKey, aggregate.getHitCount() - hitCount);
           dirty = true;
           // return the batch for reuse
           batchPool.offer(batch);
@@ -114,6 +124,7 @@ final class Aggregator implements Runnable {
     if (skipped) {
       log.debug("skipped metrics reporting because no points have changed");
     }
+    resourceLimiter.rollover();
   }
 
   private void expungeStaleAggregates() {
@@ -12,12 +12,14 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import datadog.communication.ddagent.DDAgentFeaturesDiscovery;
 import datadog.communication.ddagent.SharedCommunicationObjects;
+import datadog.communication.monitor.Monitoring;
 import datadog.trace.api.Config;
 import datadog.trace.api.WellKnownTags;
 import datadog.trace.api.cache.DDCache;
 import datadog.trace.api.cache.DDCaches;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import datadog.trace.common.writer.ddagent.DDAgentApi;
+import datadog.trace.common.writer.ddagent.LocalTransport;
 import datadog.trace.core.CoreSpan;
 import datadog.trace.core.DDTraceCoreInfo;
 import datadog.trace.util.AgentTaskScheduler;
@@ -66,25 +68,28 @@ public final class ConflatingMetricsAggregator implements MetricsAggregator, Eve
         config.getWellKnownTags(),
         config.getMetricsIgnoredResources(),
         sharedCommunicationObjects.featuresDiscovery,
-        new OkHttpSink(
-            sharedCommunicationObjects.okHttpClient,
-            config.getAgentUrl(),
-            V6_METRICS_ENDPOINT,
-            config.isTracerMetricsBufferingEnabled(),
-            false,
-            DEFAULT_HEADERS),
+        createSink(config, sharedCommunicationObjects),
         config.getTracerMetricsMaxAggregates(),
-        config.getTracerMetricsMaxPending());
+        config.getTracerMetricsMaxResourcesPerService(),
+        config.getTracerMetricsMaxPending(),
+        10,
+        SECONDS,
+        sharedCommunicationObjects.monitoring);
   }
 
-  ConflatingMetricsAggregator(
-      WellKnownTags wellKnownTags,
-      Set<String> ignoredResources,
-      DDAgentFeaturesDiscovery features,
-      Sink sink,
-      int maxAggregates,
-      int queueSize) {
-    this(wellKnownTags, ignoredResources, features, sink, maxAggregates, queueSize, 10, SECONDS);
+  private static Sink createSink(
+      Config config, SharedCommunicationObjects sharedCommunicationObjects) {
+    LocalTransport transport = LocalTransport.create(config, LocalTransport.STATS);
+    if (null != transport) {
+      return new LocalTransportSink(transport);
+    }
+    return new OkHttpSink(
+        sharedCommunicationObjects.okHttpClient,
+        config.getAgentUrl(),
+        V6_METRICS_ENDPOINT,
+        config.isTracerMetricsBufferingEnabled(),
+        false,
+        DEFAULT_HEADERS);
   }
 
   ConflatingMetricsAggregator(
@@ -93,18 +98,22 @@ public final class ConflatingMetricsAggregator implements MetricsAggregator, Eve
       DDAgentFeaturesDiscovery features,
       Sink sink,
       int maxAggregates,
+      int maxResourcesPerService,
       int queueSize,
       long reportingInterval,
-      TimeUnit timeUnit) {
+      TimeUnit timeUnit,
+      Monitoring monitoring) {
     this(
         ignoredResources,
         features,
         sink,
         new SerializingMetricWriter(wellKnownTags, sink),
         maxAggregates,
+        maxResourcesPerService,
         queueSize,
         reportingInterval,
-        timeUnit);
+        timeUnit,
+        monitoring);
   }
 
   ConflatingMetricsAggregator(
@@ -113,9 +122,11 @@ public final class ConflatingMetricsAggregator implements MetricsAggregator, Eve
       Sink sink,
       MetricWriter metricWriter,
       int maxAggregates,
+      int maxResourcesPerService,
       int queueSize,
       long reportingInterval,
-      TimeUnit timeUnit) {
+      TimeUnit timeUnit,
+      Monitoring monitoring) {
     this.ignoredResources = ignoredResources;
     this.inbox = new MpscBlockingConsumerArrayQueue<>(queueSize);
     this.batchPool = new SpmcArrayQueue<>(maxAggregates);
@@ -131,6 +142,7 @@ public final class ConflatingMetricsAggregator implements MetricsAggregator, Eve
             pending,
             keys.keySet(),
             maxAggregates,
+            new ResourceCardinalityLimiter(maxResourcesPerService, monitoring),
             reportingInterval,
             timeUnit);
     this.thread = newAgentThread(METRICS_AGGREGATOR, aggregator);
@@ -255,6 +267,9 @@ public final class ConflatingMetricsAggregator implements MetricsAggregator, Eve
       thread.join(THREAD_JOIN_TIMOUT_MS);
     } catch (InterruptedException ignored) {
     }
+    if (sink instanceof LocalTransportSink) {
+      ((LocalTransportSink) sink).close();
+    }
   }
 
   @Override
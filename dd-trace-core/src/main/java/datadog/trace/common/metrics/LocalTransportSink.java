@@ -0,0 +1,55 @@
+package datadog.trace.common.metrics;
+
+import static datadog.trace.common.metrics.EventListener.EventType.ERROR;
+import static datadog.trace.common.metrics.EventListener.EventType.OK;
+
+import datadog.trace.common.writer.ddagent.LocalTransport;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Hands serialized stats payloads to the agent over a {@linkplain LocalTransport}. */
+public final class LocalTransportSink implements Sink {
+
+  private final LocalTransport transport;
+  private final List<EventListener> listeners = new CopyOnWriteArrayList<>();
+
+  public LocalTransportSink(LocalTransport transport) {
+    this.transport = transport;
+  }
+
+  @Override
+  public void accept(int messageCount, ByteBuffer buffer) {
+    boolean sent =
+        transport.send(
+            LocalTransport.STATS_V0_6,
+            messageCount,
+            0,
+            0,
+            buffer.remaining(),
+            channel -> {
+              while (buffer.hasRemaining()) {
+                channel.write(buffer);
+              }
+            });
+    if (sent) {
+      onEvent(OK, "");
+    } else {
+      onEvent(ERROR, "local transport unavailable");
+    }
+  }
+
+  private void onEvent(EventListener.EventType eventType, String message) {
+    for (EventListener listener : listeners) {
+      listener.onEvent(eventType, message);
+    }
+  }
+
+  @Override
+  public void register(EventListener listener) {
+    this.listeners.add(listener);
+  }
+  public void close() {
+    transport.close();
+  }
+}
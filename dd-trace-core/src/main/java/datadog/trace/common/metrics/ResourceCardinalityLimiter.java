@@ -0,0 +1,145 @@
+package datadog.trace.common.metrics;
+
+import datadog.communication.monitor.Counter;
+import datadog.communication.monitor.Monitoring;
+import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounds the number of resources aggregated separately for each service. Each service keeps a
+ * space-saving sketch of its resources and, at the end of each reporting interval, admits its top
+ * resources for the next interval. Resources first seen during an interval are admitted while there
+ * is room left, any other resource is folded into the {@link #OTHER_RESOURCE} aggregate of its
+ * service, while still being counted by the sketch so it can be admitted later on. The hits and
+ * folded hits of each interval are reported as health metrics, so the fold rate can be monitored.
+ *
+ * <p>Not thread-safe, owned by the aggregator thread.
+ */
+final class ResourceCardinalityLimiter {
+
+  private static final Logger log = LoggerFactory.getLogger(ResourceCardinalityLimiter.class);
+
+  static final UTF8BytesString OTHER_RESOURCE = UTF8BytesString.create("_other");
+
+  private final int maxResourcesPerService;
+  private final Map<UTF8BytesString, ServiceResources> services = new HashMap<>();
+  private final Counter hitsCounter;
+  private final Counter foldedHitsCounter;
+
+  ResourceCardinalityLimiter(int maxResourcesPerService, Monitoring monitoring) {
+    this.maxResourcesPerService = maxResourcesPerService;
+    this.hitsCounter = monitoring.newCounter("stats.resources.hits");
+    this.foldedHitsCounter = monitoring.newCounter("stats.resources.folded_hits");
+  }
+
+  /** @return the key to aggregate under, which is the given key unless the resource is folded */
+  MetricKey admit(MetricKey key) {
+    if (maxResourcesPerService <= 0) {
+      return key;
+    }
+    ServiceResources resources = services.get(key.getService());
+    if (null == resources) {
+      resources = new ServiceResources(maxResourcesPerService);
+      services.put(key.getService(), resources);
+    }
+    if (resources.admit(key.getResource())) {
+      return key;
+    }
+    return new MetricKey(
+        OTHER_RESOURCE,
+        key.getService(),
+        key.getOperationName(),
+        key.getType(),
+        key.getHttpStatusCode());
+  }
+
+  /** Records the hits of a key returned by {@link #admit(MetricKey)}. */
+  void record(MetricKey key, MetricKey aggregateKey, int hits) {
+    if (maxResourcesPerService <= 0) {
+      return;
+    }
+    ServiceResources resources = services.get(key.getService());
+    resources.sketch.offer(key.getResource(), hits);
+    resources.hits += hits;
+    if (key != aggregateKey) {
+      resources.foldedHits += hits;
+    }
+  }
+
+  /**
+   * Admits the top resources of each service for the next interval, and forgets the services which
+   * weren't seen during the interval.
+   */
+  void rollover() {
+    long hits = 0;
+    long foldedHits = 0;
+    Iterator<Map.Entry<UTF8BytesString, ServiceResources>> it = services.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<UTF8BytesString, ServiceResources> entry = it.next();
+      ServiceResources resources = entry.getValue();
+      if (resources.hits == 0) {
+        it.remove();
+        continue;
+      }
+      hits += resources.hits;
+      foldedHits += resources.foldedHits;
+      if (resources.foldedHits > 0) {
+        log.debug(
+            "Folded {} of {} hits ({}%) of service {} into {}",
+            resources.foldedHits,
+            resources.hits,
+            resources.foldedHits * 100 / resources.hits,
+            entry.getKey(),
+            OTHER_RESOURCE);
+      }
+      resources.rollover();
+    }
+    if (hits > 0) {
+      hitsCounter.increment(saturatedCast(hits));
+      foldedHitsCounter.increment(saturatedCast(foldedHits));
+    }
+  }
+
+  private static int saturatedCast(long value) {
+    return (int) Math.min(value, Integer.MAX_VALUE);
+  }
+
+  private static final class ServiceResources {
+    final int maxResources;
+    // tracks more resources than are admitted, so that folded resources can take over
+    final SpaceSaving<UTF8BytesString> sketch;
+    final Set<UTF8BytesString> admitted = new HashSet<>();
+    long hits;
+    long foldedHits;
+
+    ServiceResources(int maxResources) {
+      this.maxResources = maxResources;
+      this.sketch = new SpaceSaving<>(maxResources * 2);
+    }
+
+    boolean admit(UTF8BytesString resource) {
+      if (admitted.contains(resource)) {
+        return true;
+      }
+      if (admitted.size() < maxResources) {
+        admitted.add(resource);
+        return true;
+      }
+      return false;
+    }
+
+    void rollover() {
+      admitted.clear();
+      admitted.addAll(sketch.top(maxResources));
+      sketch.decay();
+      hits = 0;
+      foldedHits = 0;
+    }
+  }
+}
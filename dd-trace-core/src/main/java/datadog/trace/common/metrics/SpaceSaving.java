@@ -0,0 +1,141 @@
+package datadog.trace.common.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-saving heavy hitters sketch: tracks at most {@code capacity} items, and when a new item
+ * arrives with no room left, it takes over the counter of the least frequent item, inheriting its
+ * count, so counts may be over-estimated. Any item more frequent than {@code total / capacity} is
+ * guaranteed to be tracked. Counters are kept in a min-heap, so finding the item to replace is
+ * constant time and updates are logarithmic.
+ *
+ * <p>Not thread-safe.
+ */
+final class SpaceSaving<T> {
+
+  static final class Counter<T> {
+    T item;
+    long count;
+    int index;
+  }
+
+  private final Map<T, Counter<T>> counters;
+  private final Counter<T>[] heap;
+  private int size;
+
+  @SuppressWarnings("unchecked")
+  SpaceSaving(int capacity) {
+    this.counters = new HashMap<>(capacity * 4 / 3 + 1);
+    this.heap = new Counter[capacity];
+  }
+
+  void offer(T item, long weight) {
+    Counter<T> counter = counters.get(item);
+    if (null == counter && size < heap.length) {
+      counter = new Counter<>();
+      counter.item = item;
+      counter.count = weight;
+      counters.put(item, counter);
+      heap[size] = counter;
+      siftUp(size++);
+      return;
+    }
+    if (null == counter) {
+      // take over the counter of the least frequent item
+      counter = heap[0];
+      counters.remove(counter.item);
+      counter.item = item;
+      counters.put(item, counter);
+    }
+    counter.count += weight;
+    siftDown(counter.index);
+  }
+
+  /** @return the estimated count of the item, which may be over-estimated, or 0 if untracked */
+  long estimate(T item) {
+    Counter<T> counter = counters.get(item);
+    return null == counter ? 0 : counter.count;
+  }
+
+  int size() {
+    return size;
+  }
+
+  /** @return the tracked items with the highest estimated counts, most frequent first */
+  List<T> top(int k) {
+    if (size == 0 || k <= 0) {
+      return Collections.emptyList();
+    }
+    Counter<T>[] sorted = Arrays.copyOf(heap, size);
+    Arrays.sort(sorted, (left, right) -> Long.compare(right.count, left.count));
+    List<T> top = new ArrayList<>(Math.min(k, size));
+    for (int i = 0; i < sorted.length && i < k; ++i) {
+      top.add(sorted[i].item);
+    }
+    return top;
+  }
+
+  /**
+   * Halves all counts so that the sketch follows changes in the distribution, and stops tracking
+   * the items whose counts drop to zero.
+   */
+  void decay() {
+    int retained = 0;
+    for (int i = 0; i < size; ++i) {
+      Counter<T> counter = heap[i];
+      counter.count >>>= 1;
+      if (counter.count == 0) {
+        counters.remove(counter.item);
+      } else {
+        counter.index = retained;
+        heap[retained++] = counter;
+      }
+    }
+    Arrays.fill(heap, retained, size, null);
+    size = retained;
+    // halving preserves the order, but dropping counters may have broken the heap
+    for (int i = (size >>> 1) - 1; i >= 0; --i) {
+      siftDown(i);
+    }
+  }
+
+  private void siftUp(int index) {
+    Counter<T> counter = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent].count <= counter.count) {
+        break;
+      }
+      heap[index] = heap[parent];
+      heap[index].index = index;
+      index = parent;
+    }
+    heap[index] = counter;
+    counter.index = index;
+  }
+
+  private void siftDown(int index) {
+    Counter<T> counter = heap[index];
+    int half = size >>> 1;
+    while (index < half) {
+      int child = (index << 1) + 1;
+      int right = child + 1;
+      if (right < size && heap[right].count < heap[child].count) {
+        child = right;
+      }
+      if (counter.count <= heap[child].count) {
+        break;
+      }
+      heap[index] = heap[child];
+      heap[index].index = index;
+      index = child;
+    }
+    heap[index] = counter;
+    counter.index = index;
+  }
+}
@@ -42,7 +42,7 @@ public class RateByServiceSampler<T extends CoreSpan<T>>
     final String env = getSpanEnv(span);
 
     final RateSamplersByEnvAndService<T> rates = serviceRates;
-    RateSampler<T> sampler = rates.getSampler(new EnvAndService(env, serviceName));
+    RateSampler<T> sampler = rates.getSampler(serviceName, env);
 
     if (sampler.sample(span)) {
       span.setSamplingPriority(
@@ -69,15 +69,22 @@ public class RateByServiceSampler<T extends CoreSpan<T>>
     final Map<String, Number> newServiceRates = responseJson.get("rate_by_service");
     if (null != newServiceRates) {
       log.debug("Update service sampler rates: {} -> {}", endpoint, responseJson);
-      final Map<EnvAndService, RateSampler<T>> updatedServiceRates =
+      final Map<String, Map<String, RateSampler<T>>> updatedServiceRates =
           new HashMap<>(newServiceRates.size() * 2);
       for (final Map.Entry<String, Number> entry : newServiceRates.entrySet()) {
         if (entry.getValue() != null) {
-          updatedServiceRates.put(
-              EnvAndService.fromString(entry.getKey()),
+          EnvAndService envAndService = EnvAndService.fromString(entry.getKey());
+          Map<String, RateSampler<T>> envRates = updatedServiceRates.get(envAndService.service);
+          if (null == envRates) {
+            envRates = new HashMap<>(4);
+            updatedServiceRates.put(envAndService.service, envRates);
+          }
+          envRates.put(
+              envAndService.env,
               RateByServiceSampler.<T>createRateSampler(entry.getValue().doubleValue()));
         }
       }
+      // the table is built completely before being published so lookups never see partial updates
       serviceRates = new RateSamplersByEnvAndService<>(updatedServiceRates);
     }
   }
@@ -96,22 +103,27 @@ public class RateByServiceSampler<T extends CoreSpan<T>>
     return new DeterministicSampler<>(sanitizedRate);
   }
 
+  /**
+   * Samplers indexed by service first and env second, so a lookup only needs the (cached) hash
+   * codes of the two strings taken from the span and does not allocate.
+   */
   private static final class RateSamplersByEnvAndService<T extends CoreSpan<T>> {
     private static final RateSampler<?> DEFAULT = createRateSampler(DEFAULT_RATE);
 
-    private final Map<EnvAndService, RateSampler<T>> serviceRates;
+    private final Map<String, Map<String, RateSampler<T>>> serviceRates;
 
     RateSamplersByEnvAndService() {
-      this(new HashMap<EnvAndService, RateSampler<T>>(0));
+      this(new HashMap<String, Map<String, RateSampler<T>>>(0));
     }
 
-    RateSamplersByEnvAndService(Map<EnvAndService, RateSampler<T>> serviceRates) {
+    RateSamplersByEnvAndService(Map<String, Map<String, RateSampler<T>>> serviceRates) {
       this.serviceRates = serviceRates;
     }
 
     @SuppressWarnings("unchecked")
-    public RateSampler<T> getSampler(EnvAndService key) {
-      RateSampler<T> sampler = serviceRates.get(key);
+    public RateSampler<T> getSampler(String service, String env) {
+      Map<String, RateSampler<T>> envRates = serviceRates.get(service);
+      RateSampler<T> sampler = null == envRates ? null : envRates.get(env);
       return null == sampler ? (RateSampler<T>) DEFAULT : sampler;
     }
   }
@@ -146,28 +158,12 @@ public class RateByServiceSampler<T extends CoreSpan<T>>
       return CACHE.computeIfAbsent(key, PARSE);
     }
 
-    private final CharSequence env;
-    private final CharSequence service;
+    private final String env;
+    private final String service;
 
-    private EnvAndService(CharSequence env, CharSequence service) {
+    private EnvAndService(String env, String service) {
       this.env = env;
       this.service = service;
     }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) return true;
-      if (o == null || getClass() != o.getClass()) return false;
-      EnvAndService that = (EnvAndService) o;
-      return env.equals(that.env) && service.equals(that.service);
-    }
-
-    @Override
-    public int hashCode() {
-      int hash = 1;
-      hash = 31 * hash + env.hashCode();
-      hash = 31 * hash + service.hashCode();
-      return hash;
-    }
   }
 }
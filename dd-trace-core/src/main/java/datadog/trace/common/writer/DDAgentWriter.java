@@ -12,6 +12,7 @@ import datadog.trace.api.Config;
 import datadog.trace.api.StatsDClient;
 import datadog.trace.common.writer.ddagent.DDAgentApi;
 import datadog.trace.common.writer.ddagent.DDAgentMapperDiscovery;
+import datadog.trace.common.writer.ddagent.LocalTransportApi;
 import datadog.trace.common.writer.ddagent.Prioritization;
 import datadog.trace.core.monitor.HealthMetrics;
 import java.util.concurrent.TimeUnit;
@@ -41,11 +42,11 @@ public class DDAgentWriter extends RemoteWriter {
     boolean metricsReportingEnabled = Config.get().isTracerMetricsEnabled();
     boolean alwaysFlush = false;
 
-    private DDAgentApi agentApi;
+    private RemoteApi agentApi;
     private Prioritization prioritization;
     private DDAgentFeaturesDiscovery featureDiscovery;
 
-    public DDAgentWriterBuilder agentApi(DDAgentApi agentApi) {
+    public DDAgentWriterBuilder agentApi(RemoteApi agentApi) {
       this.agentApi = agentApi;
       return this;
     }
@@ -161,7 +162,7 @@ public class DDAgentWriter extends RemoteWriter {
 
   private DDAgentWriter(
       DDAgentFeaturesDiscovery discovery,
-      DDAgentApi api,
+      RemoteApi api,
       HealthMetrics healthMetrics,
       PayloadDispatcher dispatcher,
       TraceProcessingWorker worker,
@@ -171,7 +172,7 @@ public class DDAgentWriter extends RemoteWriter {
 
   private DDAgentWriter(
       DDAgentFeaturesDiscovery discovery,
-      DDAgentApi api,
+      RemoteApi api,
       HealthMetrics healthMetrics,
       Monitoring monitoring,
       TraceProcessingWorker worker) {
@@ -187,10 +188,19 @@ public class DDAgentWriter extends RemoteWriter {
 
   private DDAgentWriter(
       DDAgentFeaturesDiscovery discovery,
-      DDAgentApi api,
+      RemoteApi api,
       HealthMetrics healthMetrics,
       PayloadDispatcher dispatcher,
       TraceProcessingWorker worker) {
     this(discovery, api, healthMetrics, dispatcher, worker, false);
   }
+
+  @Override
+  public void close() {
+    super.close();
+    // the serialized traces have been flushed, the local transport is no longer needed
+    if (getApi() instanceof LocalTransportApi) {
+      ((LocalTransportApi) getApi()).close();
+    }
+  }
 }
@@ -20,6 +20,9 @@ public class DDIntakeWriter extends RemoteWriter {
 
   private static final int BUFFER_SIZE = 1024;
 
+  private final int flushTimeout;
+  private final TimeUnit flushTimeoutUnit;
+
   public static DDIntakeWriterBuilder builder() {
     return new DDIntakeWriterBuilder();
   }
@@ -185,6 +188,8 @@ public class DDIntakeWriter extends RemoteWriter {
       TraceProcessingWorker traceProcessingWorker,
       boolean alwaysFlush) {
     super(api, traceProcessingWorker, dispatcher, healthMetrics, alwaysFlush);
+    this.flushTimeout = 1;
+    this.flushTimeoutUnit = TimeUnit.SECONDS;
   }
 
   protected DDIntakeWriter(
@@ -203,5 +208,16 @@ public class DDIntakeWriter extends RemoteWriter {
         flushTimeout,
         flushTimeoutUnit,
         alwaysFlush);
+    this.flushTimeout = flushTimeout;
+    this.flushTimeoutUnit = flushTimeoutUnit;
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    // uploads may still be in flight once the serialized traces have been flushed
+    if (getApi() instanceof DDIntakeApi) {
+      ((DDIntakeApi) getApi()).close(flushTimeout, flushTimeoutUnit);
+    }
   }
 }
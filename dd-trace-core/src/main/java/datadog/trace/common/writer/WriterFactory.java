@@ -17,11 +17,14 @@ import datadog.trace.api.StatsDClient;
 import datadog.trace.api.intake.TrackType;
 import datadog.trace.common.sampling.Sampler;
 import datadog.trace.common.writer.ddagent.DDAgentApi;
+import datadog.trace.common.writer.ddagent.LocalTransport;
+import datadog.trace.common.writer.ddagent.LocalTransportApi;
 import datadog.trace.common.writer.ddagent.Prioritization;
 import datadog.trace.common.writer.ddintake.DDIntakeApi;
 import datadog.trace.common.writer.ddintake.DDIntakeTrackTypeResolver;
 import datadog.trace.core.monitor.HealthMetrics;
 import datadog.trace.util.Strings;
+import java.nio.file.Paths;
 import okhttp3.HttpUrl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,6 +87,12 @@ public class WriterFactory {
               .hostUrl(hostUrl)
               .apiKey(config.getApiKey())
               .trackType(trackType)
+              .compressionEnabled(config.isCiVisibilityAgentlessCompressionEnabled())
+              .maxInFlightRequests(config.getCiVisibilityAgentlessMaxInFlightRequests())
+              .spoolDirectory(
+                  config.getCiVisibilityAgentlessSpoolDir() != null
+                      ? Paths.get(config.getCiVisibilityAgentlessSpoolDir())
+                      : null)
               .build();
 
       remoteWriter =
@@ -115,17 +124,26 @@ public class WriterFactory {
         }
       }
 
-      DDAgentApi ddAgentApi =
-          new DDAgentApi(
-              commObjects.okHttpClient,
-              commObjects.agentUrl,
-              commObjects.featuresDiscovery,
-              commObjects.monitoring,
-              config.isTracerMetricsEnabled());
+      RemoteApi agentApi;
+      LocalTransport localTransport = LocalTransport.create(config, LocalTransport.TRACES);
+      if (null != localTransport) {
+        log.info("Sending traces over the {} local transport", config.getAgentLocalTransport());
+        agentApi =
+            new LocalTransportApi(
+                localTransport, commObjects.featuresDiscovery, commObjects.monitoring);
+      } else {
+        agentApi =
+            new DDAgentApi(
+                commObjects.okHttpClient,
+                commObjects.agentUrl,
+                commObjects.featuresDiscovery,
+                commObjects.monitoring,
+                config.isTracerMetricsEnabled());
+      }
 
       remoteWriter =
           DDAgentWriter.builder()
-              .agentApi(ddAgentApi)
+              .agentApi(agentApi)
               .featureDiscovery(commObjects.featuresDiscovery)
               .prioritization(prioritization)
               .healthMetrics(new HealthMetrics(statsDClient))
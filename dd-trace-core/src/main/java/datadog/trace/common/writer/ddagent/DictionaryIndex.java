@@ -0,0 +1,124 @@
+package datadog.trace.common.writer.ddagent;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import datadog.communication.serialization.EncodingCache;
+import java.util.Arrays;
+
+/**
+ * Maps the values written to a v0.5 payload dictionary to their position in it. This is an
+ * open-addressing table with primitive positions; keys are compared by identity first because
+ * service, operation and tag names are usually the same instances from span to span.
+ *
+ * <p>The table is cleared for every payload, but the UTF-8 encodings of strings are kept in a
+ * small direct-mapped "hot" tier which survives {@link #clear()}, so frequently recurring strings
+ * are not re-encoded every time they are added to a new dictionary.
+ */
+final class DictionaryIndex implements EncodingCache {
+
+  static final int ABSENT = -1;
+
+  private static final int HOT_TIER_SIZE = 256;
+  // longer strings are unlikely to recur (SQL, URLs) and would bloat the hot tier
+  private static final int MAX_HOT_STRING_LENGTH = 128;
+
+  private Object[] keys;
+  private int[] positions;
+  private int mask;
+  private int size;
+
+  private final String[] hotStrings = new String[HOT_TIER_SIZE];
+  private final byte[][] hotEncodings = new byte[HOT_TIER_SIZE][];
+
+  DictionaryIndex() {
+    this(1024);
+  }
+
+  DictionaryIndex(int initialCapacity) {
+    int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+    this.keys = new Object[capacity];
+    this.positions = new int[capacity];
+    this.mask = capacity - 1;
+  }
+
+  /**
+   * @return the position of the value in the dictionary or {@link #ABSENT}
+   */
+  int get(Object value) {
+    int slot = hash(value) & mask;
+    Object key;
+    while (null != (key = keys[slot])) {
+      if (key == value || key.equals(value)) {
+        return positions[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return ABSENT;
+  }
+
+  /** Records the position of a value which is not in the index yet. */
+  void put(Object value, int position) {
+    if (++size > (keys.length >>> 1)) {
+      resize();
+    }
+    int slot = hash(value) & mask;
+    while (null != keys[slot]) {
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = value;
+    positions[slot] = position;
+  }
+
+  int size() {
+    return size;
+  }
+
+  void clear() {
+    if (size > 0) {
+      Arrays.fill(keys, null);
+      size = 0;
+    }
+  }
+
+  @Override
+  public byte[] encode(CharSequence s) {
+    if (!(s instanceof String) || s.length() > MAX_HOT_STRING_LENGTH) {
+      return null;
+    }
+    String string = (String) s;
+    int slot = hash(string) & (HOT_TIER_SIZE - 1);
+    String hot = hotStrings[slot];
+    if (hot == string || string.equals(hot)) {
+      return hotEncodings[slot];
+    }
+    byte[] utf8 = string.getBytes(UTF_8);
+    hotStrings[slot] = string;
+    hotEncodings[slot] = utf8;
+    return utf8;
+  }
+
+  private void resize() {
+    Object[] oldKeys = keys;
+    int[] oldPositions = positions;
+    int capacity = oldKeys.length << 1;
+    keys = new Object[capacity];
+    positions = new int[capacity];
+    mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; ++i) {
+      Object key = oldKeys[i];
+      if (null != key) {
+        int slot = hash(key) & mask;
+        while (null != keys[slot]) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        positions[slot] = oldPositions[i];
+      }
+    }
+  }
+
+  private static int hash(Object value) {
+    int h = value.hashCode();
+    return h ^ (h >>> 16);
+  }
+}
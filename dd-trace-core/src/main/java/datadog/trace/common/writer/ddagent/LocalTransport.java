@@ -0,0 +1,118 @@
+package datadog.trace.common.writer.ddagent;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import datadog.trace.api.Config;
+import datadog.trace.api.config.TracerConfig;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends encoded trace and stats payloads to a co-located agent without going through HTTP, either
+ * as a stream of frames over a UNIX domain socket ({@value #UDS}) or through a memory-mapped ring
+ * file ({@value #MMAP}). Payload bodies are written straight from their serialization buffers.
+ * Traces and stats are separate streams: each opens its own socket connection or, since a ring
+ * only has a single writer, maps its own ring file, named after the configured path and the
+ * stream. A ring file stays locked by its writer, so another tracer configured with the same path
+ * falls back to HTTP instead of resetting it.
+ *
+ * <p>Every frame is length-prefixed, all numbers are big-endian:
+ *
+ * <pre>
+ *   int    length of the rest of the frame
+ *   byte   frame type, one of {@link #TRACES_V0_4}, {@link #TRACES_V0_5}, {@link #STATS_V0_6}
+ *   int    message count (traces or stats payloads)
+ *   long   dropped P0 traces
+ *   long   dropped P0 spans
+ *   byte[] msgpack body, as it would have been sent over HTTP
+ * </pre>
+ */
+public abstract class LocalTransport implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalTransport.class);
+
+  public static final String UDS = "uds";
+  public static final String MMAP = "mmap";
+
+  public static final String TRACES = "traces";
+  public static final String STATS = "stats";
+
+  public static final byte TRACES_V0_4 = 1;
+  public static final byte TRACES_V0_5 = 2;
+  public static final byte STATS_V0_6 = 3;
+
+  static final int LENGTH_SIZE = 4;
+  static final int HEADER_SIZE = 1 + 4 + 8 + 8;
+
+  /** Writes exactly the announced number of bytes of a frame body. */
+  public interface Body {
+    void writeTo(WritableByteChannel channel) throws IOException;
+  }
+
+  /**
+   * @return {@literal true} if the frame was handed over to the agent
+   */
+  public abstract boolean send(
+      byte type,
+      int messageCount,
+      long droppedTraces,
+      long droppedSpans,
+      int bodySize,
+      Body body);
+
+  @Override
+  public abstract void close();
+
+  /**
+   * @param stream either {@value #TRACES} or {@value #STATS}
+   * @return the transport configured with {@value TracerConfig#AGENT_LOCAL_TRANSPORT}, or {@literal
+   *     null} if no local transport should be used
+   */
+  public static LocalTransport create(final Config config, final String stream) {
+    String type = config.getAgentLocalTransport();
+    if (null == type) {
+      return null;
+    }
+    String path = config.getAgentLocalTransportPath();
+    if (null == path) {
+      log.warn(
+          "{} is set but {} is missing, using HTTP",
+          TracerConfig.AGENT_LOCAL_TRANSPORT,
+          TracerConfig.AGENT_LOCAL_TRANSPORT_PATH);
+      return null;
+    }
+    try {
+      if (UDS.equalsIgnoreCase(type)) {
+        return new UnixSocketLocalTransport(
+            new File(path), SECONDS.toMillis(config.getAgentTimeout()));
+      } else if (MMAP.equalsIgnoreCase(type)) {
+        return MappedRingLocalTransport.create(
+            new File(path + "." + stream), config.getAgentLocalTransportRingSize());
+      }
+      log.warn("Local transport type {} not recognized, using HTTP", type);
+    } catch (IOException | RuntimeException e) {
+      log.warn("Unable to set up the {} local transport at {}, using HTTP", type, path, e);
+    }
+    return null;
+  }
+
+  static void writeHeader(
+      final ByteBuffer buffer,
+      final byte type,
+      final int messageCount,
+      final long droppedTraces,
+      final long droppedSpans,
+      final int bodySize) {
+    buffer
+        .putInt(HEADER_SIZE + bodySize)
+        .put(type)
+        .putInt(messageCount)
+        .putLong(droppedTraces)
+        .putLong(droppedSpans);
+  }
+}
@@ -0,0 +1,73 @@
+package datadog.trace.common.writer.ddagent;
+
+import datadog.communication.ddagent.DDAgentFeaturesDiscovery;
+import datadog.communication.monitor.Monitoring;
+import datadog.communication.monitor.Recording;
+import datadog.trace.common.writer.Payload;
+import datadog.trace.common.writer.RemoteApi;
+import datadog.trace.common.writer.RemoteResponseListener;
+import datadog.trace.relocate.api.IOLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends serialized traces to a co-located agent over a {@linkplain LocalTransport}. Unlike the
+ * HTTP api there is no response, so no sampling rates are fed back to the response listeners.
+ */
+public class LocalTransportApi implements RemoteApi {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalTransportApi.class);
+
+  private final LocalTransport transport;
+  private final DDAgentFeaturesDiscovery featuresDiscovery;
+  private final Recording sendPayloadTimer;
+
+  private final IOLogger ioLogger = new IOLogger(log);
+
+  public LocalTransportApi(
+      LocalTransport transport, DDAgentFeaturesDiscovery featuresDiscovery, Monitoring monitoring) {
+    this.transport = transport;
+    this.featuresDiscovery = featuresDiscovery;
+    this.sendPayloadTimer = monitoring.newTimer("trace.agent.send.time");
+  }
+
+  @Override
+  public void addResponseListener(final RemoteResponseListener listener) {}
+
+  @Override
+  public Response sendSerializedTraces(final Payload payload) {
+    final int sizeInBytes = payload.sizeInBytes();
+    final byte frameType =
+        DDAgentFeaturesDiscovery.V5_ENDPOINT.equals(featuresDiscovery.getTraceEndpoint())
+            ? LocalTransport.TRACES_V0_5
+            : LocalTransport.TRACES_V0_4;
+    boolean sent;
+    try (final Recording recording = sendPayloadTimer.start()) {
+      sent =
+          transport.send(
+              frameType,
+              payload.traceCount(),
+              payload.droppedTraces(),
+              payload.droppedSpans(),
+              sizeInBytes,
+              payload::writeTo);
+    }
+    if (sent) {
+      ioLogger.success(
+          "Sent {} traces ({} bytes) over the local transport", payload.traceCount(), sizeInBytes);
+      return Response.success(200);
+    }
+    ioLogger.error(
+        "Failed to send "
+            + payload.traceCount()
+            + " traces ("
+            + sizeInBytes
+            + " bytes) over the local transport");
+    return Response.failed(503);
+  }
+
+  /** Releases the socket or the ring, so that a later tracer in this JVM can open it again. */
+  public void close() {
+    transport.close();
+  }
+}
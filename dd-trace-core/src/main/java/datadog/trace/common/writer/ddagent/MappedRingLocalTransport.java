@@ -0,0 +1,201 @@
+package datadog.trace.common.writer.ddagent;
+
+import static org.jctools.util.UnsafeAccess.UNSAFE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.channels.WritableByteChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes frames into a ring buffer in a memory-mapped file shared with the agent. The file starts
+ * with a header holding the capacity of the ring and two ever increasing positions: the writer
+ * publishes the end of the last complete frame, the reader publishes how far it has consumed.
+ * Frames wrap around the end of the ring. When the reader falls behind and a frame doesn't fit in
+ * the free space, the frame is rejected rather than waiting for the reader.
+ *
+ * <p>The writer holds an exclusive lock on the file until it is closed. Creating a transport
+ * resets the header, so it fails while another writer, in this process or another one, still
+ * holds the lock.
+ */
+final class MappedRingLocalTransport extends LocalTransport {
+
+  private static final Logger log = LoggerFactory.getLogger(MappedRingLocalTransport.class);
+
+  static final int MAGIC = 0x44444c54; // DDLT
+  static final int VERSION = 1;
+
+  static final int MAGIC_OFFSET = 0;
+  static final int VERSION_OFFSET = 4;
+  static final int CAPACITY_OFFSET = 8;
+  static final int WRITE_POSITION_OFFSET = 16;
+  static final int READ_POSITION_OFFSET = 24;
+  static final int DATA_OFFSET = 64;
+
+  private final File file;
+  private final FileChannel channel;
+  private final MappedByteBuffer mapped;
+  private final Ring ring;
+  private final ByteBuffer header = ByteBuffer.allocate(LENGTH_SIZE + HEADER_SIZE);
+
+  private boolean closed;
+
+  /**
+   * @throws IOException if the ring can't be mapped or is still in use by another writer
+   */
+  static MappedRingLocalTransport create(final File file, final int capacity) throws IOException {
+    FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+    try {
+      if (null == tryLock(channel)) {
+        throw new IOException("Ring " + file + " is in use by another writer");
+      }
+      // the header is only reset once no other writer can be using the ring
+      MappedByteBuffer mapped =
+          channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + capacity);
+      mapped.putInt(MAGIC_OFFSET, MAGIC);
+      mapped.putInt(VERSION_OFFSET, VERSION);
+      mapped.putLong(CAPACITY_OFFSET, capacity);
+      mapped.putLong(WRITE_POSITION_OFFSET, 0);
+      mapped.putLong(READ_POSITION_OFFSET, 0);
+      return new MappedRingLocalTransport(file, channel, mapped);
+    } catch (IOException | RuntimeException e) {
+      // closing the channel releases the lock
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static FileLock tryLock(final FileChannel channel) throws IOException {
+    try {
+      return channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // held by another transport in this process
+      return null;
+    }
+  }
+
+  private MappedRingLocalTransport(
+      final File file, final FileChannel channel, final MappedByteBuffer mapped) {
+    this.file = file;
+    this.channel = channel;
+    this.mapped = mapped;
+    this.ring = new Ring(mapped);
+  }
+
+  @Override
+  public synchronized boolean send(
+      final byte type,
+      final int messageCount,
+      final long droppedTraces,
+      final long droppedSpans,
+      final int bodySize,
+      final Body body) {
+    if (closed) {
+      return false;
+    }
+    final long frameSize = LENGTH_SIZE + HEADER_SIZE + (long) bodySize;
+    final long write = mapped.getLong(WRITE_POSITION_OFFSET);
+    final long read = mapped.getLong(READ_POSITION_OFFSET);
+    UNSAFE.loadFence();
+    if (frameSize > ring.capacity - (write - read)) {
+      log.debug("Not enough space in {} for a frame of {} bytes", file, frameSize);
+      return false;
+    }
+    ring.position = write;
+    ring.limit = write + frameSize;
+    try {
+      header.clear();
+      writeHeader(header, type, messageCount, droppedTraces, droppedSpans, bodySize);
+      header.flip();
+      ring.write(header);
+      body.writeTo(ring);
+      if (ring.position != ring.limit) {
+        throw new IOException("Frame body is smaller than announced");
+      }
+    } catch (IOException e) {
+      // the frame isn't published, so the space will be reused by the next frame
+      log.debug("Failed to write frame to {}", file, e);
+      return false;
+    }
+    // make the frame visible to the reader before publishing its end
+    UNSAFE.storeFence();
+    mapped.putLong(WRITE_POSITION_OFFSET, ring.limit);
+    return true;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      try {
+        // releases the lock, the ring can now be reset by the next writer
+        channel.close();
+      } catch (IOException e) {
+        log.debug("Failed to close {}", file, e);
+      }
+    }
+  }
+
+  /** The data region of the mapped file, addressed with ever increasing positions. */
+  static final class Ring implements WritableByteChannel {
+    final ByteBuffer data;
+    final int capacity;
+    long position;
+    long limit;
+
+    Ring(final MappedByteBuffer mapped) {
+      ByteBuffer data = mapped.duplicate();
+      data.position(DATA_OFFSET);
+      this.data = data.slice();
+      this.capacity = this.data.capacity();
+    }
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      final int length = src.remaining();
+      if (position + length > limit) {
+        throw new IOException("Frame body is larger than announced");
+      }
+      while (src.hasRemaining()) {
+        int offset = (int) (position % capacity);
+        int chunk = Math.min(src.remaining(), capacity - offset);
+        ByteBuffer from = src.duplicate();
+        from.limit(from.position() + chunk);
+        ByteBuffer to = data.duplicate();
+        to.position(offset);
+        to.put(from);
+        src.position(src.position() + chunk);
+        position += chunk;
+      }
+      return length;
+    }
+
+    /** Copies {@code dst.remaining()} bytes from the ring, starting at the current position. */
+    void read(final ByteBuffer dst) {
+      while (dst.hasRemaining()) {
+        int offset = (int) (position % capacity);
+        int chunk = Math.min(dst.remaining(), capacity - offset);
+        ByteBuffer from = data.duplicate();
+        from.position(offset);
+        from.limit(offset + chunk);
+        dst.put(from);
+        position += chunk;
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -2,11 +2,13 @@ package datadog.trace.common.writer.ddagent;
 
 import static datadog.communication.http.OkHttpUtils.msgpackRequestBodyOf;
 
+import datadog.communication.serialization.EncodingCache;
 import datadog.communication.serialization.GrowableBuffer;
 import datadog.communication.serialization.Mapper;
 import datadog.communication.serialization.Writable;
 import datadog.communication.serialization.WritableFormatter;
 import datadog.communication.serialization.msgpack.MsgPackWriter;
+import datadog.trace.bootstrap.instrumentation.api.CompositeTagValue;
 import datadog.trace.bootstrap.instrumentation.api.InstrumentationTags;
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString;
 import datadog.trace.common.writer.Payload;
@@ -17,7 +19,6 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import okhttp3.RequestBody;
@@ -25,8 +26,8 @@ import okhttp3.RequestBody;
 public final class TraceMapperV0_5 implements TraceMapper {
 
   private final WritableFormatter dictionaryWriter;
-  private final DictionaryMapper dictionaryMapper = new DictionaryMapper();
-  private final Map<Object, Integer> encoding = new HashMap<>();
+  private final DictionaryIndex encoding = new DictionaryIndex();
+  private final DictionaryMapper dictionaryMapper = new DictionaryMapper(encoding);
   private final GrowableBuffer dictionary;
 
   private final MetaWriter metaWriter = new MetaWriter();
@@ -84,9 +85,11 @@ public final class TraceMapperV0_5 implements TraceMapper {
   }
 
   private void writeDictionaryEncoded(final Writable writable, final Object value) {
-    final Object target = null == value ? "" : value;
-    final Integer encoded = encoding.get(target);
-    if (null == encoded) {
+    // the dictionary needs the text of composite values to share entries with equal strings
+    final Object target =
+        null == value ? "" : value instanceof CompositeTagValue ? value.toString() : value;
+    final int encoded = encoding.get(target);
+    if (encoded == DictionaryIndex.ABSENT) {
       dictionaryWriter.format(target, dictionaryMapper);
       final int dictionaryCode = dictionary.messageCount() - 1;
       encoding.put(target, dictionaryCode);
@@ -121,10 +124,18 @@ public final class TraceMapperV0_5 implements TraceMapper {
 
   private static class DictionaryMapper implements Mapper<Object> {
 
+    private final EncodingCache encodingCache;
+
+    private DictionaryMapper(EncodingCache encodingCache) {
+      this.encodingCache = encodingCache;
+    }
+
     @Override
     public void map(final Object data, final Writable packer) {
       if (data instanceof UTF8BytesString) {
         packer.writeObject(data, null);
+      } else if (data instanceof String) {
+        packer.writeString((String) data, encodingCache);
       } else {
         packer.writeString(String.valueOf(data), null);
       }
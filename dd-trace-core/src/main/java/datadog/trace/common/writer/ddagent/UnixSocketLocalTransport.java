@@ -0,0 +1,132 @@
+package datadog.trace.common.writer.ddagent;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import datadog.common.socket.UnixDomainSocketChannels;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams frames over a UNIX domain socket connection, reconnecting when the connection breaks.
+ * Writes are non-blocking: when the agent doesn't read a frame within the send timeout, the
+ * connection is dropped, since the stream now ends in the middle of a frame.
+ */
+final class UnixSocketLocalTransport extends LocalTransport {
+
+  private static final Logger log = LoggerFactory.getLogger(UnixSocketLocalTransport.class);
+
+  private static final long RECONNECT_DELAY_NANOS = SECONDS.toNanos(1);
+  private static final long RETRY_WRITE_DELAY_NANOS = MICROSECONDS.toNanos(100);
+
+  private final File path;
+  private final long sendTimeoutNanos;
+  private final ByteBuffer header = ByteBuffer.allocateDirect(LENGTH_SIZE + HEADER_SIZE);
+  private final DeadlineChannel deadlineChannel = new DeadlineChannel();
+
+  private ByteChannel channel;
+  private long nextConnectAttempt = System.nanoTime();
+  private boolean closed;
+
+  UnixSocketLocalTransport(final File path, final long sendTimeoutMillis) {
+    this.path = path;
+    this.sendTimeoutNanos = MILLISECONDS.toNanos(sendTimeoutMillis);
+  }
+
+  @Override
+  public synchronized boolean send(
+      final byte type,
+      final int messageCount,
+      final long droppedTraces,
+      final long droppedSpans,
+      final int bodySize,
+      final Body body) {
+    ByteChannel channel = connect();
+    if (null == channel) {
+      return false;
+    }
+    deadlineChannel.channel = channel;
+    deadlineChannel.deadline = System.nanoTime() + sendTimeoutNanos;
+    try {
+      header.clear();
+      writeHeader(header, type, messageCount, droppedTraces, droppedSpans, bodySize);
+      header.flip();
+      deadlineChannel.write(header);
+      body.writeTo(deadlineChannel);
+      return true;
+    } catch (IOException e) {
+      log.debug("Failed to send frame to {}", path, e);
+      // the stream may end in the middle of a frame, so the agent has to see a new connection
+      disconnect();
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    closed = true;
+    disconnect();
+  }
+
+  private ByteChannel connect() {
+    if (null == channel && !closed && System.nanoTime() - nextConnectAttempt >= 0) {
+      try {
+        channel = UnixDomainSocketChannels.connectNonBlocking(path);
+      } catch (IOException e) {
+        log.debug("Unable to connect to {}", path, e);
+        nextConnectAttempt = System.nanoTime() + RECONNECT_DELAY_NANOS;
+      }
+    }
+    return channel;
+  }
+
+  private void disconnect() {
+    if (null != channel) {
+      try {
+        channel.close();
+      } catch (IOException ignored) {
+      }
+      channel = null;
+    }
+  }
+
+  /**
+   * Writes whole buffers to the non-blocking connection, waiting for the agent to make room until
+   * the deadline of the frame.
+   */
+  private static final class DeadlineChannel implements WritableByteChannel {
+    ByteChannel channel;
+    long deadline;
+
+    @Override
+    public int write(final ByteBuffer src) throws IOException {
+      final int length = src.remaining();
+      while (src.hasRemaining()) {
+        if (channel.write(src) == 0) {
+          if (System.nanoTime() - deadline >= 0) {
+            throw new IOException("Timed out waiting for the agent to read the frame");
+          }
+          LockSupport.parkNanos(RETRY_WRITE_DELAY_NANOS);
+        }
+      }
+      return length;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      channel.close();
+    }
+  }
+}
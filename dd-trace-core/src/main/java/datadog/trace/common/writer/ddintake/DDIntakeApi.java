@@ -3,6 +3,7 @@ package datadog.trace.common.writer.ddintake;
 import static datadog.trace.api.intake.TrackType.NOOP;
 import static datadog.trace.common.writer.DDIntakeWriter.DEFAULT_INTAKE_TIMEOUT;
 import static datadog.trace.common.writer.DDIntakeWriter.DEFAULT_INTAKE_VERSION;
+import static datadog.trace.util.AgentThreadFactory.AgentThread.CI_VISIBILITY_INTAKE_UPLOADER;
 
 import datadog.communication.http.OkHttpUtils;
 import datadog.communication.http.RetryPolicy;
@@ -12,26 +13,55 @@ import datadog.trace.common.writer.Payload;
 import datadog.trace.common.writer.RemoteApi;
 import datadog.trace.common.writer.RemoteResponseListener;
 import datadog.trace.relocate.api.IOLogger;
+import datadog.trace.util.AgentThreadFactory;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.ConnectException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-/** The API pointing to a DD Intake endpoint */
+/**
+ * The API pointing to a DD Intake endpoint.
+ *
+ * <p>Payloads are sent synchronously by default. When more than one request may be in flight,
+ * payloads are copied and handed over to a small pool of uploader threads which compress and send
+ * them, so the serializing thread only waits for intake round-trips once that many requests are
+ * outstanding. Payloads still pending when the api is closed are written to the spool directory,
+ * if one is configured, and sent by the next process using it.
+ *
+ * <p>In that mode {@link #sendSerializedTraces} answers 202 as soon as the payload is handed over,
+ * so the writer's health metrics only see hand-over failures. The outcome of the upload itself is
+ * only counted and logged by this api, which is why several requests in flight must be opted into.
+ */
 public class DDIntakeApi implements RemoteApi {
 
   private static final String DD_API_KEY_HEADER = "dd-api-key";
+  private static final MediaType MSGPACK = MediaType.get("application/msgpack");
+  private static final int MAX_SPOOLED_PAYLOADS = 64;
   private static final Logger log = LoggerFactory.getLogger(DDIntakeApi.class);
   private final IOLogger ioLogger = new IOLogger(log);
 
-  private long totalTraces = 0;
-  private long receivedTraces = 0;
-  private long sentTraces = 0;
-  private long failedTraces = 0;
+  private final AtomicLong totalTraces = new AtomicLong();
+  private final AtomicLong receivedTraces = new AtomicLong();
+  private final AtomicLong sentTraces = new AtomicLong();
+  private final AtomicLong failedTraces = new AtomicLong();
 
   public static DDIntakeApiBuilder builder() {
     return new DDIntakeApiBuilder();
@@ -42,6 +72,9 @@ public class DDIntakeApi implements RemoteApi {
     private String apiVersion = DEFAULT_INTAKE_VERSION;
     private TrackType trackType = TrackType.NOOP;
     private long timeoutMillis = TimeUnit.SECONDS.toMillis(DEFAULT_INTAKE_TIMEOUT);
+    private boolean compressionEnabled = false;
+    private int maxInFlightRequests = 1;
+    private Path spoolDirectory = null;
 
     HttpUrl hostUrl = null;
     OkHttpClient httpClient = null;
@@ -84,6 +117,21 @@ public class DDIntakeApi implements RemoteApi {
       return this;
     }
 
+    public DDIntakeApiBuilder compressionEnabled(final boolean compressionEnabled) {
+      this.compressionEnabled = compressionEnabled;
+      return this;
+    }
+
+    public DDIntakeApiBuilder maxInFlightRequests(final int maxInFlightRequests) {
+      this.maxInFlightRequests = maxInFlightRequests;
+      return this;
+    }
+
+    public DDIntakeApiBuilder spoolDirectory(final Path spoolDirectory) {
+      this.spoolDirectory = spoolDirectory;
+      return this;
+    }
+
     DDIntakeApiBuilder httpClient(final OkHttpClient httpClient) {
       this.httpClient = httpClient;
       return this;
@@ -103,7 +151,14 @@ public class DDIntakeApi implements RemoteApi {
         retryPolicy = RetryPolicy.builder().withMaxRetry(5).withBackoff(100).build();
       }
 
-      return new DDIntakeApi(client, intakeUrl, apiKey, retryPolicy);
+      return new DDIntakeApi(
+          client,
+          intakeUrl,
+          apiKey,
+          retryPolicy,
+          compressionEnabled,
+          maxInFlightRequests,
+          null != spoolDirectory ? new IntakeSpool(spoolDirectory, MAX_SPOOLED_PAYLOADS) : null);
     }
   }
 
@@ -111,31 +166,189 @@ public class DDIntakeApi implements RemoteApi {
   private final HttpUrl intakeUrl;
   private final String apiKey;
   private final RetryPolicy retryPolicy;
+  private final boolean compressionEnabled;
+
+  // null when payloads are sent synchronously
+  private final ExecutorService uploader;
+  private final Semaphore inFlight;
+  private final Set<PendingUpload> pending = ConcurrentHashMap.newKeySet();
+  private final IntakeSpool spool;
 
   private DDIntakeApi(
-      OkHttpClient httpClient, HttpUrl intakeUrl, String apiKey, RetryPolicy retryPolicy) {
+      OkHttpClient httpClient,
+      HttpUrl intakeUrl,
+      String apiKey,
+      RetryPolicy retryPolicy,
+      boolean compressionEnabled,
+      int maxInFlightRequests,
+      IntakeSpool spool) {
     this.httpClient = httpClient;
     this.intakeUrl = intakeUrl;
     this.apiKey = apiKey;
     this.retryPolicy = retryPolicy;
+    this.compressionEnabled = compressionEnabled;
+    this.spool = spool;
+    if (maxInFlightRequests > 1) {
+      this.uploader =
+          Executors.newFixedThreadPool(
+              maxInFlightRequests, new AgentThreadFactory(CI_VISIBILITY_INTAKE_UPLOADER));
+      this.inFlight = new Semaphore(maxInFlightRequests);
+      if (null != spool) {
+        uploader.execute(this::sendSpooledPayloads);
+      }
+    } else {
+      this.uploader = null;
+      this.inFlight = null;
+    }
   }
 
   @Override
   public RemoteApi.Response sendSerializedTraces(Payload payload) {
     final int sizeInBytes = payload.sizeInBytes();
+    final int traceCount = payload.traceCount();
+    this.totalTraces.addAndGet(traceCount);
+    this.receivedTraces.addAndGet(traceCount);
+
+    if (null == uploader) {
+      try {
+        final RequestBody body =
+            compressionEnabled
+                ? RequestBody.create(MSGPACK, gzip(toBytes(payload)))
+                : payload.toRequest();
+        return send(newRequest(body, compressionEnabled), traceCount, sizeInBytes);
+      } catch (final IOException e) {
+        countAndLogFailedSend(traceCount, sizeInBytes, null, e);
+        return RemoteApi.Response.failed(e);
+      }
+    }
+
+    final PendingUpload upload;
+    try {
+      // the payload buffer is reused as soon as this method returns
+      upload = new PendingUpload(toBytes(payload), traceCount);
+      inFlight.acquire();
+    } catch (final IOException e) {
+      countAndLogFailedSend(traceCount, sizeInBytes, null, e);
+      return RemoteApi.Response.failed(e);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      countAndLogFailedSend(traceCount, sizeInBytes, null, new IOException(e));
+      return RemoteApi.Response.failed(e);
+    }
+    pending.add(upload);
+    try {
+      uploader.execute(() -> upload(upload));
+    } catch (final RejectedExecutionException e) {
+      pending.remove(upload);
+      inFlight.release();
+      spool(upload);
+      return RemoteApi.Response.failed(e);
+    }
+    // the outcome of the upload is counted and logged once it completes
+    return RemoteApi.Response.success(202);
+  }
+
+  /**
+   * Waits for in-flight uploads to complete, up to the given timeout, then spools (or drops) the
+   * uploads which no uploader thread has started sending and stops the uploader threads.
+   */
+  public void close(long timeout, TimeUnit unit) {
+    if (null == uploader) {
+      return;
+    }
+    uploader.shutdown();
+    try {
+      if (uploader.awaitTermination(timeout, unit)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    for (PendingUpload upload : pending) {
+      spool(upload);
+    }
+    uploader.shutdownNow();
+  }
+
+  private void upload(PendingUpload upload) {
+    final int sizeInBytes = upload.body.length;
+    try {
+      final byte[] body = compressionEnabled ? gzip(upload.body) : upload.body;
+      final Request request = newRequest(RequestBody.create(MSGPACK, body), compressionEnabled);
+      // once claimed the upload can no longer be spooled, so it is never sent twice
+      if (upload.claim()) {
+        send(request, upload.traceCount, sizeInBytes);
+      }
+    } catch (final IOException e) {
+      if (upload.claim()) {
+        countAndLogFailedSend(upload.traceCount, sizeInBytes, null, e);
+      }
+    } finally {
+      pending.remove(upload);
+      inFlight.release();
+    }
+  }
+
+  private void spool(PendingUpload upload) {
+    if (upload.claim()) {
+      if (null != spool && spool.offer(upload.body, upload.traceCount)) {
+        log.debug("Spooled {} traces which could not be sent before shutdown", upload.traceCount);
+      } else {
+        countAndLogFailedSend(
+            upload.traceCount,
+            upload.body.length,
+            null,
+            new IOException("Intake upload did not complete before shutdown"));
+      }
+    }
+  }
+
+  private void sendSpooledPayloads() {
+    for (IntakeSpool.SpooledPayload spooled : spool.list()) {
+      if (Thread.currentThread().isInterrupted()) {
+        return;
+      }
+      if (!spooled.claim()) {
+        // already picked up by another process sharing the spool
+        continue;
+      }
+      try {
+        final byte[] raw = spooled.read();
+        final byte[] body = compressionEnabled ? gzip(raw) : raw;
+        this.totalTraces.addAndGet(spooled.traceCount);
+        this.receivedTraces.addAndGet(spooled.traceCount);
+        final RemoteApi.Response response =
+            send(
+                newRequest(RequestBody.create(MSGPACK, body), compressionEnabled),
+                spooled.traceCount,
+                raw.length);
+        if (response.status() == null || response.status() < 500) {
+          // anything but a transient failure will not get better by resending it later
+          spooled.delete();
+        } else {
+          spooled.unclaim();
+        }
+      } catch (final IOException e) {
+        log.debug("Unable to read spooled payload {}", spooled.file, e);
+        spooled.delete();
+      }
+    }
+  }
+
+  private Request newRequest(RequestBody body, boolean compressed) {
+    final Request.Builder builder =
+        new Request.Builder().url(intakeUrl).addHeader(DD_API_KEY_HEADER, apiKey);
+    if (compressed) {
+      builder.addHeader("Content-Encoding", "gzip");
+    }
+    return builder.post(body).build();
+  }
+
+  private RemoteApi.Response send(Request request, int traceCount, int sizeInBytes) {
     boolean shouldRetry;
     int retry = 1;
 
     try {
-      final Request request =
-          new Request.Builder()
-              .url(intakeUrl)
-              .addHeader(DD_API_KEY_HEADER, apiKey)
-              .post(payload.toRequest())
-              .build();
-      this.totalTraces += payload.traceCount();
-      this.receivedTraces += payload.traceCount();
-
       int httpCode = 0;
       IOException lastException = null;
       Response lastResponse = null;
@@ -163,24 +376,38 @@ public class DDIntakeApi implements RemoteApi {
           retry++;
         } else {
           if (httpCode < 200 || httpCode >= 300) {
-            countAndLogFailedSend(payload.traceCount(), sizeInBytes, lastResponse, null);
+            countAndLogFailedSend(traceCount, sizeInBytes, lastResponse, null);
             return RemoteApi.Response.failed(httpCode);
           } else if (lastException != null) {
             throw lastException;
           }
-          countAndLogSuccessfulSend(payload.traceCount(), sizeInBytes);
+          countAndLogSuccessfulSend(traceCount, sizeInBytes);
           return RemoteApi.Response.success(httpCode);
         }
       }
     } catch (final IOException e) {
-      countAndLogFailedSend(payload.traceCount(), sizeInBytes, null, e);
+      countAndLogFailedSend(traceCount, sizeInBytes, null, e);
       return RemoteApi.Response.failed(e);
     }
   }
 
+  private static byte[] toBytes(Payload payload) throws IOException {
+    final Buffer buffer = new Buffer();
+    payload.toRequest().writeTo(buffer);
+    return buffer.readByteArray();
+  }
+
+  private static byte[] gzip(byte[] raw) throws IOException {
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(raw);
+    }
+    return compressed.toByteArray();
+  }
+
   private void countAndLogSuccessfulSend(final int traceCount, final int sizeInBytes) {
     // count the successful traces
-    this.sentTraces += traceCount;
+    this.sentTraces.addAndGet(traceCount);
 
     ioLogger.success(createSendLogMessage(traceCount, sizeInBytes, "Success"));
   }
@@ -191,7 +418,7 @@ public class DDIntakeApi implements RemoteApi {
       final DDIntakeApi.Response response,
       final IOException outer) {
     // count the failed traces
-    this.failedTraces += traceCount;
+    this.failedTraces.addAndGet(traceCount);
     // these are used to catch and log if there is a failure in debug logging the response body
     String intakeError = response != null ? response.body : "";
     String sendErrorString =
@@ -229,19 +456,35 @@ public class DDIntakeApi implements RemoteApi {
         + ")"
         + " traces to the DD Intake."
         + " Total: "
-        + this.totalTraces
+        + this.totalTraces.get()
         + ", Received: "
-        + this.receivedTraces
+        + this.receivedTraces.get()
         + ", Sent: "
-        + this.sentTraces
+        + this.sentTraces.get()
         + ", Failed: "
-        + this.failedTraces
+        + this.failedTraces.get()
         + ".";
   }
 
   @Override
   public void addResponseListener(RemoteResponseListener listener) {}
 
+  private static final class PendingUpload {
+    private final byte[] body;
+    private final int traceCount;
+    // set by whichever of the uploader or the shutdown spooling gets to the upload first
+    private final AtomicBoolean claimed = new AtomicBoolean();
+
+    PendingUpload(byte[] body, int traceCount) {
+      this.body = body;
+      this.traceCount = traceCount;
+    }
+
+    boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+  }
+
   private static class Response {
     private final int code;
     private final String message;
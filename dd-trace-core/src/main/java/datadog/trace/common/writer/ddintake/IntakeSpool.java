@@ -0,0 +1,209 @@
+package datadog.trace.common.writer.ddintake;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded on-disk spool for intake payloads which could not be sent before shutdown. Payloads are
+ * written as they would have been sent, and picked up again by the next process configured with
+ * the same spool directory. When the spool is full the oldest payloads are deleted.
+ *
+ * <p>Several processes may share the spool directory, so a payload is claimed by atomically
+ * renaming its file before it is sent. Only the process which renamed the file sends it. A claim
+ * which is still there after {@link #CLAIM_EXPIRY_MILLIS} belongs to a process which died while
+ * sending, and the payload is put back in the spool. Claimed payloads count towards the size of
+ * the spool.
+ */
+final class IntakeSpool {
+  private static final Logger log = LoggerFactory.getLogger(IntakeSpool.class);
+
+  private static final String SUFFIX = ".payload";
+  private static final String CLAIMED_SUFFIX = ".sending";
+
+  // far longer than sending a payload takes, retries included
+  static final long CLAIM_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+  static final class SpooledPayload {
+    final Path file;
+    final Path claimedFile;
+    final int traceCount;
+
+    SpooledPayload(Path file, int traceCount) {
+      this.file = file;
+      this.claimedFile = file.resolveSibling(file.getFileName() + CLAIMED_SUFFIX);
+      this.traceCount = traceCount;
+    }
+
+    /**
+     * @return {@literal true} if this process now owns the payload and should send it
+     */
+    boolean claim() {
+      try {
+        // renaming keeps the modification time, which tells when the claim expires
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        Files.move(file, claimedFile, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+      } catch (IOException e) {
+        // most likely claimed by another process
+        log.debug("Unable to claim spooled payload {}", file, e);
+        return false;
+      }
+    }
+
+    /** Puts a claimed payload back in the spool, to be sent again later */
+    void unclaim() {
+      try {
+        Files.move(claimedFile, file, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        log.debug("Unable to return spooled payload {}", file, e);
+      }
+    }
+
+    byte[] read() throws IOException {
+      return Files.readAllBytes(claimedFile);
+    }
+
+    void delete() {
+      try {
+        Files.deleteIfExists(claimedFile);
+      } catch (IOException e) {
+        log.debug("Unable to delete spooled payload {}", claimedFile, e);
+      }
+    }
+  }
+
+  private final Path directory;
+  private final int maxFiles;
+  private final AtomicLong sequence = new AtomicLong();
+  private String processId;
+
+  IntakeSpool(Path directory, int maxFiles) {
+    this.directory = directory;
+    this.maxFiles = maxFiles;
+  }
+
+  /**
+   * @return {@literal true} if the payload was written to the spool
+   */
+  boolean offer(byte[] body, int traceCount) {
+    // <time>-<pid>-<sequence>-<trace count> so files sort in the order they were spooled, and
+    // don't collide with the files of other processes
+    String fileName =
+        String.format(
+            "%020d-%s-%06d-%d%s",
+            System.currentTimeMillis(),
+            processId(),
+            sequence.getAndIncrement(),
+            traceCount,
+            SUFFIX);
+    try {
+      Files.createDirectories(directory);
+      Files.write(directory.resolve(fileName), body);
+    } catch (IOException e) {
+      log.debug("Unable to spool intake payload", e);
+      return false;
+    }
+    List<Path> claimed = new ArrayList<>();
+    List<SpooledPayload> spooled = list(claimed);
+    int excess = spooled.size() + claimed.size() - maxFiles;
+    for (int i = 0; i < excess && i < spooled.size(); i++) {
+      SpooledPayload oldest = spooled.get(i);
+      // claim first, so a payload being sent by another process is left alone
+      if (oldest.claim()) {
+        log.debug("Intake spool is full, dropping oldest payload {}", oldest.file);
+        oldest.delete();
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Puts back the payloads whose claim expired.
+   *
+   * @return the spooled payloads, oldest first
+   */
+  List<SpooledPayload> list() {
+    return list(new ArrayList<>());
+  }
+
+  private List<SpooledPayload> list(List<Path> claimed) {
+    if (!Files.isDirectory(directory)) {
+      return Collections.emptyList();
+    }
+    List<SpooledPayload> spooled = new ArrayList<>();
+    long expiry = System.currentTimeMillis() - CLAIM_EXPIRY_MILLIS;
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX + "*")) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        if (name.endsWith(SUFFIX + CLAIMED_SUFFIX)) {
+          Path unclaimed =
+              file.resolveSibling(name.substring(0, name.length() - CLAIMED_SUFFIX.length()));
+          if (expired(file, expiry) && reclaim(file, unclaimed)) {
+            name = unclaimed.getFileName().toString();
+            file = unclaimed;
+          } else {
+            claimed.add(file);
+            continue;
+          }
+        } else if (!name.endsWith(SUFFIX)) {
+          log.debug("Ignoring unexpected file in the intake spool {}", file);
+          continue;
+        }
+        int start = name.lastIndexOf('-') + 1;
+        try {
+          int traceCount =
+              Integer.parseInt(name.substring(start, name.length() - SUFFIX.length()));
+          spooled.add(new SpooledPayload(file, traceCount));
+        } catch (NumberFormatException e) {
+          log.debug("Ignoring unexpected file in the intake spool {}", file);
+        }
+      }
+    } catch (IOException e) {
+      log.debug("Unable to list the intake spool {}", directory, e);
+    }
+    spooled.sort((a, b) -> a.file.getFileName().compareTo(b.file.getFileName()));
+    return spooled;
+  }
+
+  private static boolean expired(Path claimedFile, long expiry) {
+    try {
+      return Files.getLastModifiedTime(claimedFile).toMillis() < expiry;
+    } catch (IOException e) {
+      // most likely sent and deleted in the meantime
+      return false;
+    }
+  }
+
+  private static boolean reclaim(Path claimedFile, Path file) {
+    try {
+      Files.move(claimedFile, file, StandardCopyOption.ATOMIC_MOVE);
+      log.debug("Claim on spooled payload {} expired, putting it back", file);
+      return true;
+    } catch (IOException e) {
+      log.debug("Unable to reclaim spooled payload {}", claimedFile, e);
+      return false;
+    }
+  }
+
+  private String processId() {
+    if (null == processId) {
+      // "<pid>@<host>" on all the JVMs we support, only looked up when spooling at shutdown
+      String name = ManagementFactory.getRuntimeMXBean().getName();
+      int at = name.indexOf('@');
+      processId = at > 0 ? name.substring(0, at) : Integer.toHexString(name.hashCode());
+    }
+    return processId;
+  }
+}
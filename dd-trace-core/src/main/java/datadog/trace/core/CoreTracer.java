@@ -10,6 +10,7 @@ import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+import datadog.common.container.ServerlessInfo;
 import datadog.communication.ddagent.ExternalAgentLauncher;
 import datadog.communication.ddagent.SharedCommunicationObjects;
 import datadog.communication.monitor.Monitoring;
@@ -77,6 +78,8 @@ import java.util.ServiceConfigurationError;
 import java.util.ServiceLoader;
 import java.util.SortedSet;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,6 +116,8 @@ public class CoreTracer implements AgentTracer.TracerAPI {
   private volatile long counterDrift;
 
   private final PendingTraceBuffer pendingTraceBuffer;
+  /** Post-processes finished traces in the background; null when done on the finishing thread */
+  private final TracePostProcessor postProcessor;
 
   /** Default service name if none provided on the trace or span */
   final String serviceName;
@@ -510,6 +515,11 @@ public class CoreTracer implements AgentTracer.TracerAPI {
 
     this.writer.start();
 
+    if (ServerlessInfo.get().isRunningInServerlessEnvironment()
+        && ServerlessInfo.get().hasExtension()) {
+      LambdaHandler.preWarm();
+    }
+
     metricsAggregator = createMetricsAggregator(config, sharedCommunicationObjects);
     // Schedule the metrics aggregator to begin reporting after a random delay of 1 to 10 seconds
     // (using milliseconds granularity.) This avoids a fleet of traced applications starting at the
@@ -545,6 +555,13 @@ public class CoreTracer implements AgentTracer.TracerAPI {
 
     this.instrumentationGateway = instrumentationGateway;
 
+    if (config.isTracePostProcessingAsyncEnabled()) {
+      postProcessor = new TracePostProcessor(this::postProcess);
+      postProcessor.start();
+    } else {
+      postProcessor = null;
+    }
+
     shutdownCallback = new ShutdownHook(this);
     try {
       Runtime.getRuntime().addShutdownHook(shutdownCallback);
@@ -806,6 +823,24 @@ public class CoreTracer implements AgentTracer.TracerAPI {
     LambdaHandler.notifyEndInvocation(span, isError);
   }
 
+  @Override
+  public void finishAndNotifyExtensionEnd(AgentSpan span, boolean isError) {
+    if (span instanceof DDSpan) {
+      // the extension needs the sampling decision, which is otherwise taken when writing the trace
+      setSamplingPriorityIfNecessary(((DDSpan) span).context().getTrace().getRootSpan());
+    }
+    Future<Boolean> endInvocation = LambdaHandler.notifyEndInvocationAsync(span, isError);
+    // in a lambda the trace is flushed when the span finishes
+    span.finish();
+    try {
+      endInvocation.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      log.debug("could not notify the extension of the end of the invocation", e);
+    }
+  }
+
   private final RatelimitedLogger rlLog = new RatelimitedLogger(log, 1, MINUTES);
 
   /**
@@ -818,6 +853,15 @@ public class CoreTracer implements AgentTracer.TracerAPI {
     if (trace.isEmpty()) {
       return;
     }
+    if (null != postProcessor) {
+      postProcessor.publish(trace);
+    } else {
+      postProcess(trace);
+    }
+  }
+
+  /** Runs the trace interceptors and the sampler, then hands the trace to the writer. */
+  private void postProcess(final List<DDSpan> trace) {
     List<DDSpan> writtenTrace = trace;
     if (!interceptors.isEmpty()) {
       Collection<? extends MutableSpan> interceptedTrace = new ArrayList<>(trace);
@@ -942,6 +986,9 @@ public class CoreTracer implements AgentTracer.TracerAPI {
   @Override
   public void close() {
     pendingTraceBuffer.close();
+    if (null != postProcessor) {
+      postProcessor.close();
+    }
     writer.close();
     statsDClient.close();
     metricsAggregator.close();
@@ -952,6 +999,9 @@ public class CoreTracer implements AgentTracer.TracerAPI {
   @Override
   public void flush() {
     pendingTraceBuffer.flush();
+    if (null != postProcessor) {
+      postProcessor.flush(1, SECONDS);
+    }
     writer.flush();
   }
 
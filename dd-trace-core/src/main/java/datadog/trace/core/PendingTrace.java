@@ -32,6 +32,13 @@ import org.slf4j.LoggerFactory;
  * </ul>
  *
  * Delayed write is handled by PendingTraceBuffer. <br>
+ *
+ * <p>The finished spans of a trace whose root is still open are written out as soon as more than
+ * {@code trace.partial.flush.min.spans} (1000 by default, 0 disables partial flushes) of them are
+ * pending. Lowering it bounds the memory held by long-running traces, such as batch jobs which
+ * create a span per item under a single root, at the cost of more and smaller payloads. The
+ * sampling decision is taken on the local root with the first partial flush and kept for the
+ * following ones.
  */
 public class PendingTrace implements AgentTrace, PendingTraceBuffer.Element {
 
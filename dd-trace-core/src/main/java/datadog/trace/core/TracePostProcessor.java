@@ -0,0 +1,109 @@
+package datadog.trace.core;
+
+import static datadog.trace.util.AgentThreadFactory.AgentThread.TRACE_POST_PROCESSOR;
+import static datadog.trace.util.AgentThreadFactory.THREAD_JOIN_TIMOUT_MS;
+import static datadog.trace.util.AgentThreadFactory.newAgentThread;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.jctools.queues.MessagePassingQueue;
+import org.jctools.queues.MpscBlockingConsumerArrayQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the post-processing of finished traces (trace interceptors, metrics, sampling) on a
+ * dedicated thread, so the application thread which finishes a root span only pays for an enqueue.
+ * When the queue is full, or the processor is not running, traces are post-processed on the calling
+ * thread instead of being dropped.
+ */
+final class TracePostProcessor implements Runnable, MessagePassingQueue.Consumer<Object> {
+
+  private static final Logger log = LoggerFactory.getLogger(TracePostProcessor.class);
+
+  private static final int QUEUE_CAPACITY = 1024;
+
+  private final MpscBlockingConsumerArrayQueue<Object> queue =
+      new MpscBlockingConsumerArrayQueue<>(QUEUE_CAPACITY);
+  private final Consumer<List<DDSpan>> postProcessing;
+  private final Thread thread;
+
+  private volatile boolean running;
+
+  TracePostProcessor(Consumer<List<DDSpan>> postProcessing) {
+    this.postProcessing = postProcessing;
+    this.thread = newAgentThread(TRACE_POST_PROCESSOR, this);
+  }
+
+  void start() {
+    running = true;
+    thread.start();
+  }
+
+  void publish(List<DDSpan> trace) {
+    if (!running || !queue.offer(trace)) {
+      postProcessing.accept(trace);
+    }
+  }
+
+  /** Waits until the traces published so far have been post-processed. */
+  boolean flush(long timeout, TimeUnit unit) {
+    if (!running) {
+      return true;
+    }
+    CountDownLatch latch = new CountDownLatch(1);
+    while (!queue.offer(latch)) {
+      if (!thread.isAlive()) {
+        return false;
+      }
+      Thread.yield();
+    }
+    try {
+      return latch.await(timeout, unit);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  void close() {
+    running = false;
+    thread.interrupt();
+    try {
+      thread.join(THREAD_JOIN_TIMOUT_MS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        accept(queue.take());
+        queue.drain(this, queue.size());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // post-process what was published before closing
+    queue.drain(this);
+    log.debug("Datadog trace post-processor exited");
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void accept(Object event) {
+    if (event instanceof CountDownLatch) {
+      ((CountDownLatch) event).countDown();
+      return;
+    }
+    try {
+      postProcessing.accept((List<DDSpan>) event);
+    } catch (Throwable e) {
+      log.debug("Error while post-processing trace", e);
+    }
+  }
+}
@@ -76,6 +76,11 @@ class B3HttpCodec {
   }
 
   public static HttpCodec.Extractor newExtractor(final Map<String, String> tagMapping) {
+    return newExtractor(tagMapping, false);
+  }
+
+  public static HttpCodec.Extractor newExtractor(
+      final Map<String, String> tagMapping, final boolean extractByName) {
     return new TagContextExtractor(
         tagMapping,
         new ContextInterpreter.Factory() {
@@ -83,7 +88,8 @@ class B3HttpCodec {
           protected ContextInterpreter construct(final Map<String, String> mapping) {
             return new B3ContextInterpreter(mapping);
           }
-        });
+        },
+        extractByName);
   }
 
   private static class B3ContextInterpreter extends ContextInterpreter {
@@ -99,6 +105,12 @@ class B3HttpCodec {
       super(taggedHeaders);
     }
 
+    @Override
+    protected String[] fixedKeys() {
+      // the b3 header must come first so it takes priority over the multi header format
+      return new String[] {B3_KEY, TRACE_ID_KEY, SPAN_ID_KEY, SAMPLING_PRIORITY_KEY};
+    }
+
     @Override
     public boolean accept(final String key, final String value) {
       if (null == key || key.isEmpty()) {
@@ -18,7 +18,10 @@ import datadog.trace.bootstrap.instrumentation.api.ForwardedTagContext;
 import datadog.trace.bootstrap.instrumentation.api.TagContext;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public abstract class ContextInterpreter implements AgentPropagation.KeyClassifier {
 
@@ -40,6 +43,8 @@ public abstract class ContextInterpreter implements AgentPropagation.KeyClassifi
   protected String forwardedPort;
   protected boolean valid;
 
+  private String[] keysByName;
+
   protected static final boolean LOG_EXTRACT_HEADER_NAMES = Config.get().isLogExtractHeaderNames();
   private static final DDCache<String, String> CACHE = DDCaches.newFixedSizeCache(64);
 
@@ -70,6 +75,33 @@ public abstract class ContextInterpreter implements AgentPropagation.KeyClassifi
     }
   }
 
+  /**
+   * @return the names of the headers this interpreter understands, excluding forwarding and
+   *     tagged headers; headers only recognised by prefix (baggage) are not included
+   */
+  protected abstract String[] fixedKeys();
+
+  /**
+   * @return the names of all headers to look up on carriers which support lookup by name, in the
+   *     order they should be presented to {@link #accept(String, String)}
+   */
+  final String[] keysByName() {
+    if (null == keysByName) {
+      Set<String> keys = new LinkedHashSet<>();
+      for (String key : fixedKeys()) {
+        keys.add(key.toLowerCase(Locale.ROOT));
+      }
+      keys.add(FORWARDED_KEY);
+      keys.add(X_FORWARDED_PROTO_KEY);
+      keys.add(X_FORWARDED_HOST_KEY);
+      keys.add(X_FORWARDED_FOR_KEY);
+      keys.add(X_FORWARDED_PORT_KEY);
+      keys.addAll(taggedHeaders.keySet());
+      keysByName = keys.toArray(new String[0]);
+    }
+    return keysByName;
+  }
+
   protected final boolean handledForwarding(String key, String value) {
     if (null != value && FORWARDED_KEY.equalsIgnoreCase(key)) {
       forwarded = value;
@@ -60,6 +60,11 @@ class DatadogHttpCodec {
   }
 
   public static HttpCodec.Extractor newExtractor(final Map<String, String> tagMapping) {
+    return newExtractor(tagMapping, false);
+  }
+
+  public static HttpCodec.Extractor newExtractor(
+      final Map<String, String> tagMapping, final boolean extractByName) {
     return new TagContextExtractor(
         tagMapping,
         new ContextInterpreter.Factory() {
@@ -67,7 +72,8 @@ class DatadogHttpCodec {
           protected ContextInterpreter construct(Map<String, String> mapping) {
             return new DatadogContextInterpreter(mapping);
           }
-        });
+        },
+        extractByName);
   }
 
   private static class DatadogContextInterpreter extends ContextInterpreter {
@@ -85,6 +91,23 @@ class DatadogHttpCodec {
       super(taggedHeaders);
     }
 
+    @Override
+    protected String[] fixedKeys() {
+      if (Config.get().isAwsPropagationEnabled()) {
+        return new String[] {
+          TRACE_ID_KEY,
+          SPAN_ID_KEY,
+          SAMPLING_PRIORITY_KEY,
+          ORIGIN_KEY,
+          E2E_START_KEY,
+          X_AMZN_TRACE_ID
+        };
+      }
+      return new String[] {
+        TRACE_ID_KEY, SPAN_ID_KEY, SAMPLING_PRIORITY_KEY, ORIGIN_KEY, E2E_START_KEY
+      };
+    }
+
     @Override
     public boolean accept(String key, String value) {
       if (null == key || key.isEmpty()) {
@@ -102,6 +102,11 @@ class HaystackHttpCodec {
   }
 
   public static HttpCodec.Extractor newExtractor(final Map<String, String> tagMapping) {
+    return newExtractor(tagMapping, false);
+  }
+
+  public static HttpCodec.Extractor newExtractor(
+      final Map<String, String> tagMapping, final boolean extractByName) {
     return new TagContextExtractor(
         tagMapping,
         new ContextInterpreter.Factory() {
@@ -109,7 +114,8 @@ class HaystackHttpCodec {
           protected ContextInterpreter construct(Map<String, String> mapping) {
             return new HaystackContextInterpreter(mapping);
           }
-        });
+        },
+        extractByName);
   }
 
   private static class HaystackContextInterpreter extends ContextInterpreter {
@@ -127,6 +133,11 @@ class HaystackHttpCodec {
       super(taggedHeaders);
     }
 
+    @Override
+    protected String[] fixedKeys() {
+      return new String[] {TRACE_ID_KEY, SPAN_ID_KEY, PARENT_ID_KEY};
+    }
+
     @Override
     public boolean accept(String key, String value) {
       if (null == key || key.isEmpty()) {
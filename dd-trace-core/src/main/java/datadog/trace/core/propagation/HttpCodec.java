@@ -81,19 +81,20 @@ public class HttpCodec {
   public static Extractor createExtractor(
       final Config config, final Map<String, String> taggedHeaders) {
     final List<Extractor> extractors = new ArrayList<>();
+    final boolean extractByName = config.isExtractHeadersByName();
     for (final PropagationStyle style : config.getPropagationStylesToExtract()) {
       switch (style) {
         case DATADOG:
-          extractors.add(DatadogHttpCodec.newExtractor(taggedHeaders));
+          extractors.add(DatadogHttpCodec.newExtractor(taggedHeaders, extractByName));
           break;
         case B3:
-          extractors.add(B3HttpCodec.newExtractor(taggedHeaders));
+          extractors.add(B3HttpCodec.newExtractor(taggedHeaders, extractByName));
           break;
         case HAYSTACK:
-          extractors.add(HaystackHttpCodec.newExtractor(taggedHeaders));
+          extractors.add(HaystackHttpCodec.newExtractor(taggedHeaders, extractByName));
           break;
         case XRAY:
-          extractors.add(XRayHttpCodec.newExtractor(taggedHeaders));
+          extractors.add(XRayHttpCodec.newExtractor(taggedHeaders, extractByName));
           break;
         default:
           log.debug("No implementation found to extract propagation style: {}", style);
@@ -8,9 +8,22 @@ public class TagContextExtractor implements HttpCodec.Extractor {
 
   protected final Map<String, String> taggedHeaders;
   private final ThreadLocal<ContextInterpreter> ctxInterpreter;
+  private final boolean extractByName;
 
   public TagContextExtractor(
       final Map<String, String> taggedHeaders, final ContextInterpreter.Factory factory) {
+    this(taggedHeaders, factory, false);
+  }
+
+  /**
+   * @param extractByName when {@code true}, carriers which support lookup by name are only asked
+   *     for the headers the interpreter understands instead of being walked entirely; headers which
+   *     are only recognised by prefix (baggage) are not extracted from such carriers
+   */
+  public TagContextExtractor(
+      final Map<String, String> taggedHeaders,
+      final ContextInterpreter.Factory factory,
+      final boolean extractByName) {
     this.taggedHeaders = taggedHeaders;
     this.ctxInterpreter =
         new ThreadLocal<ContextInterpreter>() {
@@ -19,12 +32,29 @@ public class TagContextExtractor implements HttpCodec.Extractor {
             return factory.create(taggedHeaders);
           }
         };
+    this.extractByName = extractByName;
   }
 
   @Override
   public <C> TagContext extract(final C carrier, final AgentPropagation.ContextVisitor<C> getter) {
     ContextInterpreter interpreter = this.ctxInterpreter.get().reset();
-    getter.forEachKey(carrier, interpreter);
+    if (extractByName && getter instanceof AgentPropagation.KeyedContextVisitor) {
+      extractByName(carrier, (AgentPropagation.KeyedContextVisitor<C>) getter, interpreter);
+    } else {
+      getter.forEachKey(carrier, interpreter);
+    }
     return interpreter.build();
   }
+
+  private static <C> void extractByName(
+      final C carrier,
+      final AgentPropagation.KeyedContextVisitor<C> getter,
+      final ContextInterpreter interpreter) {
+    for (String key : interpreter.keysByName()) {
+      String value = getter.get(carrier, key);
+      if (null != value && !interpreter.accept(key, value)) {
+        break;
+      }
+    }
+  }
 }
@@ -101,6 +101,11 @@ class XRayHttpCodec {
   }
 
   public static HttpCodec.Extractor newExtractor(Map<String, String> tagMapping) {
+    return newExtractor(tagMapping, false);
+  }
+
+  public static HttpCodec.Extractor newExtractor(
+      Map<String, String> tagMapping, boolean extractByName) {
     return new TagContextExtractor(
         tagMapping,
         new ContextInterpreter.Factory() {
@@ -108,7 +113,8 @@ class XRayHttpCodec {
           protected ContextInterpreter construct(Map<String, String> mapping) {
             return new XRayContextInterpreter(mapping);
           }
-        });
+        },
+        extractByName);
   }
 
   static class XRayContextInterpreter extends ContextInterpreter {
@@ -117,6 +123,11 @@ class XRayHttpCodec {
       super(taggedHeaders);
     }
 
+    @Override
+    protected String[] fixedKeys() {
+      return new String[] {X_AMZN_TRACE_ID};
+    }
+
     @Override
     public boolean accept(String key, String value) {
       if (null == key || key.isEmpty()) {
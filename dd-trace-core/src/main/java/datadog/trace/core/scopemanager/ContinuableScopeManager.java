@@ -40,13 +40,16 @@ import org.slf4j.LoggerFactory;
 public final class ContinuableScopeManager implements AgentScopeManager {
 
   static final Logger log = LoggerFactory.getLogger(ContinuableScopeManager.class);
-  final ThreadLocal<ScopeStack> tlsScopeStack =
-      new ThreadLocal<ScopeStack>() {
-        @Override
-        protected final ScopeStack initialValue() {
-          return new ScopeStack();
-        }
-      };
+
+  /**
+   * Scope stacks are only created when a scope is first activated on a thread, so that the many
+   * short-lived virtual threads which never activate a scope don't pay for one. Virtual threads
+   * carry their own thread-locals across mounts, so the stack follows them between carriers.
+   */
+  final ThreadLocal<ScopeStack> tlsScopeStack = new ThreadLocal<>();
+
+  /** Stands in for the stack of threads which haven't activated any scope, must stay empty */
+  private static final ScopeStack EMPTY_SCOPE_STACK = new ScopeStack();
 
   static final long iterationKeepAlive =
       SECONDS.toMillis(Config.get().getScopeIterationKeepAlive());
@@ -152,7 +155,7 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
   @Override
   public void closePrevious(final boolean finishSpan) {
-    ScopeStack scopeStack = scopeStack();
+    ScopeStack scopeStack = peekScopeStack();
 
     // close any immediately previous iteration scope
     final ContinuableScope top = scopeStack.top;
@@ -202,12 +205,12 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
   @Override
   public AgentScope active() {
-    return scopeStack().active();
+    return peekScopeStack().active();
   }
 
   @Override
   public AgentSpan activeSpan() {
-    final ContinuableScope active = scopeStack().active();
+    final ContinuableScope active = peekScopeStack().active();
     return active == null ? null : active.span;
   }
 
@@ -237,7 +240,18 @@ public final class ContinuableScopeManager implements AgentScopeManager {
   }
 
   ScopeStack scopeStack() {
-    return this.tlsScopeStack.get();
+    ScopeStack scopeStack = tlsScopeStack.get();
+    if (null == scopeStack) {
+      scopeStack = new ScopeStack();
+      tlsScopeStack.set(scopeStack);
+    }
+    return scopeStack;
+  }
+
+  /** Returns the stack of the current thread without creating one, it must not be pushed to */
+  ScopeStack peekScopeStack() {
+    ScopeStack scopeStack = tlsScopeStack.get();
+    return null != scopeStack ? scopeStack : EMPTY_SCOPE_STACK;
   }
 
   private static class ContinuableScope implements AgentScope, AttachableWrapper {
@@ -270,7 +284,7 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
     @Override
     public final void close() {
-      final ScopeStack scopeStack = scopeManager.scopeStack();
+      final ScopeStack scopeStack = scopeManager.peekScopeStack();
 
       // fast check first, only perform slower check when there's an inconsistency with the stack
       if (!scopeStack.checkTop(this) && !scopeStack.checkOverdueScopes(this)) {
@@ -471,7 +485,10 @@ public final class ContinuableScopeManager implements AgentScopeManager {
    * cleanup() is called to ensure the invariant
    */
   static final class ScopeStack {
-    private final ArrayDeque<ContinuableScope> stack = new ArrayDeque<>(); // previous scopes
+    private static final int INITIAL_DEQUE_CAPACITY = 4;
+
+    // previous scopes, only allocated once scopes are nested
+    private ArrayDeque<ContinuableScope> stack;
 
     ContinuableScope top; // current scope
 
@@ -491,7 +508,7 @@ public final class ContinuableScopeManager implements AgentScopeManager {
         // no longer alive -- trigger listener & null out
         curScope.onProperClose();
         changedTop = true;
-        curScope = stack.poll();
+        curScope = null != stack ? stack.poll() : null;
       }
       if (curScope != null && curScope == overdueRootScope) {
         // we know this scope is the last on the stack and is overdue
@@ -509,6 +526,9 @@ public final class ContinuableScopeManager implements AgentScopeManager {
     /** Marks a new scope as current, pushing the previous onto the stack */
     void push(final ContinuableScope scope) {
       if (top != null) {
+        if (null == stack) {
+          stack = new ArrayDeque<>(INITIAL_DEQUE_CAPACITY);
+        }
         stack.push(top);
       }
       top = scope;
@@ -533,6 +553,9 @@ public final class ContinuableScopeManager implements AgentScopeManager {
       // remaining references so the scope gets removed in the subsequent cleanup() call
       top.clearReferences();
       top.span.finishWithEndToEnd();
+      if (null == stack) {
+        return false;
+      }
       // now do the same for any previous iteration scopes ahead of the expected scope
       for (ContinuableScope scope : stack) {
         if (scope.source() != ScopeSource.ITERATION.id()) {
@@ -547,12 +570,14 @@ public final class ContinuableScopeManager implements AgentScopeManager {
 
     /** Returns the current depth, including the top scope */
     int depth() {
-      return top != null ? 1 + stack.size() : 0;
+      return top != null ? 1 + (null != stack ? stack.size() : 0) : 0;
     }
 
     // DQH - regrettably needed for pre-existing tests
     void clear() {
-      stack.clear();
+      if (null != stack) {
+        stack.clear();
+      }
       top = null;
     }
   }
@@ -0,0 +1,83 @@
+package datadog.trace.core.taginterceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable open-addressing table from tag name to a small integer id. Tag names are almost
+ * always compile-time constants, so the lookup compares by identity before falling back to
+ * {@link String#equals(Object)}, and a tag which was never registered is usually rejected after a
+ * single (cached) {@link String#hashCode()} and one array read.
+ */
+final class InterceptedTags {
+
+  static final int UNKNOWN = 0;
+
+  private final String[] keys;
+  private final int[] ids;
+  private final int mask;
+
+  private InterceptedTags(String[] keys, int[] ids) {
+    this.keys = keys;
+    this.ids = ids;
+    this.mask = keys.length - 1;
+  }
+
+  int lookup(String tag) {
+    int slot = tag.hashCode() & mask;
+    String key;
+    while (null != (key = keys[slot])) {
+      if (key == tag || key.equals(tag)) {
+        return ids[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return UNKNOWN;
+  }
+
+  static final class Builder {
+    private final List<String> keys = new ArrayList<>();
+    private final List<Integer> ids = new ArrayList<>();
+
+    Builder register(String tag, int id) {
+      int index = keys.indexOf(tag);
+      if (index >= 0) {
+        ids.set(index, id);
+      } else {
+        keys.add(tag);
+        ids.add(id);
+      }
+      return this;
+    }
+
+    /** Registers the tag with {@code id} only when {@code feature} is enabled. */
+    Builder register(String tag, RuleFlags ruleFlags, RuleFlags.Feature feature, int id) {
+      return register(tag, ruleFlags.isEnabled(feature) ? id : UNKNOWN);
+    }
+
+    Builder registerIfAbsent(String tag, int id) {
+      if (!keys.contains(tag)) {
+        register(tag, id);
+      }
+      return this;
+    }
+
+    InterceptedTags build() {
+      // keep the load factor at or below 1/4 so probe sequences stay short
+      int capacity = Integer.highestOneBit(Math.max(16, keys.size() * 4) - 1) << 1;
+      String[] table = new String[capacity];
+      int[] tableIds = new int[capacity];
+      int mask = capacity - 1;
+      for (int i = 0; i < keys.size(); ++i) {
+        String key = keys.get(i);
+        int slot = key.hashCode() & mask;
+        while (null != table[slot]) {
+          slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+        tableIds[slot] = ids.get(i);
+      }
+      return new InterceptedTags(table, tableIds);
+    }
+  }
+}
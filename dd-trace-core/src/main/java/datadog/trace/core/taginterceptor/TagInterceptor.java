@@ -24,11 +24,24 @@ import java.util.Set;
 
 public class TagInterceptor {
 
+  private static final int RESOURCE_NAME_TAG = 1;
+  private static final int DB_STATEMENT_TAG = 2;
+  private static final int SERVICE_NAME_TAG = 3;
+  private static final int MANUAL_KEEP_TAG = 4;
+  private static final int MANUAL_DROP_TAG = 5;
+  private static final int SERVLET_CONTEXT_TAG = 6;
+  private static final int SPAN_TYPE_TAG = 7;
+  private static final int ANALYTICS_SAMPLE_RATE_TAG = 8;
+  private static final int ERROR_TAG = 9;
+  private static final int HTTP_STATUS_TAG = 10;
+  private static final int ORIGIN_TAG = 11;
+  private static final int SPLIT_SERVICE_TAG = 12;
+
   private final RuleFlags ruleFlags;
+  private final InterceptedTags interceptedTags;
   private final boolean isServiceNameSetByUser;
   private final boolean splitByServletContext;
   private final String inferredServiceName;
-  private final Set<String> splitServiceTags;
 
   public TagInterceptor(RuleFlags ruleFlags) {
     this(
@@ -45,67 +58,85 @@ public class TagInterceptor {
       RuleFlags ruleFlags) {
     this.isServiceNameSetByUser = isServiceNameSetByUser;
     this.inferredServiceName = inferredServiceName;
-    this.splitServiceTags = splitServiceTags;
     this.ruleFlags = ruleFlags;
+    this.interceptedTags = registerTags(ruleFlags, splitServiceTags);
     splitByServletContext = splitServiceTags.contains(InstrumentationTags.SERVLET_CONTEXT);
   }
 
   public boolean interceptTag(DDSpanContext span, String tag, Object value) {
-    switch (tag) {
-      case DDTags.RESOURCE_NAME:
+    switch (interceptedTags.lookup(tag)) {
+      case InterceptedTags.UNKNOWN:
+        return false;
+      case RESOURCE_NAME_TAG:
         return interceptResourceName(span, value);
-      case Tags.DB_STATEMENT:
+      case DB_STATEMENT_TAG:
         return interceptDbStatement(span, value);
-      case DDTags.SERVICE_NAME:
-      case "service":
-        return interceptServiceName(SERVICE_NAME, span, value);
-      case Tags.PEER_SERVICE:
-        return interceptServiceName(PEER_SERVICE, span, value);
-      case DDTags.MANUAL_KEEP:
+      case SERVICE_NAME_TAG:
+        return interceptServiceName(span, value);
+      case MANUAL_KEEP_TAG:
         if (asBoolean(value)) {
           span.forceKeep();
           return true;
         }
         return false;
-      case DDTags.MANUAL_DROP:
-        return interceptSamplingPriority(
-            FORCE_MANUAL_DROP, USER_DROP, SamplingMechanism.MANUAL, span, value);
-      case InstrumentationTags.SERVLET_CONTEXT:
+      case MANUAL_DROP_TAG:
+        return interceptSamplingPriority(USER_DROP, SamplingMechanism.MANUAL, span, value);
+      case SERVLET_CONTEXT_TAG:
         return interceptServletContext(span, value);
-      case SPAN_TYPE:
+      case SPAN_TYPE_TAG:
         return interceptSpanType(span, value);
-      case ANALYTICS_SAMPLE_RATE:
+      case ANALYTICS_SAMPLE_RATE_TAG:
         return interceptAnalyticsSampleRate(span, value);
-      case Tags.ERROR:
+      case ERROR_TAG:
         return interceptError(span, value);
-      case HTTP_STATUS:
+      case HTTP_STATUS_TAG:
         // not set internally but may come from manual instrumentation
         return interceptHttpStatusCode(span, value);
-      case ORIGIN_KEY:
+      case ORIGIN_TAG:
         return interceptOrigin(span, value);
+      case SPLIT_SERVICE_TAG:
+        span.setServiceName(String.valueOf(value));
+        return true;
       default:
-        return intercept(span, tag, value);
+        return false;
     }
   }
 
-  private boolean intercept(DDSpanContext span, String tag, Object value) {
-    if (splitServiceTags.contains(tag)) {
-      span.setServiceName(String.valueOf(value));
-      return true;
+  /**
+   * Registers the tags this interceptor acts on. Tags guarded by a disabled rule are registered
+   * as {@link InterceptedTags#UNKNOWN} so they are neither intercepted nor mistaken for split-by
+   * tags.
+   */
+  private static InterceptedTags registerTags(
+      RuleFlags ruleFlags, Set<String> splitServiceTags) {
+    InterceptedTags.Builder builder = new InterceptedTags.Builder();
+    builder.register(DDTags.RESOURCE_NAME, ruleFlags, RESOURCE_NAME, RESOURCE_NAME_TAG);
+    builder.register(Tags.DB_STATEMENT, DB_STATEMENT_TAG);
+    builder.register(DDTags.SERVICE_NAME, ruleFlags, SERVICE_NAME, SERVICE_NAME_TAG);
+    builder.register("service", ruleFlags, SERVICE_NAME, SERVICE_NAME_TAG);
+    builder.register(Tags.PEER_SERVICE, ruleFlags, PEER_SERVICE, SERVICE_NAME_TAG);
+    builder.register(DDTags.MANUAL_KEEP, MANUAL_KEEP_TAG);
+    builder.register(DDTags.MANUAL_DROP, ruleFlags, FORCE_MANUAL_DROP, MANUAL_DROP_TAG);
+    builder.register(InstrumentationTags.SERVLET_CONTEXT, SERVLET_CONTEXT_TAG);
+    builder.register(SPAN_TYPE, SPAN_TYPE_TAG);
+    builder.register(ANALYTICS_SAMPLE_RATE, ANALYTICS_SAMPLE_RATE_TAG);
+    builder.register(Tags.ERROR, ERROR_TAG);
+    builder.register(HTTP_STATUS, HTTP_STATUS_TAG);
+    builder.register(ORIGIN_KEY, ORIGIN_TAG);
+    // well-known tags take precedence over split-by tags with the same name
+    for (String tag : splitServiceTags) {
+      builder.registerIfAbsent(tag, SPLIT_SERVICE_TAG);
     }
-    return false;
+    return builder.build();
   }
 
   private boolean interceptResourceName(DDSpanContext span, Object value) {
-    if (ruleFlags.isEnabled(RESOURCE_NAME)) {
-      if (value instanceof CharSequence) {
-        span.setResourceName((CharSequence) value, ResourceNamePriorities.TAG_INTERCEPTOR);
-      } else {
-        span.setResourceName(String.valueOf(value), ResourceNamePriorities.TAG_INTERCEPTOR);
-      }
-      return true;
+    if (value instanceof CharSequence) {
+      span.setResourceName((CharSequence) value, ResourceNamePriorities.TAG_INTERCEPTOR);
+    } else {
+      span.setResourceName(String.valueOf(value), ResourceNamePriorities.TAG_INTERCEPTOR);
     }
-    return false;
+    return true;
   }
 
   private boolean interceptDbStatement(DDSpanContext span, Object value) {
@@ -140,28 +171,17 @@ public class TagInterceptor {
     return true;
   }
 
-  private boolean interceptServiceName(
-      RuleFlags.Feature feature, DDSpanContext span, Object value) {
-    if (ruleFlags.isEnabled(feature)) {
-      span.setServiceName(String.valueOf(value));
-      return true;
-    }
-    return false;
+  private boolean interceptServiceName(DDSpanContext span, Object value) {
+    span.setServiceName(String.valueOf(value));
+    return true;
   }
 
   private boolean interceptSamplingPriority(
-      RuleFlags.Feature feature,
-      int samplingPriority,
-      int samplingMechanism,
-      DDSpanContext span,
-      Object value) {
-    if (ruleFlags.isEnabled(feature)) {
-      if (asBoolean(value)) {
-        span.setSamplingPriority(samplingPriority, samplingMechanism);
-      }
-      return true;
+      int samplingPriority, int samplingMechanism, DDSpanContext span, Object value) {
+    if (asBoolean(value)) {
+      span.setSamplingPriority(samplingPriority, samplingMechanism);
     }
-    return false;
+    return true;
   }
 
   private boolean interceptServletContext(DDSpanContext span, Object value) {
@@ -1,6 +1,7 @@
 package datadog.trace.lambda;
 
 import static datadog.trace.api.sampling.SamplingMechanism.DEFAULT;
+import static datadog.trace.util.AgentThreadFactory.AgentThread.LAMBDA_EXTENSION_NOTIFIER;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 import com.squareup.moshi.JsonAdapter;
@@ -9,11 +10,19 @@ import datadog.trace.api.DDId;
 import datadog.trace.api.sampling.PrioritySampling;
 import datadog.trace.bootstrap.instrumentation.api.AgentSpan;
 import datadog.trace.core.propagation.ExtractedContext;
+import datadog.trace.util.AgentThreadFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okio.Buffer;
+import okio.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +31,9 @@ import org.slf4j.LoggerFactory;
  * The extension is responsible to parse the context and create the invocation span. The tracer will
  * also create the span (to be dropped by the extension) so newly created spans will be parenting to
  * the right span.
+ *
+ * <p>The connection to the extension is opened while the function initializes and kept alive
+ * between invocations, and the end of the invocation can be notified while the trace is flushed.
  */
 public class LambdaHandler {
 
@@ -37,6 +49,7 @@ public class LambdaHandler {
 
   private static final String START_INVOCATION = "/lambda/start-invocation";
   private static final String END_INVOCATION = "/lambda/end-invocation";
+  private static final String HELLO = "/lambda/hello";
 
   private static final Long REQUEST_TIMEOUT_IN_S = 1L;
 
@@ -52,11 +65,41 @@ public class LambdaHandler {
   private static final MediaType jsonMediaType = MediaType.parse("application/json");
   private static final JsonAdapter<Object> adapter =
       new Moshi.Builder().build().adapter(Object.class);
+  private static final ByteString EMPTY_JSON = ByteString.encodeUtf8("{}");
+
+  private static final ExecutorService NOTIFIER =
+      Executors.newSingleThreadExecutor(new AgentThreadFactory(LAMBDA_EXTENSION_NOTIFIER));
 
   private static String EXTENSION_BASE_URL = "http://127.0.0.1:8124";
 
+  /**
+   * Opens the connection to the extension in the background, so the first invocation does not pay
+   * for it. The connection is then reused by the following calls.
+   */
+  public static void preWarm() {
+    try {
+      NOTIFIER.execute(
+          () -> {
+            try (Response ignored =
+                HTTP_CLIENT
+                    .newCall(
+                        new Request.Builder()
+                            .url(EXTENSION_BASE_URL + HELLO)
+                            .addHeader(DATADOG_META_LANG, "java")
+                            .get()
+                            .build())
+                    .execute()) {
+              log.debug("connection to the extension is ready");
+            } catch (Throwable e) {
+              log.debug("could not pre-warm the connection to the extension", e);
+            }
+          });
+    } catch (RejectedExecutionException ignored) {
+    }
+  }
+
   public static AgentSpan.Context notifyStartInvocation(Object event) {
-    RequestBody body = RequestBody.create(jsonMediaType, writeValueAsString(event));
+    RequestBody body = RequestBody.create(jsonMediaType, writeValueAsByteString(event));
     try (Response response =
         HTTP_CLIENT
             .newCall(
@@ -94,12 +137,34 @@ public class LambdaHandler {
   }
 
   public static boolean notifyEndInvocation(AgentSpan span, boolean isError) {
+    Request request = endInvocationRequest(span, isError);
+    return null != request && sendEndInvocation(request);
+  }
+
+  /**
+   * Notifies the extension of the end of the invocation from a background thread.
+   *
+   * @return a future completed with the outcome of the notification
+   */
+  public static Future<Boolean> notifyEndInvocationAsync(AgentSpan span, boolean isError) {
+    Request request = endInvocationRequest(span, isError);
+    if (null == request) {
+      return CompletableFuture.completedFuture(false);
+    }
+    try {
+      return NOTIFIER.submit(() -> sendEndInvocation(request));
+    } catch (RejectedExecutionException e) {
+      return CompletableFuture.completedFuture(sendEndInvocation(request));
+    }
+  }
+
+  private static Request endInvocationRequest(AgentSpan span, boolean isError) {
     if (null == span || null == span.getSamplingPriority()) {
       log.error(
           "could not notify the extension as the lambda span is null or no sampling priority has been found");
-      return false;
+      return null;
     }
-    RequestBody body = RequestBody.create(jsonMediaType, "{}");
+    RequestBody body = RequestBody.create(jsonMediaType, EMPTY_JSON);
     Request.Builder builder =
         new Request.Builder()
             .url(EXTENSION_BASE_URL + END_INVOCATION)
@@ -107,12 +172,15 @@ public class LambdaHandler {
             .addHeader(DATADOG_TRACE_ID, span.getTraceId().toString())
             .addHeader(DATADOG_SPAN_ID, span.getSpanId().toString())
             .addHeader(DATADOG_SAMPLING_PRIORITY, span.getSamplingPriority().toString())
-            .addHeader(DATADOG_META_LANG, "java")
             .post(body);
     if (isError) {
       builder.addHeader(DATADOG_INVOCATION_ERROR, "true");
     }
-    try (Response response = HTTP_CLIENT.newCall(builder.build()).execute()) {
+    return builder.build();
+  }
+
+  private static boolean sendEndInvocation(Request request) {
+    try (Response response = HTTP_CLIENT.newCall(request).execute()) {
       if (response.isSuccessful()) {
         log.debug("notifyEndInvocation success");
         return true;
@@ -123,6 +191,20 @@ public class LambdaHandler {
     return false;
   }
 
+  /** Encodes the value straight to UTF-8, without building an intermediate {@code String}. */
+  static ByteString writeValueAsByteString(Object obj) {
+    if (null != obj) {
+      try {
+        Buffer buffer = new Buffer();
+        adapter.toJson(buffer, obj);
+        return buffer.readByteString();
+      } catch (Exception e) {
+        log.debug("could not write the value into a string", e);
+      }
+    }
+    return EMPTY_JSON;
+  }
+
   public static String writeValueAsString(Object obj) {
     String json = "{}";
     if (null != obj) {
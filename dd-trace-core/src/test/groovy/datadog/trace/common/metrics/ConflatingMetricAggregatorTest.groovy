@@ -1,12 +1,16 @@
 package datadog.trace.common.metrics
 
 import datadog.communication.ddagent.DDAgentFeaturesDiscovery
+import datadog.communication.monitor.Counter
+import datadog.communication.monitor.Monitoring
 import datadog.trace.api.WellKnownTags
 import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString
+import datadog.trace.common.writer.ddagent.LocalTransport
 import datadog.trace.core.CoreSpan
 import datadog.trace.test.util.DDSpecification
 import spock.lang.Requires
 import spock.lang.Shared
+import spock.util.concurrent.PollingConditions
 
 import java.util.concurrent.CountDownLatch
 
@@ -40,9 +44,11 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
       features,
       sink,
       10,
+      0,
       queueSize,
       1,
-      MILLISECONDS
+      MILLISECONDS,
+      Monitoring.DISABLED
       )
     aggregator.start()
 
@@ -69,9 +75,11 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
       features,
       sink,
       10,
+      0,
       queueSize,
       1,
-      MILLISECONDS
+      MILLISECONDS,
+      Monitoring.DISABLED
       )
     aggregator.start()
 
@@ -100,7 +108,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, 10, queueSize, reportingInterval, SECONDS)
+      features, sink, writer, 10, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     aggregator.start()
 
     when:
@@ -127,7 +135,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty, features,
-      sink, writer, 10, queueSize, reportingInterval, SECONDS)
+      sink, writer, 10, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     aggregator.start()
 
     when:
@@ -162,7 +170,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, 10, queueSize, reportingInterval, SECONDS)
+      features, sink, writer, 10, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     long duration = 100
     List<CoreSpan> trace = [
       new SimpleSpan("service", "operation", "resource", "type", true, false, false, 0, duration, HTTP_OK),
@@ -205,7 +213,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, reportingInterval, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -241,7 +249,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, reportingInterval, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -296,7 +304,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, reportingInterval, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, reportingInterval, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -339,7 +347,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, 1, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, 1, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -373,7 +381,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, 1, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, 1, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -411,7 +419,7 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
     features.supportsMetrics() >> true
     ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
-      features, sink, writer, maxAggregates, queueSize, 1, SECONDS)
+      features, sink, writer, maxAggregates, 0, queueSize, 1, SECONDS, Monitoring.DISABLED)
     long duration = 100
     aggregator.start()
 
@@ -434,6 +442,99 @@ class ConflatingMetricAggregatorTest extends DDSpecification {
     aggregator.close()
   }
 
+  def "resources beyond the per service limit are folded until they become frequent"() {
+    setup:
+    MetricWriter writer = Mock(MetricWriter)
+    Sink sink = Stub(Sink)
+    DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
+    features.supportsMetrics() >> true
+    def hits = new RecordingCounter()
+    def foldedHits = new RecordingCounter()
+    Monitoring monitoring = Stub(Monitoring) {
+      newCounter("stats.resources.hits") >> hits
+      newCounter("stats.resources.folded_hits") >> foldedHits
+    }
+    ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(empty,
+      features, sink, writer, 100, 3, queueSize, reportingInterval, SECONDS, monitoring)
+    aggregator.start()
+
+    when: "a fourth resource shows up after three others"
+    CountDownLatch latch = new CountDownLatch(1)
+    for (int i = 0; i < 3; ++i) {
+      aggregator.publish([
+        new SimpleSpan("service", "operation", "resource" + i, "type", false, true, false, 0, 100, HTTP_OK)
+      ])
+    }
+    for (int i = 0; i < 10; ++i) {
+      aggregator.publish([
+        new SimpleSpan("service", "operation", "resource3", "type", false, true, false, 0, 100, HTTP_OK)
+      ])
+    }
+    aggregator.report()
+    latch.await(2, SECONDS)
+
+    then: "it is folded into the other resource"
+    1 * writer.startBucket(4, _, _)
+    for (int i = 0; i < 3; ++i) {
+      1 * writer.add(new MetricKey("resource" + i, "service", "operation", "type", HTTP_OK), _)
+    }
+    1 * writer.add(new MetricKey("_other", "service", "operation", "type", HTTP_OK), { it.getHitCount() == 10 })
+    0 * writer.add(new MetricKey("resource3", "service", "operation", "type", HTTP_OK), _)
+    1 * writer.finishBucket() >> { latch.countDown() }
+
+    and: "the fold rate is reported"
+    new PollingConditions(timeout: 2).eventually {
+      assert hits.total == 13
+      assert foldedHits.total == 10
+    }
+
+    when: "it is among the top resources in the next interval"
+    latch = new CountDownLatch(1)
+    aggregator.publish([
+      new SimpleSpan("service", "operation", "resource3", "type", false, true, false, 0, 100, HTTP_OK)
+    ])
+    aggregator.report()
+    latch.await(2, SECONDS)
+
+    then: "it gets its own aggregate"
+    1 * writer.startBucket(1, _, _)
+    1 * writer.add(new MetricKey("resource3", "service", "operation", "type", HTTP_OK), { it.getHitCount() == 1 })
+    1 * writer.finishBucket() >> { latch.countDown() }
+
+    cleanup:
+    aggregator.close()
+  }
+
+  def "closing the aggregator closes the local transport"() {
+    setup:
+    LocalTransport transport = Mock(LocalTransport)
+    DDAgentFeaturesDiscovery features = Mock(DDAgentFeaturesDiscovery)
+    features.supportsMetrics() >> true
+    WellKnownTags wellKnownTags = new WellKnownTags("runtimeid", "hostname", "env", "service", "version","language")
+    ConflatingMetricsAggregator aggregator = new ConflatingMetricsAggregator(wellKnownTags, empty,
+      features, new LocalTransportSink(transport), 10, 0, queueSize, reportingInterval, SECONDS,
+      Monitoring.DISABLED)
+    aggregator.start()
+
+    when:
+    aggregator.close()
+
+    then:
+    1 * transport.close()
+  }
+
+  static class RecordingCounter implements Counter {
+    volatile int total
+
+    @Override
+    void increment(int delta) {
+      total += delta
+    }
+
+    @Override
+    void incrementErrorCount(String cause, int delta) {}
+  }
+
   def reportAndWaitUntilEmpty(ConflatingMetricsAggregator aggregator) {
     waitUntilEmpty(aggregator)
     aggregator.report()
@@ -1,6 +1,7 @@
 package datadog.trace.common.metrics
 
 import datadog.communication.ddagent.DDAgentFeaturesDiscovery
+import datadog.communication.monitor.Monitoring
 import datadog.trace.api.WellKnownTags
 import datadog.trace.test.util.DDSpecification
 import org.openjdk.jol.info.GraphLayout
@@ -34,9 +35,11 @@ class FootprintForkedTest extends DDSpecification {
       features,
       sink,
       1000,
+      0,
       1000,
       100,
-      SECONDS)
+      SECONDS,
+      Monitoring.DISABLED)
     long baseline = footprint(aggregator)
     aggregator.start()
 
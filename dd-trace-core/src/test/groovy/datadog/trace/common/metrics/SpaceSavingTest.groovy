@@ -0,0 +1,67 @@
+package datadog.trace.common.metrics
+
+import datadog.trace.test.util.DDSpecification
+
+class SpaceSavingTest extends DDSpecification {
+
+  def "heavy hitters are tracked among many rare items"() {
+    setup:
+    SpaceSaving<String> sketch = new SpaceSaving<>(20)
+    SplittableRandom random = new SplittableRandom(0)
+
+    when:
+    for (int i = 0; i < 100_000; ++i) {
+      if (random.nextInt(10) < 3) {
+        sketch.offer("heavy" + random.nextInt(5), 1)
+      } else {
+        sketch.offer("rare" + random.nextInt(10_000), 1)
+      }
+    }
+
+    then:
+    sketch.size() == 20
+    sketch.top(5).toSet() == (0..4).collect { "heavy" + it }.toSet()
+    (0..4).every { sketch.estimate("heavy" + it) >= 5000 }
+  }
+
+  def "weights are accumulated and the least frequent item is replaced"() {
+    setup:
+    SpaceSaving<String> sketch = new SpaceSaving<>(3)
+
+    when:
+    sketch.offer("a", 10)
+    sketch.offer("b", 5)
+    sketch.offer("c", 1)
+    sketch.offer("d", 2)
+
+    then:
+    sketch.estimate("c") == 0
+    sketch.estimate("d") == 3
+    sketch.top(2) == ["a", "b"]
+    sketch.top(10) == ["a", "b", "d"]
+  }
+
+  def "decay halves the counts and forgets rare items"() {
+    setup:
+    SpaceSaving<String> sketch = new SpaceSaving<>(3)
+    sketch.offer("a", 10)
+    sketch.offer("b", 1)
+    sketch.offer("c", 4)
+
+    when:
+    sketch.decay()
+
+    then:
+    sketch.size() == 2
+    sketch.estimate("a") == 5
+    sketch.estimate("b") == 0
+    sketch.estimate("c") == 2
+
+    when: "there is room for a new item again"
+    sketch.offer("d", 1)
+
+    then:
+    sketch.size() == 3
+    sketch.top(3) == ["a", "c", "d"]
+  }
+}
@@ -18,7 +18,7 @@ class RateByServiceSamplerTest extends DDCoreSpecification {
     String response = '{"rate_by_service": {"service:,env:":' + rate + '}}'
     serviceSampler.onResponse("traces", serializer.fromJson(response))
     expect:
-    serviceSampler.serviceRates.getSampler(RateByServiceSampler.EnvAndService.DEFAULT).sampleRate == expectedRate
+    serviceSampler.serviceRates.getSampler("", "").sampleRate == expectedRate
 
     where:
     rate | expectedRate
@@ -172,4 +172,25 @@ class RateByServiceSamplerTest extends DDCoreSpecification {
     'manual.drop' | 1
     'manual.keep' | 1
   }
+
+  def "rates are looked up by service then env"() {
+    setup:
+    RateByServiceSampler serviceSampler = new RateByServiceSampler()
+    String response = '{"rate_by_service": {"service:,env:":0.1, "service:spock,env:":0.2, "service:spock,env:test":0.3, "service:foo,env:test":0.4}}'
+    serviceSampler.onResponse("traces", serializer.fromJson(response))
+
+    expect:
+    serviceSampler.serviceRates.getSampler(service, env).sampleRate == expectedRate
+
+    where:
+    service | env    | expectedRate
+    ""      | ""     | 0.1
+    "spock" | ""     | 0.2
+    "spock" | "test" | 0.3
+    "foo"   | "test" | 0.4
+    "foo"   | ""     | 1
+    "spock" | "prod" | 1
+    "bar"   | "test" | 1
+    null    | ""     | 1
+  }
 }
@@ -5,6 +5,8 @@ import datadog.trace.api.StatsDClient
 import datadog.trace.api.sampling.PrioritySampling
 import datadog.trace.api.sampling.SamplingMechanism
 import datadog.trace.common.writer.ddagent.DDAgentApi
+import datadog.trace.common.writer.ddagent.LocalTransport
+import datadog.trace.common.writer.ddagent.LocalTransportApi
 import datadog.communication.ddagent.DDAgentFeaturesDiscovery
 import datadog.trace.core.CoreTracer
 import datadog.trace.core.DDSpan
@@ -162,6 +164,19 @@ class DDAgentWriterTest extends DDCoreSpecification {
     1 * dispatcher.onDroppedTrace(trace.size())
   }
 
+  def "closing the writer closes the local transport"() {
+    setup:
+    def transport = Mock(LocalTransport)
+    def api = new LocalTransportApi(transport, discovery, monitoring)
+    def writer = new DDAgentWriter(discovery, api, Stub(HealthMetrics), monitoring, Stub(TraceProcessingWorker))
+
+    when:
+    writer.close()
+
+    then:
+    1 * transport.close()
+  }
+
   def newSpan() {
     CoreTracer tracer = Mock(CoreTracer)
     tracer.mapServiceName(_) >> { String serviceName -> serviceName }
@@ -0,0 +1,66 @@
+package datadog.trace.common.writer.ddagent
+
+import datadog.trace.bootstrap.instrumentation.api.UTF8BytesString
+import datadog.trace.test.util.DDSpecification
+
+import java.nio.charset.StandardCharsets
+
+class DictionaryIndexTest extends DDSpecification {
+
+  def "positions are found by content and survive resizing"() {
+    setup:
+    DictionaryIndex index = new DictionaryIndex(16)
+
+    when:
+    for (int i = 0; i < 1000; ++i) {
+      index.put("value-" + i, i)
+    }
+
+    then:
+    index.size() == 1000
+    for (int i = 0; i < 1000; ++i) {
+      assert index.get(new String("value-" + i)) == i
+    }
+    index.get("value-1000") == DictionaryIndex.ABSENT
+  }
+
+  def "strings and utf8 strings are distinct keys"() {
+    setup:
+    DictionaryIndex index = new DictionaryIndex()
+    index.put("service", 0)
+    index.put(UTF8BytesString.create("service"), 1)
+    index.put(200, 2)
+
+    expect:
+    index.get("service") == 0
+    index.get(UTF8BytesString.create("service")) == 1
+    index.get(200) == 2
+    index.get("200") == DictionaryIndex.ABSENT
+  }
+
+  def "clear empties the index but keeps hot encodings"() {
+    setup:
+    DictionaryIndex index = new DictionaryIndex()
+    String value = "operation"
+    index.put(value, 0)
+    byte[] encoded = index.encode(value)
+
+    when:
+    index.clear()
+
+    then:
+    index.size() == 0
+    index.get(value) == DictionaryIndex.ABSENT
+    index.encode(new String(value)).is(encoded)
+    encoded == value.getBytes(StandardCharsets.UTF_8)
+  }
+
+  def "long strings and utf8 strings are not kept in the hot tier"() {
+    setup:
+    DictionaryIndex index = new DictionaryIndex()
+
+    expect:
+    index.encode("x" * 129) == null
+    index.encode(UTF8BytesString.create("operation")) == null
+  }
+}
@@ -0,0 +1,183 @@
+package datadog.trace.common.writer.ddagent
+
+import datadog.trace.test.util.DDSpecification
+import spock.util.concurrent.PollingConditions
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.util.concurrent.CopyOnWriteArrayList
+
+class LocalTransportTest extends DDSpecification {
+
+  def conditions = new PollingConditions(timeout: 5)
+
+  def "frames wrap around the ring and are rejected when the reader falls behind"() {
+    setup:
+    File file = Files.createTempFile("dd-local-transport", ".traces").toFile()
+    file.deleteOnExit()
+    // room for two frames with a 100 byte body
+    LocalTransport transport = MappedRingLocalTransport.create(file, 256)
+    def frames = new CopyOnWriteArrayList<Frame>()
+
+    expect:
+    send(transport, 1, 100)
+    send(transport, 2, 100)
+    !send(transport, 3, 100)
+
+    when:
+    def receiver = LocalTransportReceiver.poll(file, recorder(frames))
+
+    then:
+    conditions.eventually {
+      assert frames*.messageCount == [1, 2]
+    }
+
+    when: "the next frames straddle the end of the ring"
+    for (int i = 3; i < 10; ++i) {
+      conditions.eventually {
+        assert send(transport, i, 100)
+      }
+    }
+
+    then:
+    conditions.eventually {
+      assert frames*.messageCount == (1..9).toList()
+    }
+    frames.every { it.type == LocalTransport.TRACES_V0_4 && it.body == body(it.messageCount, 100) }
+    frames.every { it.droppedTraces == it.messageCount * 10 && it.droppedSpans == 1 }
+
+    cleanup:
+    receiver?.close()
+    transport.close()
+  }
+
+  def "a ring is not reset while its writer still uses it"() {
+    setup:
+    File file = Files.createTempFile("dd-local-transport", ".traces").toFile()
+    file.deleteOnExit()
+    LocalTransport transport = MappedRingLocalTransport.create(file, 256)
+    send(transport, 1, 100)
+
+    when:
+    MappedRingLocalTransport.create(file, 256)
+
+    then:
+    thrown(IOException)
+    LocalTransportReceiver.map(file, MappedRingLocalTransport.DATA_OFFSET)
+      .getLong(MappedRingLocalTransport.WRITE_POSITION_OFFSET) > 0
+
+    when:
+    transport.close()
+    def next = MappedRingLocalTransport.create(file, 256)
+
+    then:
+    !send(transport, 2, 100)
+    LocalTransportReceiver.map(file, MappedRingLocalTransport.DATA_OFFSET)
+      .getLong(MappedRingLocalTransport.WRITE_POSITION_OFFSET) == 0
+
+    cleanup:
+    next?.close()
+    transport.close()
+  }
+
+  def "frames are streamed over a unix domain socket"() {
+    setup:
+    File socket = new File(Files.createTempDirectory("dd-lt").toFile(), "agent.sock")
+    def frames = new CopyOnWriteArrayList<Frame>()
+    def receiver = LocalTransportReceiver.listen(socket, recorder(frames))
+    LocalTransport transport = new UnixSocketLocalTransport(socket, 10_000)
+
+    when:
+    for (int i = 1; i <= 10; ++i) {
+      assert send(transport, i, i * 1000)
+    }
+
+    then:
+    conditions.eventually {
+      assert frames*.messageCount == (1..10).toList()
+    }
+    frames.every { it.body == body(it.messageCount, it.messageCount * 1000) }
+
+    cleanup:
+    transport.close()
+    receiver.close()
+    socket.delete()
+  }
+
+  def "the connection is dropped when the agent stops reading"() {
+    setup:
+    File socket = new File(Files.createTempDirectory("dd-lt").toFile(), "stalled.sock")
+    // connections are queued but never accepted, so nothing reads from them
+    def acceptor = UnixDomainSocketServer.bind(socket)
+    LocalTransport transport = new UnixSocketLocalTransport(socket, 200)
+
+    when:
+    boolean sent = true
+    for (int i = 1; i <= 100 && sent; ++i) {
+      sent = send(transport, i, 1 << 20)
+    }
+
+    then:
+    !sent
+    transport.channel == null
+
+    cleanup:
+    transport.close()
+    acceptor.close()
+    socket.delete()
+  }
+
+  def "frames are not sent when nothing listens on the socket"() {
+    setup:
+    File socket = new File(Files.createTempDirectory("dd-lt").toFile(), "missing.sock")
+    LocalTransport transport = new UnixSocketLocalTransport(socket, 10_000)
+
+    expect:
+    !send(transport, 1, 10)
+
+    cleanup:
+    transport.close()
+  }
+
+  static boolean send(LocalTransport transport, int count, int size) {
+    byte[] bytes = body(count, size)
+    return transport.send(LocalTransport.TRACES_V0_4, count, count * 10, 1, size, { channel ->
+      ByteBuffer buffer = ByteBuffer.wrap(bytes)
+      while (buffer.hasRemaining()) {
+        channel.write(buffer)
+      }
+    } as LocalTransport.Body)
+  }
+
+  static byte[] body(int count, int size) {
+    byte[] bytes = new byte[size]
+    for (int i = 0; i < size; ++i) {
+      bytes[i] = (byte) (count + i)
+    }
+    return bytes
+  }
+
+  static LocalTransportReceiver.FrameListener recorder(List<Frame> frames) {
+    return { byte type, int messageCount, long droppedTraces, long droppedSpans, ByteBuffer body ->
+      byte[] bytes = new byte[body.remaining()]
+      body.get(bytes)
+      frames.add(new Frame(type, messageCount, droppedTraces, droppedSpans, bytes))
+    } as LocalTransportReceiver.FrameListener
+  }
+
+  static class Frame {
+    final byte type
+    final int messageCount
+    final long droppedTraces
+    final long droppedSpans
+    final byte[] body
+
+    Frame(byte type, int messageCount, long droppedTraces, long droppedSpans, byte[] body) {
+      this.type = type
+      this.messageCount = messageCount
+      this.droppedTraces = droppedTraces
+      this.droppedSpans = droppedSpans
+      this.body = body
+    }
+  }
+}
@@ -21,6 +21,13 @@ import org.msgpack.jackson.dataformat.MessagePackFactory
 import spock.lang.Timeout
 
 import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.GZIPInputStream
 
 import static datadog.trace.agent.test.server.http.TestHttpServer.httpServer
 
@@ -161,6 +168,188 @@ class DDIntakeApiTest extends DDCoreSpecification {
     }
   }
 
+  def "content is sent gzipped when compression is enabled"() {
+    setup:
+    def path = buildIntakePath(trackType, apiVersion)
+    def intake = newIntake(path)
+    def client = DDIntakeApi.builder()
+      .hostUrl(HttpUrl.get(intake.address.toString()))
+      .trackType(trackType)
+      .apiKey(apiKey)
+      .compressionEnabled(true)
+      .build()
+    def payload = prepareTraces(trackType, [])
+
+    expect:
+    client.sendSerializedTraces(payload).status() == 200
+    intake.lastRequest.getHeader("Content-Encoding") == "gzip"
+    convertMap(new GZIPInputStream(new ByteArrayInputStream(intake.lastRequest.body)).bytes) == [:]
+
+    cleanup:
+    intake.close()
+
+    where:
+    trackType | apiVersion
+    TrackType.CITESTCYCLE | "v2"
+  }
+
+  def "uploads are sent in the background when several requests can be in flight"() {
+    setup:
+    def path = buildIntakePath(trackType, apiVersion)
+    def intake = newIntake(path)
+    def client = DDIntakeApi.builder()
+      .hostUrl(HttpUrl.get(intake.address.toString()))
+      .trackType(trackType)
+      .apiKey(apiKey)
+      .maxInFlightRequests(2)
+      .build()
+
+    when:
+    def responses = (1..3).collect { client.sendSerializedTraces(prepareTraces(trackType, [])) }
+    client.close(5, TimeUnit.SECONDS)
+
+    then:
+    responses.every { it.success() && it.status() == 202 }
+    intake.lastRequest.path == path
+
+    cleanup:
+    intake.close()
+
+    where:
+    trackType | apiVersion
+    TrackType.CITESTCYCLE | "v2"
+  }
+
+  def "uploads in flight at shutdown are not spooled"() {
+    setup:
+    Path spoolDir = Files.createTempDirectory("intake-spool")
+    def requests = new AtomicInteger()
+    def received = new CountDownLatch(1)
+    def release = new CountDownLatch(1)
+    def path = buildIntakePath(trackType, apiVersion)
+    def intake = httpServer {
+      handlers {
+        post(path) {
+          requests.incrementAndGet()
+          received.countDown()
+          release.await(10, TimeUnit.SECONDS)
+          response.status(200).send()
+        }
+      }
+    }
+    def client = DDIntakeApi.builder()
+      .hostUrl(HttpUrl.get(intake.address.toString()))
+      .trackType(trackType)
+      .apiKey(apiKey)
+      .maxInFlightRequests(2)
+      .spoolDirectory(spoolDir)
+      .build()
+
+    when:
+    client.sendSerializedTraces(prepareTraces(trackType, []))
+    received.await(5, TimeUnit.SECONDS)
+    client.close(100, TimeUnit.MILLISECONDS)
+    release.countDown()
+
+    then:
+    spoolDir.toFile().list().length == 0
+    requests.get() == 1
+
+    cleanup:
+    release.countDown()
+    intake.close()
+    spoolDir.toFile().deleteDir()
+
+    where:
+    trackType | apiVersion
+    TrackType.CITESTCYCLE | "v2"
+  }
+
+  def "uploads not started before shutdown are spooled and sent by the next api"() {
+    setup:
+    Path spoolDir = Files.createTempDirectory("intake-spool")
+    def path = buildIntakePath(trackType, apiVersion)
+    def intake = newIntake(path)
+    def newClient = {
+      DDIntakeApi.builder()
+        .hostUrl(HttpUrl.get(intake.address.toString()))
+        .trackType(trackType)
+        .apiKey(apiKey)
+        .maxInFlightRequests(2)
+        .spoolDirectory(spoolDir)
+        .build()
+    }
+
+    when:
+    def client = newClient()
+    client.close(5, TimeUnit.SECONDS)
+    def response = client.sendSerializedTraces(prepareTraces(trackType, []))
+
+    then:
+    !response.success()
+    spoolDir.toFile().list().length == 1
+    intake.lastRequest == null
+
+    when:
+    newClient().close(5, TimeUnit.SECONDS)
+
+    then:
+    spoolDir.toFile().list().length == 0
+    intake.lastRequest.path == path
+
+    cleanup:
+    intake.close()
+    spoolDir.toFile().deleteDir()
+
+    where:
+    trackType | apiVersion
+    TrackType.CITESTCYCLE | "v2"
+  }
+
+  def "spooled payloads claimed by another process are only sent again once the claim expired"() {
+    setup:
+    Path spoolDir = Files.createTempDirectory("intake-spool")
+    def requests = new AtomicInteger()
+    def path = buildIntakePath(trackType, apiVersion)
+    def intake = httpServer {
+      handlers {
+        post(path) {
+          requests.incrementAndGet()
+          response.status(200).send()
+        }
+      }
+    }
+    Files.write(spoolDir.resolve("00000000000000000001-1-000000-0.payload"), new byte[0])
+    Files.write(spoolDir.resolve("00000000000000000002-1-000000-0.payload.sending"), new byte[0])
+    // left behind by a process which died while sending it
+    Path expired = spoolDir.resolve("00000000000000000003-2-000000-0.payload.sending")
+    Files.write(expired, new byte[0])
+    Files.setLastModifiedTime(expired,
+      FileTime.fromMillis(System.currentTimeMillis() - IntakeSpool.CLAIM_EXPIRY_MILLIS - 1000))
+
+    when:
+    DDIntakeApi.builder()
+      .hostUrl(HttpUrl.get(intake.address.toString()))
+      .trackType(trackType)
+      .apiKey(apiKey)
+      .maxInFlightRequests(2)
+      .spoolDirectory(spoolDir)
+      .build()
+      .close(5, TimeUnit.SECONDS)
+
+    then:
+    requests.get() == 2
+    spoolDir.toFile().list() as List == ["00000000000000000002-1-000000-0.payload.sending"]
+
+    cleanup:
+    intake.close()
+    spoolDir.toFile().deleteDir()
+
+    where:
+    trackType | apiVersion
+    TrackType.CITESTCYCLE | "v2"
+  }
+
   static Map<String, Object> convertMap(byte[] bytes) {
     return msgPackMapper.readValue(bytes, new TypeReference<TreeMap<String, Object>>() {})
   }
@@ -0,0 +1,45 @@
+package datadog.trace.common.writer.ddintake
+
+import datadog.trace.test.util.DDSpecification
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+class IntakeSpoolTest extends DDSpecification {
+
+  Path spoolDir = Files.createTempDirectory("intake-spool")
+
+  def cleanup() {
+    spoolDir.toFile().deleteDir()
+  }
+
+  def "spooled files are named after the process"() {
+    setup:
+    def spool = new IntakeSpool(spoolDir, 10)
+
+    when:
+    spool.offer(new byte[1], 3)
+    spool.offer(new byte[1], 4)
+
+    then:
+    def names = spoolDir.toFile().list().sort()
+    names.size() == 2
+    names.every { it ==~ /\d{20}-\w+-\d{6}-\d\.payload/ }
+    names*.split("-")*.getAt(1).unique().size() == 1
+    spool.list()*.traceCount == [3, 4]
+  }
+
+  def "claimed payloads count towards the size of the spool"() {
+    setup:
+    def spool = new IntakeSpool(spoolDir, 2)
+    Files.write(spoolDir.resolve("00000000000000000001-1-000000-1.payload.sending"), new byte[0])
+    Files.write(spoolDir.resolve("00000000000000000002-1-000000-2.payload"), new byte[0])
+
+    when:
+    spool.offer(new byte[1], 3)
+
+    then: "the oldest unclaimed payload is dropped, the claimed one is left alone"
+    spool.list()*.traceCount == [3]
+    Files.exists(spoolDir.resolve("00000000000000000001-1-000000-1.payload.sending"))
+  }
+}
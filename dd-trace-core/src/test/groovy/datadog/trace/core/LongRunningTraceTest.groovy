@@ -0,0 +1,98 @@
+package datadog.trace.core
+
+import datadog.trace.api.sampling.PrioritySampling
+import datadog.trace.common.writer.Writer
+import datadog.trace.core.test.DDCoreSpecification
+
+import static datadog.trace.api.config.TracerConfig.PARTIAL_FLUSH_MIN_SPANS
+
+class LongRunningTraceTest extends DDCoreSpecification {
+
+  static final int SPAN_COUNT = 10_000
+  static final int MIN_SPANS = 64
+
+  def "finished spans of a long running trace are partially flushed"() {
+    setup:
+    injectSysConfig(PARTIAL_FLUSH_MIN_SPANS, String.valueOf(MIN_SPANS))
+    def writer = new CountingWriter()
+    def tracer = tracerBuilder().writer(writer).build()
+    def root = tracer.buildSpan("batch.job").start()
+    def trace = (root.context() as DDSpanContext).trace
+    int maxPending = 0
+
+    when:
+    for (int i = 1; i <= SPAN_COUNT; i++) {
+      tracer.buildSpan("batch.item").asChildOf(root.context()).start().finish()
+      maxPending = Math.max(maxPending, trace.size())
+    }
+    root.finish()
+
+    then:
+    maxPending <= MIN_SPANS
+    writer.spanCount == SPAN_COUNT + 1
+    writer.largestChunk <= MIN_SPANS + 1
+    // the sampling decision taken at the root with the first partial flush is carried forward
+    writer.samplingPriorities.size() == 1
+    writer.samplingPriorities[0] != PrioritySampling.UNSET
+
+    cleanup:
+    tracer?.close()
+  }
+
+  def "finished spans are held until the root finishes when partial flushes are disabled"() {
+    setup:
+    injectSysConfig(PARTIAL_FLUSH_MIN_SPANS, "0")
+    def writer = new CountingWriter()
+    def tracer = tracerBuilder().writer(writer).build()
+    def root = tracer.buildSpan("batch.job").start()
+
+    when:
+    for (int i = 0; i < MIN_SPANS * 4; i++) {
+      tracer.buildSpan("batch.item").asChildOf(root.context()).start().finish()
+    }
+
+    then:
+    writer.spanCount == 0
+
+    when:
+    root.finish()
+
+    then:
+    writer.spanCount == MIN_SPANS * 4 + 1
+    writer.largestChunk == MIN_SPANS * 4 + 1
+
+    cleanup:
+    tracer?.close()
+  }
+
+  /** Keeps no reference to the written spans, like a writer which serializes them. */
+  static class CountingWriter implements Writer {
+    long spanCount
+    int largestChunk
+    List<Integer> samplingPriorities = []
+
+    @Override
+    synchronized void write(List<DDSpan> trace) {
+      spanCount += trace.size()
+      largestChunk = Math.max(largestChunk, trace.size())
+      int priority = trace[0].context().samplingPriority
+      if (!samplingPriorities.contains(priority)) {
+        samplingPriorities.add(priority)
+      }
+    }
+
+    @Override
+    void start() {}
+
+    @Override
+    boolean flush() {
+      return true
+    }
+
+    @Override
+    void close() {}
+
+    @Override
+    void incrementDropCounts(int spanCount) {}
+  }
+}
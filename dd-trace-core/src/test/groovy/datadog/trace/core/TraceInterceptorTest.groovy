@@ -11,6 +11,9 @@ import spock.lang.Timeout
 import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicReference
+
+import static datadog.trace.api.config.TracerConfig.TRACE_POST_PROCESSING_ASYNC_ENABLED
 
 @Timeout(10)
 class TraceInterceptorTest extends DDCoreSpecification {
@@ -184,4 +187,36 @@ class TraceInterceptorTest extends DDCoreSpecification {
     GlobalTracer.get().addTraceInterceptor(interceptor)
     tracer.interceptors.contains(interceptor)
   }
+
+  def "interceptors run in the background when post-processing is asynchronous"() {
+    setup:
+    def properties = new Properties()
+    properties.setProperty(TRACE_POST_PROCESSING_ASYNC_ENABLED, "true")
+    def asyncWriter = new ListWriter()
+    def asyncTracer = tracerBuilder().withProperties(properties).writer(asyncWriter).build()
+    def threadName = new AtomicReference<String>()
+    asyncTracer.interceptors.add(new TraceInterceptor() {
+        @Override
+        Collection<? extends MutableSpan> onTraceComplete(Collection<? extends MutableSpan> trace) {
+          threadName.set(Thread.currentThread().getName())
+          return trace
+        }
+
+        @Override
+        int priority() {
+          return 1
+        }
+      })
+
+    when:
+    asyncTracer.buildSpan("test").start().finish()
+    asyncWriter.waitForTraces(1)
+
+    then:
+    threadName.get() == "dd-trace-post-processor"
+    asyncWriter.firstTrace().size() == 1
+
+    cleanup:
+    asyncTracer.close()
+  }
 }
@@ -323,4 +323,27 @@ class B3HttpExtractorTest extends DDSpecification {
     "1"                                | "f" * 16           | DDId.ONE                         | DDId.MAX
     "1"                                | "000" + "f" * 16   | DDId.ONE                         | DDId.MAX
   }
+
+  def "extract http headers by name prefers the b3 header"() {
+    setup:
+    def byNameExtractor = B3HttpCodec.newExtractor(["SOME_HEADER": "some-tag"], true)
+    def visitor = new MapKeyedVisitor()
+    def headers = [
+      (TRACE_ID_KEY.toUpperCase()): "2",
+      (SPAN_ID_KEY.toUpperCase()) : "3",
+      SOME_HEADER                 : "my-interesting-info",
+      (B3_KEY)                    : "a-b-1"
+    ]
+
+    when:
+    final ExtractedContext context = byNameExtractor.extract(headers, visitor)
+
+    then:
+    context.traceId == DDId.from("10")
+    context.spanId == DDId.from("11")
+    context.samplingPriority == PrioritySampling.SAMPLER_KEEP
+    context.tags == ["b3.traceid": "a", "b3.spanid": "b", "some-tag": "my-interesting-info"]
+    visitor.enumerations == 0
+    visitor.lookups.first() == B3_KEY
+  }
 }
@@ -258,4 +258,39 @@ class DatadogHttpExtractorTest extends DDSpecification {
     "1"     | "2"    | 0
     "2"     | "3"    | 1610001234
   }
+
+  def "extract http headers by name"() {
+    setup:
+    def byNameExtractor = DatadogHttpCodec.newExtractor(["SOME_HEADER": "some-tag"], extractByName)
+    def visitor = new MapKeyedVisitor()
+    def headers = [
+      (TRACE_ID_KEY.toUpperCase())            : "1",
+      (SPAN_ID_KEY.toUpperCase())             : "2",
+      (SAMPLING_PRIORITY_KEY.toUpperCase())   : "1",
+      (ORIGIN_KEY.toUpperCase())              : "saipan",
+      (OT_BAGGAGE_PREFIX.toUpperCase() + "k1"): "v1",
+      "X-Forwarded-For"                       : "1.2.3.4",
+      SOME_HEADER                             : "my-interesting-info",
+      "Accept-Language"                       : "en-US"
+    ]
+
+    when:
+    final ExtractedContext context = byNameExtractor.extract(headers, visitor)
+
+    then:
+    context.traceId == DDId.from("1")
+    context.spanId == DDId.from("2")
+    context.samplingPriority == PrioritySampling.SAMPLER_KEEP
+    context.origin == "saipan"
+    context.forwardedIp == "1.2.3.4"
+    context.tags == ["some-tag": "my-interesting-info"]
+    context.baggage == baggage
+    visitor.enumerations == enumerations
+    !visitor.lookups.contains("accept-language")
+
+    where:
+    extractByName | enumerations | baggage
+    false         | 1            | ["k1": "v1"]
+    true          | 0            | [:]
+  }
 }
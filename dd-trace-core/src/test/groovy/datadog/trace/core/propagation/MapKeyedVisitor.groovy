@@ -0,0 +1,26 @@
+package datadog.trace.core.propagation
+
+import datadog.trace.bootstrap.instrumentation.api.AgentPropagation
+
+/** Looks headers up by name (case-insensitively) and records which names were asked for */
+class MapKeyedVisitor implements AgentPropagation.KeyedContextVisitor<Map<String, String>> {
+  final List<String> lookups = []
+  int enumerations = 0
+
+  @Override
+  String get(Map<String, String> carrier, String key) {
+    lookups.add(key)
+    def entry = carrier.find { it.key.equalsIgnoreCase(key) }
+    return entry?.value?.toString()
+  }
+
+  @Override
+  void forEachKey(Map<String, String> carrier, AgentPropagation.KeyClassifier classifier) {
+    enumerations++
+    for (Map.Entry<String, String> entry : carrier.entrySet()) {
+      if (!classifier.accept(entry.key, entry.value?.toString())) {
+        return
+      }
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package datadog.trace.core.scopemanager
+
+import datadog.trace.api.StatsDClient
+import datadog.trace.bootstrap.instrumentation.api.ScopeSource
+import datadog.trace.common.writer.ListWriter
+import datadog.trace.core.CoreTracer
+import datadog.trace.core.test.DDCoreSpecification
+
+/**
+ * Callers may keep using a scope after closing it, so closed scopes must never be handed out again
+ * by later activations.
+ */
+class ClosedScopeTest extends DDCoreSpecification {
+
+  ListWriter writer
+  CoreTracer tracer
+  ContinuableScopeManager scopeManager
+
+  def setup() {
+    writer = new ListWriter()
+    scopeManager = new ContinuableScopeManager(0, StatsDClient.NO_OP, false, true)
+    tracer = tracerBuilder().writer(writer).scopeManager(scopeManager).build()
+  }
+
+  def cleanup() {
+    tracer.close()
+  }
+
+  def "closed scopes still return their span"() {
+    setup:
+    def span = tracer.buildSpan("test").start()
+    def scope = scopeManager.activate(span, ScopeSource.INSTRUMENTATION)
+
+    when:
+    scope.close()
+    def other = scopeManager.activate(tracer.buildSpan("other").start(), ScopeSource.INSTRUMENTATION)
+    other.close()
+    other.span().finish()
+    scope.span().finish()
+    writer.waitForTraces(2)
+
+    then:
+    scope.span() == span
+    writer.size() == 2
+  }
+
+  def "closing a scope again does not affect later activations"() {
+    setup:
+    def span1 = tracer.buildSpan("one").start()
+    def span2 = tracer.buildSpan("two").start()
+
+    when:
+    def scope1 = scopeManager.activate(span1, ScopeSource.INSTRUMENTATION)
+    scope1.close()
+    def scope2 = scopeManager.activate(span2, ScopeSource.INSTRUMENTATION)
+    scope1.close()
+
+    then:
+    !scope2.is(scope1)
+    scopeManager.active() == scope2
+    scopeManager.activeSpan() == span2
+
+    when:
+    scope2.close()
+
+    then:
+    scopeManager.active() == null
+
+    cleanup:
+    span1.finish()
+    span2.finish()
+  }
+
+  def "closing a continued scope again does not affect later continued scopes"() {
+    setup:
+    def span = tracer.buildSpan("test").start()
+    def scope = scopeManager.activate(span, ScopeSource.INSTRUMENTATION, true)
+
+    when:
+    def continued1 = scope.capture().activate()
+    continued1.close()
+    def continued2 = scope.capture().activate()
+    continued1.close()
+
+    then:
+    !continued2.is(continued1)
+    continued1.span() == span
+    scopeManager.active() == continued2
+
+    when:
+    continued2.close()
+    scope.close()
+    span.finish()
+    writer.waitForTraces(1)
+
+    then:
+    writer.size() == 1
+    writer.firstTrace().size() == 1
+  }
+}
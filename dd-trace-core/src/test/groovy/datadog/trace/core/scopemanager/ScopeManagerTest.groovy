@@ -91,6 +91,26 @@ class ScopeManagerTest extends DDCoreSpecification {
     writer.empty
   }
 
+  def "scope stack is only created on activation"() {
+    setup:
+    def created = []
+
+    when:
+    def thread = new Thread({
+      scopeManager.active()
+      scopeManager.activeSpan()
+      created << (scopeManager.tlsScopeStack.get() != null)
+      def scope = tracer.activateSpan(tracer.buildSpan("test").start())
+      created << (scopeManager.tlsScopeStack.get() != null)
+      scope.close()
+    })
+    thread.start()
+    thread.join()
+
+    then:
+    created == [false, true]
+  }
+
   def "simple scope and span lifecycle"() {
     when:
     def span = tracer.buildSpan("test").start()
@@ -0,0 +1,34 @@
+package datadog.trace.core.taginterceptor
+
+import datadog.trace.test.util.DDSpecification
+
+class InterceptedTagsTest extends DDSpecification {
+
+  def "registered tags are found by identity and by content"() {
+    setup:
+    def builder = new InterceptedTags.Builder()
+    (1..40).each { builder.register("tag" + it, it) }
+    def tags = builder.build()
+
+    expect:
+    (1..40).each {
+      assert tags.lookup("tag" + it) == it
+      assert tags.lookup(new String("tag" + it)) == it
+    }
+    tags.lookup("tag0") == InterceptedTags.UNKNOWN
+    tags.lookup("") == InterceptedTags.UNKNOWN
+  }
+
+  def "registerIfAbsent does not override existing ids"() {
+    setup:
+    def tags = new InterceptedTags.Builder()
+      .register("a", 1)
+      .registerIfAbsent("a", 2)
+      .registerIfAbsent("b", 3)
+      .build()
+
+    expect:
+    tags.lookup("a") == 1
+    tags.lookup("b") == 3
+  }
+}
@@ -3,6 +3,9 @@ package datadog.trace.lambda
 import datadog.trace.core.test.DDCoreSpecification
 import datadog.trace.api.DDId
 import datadog.trace.core.DDSpan
+
+import java.util.concurrent.TimeUnit
+
 import static datadog.trace.agent.test.server.http.TestHttpServer.httpServer
 
 class LambdaHandlerTest extends DDCoreSpecification {
@@ -145,4 +148,62 @@ class LambdaHandlerTest extends DDCoreSpecification {
     false     | "true"          | true
     false     | null            | false
   }
-}
\ No newline at end of file
+
+  def "test async end invocation"() {
+    given:
+    def server = httpServer {
+      handlers {
+        post("/lambda/end-invocation") {
+          response
+            .status(status)
+            .send()
+        }
+      }
+    }
+    LambdaHandler.setExtensionBaseUrl(server.address.toString())
+    DDSpan span = Mock(DDSpan) {
+      getTraceId() >> DDId.from("1234")
+      getSpanId() >> DDId.from("5678")
+      getSamplingPriority() >> 2
+    }
+
+    when:
+    def result = LambdaHandler.notifyEndInvocationAsync(span, false).get(5, TimeUnit.SECONDS)
+
+    then:
+    result == expected
+    server.lastRequest.headers.get("x-datadog-trace-id") == "1234"
+
+    cleanup:
+    server.close()
+
+    where:
+    expected | status
+    true     | 200
+    false    | 500
+  }
+
+  def "test start invocation sends the event as json"() {
+    given:
+    def server = httpServer {
+      handlers {
+        post("/lambda/start-invocation") {
+          response
+            .status(200)
+            .send()
+        }
+      }
+    }
+    LambdaHandler.setExtensionBaseUrl(server.address.toString())
+
+    when:
+    LambdaHandler.notifyStartInvocation(["field1": "toto", "field2": true])
+
+    then:
+    server.lastRequest.contentType == "application/json"
+    new String(server.lastRequest.body, "UTF-8") == '{"field1":"toto","field2":true}'
+
+    cleanup:
+    server.close()
+  }
+}
@@ -0,0 +1,209 @@
+package datadog.trace.common.writer.ddagent;
+
+import static datadog.trace.common.writer.ddagent.LocalTransport.HEADER_SIZE;
+import static datadog.trace.common.writer.ddagent.LocalTransport.LENGTH_SIZE;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.CAPACITY_OFFSET;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.DATA_OFFSET;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.MAGIC;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.MAGIC_OFFSET;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.READ_POSITION_OFFSET;
+import static datadog.trace.common.writer.ddagent.MappedRingLocalTransport.WRITE_POSITION_OFFSET;
+import static org.jctools.util.UnsafeAccess.UNSAFE;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A stand-in for the agent side of a {@linkplain LocalTransport}, which decodes the frames and
+ * hands them to a listener. Meant for tests and benchmarks.
+ */
+public final class LocalTransportReceiver implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(LocalTransportReceiver.class);
+
+  public interface FrameListener {
+    /** The body is only valid for the duration of the call. */
+    void onFrame(
+        byte type, int messageCount, long droppedTraces, long droppedSpans, ByteBuffer body);
+  }
+
+  private final Thread thread;
+  private final Closeable resource;
+  private volatile boolean running = true;
+
+  private LocalTransportReceiver(final String name, final Closeable resource, final Loop loop) {
+    this.resource = resource;
+    this.thread =
+        new Thread(
+            () -> {
+              try {
+                loop.run(this);
+              } catch (IOException e) {
+                if (running) {
+                  log.debug("Local transport receiver failed", e);
+                }
+              }
+            },
+            name);
+    this.thread.setDaemon(true);
+    this.thread.start();
+  }
+
+  /** Accepts connections on the UNIX domain socket and decodes the frames they stream. */
+  public static LocalTransportReceiver listen(final File socket, final FrameListener listener)
+      throws IOException {
+    final UnixDomainSocketServer acceptor = UnixDomainSocketServer.bind(socket);
+    return new LocalTransportReceiver(
+        "dd-local-transport-receiver",
+        () -> {
+          // wake up the pending accept, which doesn't notice the socket being closed
+          try (ByteChannel ignored = UnixDomainSocketServer.connect(socket)) {
+          } catch (IOException ignored) {
+          }
+          acceptor.close();
+        },
+        receiver -> {
+          while (true) {
+            final ByteChannel connection = acceptor.accept();
+            if (!receiver.running) {
+              connection.close();
+              return;
+            }
+            Thread reader =
+                new Thread(
+                    () -> {
+                      try (ByteChannel channel = connection) {
+                        receiver.readFrames(channel, listener);
+                      } catch (IOException e) {
+                        log.debug("Local transport connection closed", e);
+                      }
+                    },
+                    "dd-local-transport-connection");
+            reader.setDaemon(true);
+            reader.start();
+          }
+        });
+  }
+
+  /** Polls the ring of a file set up by the {@linkplain LocalTransport#MMAP mmap} transport. */
+  public static LocalTransportReceiver poll(final File ring, final FrameListener listener)
+      throws IOException {
+    final MappedByteBuffer header = map(ring, DATA_OFFSET);
+    if (header.getInt(MAGIC_OFFSET) != MAGIC) {
+      throw new IOException(ring + " is not a local transport ring");
+    }
+    final MappedByteBuffer mapped =
+        map(ring, DATA_OFFSET + header.getLong(CAPACITY_OFFSET));
+    return new LocalTransportReceiver(
+        "dd-local-transport-receiver",
+        () -> {},
+        receiver -> receiver.pollFrames(mapped, listener));
+  }
+
+  /** Maps the first {@code size} bytes of the ring, as the agent would. */
+  static MappedByteBuffer map(final File file, final long size) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        FileChannel channel = raf.getChannel()) {
+      // the mapping stays valid once the channel is closed
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    running = false;
+    resource.close();
+    try {
+      thread.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void readFrames(final ReadableByteChannel channel, final FrameListener listener)
+      throws IOException {
+    ByteBuffer length = ByteBuffer.allocate(LENGTH_SIZE);
+    ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+    while (running) {
+      length.clear();
+      readFully(channel, length);
+      int frameLength = length.getInt(0);
+      if (frame.capacity() < frameLength) {
+        frame = ByteBuffer.allocate(frameLength);
+      }
+      frame.clear();
+      frame.limit(frameLength);
+      readFully(channel, frame);
+      frame.flip();
+      dispatch(frame, listener);
+    }
+  }
+
+  private void pollFrames(final MappedByteBuffer mapped, final FrameListener listener) {
+    MappedRingLocalTransport.Ring ring = new MappedRingLocalTransport.Ring(mapped);
+    ByteBuffer length = ByteBuffer.allocate(LENGTH_SIZE);
+    ByteBuffer frame = ByteBuffer.allocate(1 << 16);
+    long read = mapped.getLong(READ_POSITION_OFFSET);
+    while (running) {
+      long write = mapped.getLong(WRITE_POSITION_OFFSET);
+      UNSAFE.loadFence();
+      if (read == write) {
+        LockSupport.parkNanos(10_000);
+        continue;
+      }
+      while (read < write) {
+        ring.position = read;
+        length.clear();
+        ring.read(length);
+        int frameLength = length.getInt(0);
+        if (frame.capacity() < frameLength) {
+          frame = ByteBuffer.allocate(frameLength);
+        }
+        frame.clear();
+        frame.limit(frameLength);
+        ring.read(frame);
+        frame.flip();
+        dispatch(frame, listener);
+        read = ring.position;
+      }
+      // the frames have been copied out, the writer can reuse their space
+      UNSAFE.storeFence();
+      mapped.putLong(READ_POSITION_OFFSET, read);
+    }
+  }
+
+  private static void dispatch(final ByteBuffer frame, final FrameListener listener) {
+    byte type = frame.get();
+    int messageCount = frame.getInt();
+    long droppedTraces = frame.getLong();
+    long droppedSpans = frame.getLong();
+    ByteBuffer body = frame.slice();
+    body.limit(frame.limit() - HEADER_SIZE);
+    listener.onFrame(type, messageCount, droppedTraces, droppedSpans, body);
+  }
+
+  private static void readFully(final ReadableByteChannel channel, final ByteBuffer buffer)
+      throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  private interface Loop {
+    void run(LocalTransportReceiver receiver) throws IOException;
+  }
+}
@@ -0,0 +1,39 @@
+package datadog.trace.common.writer.ddagent;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ByteChannel;
+import jnr.unixsocket.UnixServerSocketChannel;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+
+/** The listening end of a UNIX domain socket, standing in for the agent in tests. */
+public final class UnixDomainSocketServer implements Closeable {
+
+  private final UnixServerSocketChannel server;
+
+  private UnixDomainSocketServer(final UnixServerSocketChannel server) {
+    this.server = server;
+  }
+
+  /** Binds the socket, connections are queued until they are accepted. */
+  public static UnixDomainSocketServer bind(final File path) throws IOException {
+    final UnixServerSocketChannel server = UnixServerSocketChannel.open();
+    server.socket().bind(new UnixSocketAddress(path));
+    return new UnixDomainSocketServer(server);
+  }
+
+  public static ByteChannel connect(final File path) throws IOException {
+    return UnixSocketChannel.open(new UnixSocketAddress(path));
+  }
+
+  public ByteChannel accept() throws IOException {
+    return server.accept();
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.close();
+  }
+}
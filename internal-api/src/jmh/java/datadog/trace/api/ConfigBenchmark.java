@@ -0,0 +1,49 @@
+package datadog.trace.api;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import java.util.Properties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Time to create a config, which reads every setting from a snapshot of the system properties and
+ * environment and leaves the sections of disabled products unparsed, and to create it and then read
+ * the debugger section.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Fork(
+    value = 1,
+    jvmArgsAppend = {
+      "-Ddd.service.name=benchmark",
+      "-Ddd.env=benchmark",
+      "-Ddd.tags=team:apm,version:1.0",
+      "-Ddd.trace.http.client.split-by-domain=true"
+    })
+public class ConfigBenchmark {
+
+  // Config.get(Properties) is the only way to create a config without publishing it
+  private final Properties properties = new Properties();
+
+  {
+    properties.setProperty("trace.agent.port", "8126");
+  }
+
+  @Benchmark
+  public Config create() {
+    return Config.get(properties);
+  }
+
+  @Benchmark
+  public long createAndReadDebuggerSettings() {
+    Config config = Config.get(properties);
+    return config.getDebuggerUploadTimeout() + config.getDebuggerMaxPayloadSize();
+  }
+}
@@ -1,6 +1,7 @@
 package datadog.trace.api;
 
 import static datadog.trace.api.ConfigDefaults.DEFAULT_AGENT_HOST;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_AGENT_LOCAL_TRANSPORT_RING_SIZE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_AGENT_TIMEOUT;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_AGENT_WRITER_TYPE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_ANALYTICS_SAMPLE_RATE;
@@ -8,7 +9,9 @@ import static datadog.trace.api.ConfigDefaults.DEFAULT_APPSEC_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_APPSEC_REPORTING_INBAND;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_APPSEC_TRACE_RATE_LIMIT;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_APPSEC_WAF_METRICS;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_CIVISIBILITY_AGENTLESS_ENABLED;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_CIVISIBILITY_ENABLED;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_CLOCK_SYNC_PERIOD;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_CWS_ENABLED;
@@ -35,6 +38,8 @@ import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_CLIENT_ERROR_STATUSE
 import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_ERROR_STATUSES;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_QUERY_STRING;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_RESOURCE;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_ROUTE_BASED_NAMING;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_TAG_QUERY_STRING;
 import static datadog.trace.api.ConfigDefaults.DEFAULT_INTEGRATIONS_ENABLED;
@@ -86,7 +91,10 @@ import static datadog.trace.api.config.AppSecConfig.APPSEC_REPORT_TIMEOUT_SEC;
 import static datadog.trace.api.config.AppSecConfig.APPSEC_RULES_FILE;
 import static datadog.trace.api.config.AppSecConfig.APPSEC_TRACE_RATE_LIMIT;
 import static datadog.trace.api.config.AppSecConfig.APPSEC_WAF_METRICS;
+import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED;
 import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_AGENTLESS_ENABLED;
+import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS;
+import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_AGENTLESS_SPOOL_DIR;
 import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_AGENTLESS_URL;
 import static datadog.trace.api.config.CiVisibilityConfig.CIVISIBILITY_ENABLED;
 import static datadog.trace.api.config.CwsConfig.CWS_ENABLED;
@@ -134,6 +142,7 @@ import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_ENABLED;
 import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_IGNORED_RESOURCES;
 import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_MAX_AGGREGATES;
 import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_MAX_PENDING;
+import static datadog.trace.api.config.GeneralConfig.TRACER_METRICS_MAX_RESOURCES_PER_SERVICE;
 import static datadog.trace.api.config.GeneralConfig.VERSION;
 import static datadog.trace.api.config.JmxFetchConfig.JMX_FETCH_CHECK_PERIOD;
 import static datadog.trace.api.config.JmxFetchConfig.JMX_FETCH_CONFIG;
@@ -179,8 +188,13 @@ import static datadog.trace.api.config.ProfilingConfig.PROFILING_TAGS;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_TEMPLATE_OVERRIDE_FILE;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_COMPRESSION;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_COMPRESSION_DEFAULT;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_MAX_INFLIGHT_BYTES;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_MAX_INFLIGHT_BYTES_DEFAULT;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_PERIOD;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_PERIOD_DEFAULT;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_SPOOL_DIR;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_SPOOL_MAX_FILES;
+import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_SPOOL_MAX_FILES_DEFAULT;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_SUMMARY_ON_413;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_SUMMARY_ON_413_DEFAULT;
 import static datadog.trace.api.config.ProfilingConfig.PROFILING_UPLOAD_TIMEOUT;
@@ -236,6 +250,9 @@ import static datadog.trace.api.config.TraceInstrumentationConfig.TRACE_EXECUTOR
 import static datadog.trace.api.config.TraceInstrumentationConfig.TRACE_METHODS;
 import static datadog.trace.api.config.TraceInstrumentationConfig.TRACE_THREAD_POOL_EXECUTORS_EXCLUDE;
 import static datadog.trace.api.config.TracerConfig.AGENT_HOST;
+import static datadog.trace.api.config.TracerConfig.AGENT_LOCAL_TRANSPORT;
+import static datadog.trace.api.config.TracerConfig.AGENT_LOCAL_TRANSPORT_PATH;
+import static datadog.trace.api.config.TracerConfig.AGENT_LOCAL_TRANSPORT_RING_SIZE;
 import static datadog.trace.api.config.TracerConfig.AGENT_NAMED_PIPE;
 import static datadog.trace.api.config.TracerConfig.AGENT_PORT_LEGACY;
 import static datadog.trace.api.config.TracerConfig.AGENT_TIMEOUT;
@@ -249,6 +266,7 @@ import static datadog.trace.api.config.TracerConfig.ID_GENERATION_STRATEGY;
 import static datadog.trace.api.config.TracerConfig.PARTIAL_FLUSH_MIN_SPANS;
 import static datadog.trace.api.config.TracerConfig.PRIORITY_SAMPLING;
 import static datadog.trace.api.config.TracerConfig.PRIORITY_SAMPLING_FORCE;
+import static datadog.trace.api.config.TracerConfig.PROPAGATION_EXTRACT_BY_NAME_ENABLED;
 import static datadog.trace.api.config.TracerConfig.PROPAGATION_EXTRACT_LOG_HEADER_NAMES_ENABLED;
 import static datadog.trace.api.config.TracerConfig.PROPAGATION_STYLE_EXTRACT;
 import static datadog.trace.api.config.TracerConfig.PROPAGATION_STYLE_INJECT;
@@ -268,6 +286,7 @@ import static datadog.trace.api.config.TracerConfig.TRACE_AGENT_PORT;
 import static datadog.trace.api.config.TracerConfig.TRACE_AGENT_URL;
 import static datadog.trace.api.config.TracerConfig.TRACE_ANALYTICS_ENABLED;
 import static datadog.trace.api.config.TracerConfig.TRACE_HTTP_SERVER_PATH_RESOURCE_NAME_MAPPING;
+import static datadog.trace.api.config.TracerConfig.TRACE_POST_PROCESSING_ASYNC_ENABLED;
 import static datadog.trace.api.config.TracerConfig.TRACE_RATE_LIMIT;
 import static datadog.trace.api.config.TracerConfig.TRACE_REPORT_HOSTNAME;
 import static datadog.trace.api.config.TracerConfig.TRACE_RESOLVER_ENABLED;
@@ -366,6 +385,9 @@ public class Config {
   private final int agentPort;
   private final String agentUnixDomainSocket;
   private final String agentNamedPipe;
+  private final String agentLocalTransport;
+  private final String agentLocalTransportPath;
+  private final int agentLocalTransportRingSize;
   private final int agentTimeout;
   private final Set<String> noProxyHosts;
   private final boolean prioritySamplingEnabled;
@@ -399,9 +421,11 @@ public class Config {
   private final int scopeIterationKeepAlive;
   private final int partialFlushMinSpans;
   private final boolean traceStrictWritesEnabled;
+  private final boolean tracePostProcessingAsyncEnabled;
   private final boolean runtimeContextFieldInjection;
   private final boolean serialVersionUIDFieldInjection;
   private final boolean logExtractHeaderNames;
+  private final boolean extractHeadersByName;
   private final Set<PropagationStyle> propagationStylesToExtract;
   private final Set<PropagationStyle> propagationStylesToInject;
   private final int clockSyncPeriod;
@@ -431,6 +455,7 @@ public class Config {
   private final boolean tracerMetricsBufferingEnabled;
   private final int tracerMetricsMaxAggregates;
   private final int tracerMetricsMaxPending;
+  private final int tracerMetricsMaxResourcesPerService;
 
   private final boolean logsInjectionEnabled;
   private final boolean logsMDCTagsInjectionEnabled;
@@ -463,6 +488,9 @@ public class Config {
   private final String profilingTemplateOverrideFile;
   private final int profilingUploadTimeout;
   private final String profilingUploadCompression;
+  private final int profilingUploadMaxInflightBytes;
+  private final String profilingUploadSpoolDir;
+  private final int profilingUploadSpoolMaxFiles;
   private final String profilingProxyHost;
   private final int profilingProxyPort;
   private final String profilingProxyUsername;
@@ -487,23 +515,10 @@ public class Config {
 
   private final boolean ciVisibilityEnabled;
   private final boolean ciVisibilityAgentlessEnabled;
-  private final String ciVisibilityAgentlessUrl;
+  private volatile CiVisibilityAgentlessSettings ciVisibilityAgentlessSettings;
 
   private final boolean debuggerEnabled;
-  private final String debuggerSnapshotUrl;
-  private final String debuggerProbeUrl;
-  private final int debuggerUploadTimeout;
-  private final int debuggerUploadFlushInterval;
-  private final boolean debuggerClassFileDumpEnabled;
-  private final int debuggerPollInterval;
-  private final int debuggerDiagnosticsInterval;
-  private final boolean debuggerMetricEnabled;
-  private final String debuggerProbeFileLocation;
-  private final int debuggerUploadBatchSize;
-  private final long debuggerMaxPayloadSize;
-  private final boolean debuggerVerifyByteCode;
-  private final boolean debuggerInstrumentTheWorld;
-  private final String debuggerExcludeFile;
+  private volatile DebuggerSettings debuggerSettings;
 
   private final boolean awsPropagationEnabled;
   private final boolean sqsPropagationEnabled;
@@ -574,14 +589,24 @@ public class Config {
   private final String primaryTag;
 
   private final ConfigProvider configProvider;
+  private final ConfigProvider snapshotConfigProvider;
 
   // Read order: System Properties -> Env Variables, [-> properties file], [-> default value]
   private Config() {
     this(ConfigProvider.createDefault());
+    // only the global config is published, not the ones created from properties
+    FrozenConfig.publish(this);
   }
 
-  private Config(final ConfigProvider configProvider) {
-    this.configProvider = configProvider;
+  private Config(final ConfigProvider runtimeConfigProvider) {
+    this(runtimeConfigProvider, runtimeConfigProvider.snapshot());
+  }
+
+  // Settings are read from a snapshot of the sources taken once, including the settings of the
+  // sections parsed lazily, while lookups made later (e.g. isIntegrationEnabled) see changes
+  private Config(final ConfigProvider runtimeConfigProvider, final ConfigProvider configProvider) {
+    this.configProvider = runtimeConfigProvider;
+    this.snapshotConfigProvider = configProvider;
     configFileStatus = configProvider.getConfigFileStatus();
     runtimeId =
         null != INSTANCE
@@ -698,6 +723,12 @@ public class Config {
 
     agentNamedPipe = configProvider.getString(AGENT_NAMED_PIPE);
 
+    agentLocalTransport = configProvider.getString(AGENT_LOCAL_TRANSPORT);
+    agentLocalTransportPath = configProvider.getString(AGENT_LOCAL_TRANSPORT_PATH);
+    agentLocalTransportRingSize =
+        configProvider.getInteger(
+            AGENT_LOCAL_TRANSPORT_RING_SIZE, DEFAULT_AGENT_LOCAL_TRANSPORT_RING_SIZE);
+
     agentConfiguredUsingDefault =
         agentHostFromEnvironment == null
             && agentPortFromEnvironment < 0
@@ -767,9 +798,12 @@ public class Config {
         configProvider.getBoolean(
             HTTP_SERVER_TAG_QUERY_STRING, DEFAULT_HTTP_SERVER_TAG_QUERY_STRING);
 
-    httpServerRawQueryString = configProvider.getBoolean(HTTP_SERVER_RAW_QUERY_STRING, true);
+    httpServerRawQueryString =
+        configProvider.getBoolean(
+            HTTP_SERVER_RAW_QUERY_STRING, DEFAULT_HTTP_SERVER_RAW_QUERY_STRING);
 
-    httpServerRawResource = configProvider.getBoolean(HTTP_SERVER_RAW_RESOURCE, false);
+    httpServerRawResource =
+        configProvider.getBoolean(HTTP_SERVER_RAW_RESOURCE, DEFAULT_HTTP_SERVER_RAW_RESOURCE);
 
     httpServerRouteBasedNaming =
         configProvider.getBoolean(
@@ -807,6 +841,8 @@ public class Config {
         configProvider.getInteger(PARTIAL_FLUSH_MIN_SPANS, DEFAULT_PARTIAL_FLUSH_MIN_SPANS);
 
     traceStrictWritesEnabled = configProvider.getBoolean(TRACE_STRICT_WRITES_ENABLED, false);
+    tracePostProcessingAsyncEnabled =
+        configProvider.getBoolean(TRACE_POST_PROCESSING_ASYNC_ENABLED, false);
 
     runtimeContextFieldInjection =
         configProvider.getBoolean(
@@ -819,6 +855,7 @@ public class Config {
         configProvider.getBoolean(
             PROPAGATION_EXTRACT_LOG_HEADER_NAMES_ENABLED,
             DEFAULT_PROPAGATION_EXTRACT_LOG_HEADER_NAMES_ENABLED);
+    extractHeadersByName = configProvider.getBoolean(PROPAGATION_EXTRACT_BY_NAME_ENABLED, false);
 
     propagationStylesToExtract =
         getPropagationStyleSetSettingFromEnvironmentOrDefault(
@@ -883,6 +920,9 @@ public class Config {
         configProvider.getBoolean(TRACER_METRICS_BUFFERING_ENABLED, false);
     tracerMetricsMaxAggregates = configProvider.getInteger(TRACER_METRICS_MAX_AGGREGATES, 2048);
     tracerMetricsMaxPending = configProvider.getInteger(TRACER_METRICS_MAX_PENDING, 2048);
+    // resources are only folded when a limit is set, max.aggregates bounds them otherwise
+    tracerMetricsMaxResourcesPerService =
+        configProvider.getInteger(TRACER_METRICS_MAX_RESOURCES_PER_SERVICE, 0);
 
     logsInjectionEnabled =
         configProvider.getBoolean(LOGS_INJECTION_ENABLED, DEFAULT_LOGS_INJECTION_ENABLED);
@@ -963,6 +1003,14 @@ public class Config {
     profilingUploadCompression =
         configProvider.getString(
             PROFILING_UPLOAD_COMPRESSION, PROFILING_UPLOAD_COMPRESSION_DEFAULT);
+    profilingUploadMaxInflightBytes =
+        configProvider.getInteger(
+            PROFILING_UPLOAD_MAX_INFLIGHT_BYTES, PROFILING_UPLOAD_MAX_INFLIGHT_BYTES_DEFAULT);
+    // recordings are only spooled to disk when a directory is configured
+    profilingUploadSpoolDir = configProvider.getString(PROFILING_UPLOAD_SPOOL_DIR);
+    profilingUploadSpoolMaxFiles =
+        configProvider.getInteger(
+            PROFILING_UPLOAD_SPOOL_MAX_FILES, PROFILING_UPLOAD_SPOOL_MAX_FILES_DEFAULT);
     profilingProxyHost = configProvider.getString(PROFILING_PROXY_HOST);
     profilingProxyPort =
         configProvider.getInteger(PROFILING_PROXY_PORT, PROFILING_PROXY_PORT_DEFAULT);
@@ -1020,54 +1068,7 @@ public class Config {
         configProvider.getBoolean(
             CIVISIBILITY_AGENTLESS_ENABLED, DEFAULT_CIVISIBILITY_AGENTLESS_ENABLED);
 
-    final String ciVisibilityAgentlessUrlStr = configProvider.getString(CIVISIBILITY_AGENTLESS_URL);
-    URI parsedCiVisibilityUri = null;
-    if (ciVisibilityAgentlessUrlStr != null && !ciVisibilityAgentlessUrlStr.isEmpty()) {
-      try {
-        parsedCiVisibilityUri = new URL(ciVisibilityAgentlessUrlStr).toURI();
-      } catch (MalformedURLException | URISyntaxException ex) {
-        log.error(
-            "Cannot parse CI Visibility agentless URL '{}', skipping", ciVisibilityAgentlessUrlStr);
-      }
-    }
-    if (parsedCiVisibilityUri != null) {
-      ciVisibilityAgentlessUrl = ciVisibilityAgentlessUrlStr;
-    } else {
-      ciVisibilityAgentlessUrl = null;
-    }
-
     debuggerEnabled = configProvider.getBoolean(DEBUGGER_ENABLED, DEFAULT_DEBUGGER_ENABLED);
-    debuggerSnapshotUrl = configProvider.getString(DEBUGGER_SNAPSHOT_URL);
-    debuggerProbeUrl = configProvider.getString(DEBUGGER_PROBE_URL);
-    debuggerUploadTimeout =
-        configProvider.getInteger(DEBUGGER_UPLOAD_TIMEOUT, DEFAULT_DEBUGGER_UPLOAD_TIMEOUT);
-    debuggerUploadFlushInterval =
-        configProvider.getInteger(
-            DEBUGGER_UPLOAD_FLUSH_INTERVAL, DEFAULT_DEBUGGER_UPLOAD_FLUSH_INTERVAL);
-    debuggerClassFileDumpEnabled =
-        configProvider.getBoolean(
-            DEBUGGER_CLASSFILE_DUMP_ENABLED, DEFAULT_DEBUGGER_CLASSFILE_DUMP_ENABLED);
-    debuggerPollInterval =
-        configProvider.getInteger(DEBUGGER_POLL_INTERVAL, DEFAULT_DEBUGGER_POLL_INTERVAL);
-    debuggerDiagnosticsInterval =
-        configProvider.getInteger(
-            DEBUGGER_DIAGNOSTICS_INTERVAL, DEFAULT_DEBUGGER_DIAGNOSTICS_INTERVAL);
-    debuggerMetricEnabled =
-        runtimeMetricsEnabled
-            && configProvider.getBoolean(
-                DEBUGGER_METRICS_ENABLED, DEFAULT_DEBUGGER_METRICS_ENABLED);
-    debuggerProbeFileLocation = configProvider.getString(DEBUGGER_PROBE_FILE_LOCATION);
-    debuggerUploadBatchSize =
-        configProvider.getInteger(DEBUGGER_UPLOAD_BATCH_SIZE, DEFAULT_DEBUGGER_UPLOAD_BATCH_SIZE);
-    debuggerMaxPayloadSize =
-        configProvider.getInteger(DEBUGGER_MAX_PAYLOAD_SIZE, DEFAULT_DEBUGGER_MAX_PAYLOAD_SIZE)
-            * 1024;
-    debuggerVerifyByteCode =
-        configProvider.getBoolean(DEBUGGER_VERIFY_BYTECODE, DEFAULT_DEBUGGER_VERIFY_BYTECODE);
-    debuggerInstrumentTheWorld =
-        configProvider.getBoolean(
-            DEBUGGER_INSTRUMENT_THE_WORLD, DEFAULT_DEBUGGER_INSTRUMENT_THE_WORLD);
-    debuggerExcludeFile = configProvider.getString(DEBUGGER_EXCLUDE_FILE);
 
     jdbcPreparedStatementClassName =
         configProvider.getString(JDBC_PREPARED_STATEMENT_CLASS_NAME, "");
@@ -1245,6 +1246,18 @@ public class Config {
     return agentNamedPipe;
   }
 
+  public String getAgentLocalTransport() {
+    return agentLocalTransport;
+  }
+
+  public String getAgentLocalTransportPath() {
+    return agentLocalTransportPath;
+  }
+
+  public int getAgentLocalTransportRingSize() {
+    return agentLocalTransportRingSize;
+  }
+
   public int getAgentTimeout() {
     return agentTimeout;
   }
@@ -1365,6 +1378,10 @@ public class Config {
     return traceStrictWritesEnabled;
   }
 
+  public boolean isTracePostProcessingAsyncEnabled() {
+    return tracePostProcessingAsyncEnabled;
+  }
+
   public boolean isRuntimeContextFieldInjection() {
     return runtimeContextFieldInjection;
   }
@@ -1377,6 +1394,10 @@ public class Config {
     return logExtractHeaderNames;
   }
 
+  public boolean isExtractHeadersByName() {
+    return extractHeadersByName;
+  }
+
   public Set<PropagationStyle> getPropagationStylesToExtract() {
     return propagationStylesToExtract;
   }
@@ -1473,6 +1494,10 @@ public class Config {
     return tracerMetricsMaxPending;
   }
 
+  public int getTracerMetricsMaxResourcesPerService() {
+    return tracerMetricsMaxResourcesPerService;
+  }
+
   public boolean isLogsInjectionEnabled() {
     return logsInjectionEnabled;
   }
@@ -1557,6 +1582,18 @@ public class Config {
     return profilingUploadCompression;
   }
 
+  public int getProfilingUploadMaxInflightBytes() {
+    return profilingUploadMaxInflightBytes;
+  }
+
+  public String getProfilingUploadSpoolDir() {
+    return profilingUploadSpoolDir;
+  }
+
+  public int getProfilingUploadSpoolMaxFiles() {
+    return profilingUploadSpoolMaxFiles;
+  }
+
   public String getProfilingProxyHost() {
     return profilingProxyHost;
   }
@@ -1646,7 +1683,29 @@ public class Config {
   }
 
   public String getCiVisibilityAgentlessUrl() {
-    return ciVisibilityAgentlessUrl;
+    return ciVisibilityAgentlessSettings().ciVisibilityAgentlessUrl;
+  }
+
+  public boolean isCiVisibilityAgentlessCompressionEnabled() {
+    return ciVisibilityAgentlessSettings().ciVisibilityAgentlessCompressionEnabled;
+  }
+
+  public int getCiVisibilityAgentlessMaxInFlightRequests() {
+    return ciVisibilityAgentlessSettings().ciVisibilityAgentlessMaxInFlightRequests;
+  }
+
+  public String getCiVisibilityAgentlessSpoolDir() {
+    return ciVisibilityAgentlessSettings().ciVisibilityAgentlessSpoolDir;
+  }
+
+  private CiVisibilityAgentlessSettings ciVisibilityAgentlessSettings() {
+    CiVisibilityAgentlessSettings settings = ciVisibilityAgentlessSettings;
+    if (null == settings) {
+      // racing threads parse the same settings, either can win
+      ciVisibilityAgentlessSettings =
+          settings = new CiVisibilityAgentlessSettings(snapshotConfigProvider);
+    }
+    return settings;
   }
 
   public String getAppSecRulesFile() {
@@ -1658,50 +1717,51 @@ public class Config {
   }
 
   public int getDebuggerUploadTimeout() {
-    return debuggerUploadTimeout;
+    return debuggerSettings().debuggerUploadTimeout;
   }
 
   public int getDebuggerUploadFlushInterval() {
-    return debuggerUploadFlushInterval;
+    return debuggerSettings().debuggerUploadFlushInterval;
   }
 
   public boolean isDebuggerClassFileDumpEnabled() {
-    return debuggerClassFileDumpEnabled;
+    return debuggerSettings().debuggerClassFileDumpEnabled;
   }
 
   public int getDebuggerPollInterval() {
-    return debuggerPollInterval;
+    return debuggerSettings().debuggerPollInterval;
   }
 
   public int getDebuggerDiagnosticsInterval() {
-    return debuggerDiagnosticsInterval;
+    return debuggerSettings().debuggerDiagnosticsInterval;
   }
 
   public boolean isDebuggerMetricsEnabled() {
-    return debuggerMetricEnabled;
+    return debuggerSettings().debuggerMetricEnabled;
   }
 
   public int getDebuggerUploadBatchSize() {
-    return debuggerUploadBatchSize;
+    return debuggerSettings().debuggerUploadBatchSize;
   }
 
   public long getDebuggerMaxPayloadSize() {
-    return debuggerMaxPayloadSize;
+    return debuggerSettings().debuggerMaxPayloadSize;
   }
 
   public boolean isDebuggerVerifyByteCode() {
-    return debuggerVerifyByteCode;
+    return debuggerSettings().debuggerVerifyByteCode;
   }
 
   public boolean isDebuggerInstrumentTheWorld() {
-    return debuggerInstrumentTheWorld;
+    return debuggerSettings().debuggerInstrumentTheWorld;
   }
 
   public String getDebuggerExcludeFile() {
-    return debuggerExcludeFile;
+    return debuggerSettings().debuggerExcludeFile;
   }
 
   public String getFinalDebuggerProbeUrl() {
+    final String debuggerProbeUrl = debuggerSettings().debuggerProbeUrl;
     if (debuggerProbeUrl != null) {
       return debuggerProbeUrl;
     }
@@ -1710,6 +1770,7 @@ public class Config {
   }
 
   public String getFinalDebuggerSnapshotUrl() {
+    final String debuggerSnapshotUrl = debuggerSettings().debuggerSnapshotUrl;
     if (debuggerSnapshotUrl != null) {
       return debuggerSnapshotUrl;
     }
@@ -1718,7 +1779,16 @@ public class Config {
   }
 
   public String getDebuggerProbeFileLocation() {
-    return debuggerProbeFileLocation;
+    return debuggerSettings().debuggerProbeFileLocation;
+  }
+
+  private DebuggerSettings debuggerSettings() {
+    DebuggerSettings settings = debuggerSettings;
+    if (null == settings) {
+      // racing threads parse the same settings, either can win
+      debuggerSettings = settings = new DebuggerSettings(snapshotConfigProvider);
+    }
+    return settings;
   }
 
   public boolean isAwsPropagationEnabled() {
@@ -2439,6 +2509,7 @@ public class Config {
 
   @Override
   public String toString() {
+    final DebuggerSettings debuggerSettings = debuggerSettings();
     return "Config{"
         + "runtimeId='"
         + runtimeId
@@ -2479,6 +2550,13 @@ public class Config {
         + ", agentUnixDomainSocket='"
         + agentUnixDomainSocket
         + '\''
+        + ", agentLocalTransport="
+        + agentLocalTransport
+        + ", agentLocalTransportPath='"
+        + agentLocalTransportPath
+        + '\''
+        + ", agentLocalTransportRingSize="
+        + agentLocalTransportRingSize
         + ", agentTimeout="
         + agentTimeout
         + ", noProxyHosts="
@@ -2546,10 +2624,14 @@ public class Config {
         + partialFlushMinSpans
         + ", traceStrictWritesEnabled="
         + traceStrictWritesEnabled
+        + ", tracePostProcessingAsyncEnabled="
+        + tracePostProcessingAsyncEnabled
         + ", runtimeContextFieldInjection="
         + runtimeContextFieldInjection
         + ", serialVersionUIDFieldInjection="
         + serialVersionUIDFieldInjection
+        + ", extractHeadersByName="
+        + extractHeadersByName
         + ", propagationStylesToExtract="
         + propagationStylesToExtract
         + ", propagationStylesToInject="
@@ -2599,6 +2681,8 @@ public class Config {
         + tracerMetricsMaxAggregates
         + ", tracerMetricsMaxPending="
         + tracerMetricsMaxPending
+        + ", tracerMetricsMaxResourcesPerService="
+        + tracerMetricsMaxResourcesPerService
         + ", logsInjectionEnabled="
         + logsInjectionEnabled
         + ", logsMDCTagsInjectionEnabled="
@@ -2648,6 +2732,13 @@ public class Config {
         + ", profilingUploadCompression='"
         + profilingUploadCompression
         + '\''
+        + ", profilingUploadMaxInflightBytes="
+        + profilingUploadMaxInflightBytes
+        + ", profilingUploadSpoolDir='"
+        + profilingUploadSpoolDir
+        + '\''
+        + ", profilingUploadSpoolMaxFiles="
+        + profilingUploadSpoolMaxFiles
         + ", profilingProxyHost='"
         + profilingProxyHost
         + '\''
@@ -2669,33 +2760,33 @@ public class Config {
         + ", debuggerEnabled="
         + debuggerEnabled
         + ", debuggerSnapshotUrl="
-        + debuggerSnapshotUrl
+        + debuggerSettings.debuggerSnapshotUrl
         + ", debuggerProbeUrl="
-        + debuggerProbeUrl
+        + debuggerSettings.debuggerProbeUrl
         + ", debuggerUploadTimeout="
-        + debuggerUploadTimeout
+        + debuggerSettings.debuggerUploadTimeout
         + ", debuggerUploadFlushInterval="
-        + debuggerUploadFlushInterval
+        + debuggerSettings.debuggerUploadFlushInterval
         + ", debuggerClassFileDumpEnabled="
-        + debuggerClassFileDumpEnabled
+        + debuggerSettings.debuggerClassFileDumpEnabled
         + ", debuggerPollInterval="
-        + debuggerPollInterval
+        + debuggerSettings.debuggerPollInterval
         + ", debuggerDiagnosticsInterval="
-        + debuggerDiagnosticsInterval
+        + debuggerSettings.debuggerDiagnosticsInterval
         + ", debuggerMetricEnabled="
-        + debuggerMetricEnabled
+        + debuggerSettings.debuggerMetricEnabled
         + ", debuggerProbeFileLocation="
-        + debuggerProbeFileLocation
+        + debuggerSettings.debuggerProbeFileLocation
         + ", debuggerUploadBatchSize="
-        + debuggerUploadBatchSize
+        + debuggerSettings.debuggerUploadBatchSize
         + ", debuggerMaxPayloadSize="
-        + debuggerMaxPayloadSize
+        + debuggerSettings.debuggerMaxPayloadSize
         + ", debuggerVerifyByteCode="
-        + debuggerVerifyByteCode
+        + debuggerSettings.debuggerVerifyByteCode
         + ", debuggerInstrumentTheWorld="
-        + debuggerInstrumentTheWorld
+        + debuggerSettings.debuggerInstrumentTheWorld
         + ", debuggerExcludeFile="
-        + debuggerExcludeFile
+        + debuggerSettings.debuggerExcludeFile
         + ", awsPropagationEnabled="
         + awsPropagationEnabled
         + ", sqsPropagationEnabled="
@@ -2778,4 +2869,96 @@ public class Config {
         + cwsTlsRefresh
         + '}';
   }
+
+  /** Settings of CI Visibility agentless mode, only parsed when first read. */
+  private static final class CiVisibilityAgentlessSettings {
+    final String ciVisibilityAgentlessUrl;
+    final boolean ciVisibilityAgentlessCompressionEnabled;
+    final int ciVisibilityAgentlessMaxInFlightRequests;
+    final String ciVisibilityAgentlessSpoolDir;
+
+    CiVisibilityAgentlessSettings(final ConfigProvider configProvider) {
+      final String ciVisibilityAgentlessUrlStr =
+          configProvider.getString(CIVISIBILITY_AGENTLESS_URL);
+      URI parsedCiVisibilityUri = null;
+      if (ciVisibilityAgentlessUrlStr != null && !ciVisibilityAgentlessUrlStr.isEmpty()) {
+        try {
+          parsedCiVisibilityUri = new URL(ciVisibilityAgentlessUrlStr).toURI();
+        } catch (MalformedURLException | URISyntaxException ex) {
+          log.error(
+              "Cannot parse CI Visibility agentless URL '{}', skipping",
+              ciVisibilityAgentlessUrlStr);
+        }
+      }
+      if (parsedCiVisibilityUri != null) {
+        ciVisibilityAgentlessUrl = ciVisibilityAgentlessUrlStr;
+      } else {
+        ciVisibilityAgentlessUrl = null;
+      }
+      ciVisibilityAgentlessCompressionEnabled =
+          configProvider.getBoolean(
+              CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED,
+              DEFAULT_CIVISIBILITY_AGENTLESS_COMPRESSION_ENABLED);
+      ciVisibilityAgentlessMaxInFlightRequests =
+          configProvider.getInteger(
+              CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS,
+              DEFAULT_CIVISIBILITY_AGENTLESS_MAX_IN_FLIGHT_REQUESTS);
+      ciVisibilityAgentlessSpoolDir = configProvider.getString(CIVISIBILITY_AGENTLESS_SPOOL_DIR);
+    }
+  }
+
+  /**
+   * Settings of the debugger, which is disabled by default, so they are only parsed when first
+   * read.
+   */
+  private static final class DebuggerSettings {
+    final String debuggerSnapshotUrl;
+    final String debuggerProbeUrl;
+    final int debuggerUploadTimeout;
+    final int debuggerUploadFlushInterval;
+    final boolean debuggerClassFileDumpEnabled;
+    final int debuggerPollInterval;
+    final int debuggerDiagnosticsInterval;
+    final boolean debuggerMetricEnabled;
+    final String debuggerProbeFileLocation;
+    final int debuggerUploadBatchSize;
+    final long debuggerMaxPayloadSize;
+    final boolean debuggerVerifyByteCode;
+    final boolean debuggerInstrumentTheWorld;
+    final String debuggerExcludeFile;
+
+    DebuggerSettings(final ConfigProvider configProvider) {
+      debuggerSnapshotUrl = configProvider.getString(DEBUGGER_SNAPSHOT_URL);
+      debuggerProbeUrl = configProvider.getString(DEBUGGER_PROBE_URL);
+      debuggerUploadTimeout =
+          configProvider.getInteger(DEBUGGER_UPLOAD_TIMEOUT, DEFAULT_DEBUGGER_UPLOAD_TIMEOUT);
+      debuggerUploadFlushInterval =
+          configProvider.getInteger(
+              DEBUGGER_UPLOAD_FLUSH_INTERVAL, DEFAULT_DEBUGGER_UPLOAD_FLUSH_INTERVAL);
+      debuggerClassFileDumpEnabled =
+          configProvider.getBoolean(
+              DEBUGGER_CLASSFILE_DUMP_ENABLED, DEFAULT_DEBUGGER_CLASSFILE_DUMP_ENABLED);
+      debuggerPollInterval =
+          configProvider.getInteger(DEBUGGER_POLL_INTERVAL, DEFAULT_DEBUGGER_POLL_INTERVAL);
+      debuggerDiagnosticsInterval =
+          configProvider.getInteger(
+              DEBUGGER_DIAGNOSTICS_INTERVAL, DEFAULT_DEBUGGER_DIAGNOSTICS_INTERVAL);
+      debuggerMetricEnabled =
+          configProvider.getBoolean(RUNTIME_METRICS_ENABLED, true)
+              && configProvider.getBoolean(
+                  DEBUGGER_METRICS_ENABLED, DEFAULT_DEBUGGER_METRICS_ENABLED);
+      debuggerProbeFileLocation = configProvider.getString(DEBUGGER_PROBE_FILE_LOCATION);
+      debuggerUploadBatchSize =
+          configProvider.getInteger(DEBUGGER_UPLOAD_BATCH_SIZE, DEFAULT_DEBUGGER_UPLOAD_BATCH_SIZE);
+      debuggerMaxPayloadSize =
+          configProvider.getInteger(DEBUGGER_MAX_PAYLOAD_SIZE, DEFAULT_DEBUGGER_MAX_PAYLOAD_SIZE)
+              * 1024;
+      debuggerVerifyByteCode =
+          configProvider.getBoolean(DEBUGGER_VERIFY_BYTECODE, DEFAULT_DEBUGGER_VERIFY_BYTECODE);
+      debuggerInstrumentTheWorld =
+          configProvider.getBoolean(
+              DEBUGGER_INSTRUMENT_THE_WORLD, DEFAULT_DEBUGGER_INSTRUMENT_THE_WORLD);
+      debuggerExcludeFile = configProvider.getString(DEBUGGER_EXCLUDE_FILE);
+    }
+  }
 }
@@ -0,0 +1,149 @@
+package datadog.trace.api;
+
+import static datadog.trace.api.ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE_TYPE_SUFFIX;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_QUERY_STRING;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_RESOURCE;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_ROUTE_BASED_NAMING;
+import static datadog.trace.api.ConfigDefaults.DEFAULT_HTTP_SERVER_TAG_QUERY_STRING;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MutableCallSite;
+
+/**
+ * Settings of the {@link Config} read for every span by the decorators, bound to constant method
+ * handles so that the JIT can fold them like {@code static final} fields instead of loading them
+ * from the global {@link Config} on each call.
+ *
+ * <p>The values start out as the defaults of the settings, and are published when the global
+ * {@link Config} is created. They stay in {@link
+ * MutableCallSite}s rather than in {@code static final} fields so that they can still be changed
+ * at runtime, as tests do when they rebuild the config: publishing new values deoptimizes the code
+ * compiled against the old ones.
+ */
+public final class FrozenConfig {
+
+  private static final MutableCallSite HTTP_CLIENT_SPLIT_BY_DOMAIN =
+      flag(DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN);
+  private static final MutableCallSite HTTP_CLIENT_TAG_QUERY_STRING =
+      flag(DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING);
+  private static final MutableCallSite HTTP_SERVER_TAG_QUERY_STRING =
+      flag(DEFAULT_HTTP_SERVER_TAG_QUERY_STRING);
+  private static final MutableCallSite HTTP_SERVER_RAW_RESOURCE =
+      flag(DEFAULT_HTTP_SERVER_RAW_RESOURCE);
+  private static final MutableCallSite HTTP_SERVER_RAW_QUERY_STRING =
+      flag(DEFAULT_HTTP_SERVER_RAW_QUERY_STRING);
+  private static final MutableCallSite HTTP_SERVER_ROUTE_BASED_NAMING =
+      flag(DEFAULT_HTTP_SERVER_ROUTE_BASED_NAMING);
+  private static final MutableCallSite DB_CLIENT_SPLIT_BY_INSTANCE =
+      flag(DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE);
+  private static final MutableCallSite DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX =
+      flag(DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE_TYPE_SUFFIX);
+
+  // the JIT only folds the target of a call site invoked through a constant handle
+  private static final MethodHandle HTTP_CLIENT_SPLIT_BY_DOMAIN_FLAG =
+      HTTP_CLIENT_SPLIT_BY_DOMAIN.dynamicInvoker();
+  private static final MethodHandle HTTP_CLIENT_TAG_QUERY_STRING_FLAG =
+      HTTP_CLIENT_TAG_QUERY_STRING.dynamicInvoker();
+  private static final MethodHandle HTTP_SERVER_TAG_QUERY_STRING_FLAG =
+      HTTP_SERVER_TAG_QUERY_STRING.dynamicInvoker();
+  private static final MethodHandle HTTP_SERVER_RAW_RESOURCE_FLAG =
+      HTTP_SERVER_RAW_RESOURCE.dynamicInvoker();
+  private static final MethodHandle HTTP_SERVER_RAW_QUERY_STRING_FLAG =
+      HTTP_SERVER_RAW_QUERY_STRING.dynamicInvoker();
+  private static final MethodHandle HTTP_SERVER_ROUTE_BASED_NAMING_FLAG =
+      HTTP_SERVER_ROUTE_BASED_NAMING.dynamicInvoker();
+  private static final MethodHandle DB_CLIENT_SPLIT_BY_INSTANCE_FLAG =
+      DB_CLIENT_SPLIT_BY_INSTANCE.dynamicInvoker();
+  private static final MethodHandle DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX_FLAG =
+      DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX.dynamicInvoker();
+
+  private static final MutableCallSite[] FLAGS = {
+    HTTP_CLIENT_SPLIT_BY_DOMAIN,
+    HTTP_CLIENT_TAG_QUERY_STRING,
+    HTTP_SERVER_TAG_QUERY_STRING,
+    HTTP_SERVER_RAW_RESOURCE,
+    HTTP_SERVER_RAW_QUERY_STRING,
+    HTTP_SERVER_ROUTE_BASED_NAMING,
+    DB_CLIENT_SPLIT_BY_INSTANCE,
+    DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX
+  };
+
+  private FrozenConfig() {}
+
+  /** @see Config#isHttpClientSplitByDomain() */
+  public static boolean isHttpClientSplitByDomain() {
+    return get(HTTP_CLIENT_SPLIT_BY_DOMAIN_FLAG);
+  }
+
+  /** @see Config#isHttpClientTagQueryString() */
+  public static boolean isHttpClientTagQueryString() {
+    return get(HTTP_CLIENT_TAG_QUERY_STRING_FLAG);
+  }
+
+  /** @see Config#isHttpServerTagQueryString() */
+  public static boolean isHttpServerTagQueryString() {
+    return get(HTTP_SERVER_TAG_QUERY_STRING_FLAG);
+  }
+
+  /** @see Config#isHttpServerRawResource() */
+  public static boolean isHttpServerRawResource() {
+    return get(HTTP_SERVER_RAW_RESOURCE_FLAG);
+  }
+
+  /** @see Config#isHttpServerRawQueryString() */
+  public static boolean isHttpServerRawQueryString() {
+    return get(HTTP_SERVER_RAW_QUERY_STRING_FLAG);
+  }
+
+  /** @see Config#isHttpServerRouteBasedNaming() */
+  public static boolean isHttpServerRouteBasedNaming() {
+    return get(HTTP_SERVER_ROUTE_BASED_NAMING_FLAG);
+  }
+
+  /** @see Config#isDbClientSplitByInstance() */
+  public static boolean isDbClientSplitByInstance() {
+    return get(DB_CLIENT_SPLIT_BY_INSTANCE_FLAG);
+  }
+
+  /** @see Config#isDbClientSplitByInstanceTypeSuffix() */
+  public static boolean isDbClientSplitByInstanceTypeSuffix() {
+    return get(DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX_FLAG);
+  }
+
+  /** Publishes the settings of the global config, called when it's created. */
+  static void publish(final Config config) {
+    set(HTTP_CLIENT_SPLIT_BY_DOMAIN, config.isHttpClientSplitByDomain());
+    set(HTTP_CLIENT_TAG_QUERY_STRING, config.isHttpClientTagQueryString());
+    set(HTTP_SERVER_TAG_QUERY_STRING, config.isHttpServerTagQueryString());
+    set(HTTP_SERVER_RAW_RESOURCE, config.isHttpServerRawResource());
+    set(HTTP_SERVER_RAW_QUERY_STRING, config.isHttpServerRawQueryString());
+    set(HTTP_SERVER_ROUTE_BASED_NAMING, config.isHttpServerRouteBasedNaming());
+    set(DB_CLIENT_SPLIT_BY_INSTANCE, config.isDbClientSplitByInstance());
+    set(DB_CLIENT_SPLIT_BY_INSTANCE_TYPE_SUFFIX, config.isDbClientSplitByInstanceTypeSuffix());
+    // make the new values visible to threads running code compiled against the old ones
+    MutableCallSite.syncAll(FLAGS);
+  }
+
+  private static MutableCallSite flag(final boolean defaultValue) {
+    return new MutableCallSite(MethodHandles.constant(boolean.class, defaultValue));
+  }
+
+  private static void set(final MutableCallSite flag, final boolean value) {
+    if (value != get(flag.getTarget())) {
+      flag.setTarget(MethodHandles.constant(boolean.class, value));
+    }
+  }
+
+  private static boolean get(final MethodHandle flag) {
+    try {
+      return (boolean) flag.invokeExact();
+    } catch (final Throwable e) {
+      // constant handles don't throw
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -218,6 +218,22 @@ public final class ConfigProvider {
     }
   }
 
+  /**
+   * Scans the system properties and environment variables once, so that reading many settings in
+   * a row doesn't look each of them up in the system properties and environment. The snapshot
+   * doesn't see changes made afterwards, so it should only be used to read settings at a point in
+   * time, as when creating a config.
+   *
+   * @return a provider reading from a snapshot of the sources of this provider
+   */
+  public ConfigProvider snapshot() {
+    ConfigProvider.Source[] snapshot = new ConfigProvider.Source[sources.length];
+    for (int i = 0; i < sources.length; i++) {
+      snapshot[i] = sources[i].snapshot();
+    }
+    return new ConfigProvider(snapshot);
+  }
+
   public static ConfigProvider getInstance() {
     return Singleton.INSTANCE;
   }
@@ -322,5 +338,10 @@ public final class ConfigProvider {
     }
 
     protected abstract String get(String key);
+
+    /** @return a source reading from a snapshot of this source, if it may change */
+    protected Source snapshot() {
+      return this;
+    }
   }
 }
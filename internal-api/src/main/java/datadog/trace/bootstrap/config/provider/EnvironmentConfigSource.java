@@ -2,10 +2,50 @@ package datadog.trace.bootstrap.config.provider;
 
 import static datadog.trace.util.Strings.propertyNameToEnvironmentVariableName;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
 final class EnvironmentConfigSource extends ConfigProvider.Source {
+  private static final String PREFIX = propertyNameToEnvironmentVariableName("");
+
+  // DD_* environment variables, or null to read the environment
+  private final Map<String, String> index;
+
+  EnvironmentConfigSource() {
+    this(null);
+  }
+
+  private EnvironmentConfigSource(Map<String, String> index) {
+    this.index = index;
+  }
 
   @Override
   protected String get(String key) {
+    if (null != index) {
+      // most settings aren't set, so avoid building their variable name when none are
+      return index.isEmpty() ? null : index.get(propertyNameToEnvironmentVariableName(key));
+    }
     return System.getenv(propertyNameToEnvironmentVariableName(key));
   }
+
+  @Override
+  protected ConfigProvider.Source snapshot() {
+    if (null != index) {
+      return this;
+    }
+    // variable names are case insensitive on Windows
+    boolean ignoreCase = System.getProperty("os.name", "").startsWith("Windows");
+    Map<String, String> index =
+        ignoreCase
+            ? new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER)
+            : new HashMap<String, String>();
+    for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+      String name = variable.getKey();
+      if (name.regionMatches(ignoreCase, 0, PREFIX, 0, PREFIX.length())) {
+        index.put(name, variable.getValue());
+      }
+    }
+    return new EnvironmentConfigSource(index);
+  }
 }
@@ -2,10 +2,47 @@ package datadog.trace.bootstrap.config.provider;
 
 import static datadog.trace.util.Strings.propertyNameToSystemPropertyName;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
 public final class SystemPropertiesConfigSource extends ConfigProvider.Source {
+  private static final String PREFIX = propertyNameToSystemPropertyName("");
+
+  // dd.* system properties keyed by setting name, or null to read the system properties
+  private final Map<String, String> index;
+
+  public SystemPropertiesConfigSource() {
+    this(null);
+  }
+
+  private SystemPropertiesConfigSource(Map<String, String> index) {
+    this.index = index;
+  }
 
   @Override
   protected String get(String key) {
+    if (null != index) {
+      return index.get(key);
+    }
     return System.getProperty(propertyNameToSystemPropertyName(key));
   }
+
+  @Override
+  protected ConfigProvider.Source snapshot() {
+    if (null != index) {
+      return this;
+    }
+    Map<String, String> index = new HashMap<>();
+    Properties properties = System.getProperties();
+    for (String name : properties.stringPropertyNames()) {
+      if (name.startsWith(PREFIX)) {
+        String value = properties.getProperty(name);
+        if (null != value) {
+          index.put(name.substring(PREFIX.length()), value);
+        }
+      }
+    }
+    return new SystemPropertiesConfigSource(index);
+  }
 }
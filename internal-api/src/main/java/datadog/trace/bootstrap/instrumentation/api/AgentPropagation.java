@@ -40,6 +40,17 @@ public interface AgentPropagation {
     void forEachKey(C carrier, KeyClassifier classifier);
   }
 
+  /**
+   * A {@link ContextVisitor} for carriers which can look up a value by name without walking all
+   * of their entries, like HTTP request headers. Lookups must be case-insensitive.
+   */
+  interface KeyedContextVisitor<C> extends ContextVisitor<C> {
+    /**
+     * @return the (first) value for the key or {@code null} if the carrier does not contain it
+     */
+    String get(C carrier, String key);
+  }
+
   interface BinaryContextVisitor<C> {
     void forEachKey(C carrier, BinaryKeyClassifier classifier);
   }
@@ -183,6 +183,12 @@ public class AgentTracer {
     AgentSpan.Context notifyExtensionStart(Object event);
 
     void notifyExtensionEnd(AgentSpan span, boolean isError);
+
+    /**
+     * Finishes the span and notifies the extension of the end of the invocation, sending the
+     * notification while the trace is being flushed.
+     */
+    void finishAndNotifyExtensionEnd(AgentSpan span, boolean isError);
   }
 
   public interface SpanBuilder {
@@ -389,6 +395,11 @@ public class AgentTracer {
 
     @Override
     public void notifyExtensionEnd(AgentSpan span, boolean isError) {}
+
+    @Override
+    public void finishAndNotifyExtensionEnd(AgentSpan span, boolean isError) {
+      span.finish();
+    }
   }
 
   public static final class NoopAgentSpan implements AgentSpan {
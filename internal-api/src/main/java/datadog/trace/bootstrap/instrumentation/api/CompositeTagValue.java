@@ -0,0 +1,131 @@
+package datadog.trace.bootstrap.instrumentation.api;
+
+/**
+ * Tag value made of several parts which are only concatenated if the value is read as a {@code
+ * String}. Serializers write the parts directly as UTF8, so building the value costs nothing more
+ * than keeping references to its parts when the span ends up being dropped.
+ */
+public final class CompositeTagValue implements CharSequence {
+
+  private static final CharSequence[] EMPTY = new CharSequence[0];
+
+  /** @param parts the parts of the value, {@code null} parts are skipped */
+  public static CompositeTagValue of(CharSequence... parts) {
+    return new CompositeTagValue(null == parts ? EMPTY : parts);
+  }
+
+  private final CharSequence[] parts;
+  private String string;
+  private int encodedLength = -1;
+
+  private CompositeTagValue(CharSequence[] parts) {
+    this.parts = parts;
+  }
+
+  public int partCount() {
+    return parts.length;
+  }
+
+  /** @return the part at the given index, which may be {@code null} */
+  public CharSequence part(int index) {
+    return parts[index];
+  }
+
+  /** @return the length of the UTF8 encoding of the value, computed without encoding it */
+  public int encodedLength() {
+    // benign and intentional race condition
+    int length = encodedLength;
+    if (length < 0) {
+      length = 0;
+      for (CharSequence part : parts) {
+        if (part instanceof UTF8BytesString) {
+          length += ((UTF8BytesString) part).encodedLength();
+        } else if (null != part) {
+          length += encodedLength(part);
+        }
+      }
+      encodedLength = length;
+    }
+    return length;
+  }
+
+  /**
+   * @return the length of the UTF8 encoding of the sequence, where unpaired surrogates count as the
+   *     single byte replacement {@code String.getBytes} would emit
+   */
+  public static int encodedLength(CharSequence sequence) {
+    int length = sequence.length();
+    int encodedLength = length;
+    for (int i = 0; i < length; ++i) {
+      char c = sequence.charAt(i);
+      if (c >= 0x80) {
+        if (c < 0x800) {
+          encodedLength += 1;
+        } else if (Character.isHighSurrogate(c)
+            && i + 1 < length
+            && Character.isLowSurrogate(sequence.charAt(i + 1))) {
+          // four bytes for the two chars of the pair
+          encodedLength += 2;
+          ++i;
+        } else if (!Character.isSurrogate(c)) {
+          encodedLength += 2;
+        }
+      }
+    }
+    return encodedLength;
+  }
+
+  @Override
+  public String toString() {
+    // benign and intentional race condition
+    String s = string;
+    if (null == s) {
+      StringBuilder sb = new StringBuilder(length());
+      for (CharSequence part : parts) {
+        if (null != part) {
+          sb.append(part);
+        }
+      }
+      s = sb.toString();
+      string = s;
+    }
+    return s;
+  }
+
+  @Override
+  public int length() {
+    String s = string;
+    if (null != s) {
+      return s.length();
+    }
+    int length = 0;
+    for (CharSequence part : parts) {
+      if (null != part) {
+        length += part.length();
+      }
+    }
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof CompositeTagValue)) return false;
+    return toString().equals(o.toString());
+  }
+
+  @Override
+  public int hashCode() {
+    return toString().hashCode();
+  }
+}
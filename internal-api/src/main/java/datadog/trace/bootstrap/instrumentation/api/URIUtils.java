@@ -112,4 +112,33 @@ public class URIUtils {
     }
     return urlNoParams.toString();
   }
+
+  /**
+   * Same as {@link #buildURL(String, String, int, String)} but only keeps the parts of the URL,
+   * which are concatenated if the value is read as a {@code String} or written straight to the
+   * wire when the span is serialized.
+   */
+  public static CompositeTagValue lazyURL(String scheme, String host, int port, String path) {
+    String schemeSeparator = null;
+    String portSeparator = null;
+    String portString = null;
+    if (scheme != null) {
+      schemeSeparator = "://";
+    }
+    if (host != null
+        && port > 0
+        && !(port == 80 && "http".equals(scheme) || port == 443 && "https".equals(scheme))) {
+      portSeparator = ":";
+      portString = Integer.toString(port);
+    }
+    boolean hasPrefix =
+        scheme != null || (host != null && (!host.isEmpty() || portSeparator != null));
+    if (null == path || path.isEmpty()) {
+      path = "/";
+    } else if (path.charAt(0) != '/' && hasPrefix) {
+      return CompositeTagValue.of(
+          scheme, schemeSeparator, host, portSeparator, portString, "/", path);
+    }
+    return CompositeTagValue.of(scheme, schemeSeparator, host, portSeparator, portString, path);
+  }
 }
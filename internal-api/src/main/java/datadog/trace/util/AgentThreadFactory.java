@@ -16,6 +16,7 @@ public final class AgentThreadFactory implements ThreadFactory {
     TRACE_STARTUP("dd-agent-startup-datadog-tracer"),
     TRACE_MONITOR("dd-trace-monitor"),
     TRACE_PROCESSOR("dd-trace-processor"),
+    TRACE_POST_PROCESSOR("dd-trace-post-processor"),
     TRACE_CASSANDRA_ASYNC_SESSION("dd-cassandra-session-executor"),
 
     METRICS_AGGREGATOR("dd-metrics-aggregator"),
@@ -36,7 +37,13 @@ public final class AgentThreadFactory implements ThreadFactory {
 
     PROCESS_SUPERVISOR("dd-process-supervisor"),
 
-    DATA_STREAMS_MONITORING("dd-data-streams-monitor");
+    DATA_STREAMS_MONITORING("dd-data-streams-monitor"),
+
+    DEBUGGER_SNAPSHOT_SERIALIZER("dd-debugger-snapshot-serializer"),
+
+    CI_VISIBILITY_INTAKE_UPLOADER("dd-civisibility-intake-uploader"),
+
+    LAMBDA_EXTENSION_NOTIFIER("dd-lambda-extension-notifier");
 
     public final String threadName;
 
@@ -2013,6 +2013,21 @@ class ConfigTest extends DDSpecification {
     config.getMetricsIgnoredResources() == ["GET /healthcheck", "SELECT foo from bar"].toSet()
   }
 
+  def "settings parsed on first read keep their value from the creation of the config"() {
+    setup:
+    System.setProperty(PREFIX + DEBUGGER_UPLOAD_TIMEOUT, "10")
+    environmentVariables.set("DD_DEBUGGER_POLL_INTERVAL", "20")
+    def config = new Config()
+
+    when:
+    System.setProperty(PREFIX + DEBUGGER_UPLOAD_TIMEOUT, "30")
+    environmentVariables.set("DD_DEBUGGER_POLL_INTERVAL", "40")
+
+    then:
+    config.debuggerUploadTimeout == 10
+    config.debuggerPollInterval == 20
+  }
+
   static class ClassThrowsExceptionForValueOfMethod {
     static ClassThrowsExceptionForValueOfMethod valueOf(String ignored) {
       throw new Throwable()
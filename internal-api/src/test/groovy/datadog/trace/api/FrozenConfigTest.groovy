@@ -0,0 +1,75 @@
+package datadog.trace.api
+
+import datadog.trace.test.util.DDSpecification
+
+import static datadog.trace.api.config.TraceInstrumentationConfig.DB_CLIENT_HOST_SPLIT_BY_INSTANCE
+import static datadog.trace.api.config.TraceInstrumentationConfig.HTTP_CLIENT_HOST_SPLIT_BY_DOMAIN
+import static datadog.trace.api.config.TraceInstrumentationConfig.HTTP_SERVER_ROUTE_BASED_NAMING
+import static datadog.trace.api.config.TraceInstrumentationConfig.HTTP_SERVER_TAG_QUERY_STRING
+
+class FrozenConfigTest extends DDSpecification {
+
+  def "matches the global config"() {
+    expect:
+    FrozenConfig.isHttpClientSplitByDomain() == Config.get().isHttpClientSplitByDomain()
+    FrozenConfig.isHttpClientTagQueryString() == Config.get().isHttpClientTagQueryString()
+    FrozenConfig.isHttpServerTagQueryString() == Config.get().isHttpServerTagQueryString()
+    FrozenConfig.isHttpServerRawResource() == Config.get().isHttpServerRawResource()
+    FrozenConfig.isHttpServerRawQueryString() == Config.get().isHttpServerRawQueryString()
+    FrozenConfig.isHttpServerRouteBasedNaming() == Config.get().isHttpServerRouteBasedNaming()
+    FrozenConfig.isDbClientSplitByInstance() == Config.get().isDbClientSplitByInstance()
+    FrozenConfig.isDbClientSplitByInstanceTypeSuffix() == Config.get().isDbClientSplitByInstanceTypeSuffix()
+  }
+
+  def "starts out with the defaults before the global config is created"() {
+    setup:
+    // a fresh copy of the class, which no config has been published to
+    def location = FrozenConfig.protectionDomain.codeSource.location
+    def loader = new URLClassLoader([location] as URL[], (ClassLoader) null)
+    def frozenConfig = loader.loadClass(FrozenConfig.name)
+
+    expect:
+    frozenConfig.isHttpClientSplitByDomain() == ConfigDefaults.DEFAULT_HTTP_CLIENT_SPLIT_BY_DOMAIN
+    frozenConfig.isHttpClientTagQueryString() == ConfigDefaults.DEFAULT_HTTP_CLIENT_TAG_QUERY_STRING
+    frozenConfig.isHttpServerTagQueryString() == ConfigDefaults.DEFAULT_HTTP_SERVER_TAG_QUERY_STRING
+    frozenConfig.isHttpServerRawResource() == ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_RESOURCE
+    frozenConfig.isHttpServerRawQueryString() == ConfigDefaults.DEFAULT_HTTP_SERVER_RAW_QUERY_STRING
+    frozenConfig.isHttpServerRouteBasedNaming()
+    frozenConfig.isDbClientSplitByInstance() == ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE
+    frozenConfig.isDbClientSplitByInstanceTypeSuffix() == ConfigDefaults.DEFAULT_DB_CLIENT_HOST_SPLIT_BY_INSTANCE_TYPE_SUFFIX
+
+    cleanup:
+    loader?.close()
+  }
+
+  def "follows the global config when it is rebuilt"() {
+    when:
+    injectSysConfig(HTTP_CLIENT_HOST_SPLIT_BY_DOMAIN, "$value")
+    injectSysConfig(HTTP_SERVER_TAG_QUERY_STRING, "$value")
+    injectSysConfig(HTTP_SERVER_ROUTE_BASED_NAMING, "${!value}")
+    injectSysConfig(DB_CLIENT_HOST_SPLIT_BY_INSTANCE, "$value")
+
+    then:
+    FrozenConfig.isHttpClientSplitByDomain() == value
+    FrozenConfig.isHttpServerTagQueryString() == value
+    FrozenConfig.isHttpServerRouteBasedNaming() == !value
+    FrozenConfig.isDbClientSplitByInstance() == value
+
+    where:
+    value << [true, false, true]
+  }
+
+  def "is not changed by configs created from properties"() {
+    setup:
+    injectSysConfig(HTTP_CLIENT_HOST_SPLIT_BY_DOMAIN, "false")
+    def properties = new Properties()
+    properties.setProperty(HTTP_CLIENT_HOST_SPLIT_BY_DOMAIN, "true")
+
+    when:
+    def config = Config.get(properties)
+
+    then:
+    config.isHttpClientSplitByDomain()
+    !FrozenConfig.isHttpClientSplitByDomain()
+  }
+}
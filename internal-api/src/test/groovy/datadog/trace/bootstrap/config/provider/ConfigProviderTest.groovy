@@ -3,6 +3,9 @@ package datadog.trace.bootstrap.config.provider
 import datadog.trace.test.util.DDSpecification
 import spock.lang.Shared
 
+import static datadog.trace.api.config.GeneralConfig.ENV
+import static datadog.trace.api.config.GeneralConfig.SERVICE_NAME
+import static datadog.trace.api.config.GeneralConfig.VERSION
 import static datadog.trace.api.config.TracerConfig.TRACE_HTTP_SERVER_PATH_RESOURCE_NAME_MAPPING
 
 class ConfigProviderTest extends DDSpecification {
@@ -22,4 +25,39 @@ class ConfigProviderTest extends DDSpecification {
     config["/a"] == "prop"
     config["/b"] == "env"
   }
+
+  def "snapshot reads the sources as they were when it was taken"() {
+    setup:
+    injectEnvConfig("TRACE_HTTP_SERVER_PATH_RESOURCE_NAME_MAPPING", "/a:env")
+    injectSysConfig(SERVICE_NAME, "prop")
+    def snapshot = configProvider.snapshot()
+
+    when:
+    injectEnvConfig("TRACE_HTTP_SERVER_PATH_RESOURCE_NAME_MAPPING", "/b:env")
+    injectSysConfig(SERVICE_NAME, "changed")
+    injectSysConfig(ENV, "added")
+
+    then:
+    snapshot.getOrderedMap(TRACE_HTTP_SERVER_PATH_RESOURCE_NAME_MAPPING) == ["/a": "env"]
+    snapshot.getString(SERVICE_NAME) == "prop"
+    snapshot.getString(ENV) == null
+    configProvider.getString(SERVICE_NAME) == "changed"
+    configProvider.getString(ENV) == "added"
+  }
+
+  def "snapshot keeps the precedence of the sources"() {
+    setup:
+    injectEnvConfig("SERVICE_NAME", "env")
+    injectEnvConfig("ENV", "env")
+    injectSysConfig(SERVICE_NAME, "prop")
+
+    when:
+    def snapshot = configProvider.snapshot()
+
+    then:
+    snapshot.getString(SERVICE_NAME) == "prop"
+    snapshot.getString(ENV) == "env"
+    snapshot.getString(VERSION, "default") == "default"
+    snapshot.snapshot().getString(SERVICE_NAME) == "prop"
+  }
 }
@@ -0,0 +1,33 @@
+package datadog.trace.bootstrap.instrumentation.api
+
+import datadog.trace.test.util.DDSpecification
+
+import java.nio.charset.StandardCharsets
+
+class CompositeTagValueTest extends DDSpecification {
+
+  def "concatenates the parts skipping nulls"() {
+    setup:
+    def value = CompositeTagValue.of("http", "://", null, UTF8BytesString.create("host"), "/path")
+
+    expect:
+    value.toString() == "http://host/path"
+    value.length() == 16
+    value.charAt(7) == 'h' as char
+    value.subSequence(7, 11) == "host"
+    value == CompositeTagValue.of("http://", "host/path")
+    value.hashCode() == "http://host/path".hashCode()
+  }
+
+  def "encoded length of \"#part\" matches the UTF8 encoding"() {
+    setup:
+    def value = CompositeTagValue.of("/", part, UTF8BytesString.create(part))
+
+    expect:
+    CompositeTagValue.encodedLength(part) == part.getBytes(StandardCharsets.UTF_8).length
+    value.encodedLength() == value.toString().getBytes(StandardCharsets.UTF_8).length
+
+    where:
+    part << ["", "ascii", "café", "€100", "😀", "lone\ud83d", "\ude00lone"]
+  }
+}
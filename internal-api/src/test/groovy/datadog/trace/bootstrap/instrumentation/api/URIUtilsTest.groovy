@@ -11,9 +11,13 @@ class URIUtilsTest extends DDSpecification {
     setup:
     def uri = new URI(input)
     def url = URIUtils.buildURL(uri.scheme, uri.host, uri.port, uri.path)
+    def lazyUrl = URIUtils.lazyURL(uri.scheme, uri.host, uri.port, uri.path)
 
     expect:
     url == expected
+    lazyUrl.toString() == expected
+    lazyUrl.length() == expected.length()
+    lazyUrl.encodedLength() == expected.getBytes("UTF-8").length
 
     where:
     input                         | expected
@@ -30,9 +34,11 @@ class URIUtilsTest extends DDSpecification {
   def "should build urls from corner cases \"#scheme\" \"#host\" #port \"#path\""() {
     setup:
     def url = URIUtils.buildURL(scheme, host, port, path)
+    def lazyUrl = URIUtils.lazyURL(scheme, host, port, path)
 
     expect:
     url == expected
+    lazyUrl.toString() == expected
 
     where:
     scheme | host | port | path          | expected
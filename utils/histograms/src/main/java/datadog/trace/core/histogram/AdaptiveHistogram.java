@@ -0,0 +1,128 @@
+package datadog.trace.core.histogram;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Keeps the first few values of an interval as they are and only switches to a {@link
+ * DDSketchHistogram} past {@link #DENSE_THRESHOLD} values, so that histograms which only see a few
+ * values per interval don't each hold on to a dense store. While sparse, quantiles are exact and
+ * serialization replays the values into a scratch sketch, so the wire format is the same as if the
+ * values had been sketched to begin with. Not thread-safe, like the sketch it wraps.
+ */
+public final class AdaptiveHistogram implements Histogram {
+
+  static final int DENSE_THRESHOLD = 64;
+  private static final int INITIAL_CAPACITY = 8;
+
+  private static final ThreadLocal<DDSketchHistogram> SCRATCH =
+      new ThreadLocal<DDSketchHistogram>() {
+        @Override
+        protected DDSketchHistogram initialValue() {
+          return new DDSketchHistogram();
+        }
+      };
+
+  private double[] values;
+  private int count;
+  private boolean sorted = true;
+  private DDSketchHistogram sketch;
+
+  @Override
+  public void accept(long value) {
+    accept((double) value);
+  }
+
+  @Override
+  public void accept(double value) {
+    if (null != sketch) {
+      sketch.accept(value);
+      ++count;
+      return;
+    }
+    if (count == DENSE_THRESHOLD) {
+      sketch = new DDSketchHistogram();
+      replay(sketch);
+      sketch.accept(value);
+      values = null;
+      ++count;
+      return;
+    }
+    if (null == values) {
+      values = new double[INITIAL_CAPACITY];
+    } else if (count == values.length) {
+      values = Arrays.copyOf(values, Math.min(count << 1, DENSE_THRESHOLD));
+    }
+    if (count > 0 && value < values[count - 1]) {
+      sorted = false;
+    }
+    values[count++] = value;
+  }
+
+  @Override
+  public double valueAtQuantile(double quantile) {
+    if (null != sketch) {
+      return sketch.valueAtQuantile(quantile);
+    }
+    if (count == 0) {
+      return 0D;
+    }
+    sort();
+    // same rank as the sketch, without the relative error
+    return values[(int) (quantile * (count - 1))];
+  }
+
+  @Override
+  public double max() {
+    if (null != sketch) {
+      return sketch.max();
+    }
+    if (count == 0) {
+      return 0D;
+    }
+    sort();
+    return values[count - 1];
+  }
+
+  @Override
+  public void clear() {
+    if (null != sketch) {
+      if (count > DENSE_THRESHOLD << 1) {
+        sketch.clear();
+      } else {
+        // the last interval only just crossed the threshold, start sparse again
+        sketch = null;
+      }
+    }
+    count = 0;
+    sorted = true;
+  }
+
+  @Override
+  public ByteBuffer serialize() {
+    if (null != sketch) {
+      return sketch.serialize();
+    }
+    DDSketchHistogram scratch = SCRATCH.get();
+    scratch.clear();
+    replay(scratch);
+    return scratch.serialize();
+  }
+
+  boolean isDense() {
+    return null != sketch;
+  }
+
+  private void replay(DDSketchHistogram target) {
+    for (int i = 0; i < count; ++i) {
+      target.accept(values[i]);
+    }
+  }
+
+  private void sort() {
+    if (!sorted) {
+      Arrays.sort(values, 0, count);
+      sorted = true;
+    }
+  }
+}
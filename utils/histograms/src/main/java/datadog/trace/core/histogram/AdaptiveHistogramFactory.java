@@ -0,0 +1,8 @@
+package datadog.trace.core.histogram;
+
+public class AdaptiveHistogramFactory implements HistogramFactory {
+  @Override
+  public Histogram newHistogram() {
+    return new AdaptiveHistogram();
+  }
+}
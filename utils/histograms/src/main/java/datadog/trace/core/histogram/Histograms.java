@@ -24,7 +24,7 @@ public final class Histograms {
     if (loadStub) {
       return load("datadog.trace.core.histogram.StubHistogram");
     }
-    return load("datadog.trace.core.histogram.DDSketchHistogramFactory");
+    return load("datadog.trace.core.histogram.AdaptiveHistogramFactory");
   }
 
   /**
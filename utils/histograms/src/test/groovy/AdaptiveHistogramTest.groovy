@@ -0,0 +1,103 @@
+import com.datadoghq.sketch.ddsketch.DDSketchProtoBinding
+import com.datadoghq.sketch.ddsketch.proto.DDSketch
+import com.datadoghq.sketch.ddsketch.store.CollapsingLowestDenseStore
+import datadog.trace.core.histogram.AdaptiveHistogram
+import datadog.trace.core.histogram.DDSketchHistogram
+import datadog.trace.test.util.DDSpecification
+
+import java.nio.ByteBuffer
+
+class AdaptiveHistogramTest extends DDSpecification {
+
+  def "serialized form matches the sketch with #size values"() {
+    setup:
+    AdaptiveHistogram adaptive = new AdaptiveHistogram()
+    DDSketchHistogram sketch = new DDSketchHistogram()
+    SplittableRandom random = new SplittableRandom(size)
+
+    when:
+    for (int i = 0; i < size; ++i) {
+      long value = 1000 + random.nextLong(1000000)
+      adaptive.accept(value)
+      sketch.accept(value)
+    }
+    // sorting the sparse values must not change the outcome
+    adaptive.valueAtQuantile(0.5)
+    def fromAdaptive = decode(adaptive.serialize())
+    def fromSketch = decode(sketch.serialize())
+
+    then:
+    adaptive.isDense() == dense
+    fromAdaptive.getCount() == fromSketch.getCount()
+    fromAdaptive.getMaxValue() == fromSketch.getMaxValue()
+    fromAdaptive.getMinValue() == fromSketch.getMinValue()
+    for (double quantile : [0.5D, 0.75D, 0.9D, 0.95D, 0.99D]) {
+      assert fromAdaptive.getValueAtQuantile(quantile) == fromSketch.getValueAtQuantile(quantile)
+    }
+
+    where:
+    size | dense
+    1    | false
+    10   | false
+    64   | false
+    65   | true
+    1000 | true
+  }
+
+  def "quantiles are exact while sparse"() {
+    setup:
+    AdaptiveHistogram histogram = new AdaptiveHistogram()
+
+    when:
+    for (int i = 50; i > 0; --i) {
+      histogram.accept(i * 10)
+    }
+
+    then:
+    !histogram.isDense()
+    histogram.valueAtQuantile(0) == 10
+    histogram.valueAtQuantile(0.5) == 250
+    histogram.valueAtQuantile(1) == 500
+    histogram.max() == 500
+  }
+
+  def "dense store is released after a quiet interval"() {
+    setup:
+    AdaptiveHistogram histogram = new AdaptiveHistogram()
+
+    when: "a busy interval"
+    for (int i = 0; i < 1000; ++i) {
+      histogram.accept(i)
+    }
+    histogram.clear()
+
+    then: "the dense store is kept"
+    histogram.isDense()
+    histogram.max() == 0
+    histogram.valueAtQuantile(0.99) == 0
+
+    when: "a quiet interval"
+    for (int i = 0; i < 100; ++i) {
+      histogram.accept(i)
+    }
+    histogram.clear()
+
+    then: "the dense store is dropped"
+    !histogram.isDense()
+    histogram.max() == 0
+
+    when:
+    histogram.accept(42)
+
+    then:
+    !histogram.isDense()
+    histogram.max() == 42
+    decode(histogram.serialize()).getCount() == 1
+  }
+
+  static com.datadoghq.sketch.ddsketch.DDSketch decode(ByteBuffer buffer) {
+    return DDSketchProtoBinding.fromProto({
+      new CollapsingLowestDenseStore(1024)
+    }, DDSketch.parseFrom(buffer.array()))
+  }
+}
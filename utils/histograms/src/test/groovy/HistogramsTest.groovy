@@ -1,5 +1,5 @@
 import com.datadoghq.sketch.ddsketch.proto.DDSketch
-import datadog.trace.core.histogram.DDSketchHistogram
+import datadog.trace.core.histogram.AdaptiveHistogram
 import datadog.trace.core.histogram.Histogram
 import datadog.trace.core.histogram.HistogramFactory
 import datadog.trace.core.histogram.Histograms
@@ -10,9 +10,9 @@ import java.nio.ByteBuffer
 
 class HistogramsTest extends DDSpecification {
 
-  def "histogram factory creates DDSketch"() {
+  def "histogram factory creates adaptive histogram"() {
     expect:
-    Histograms.newHistogramFactory().newHistogram() instanceof DDSketchHistogram
+    Histograms.newHistogramFactory().newHistogram() instanceof AdaptiveHistogram
   }
 
   def "test serialize"() {
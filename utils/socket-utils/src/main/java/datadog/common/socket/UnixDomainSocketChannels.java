@@ -0,0 +1,31 @@
+package datadog.common.socket;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.ByteChannel;
+import jnr.unixsocket.UnixSocketAddress;
+import jnr.unixsocket.UnixSocketChannel;
+
+/**
+ * Plain byte streams over UNIX domain sockets, for local transports which write their own framing
+ * instead of tunneling HTTP through a {@linkplain TunnelingUnixSocket}.
+ */
+public final class UnixDomainSocketChannels {
+
+  /**
+   * Connects in blocking mode, then switches the channel to non-blocking mode: writes return 0
+   * instead of waiting when the peer doesn't keep up.
+   */
+  public static ByteChannel connectNonBlocking(final File path) throws IOException {
+    UnixSocketChannel channel = UnixSocketChannel.open(new UnixSocketAddress(path));
+    try {
+      channel.configureBlocking(false);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel;
+  }
+
+  private UnixDomainSocketChannels() {}
+}